@@ -5,17 +5,26 @@ import net.knightsandkings.knk.core.domain.enchantment.EnchantmentRegistry;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
-import java.util.regex.Pattern;
 import java.util.concurrent.CompletableFuture;
 
 public class LocalEnchantmentRepositoryImpl implements EnchantmentRepository {
     private static final String PREFIX = "§7";
-    private static final Pattern COLOR_PATTERN = Pattern.compile("(?i)§[0-9A-FK-OR]");
+    // Distinct lore lists seen on live items; bounded so renamed/edited items can't grow it forever
+    private static final int PARSE_CACHE_SIZE = 1024;
+
+    // Lore list (content-hashed) -> parsed enchantments, least recently used evicted first
+    private final Map<List<String>, CachedParse> parseCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<String>, CachedParse> eldest) {
+                    return size() > PARSE_CACHE_SIZE;
+                }
+            });
 
     @Override
     public CompletableFuture<Map<String, Integer>> getEnchantments(List<String> loreLines) {
@@ -80,15 +89,39 @@ public class LocalEnchantmentRepositoryImpl implements EnchantmentRepository {
         return CompletableFuture.completedFuture(updatedLore);
     }
 
+    /**
+     * Drop cached lore parses, e.g. after enchantment definitions change.
+     */
+    public void clearCache() {
+        parseCache.clear();
+    }
+
+    /**
+     * @return unmodifiable id -> level map, served from the parse cache when the same lore was seen before
+     */
     private Map<String, Integer> parseEnchantments(List<String> loreLines) {
+        if (loreLines == null || loreLines.isEmpty()) {
+            return Map.of();
+        }
+
+        // Entries parsed against older enchantment definitions are re-parsed after a registry reload
+        long registryVersion = EnchantmentRegistry.getInstance().version();
+        CachedParse cached = parseCache.get(loreLines);
+        if (cached != null && cached.registryVersion() == registryVersion) {
+            return cached.enchantments();
+        }
+
+        List<String> key = Collections.unmodifiableList(copyLore(loreLines));
         Map<String, Integer> result = new LinkedHashMap<>();
-        for (String line : copyLore(loreLines)) {
+        for (String line : key) {
             ParsedLoreLine parsed = parseLoreLine(line);
             if (parsed != null) {
                 result.put(parsed.enchantmentId(), parsed.level());
             }
         }
-        return result;
+        Map<String, Integer> parsed = result.isEmpty() ? Map.of() : Collections.unmodifiableMap(result);
+        parseCache.put(key, new CachedParse(registryVersion, parsed));
+        return parsed;
     }
 
     private ParsedLoreLine parseLoreLine(String loreLine) {
@@ -96,49 +129,14 @@ public class LocalEnchantmentRepositoryImpl implements EnchantmentRepository {
             return null;
         }
 
-        String plain = stripColor(loreLine).trim();
-        int lastSpace = plain.lastIndexOf(' ');
-        if (lastSpace <= 0 || lastSpace >= plain.length() - 1) {
-            return null;
-        }
-
-        String namePart = plain.substring(0, lastSpace).trim();
-        String levelPart = plain.substring(lastSpace + 1).trim();
-        int level = stringToLevel(levelPart);
-        if (level < 1) {
-            return null;
-        }
-
-        Optional<Enchantment> enchantment = EnchantmentRegistry.getInstance()
-                .getAll()
-                .stream()
-                .filter(e -> e.displayName().equalsIgnoreCase(namePart))
-                .findFirst();
-
-        if (enchantment.isEmpty()) {
-            return null;
-        }
-
-        return new ParsedLoreLine(enchantment.get().id(), level);
+        EnchantmentRegistry.LoreMatch match = EnchantmentRegistry.getInstance().matchLore(loreLine);
+        return match == null ? null : new ParsedLoreLine(match.enchantment().id(), match.level());
     }
 
     private String formatLore(String displayName, int level) {
         return PREFIX + displayName + " " + levelToString(level);
     }
 
-    private String stripColor(String value) {
-        return COLOR_PATTERN.matcher(value).replaceAll("");
-    }
-
-    private int stringToLevel(String value) {
-        return switch (value.toUpperCase(Locale.ROOT)) {
-            case "I" -> 1;
-            case "II" -> 2;
-            case "III" -> 3;
-            default -> -1;
-        };
-    }
-
     private String levelToString(int value) {
         return switch (value) {
             case 1 -> "I";
@@ -157,4 +155,6 @@ public class LocalEnchantmentRepositoryImpl implements EnchantmentRepository {
     }
 
     private record ParsedLoreLine(String enchantmentId, int level) {}
+
+    private record CachedParse(long registryVersion, Map<String, Integer> enchantments) {}
 }
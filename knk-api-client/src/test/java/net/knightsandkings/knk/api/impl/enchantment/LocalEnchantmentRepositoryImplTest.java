@@ -2,11 +2,13 @@ package net.knightsandkings.knk.api.impl.enchantment;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class LocalEnchantmentRepositoryImplTest {
@@ -50,4 +52,18 @@ class LocalEnchantmentRepositoryImplTest {
         assertTrue(repository.hasEnchantment(lore, "health_boost").join());
         assertFalse(repository.hasEnchantment(lore, "poison").join());
     }
+
+    @Test
+    void repeatedLoreIsServedFromCacheAndUnaffectedByLaterEdits() {
+        List<String> lore = new ArrayList<>(List.of("§7Poison II", "§l§7Wither I"));
+
+        Map<String, Integer> first = repository.getEnchantments(lore).join();
+        Map<String, Integer> second = repository.getEnchantments(new ArrayList<>(lore)).join();
+        lore.set(0, "§7Poison III");
+        Map<String, Integer> edited = repository.getEnchantments(lore).join();
+
+        assertSame(first, second);
+        assertEquals(Map.of("poison", 2, "wither", 1), first);
+        assertEquals(3, edited.get("poison"));
+    }
 }
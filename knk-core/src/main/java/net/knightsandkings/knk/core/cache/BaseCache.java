@@ -36,6 +36,11 @@ public abstract class BaseCache<K, V> {
         return primary.getStale(key);
     }
 
+    /** Retrieve a value by key even if expired, without recording metrics. */
+    public Optional<V> peek(K key) {
+        return primary.peek(key);
+    }
+
     /** Store a single key/value pair. */
     public void put(K key, V value) {
         primary.put(key, value);
@@ -51,6 +56,11 @@ public abstract class BaseCache<K, V> {
         primary.invalidate(key);
     }
 
+    /** Remove expired entries; returns how many were removed. */
+    public int evictExpired() {
+        return primary.evictExpired();
+    }
+
     /** Clear all cached entries. */
     public void clear() {
         primary.clear();
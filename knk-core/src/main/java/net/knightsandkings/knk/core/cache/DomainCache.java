@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -29,6 +30,7 @@ public class DomainCache<K, V> {
 
     private final Duration defaultTtl;
     private final Map<K, CachedEntry<V>> entries = new ConcurrentHashMap<>();
+    private final Set<K> pinned = ConcurrentHashMap.newKeySet();
     private final CacheMetrics metrics = new CacheMetrics();
 
     /**
@@ -46,7 +48,7 @@ public class DomainCache<K, V> {
      * Returns empty if:
      * <ul>
      *   <li>The key has never been cached</li>
-     *   <li>The cached entry has expired (based on TTL)</li>
+     *   <li>The cached entry has expired (based on TTL) and is not pinned</li>
      * </ul>
      * <p>
      * This method does NOT trigger background refresh. The caller is responsible
@@ -66,7 +68,7 @@ public class DomainCache<K, V> {
             return Optional.empty();
         }
 
-        if (entry.isExpired(defaultTtl)) {
+        if (entry.isExpired(defaultTtl) && !pinned.contains(key)) {
             metrics.recordStaleHit();
             // Treat expired entries as misses (caller should refetch)
             return Optional.empty();
@@ -163,6 +165,90 @@ public class DomainCache<K, V> {
         }
     }
 
+    /**
+     * Exempts a key from expiry until {@link #unpin(Object)} is called.
+     * <p>
+     * Used for entries that must stay resident while in use (e.g. online players),
+     * regardless of how long ago they were fetched.
+     *
+     * @param key The cache key to pin
+     */
+    public void pin(K key) {
+        if (key != null) {
+            pinned.add(key);
+        }
+    }
+
+    /**
+     * Makes a pinned key subject to expiry again.
+     * <p>
+     * The entry's TTL restarts from now, so it stays cached for a full TTL after unpinning.
+     *
+     * @param key The cache key to unpin
+     */
+    public void unpin(K key) {
+        if (key != null && pinned.remove(key)) {
+            entries.computeIfPresent(key, (k, entry) -> new CachedEntry<>(entry.value, Instant.now()));
+        }
+    }
+
+    /**
+     * Returns whether a key is pinned.
+     *
+     * @param key The cache key
+     * @return true if the key is exempt from expiry
+     */
+    public boolean isPinned(K key) {
+        return key != null && pinned.contains(key);
+    }
+
+    /**
+     * Returns the cached value, expired or not, without recording metrics.
+     * <p>
+     * For display refreshes that read the same keys over and over and would otherwise
+     * swamp the hit/miss counters.
+     *
+     * @param key The cache key
+     * @return Optional containing the cached value (even if stale), empty if never cached
+     */
+    public Optional<V> peek(K key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        CachedEntry<V> entry = entries.get(key);
+        return entry != null ? Optional.of(entry.value) : Optional.empty();
+    }
+
+    /**
+     * Returns whether an entry exists for the key, expired or not. Does not record metrics.
+     *
+     * @param key The cache key
+     * @return true if the key has a cached entry
+     */
+    public boolean containsKey(K key) {
+        return key != null && entries.containsKey(key);
+    }
+
+    /**
+     * Removes expired, unpinned entries.
+     * <p>
+     * Expired entries are otherwise kept for stale reads; call this periodically
+     * to bound memory for caches keyed by an open-ended set (e.g. players).
+     *
+     * @return Number of entries removed
+     */
+    public int evictExpired() {
+        int removed = 0;
+        for (Map.Entry<K, CachedEntry<V>> e : entries.entrySet()) {
+            if (!pinned.contains(e.getKey()) && e.getValue().isExpired(defaultTtl)
+                    && entries.remove(e.getKey(), e.getValue())) {
+                removed++;
+            }
+        }
+        metrics.recordClear(removed);
+        return removed;
+    }
+
     /**
      * Clears all entries from the cache.
      * <p>
@@ -1,31 +1,90 @@
 package net.knightsandkings.knk.core.cache;
 
 import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import net.knightsandkings.knk.core.domain.users.UserSummary;
 
 /**
- * Type-safe cache for User entities keyed by Minecraft UUID.
+ * Session store for User entities keyed by Minecraft UUID.
  * <p>
- * Unlike region-based caches, this cache uses UUID as the primary key
- * to support player-centric lookups without secondary indices.
+ * This is the single user cache shared by the data access layer and the account
+ * manager. Online players are pinned so their entries never expire; after they quit
+ * the entry lives for one more TTL and is then removed by {@link #evictExpired()}.
+ * A case-insensitive username index serves username lookups without the API.
  */
 public class UserCache extends BaseCache<UUID, UserSummary> {
 
+    private final ConcurrentHashMap<String, UUID> uuidsByUsername = new ConcurrentHashMap<>();
+    private volatile UnaryOperator<UserSummary> readOverlay = UnaryOperator.identity();
+
     public UserCache(Duration ttl) {
         super(ttl);
     }
 
+    /**
+     * Install a transformation applied to every read, e.g. unflushed balance changes on
+     * top of the stored server values. Writes always store the value as given.
+     *
+     * @param overlay The read overlay, or null for none
+     */
+    public void setReadOverlay(UnaryOperator<UserSummary> overlay) {
+        this.readOverlay = overlay != null ? overlay : UnaryOperator.identity();
+    }
+
+    @Override
+    public Optional<UserSummary> get(UUID uuid) {
+        return super.get(uuid).map(readOverlay);
+    }
+
+    @Override
+    public Optional<UserSummary> getStale(UUID uuid) {
+        return super.getStale(uuid).map(readOverlay);
+    }
+
+    @Override
+    public Optional<UserSummary> peek(UUID uuid) {
+        return super.peek(uuid).map(readOverlay);
+    }
+
     /**
      * Retrieves a user by their Minecraft UUID.
      *
      * @param uuid The player's UUID
      * @return Optional containing the user if cached and not expired
      */
-    public java.util.Optional<UserSummary> getByUuid(UUID uuid) {
+    public Optional<UserSummary> getByUuid(UUID uuid) {
         return get(uuid);
     }
 
+    /**
+     * Retrieves a user by username (case-insensitive).
+     *
+     * @param username The player's name
+     * @return Optional containing the user if cached under that name and not expired
+     */
+    public Optional<UserSummary> getByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String key = usernameKey(username);
+        UUID uuid = uuidsByUsername.get(key);
+        if (uuid == null) {
+            return Optional.empty();
+        }
+        Optional<UserSummary> user = get(uuid);
+        if (user.isPresent() && !username.equalsIgnoreCase(user.get().username())) {
+            // Renamed since indexed
+            uuidsByUsername.remove(key, uuid);
+            return Optional.empty();
+        }
+        return user;
+    }
+
     /**
      * Stores a user in the cache indexed by UUID.
      *
@@ -37,4 +96,63 @@ public class UserCache extends BaseCache<UUID, UserSummary> {
         }
         put(user.uuid(), user);
     }
+
+    @Override
+    public void put(UUID uuid, UserSummary user) {
+        super.put(uuid, user);
+        if (uuid != null && user != null && user.username() != null) {
+            uuidsByUsername.put(usernameKey(user.username()), uuid);
+        }
+    }
+
+    @Override
+    public void putAll(Map<UUID, UserSummary> users) {
+        if (users == null) {
+            return;
+        }
+        users.forEach(this::put);
+    }
+
+    /**
+     * Keep the user's entry from expiring while they are online.
+     *
+     * @param uuid The player's UUID
+     */
+    public void pin(UUID uuid) {
+        primary.pin(uuid);
+    }
+
+    /**
+     * Let the user's entry expire one TTL from now (called on quit).
+     *
+     * @param uuid The player's UUID
+     */
+    public void unpin(UUID uuid) {
+        primary.unpin(uuid);
+    }
+
+    @Override
+    public void invalidate(UUID uuid) {
+        super.invalidate(uuid);
+        uuidsByUsername.values().remove(uuid);
+    }
+
+    @Override
+    public int evictExpired() {
+        int removed = super.evictExpired();
+        if (removed > 0) {
+            uuidsByUsername.values().removeIf(uuid -> !primary.containsKey(uuid));
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        uuidsByUsername.clear();
+    }
+
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,280 @@
+package net.knightsandkings.knk.core.cooldown;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence for a {@link CooldownStore}.
+ * <p>
+ * The store stays the only thing the hot path touches; it reports which players changed and
+ * {@link #flush()} (called from an async timer) appends their current values to a compact
+ * binary journal. Server ticks restart at every boot, so values are written as wall-clock
+ * epoch milliseconds and converted back to ticks when read.
+ * <p>
+ * On startup {@link #load()} replays the journal into a pending map and rewrites it compacted;
+ * a player's entries are only moved into the store when they join ({@link #restore(UUID)}).
+ * {@link #compact()} on shutdown writes the full state in one atomic replace. A torn record at
+ * the end of the file (crash during a flush) is dropped on the next load.
+ * <p>
+ * Layout: header {@code [magic][version]} followed by records
+ * {@code KEY [slot:short][name:utf]}, {@code PLAYER [uuid]} (forget the player's values) and
+ * {@code VALUE [uuid][slot:short][epochMs:long]}.
+ */
+public class CooldownJournal implements CooldownStore.ChangeListener {
+    private static final Logger LOGGER = Logger.getLogger(CooldownJournal.class.getName());
+    private static final int MAGIC = 0x4B4E4B43;
+    private static final byte VERSION = 1;
+    private static final byte RECORD_KEY = 1;
+    private static final byte RECORD_PLAYER = 2;
+    private static final byte RECORD_VALUE = 3;
+
+    private final CooldownStore store;
+    private final Path file;
+    private final long retentionMs;
+    private final LongSupplier wallClockMs;
+    private final Map<UUID, Map<String, Long>> pending = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Store slots whose KEY record is already in the current file
+    private final Set<Integer> writtenKeys = new HashSet<>();
+
+    /**
+     * @param retentionMs how long entries are kept after their value lies in the past; 0 for
+     *                    expiry values, the longest cooldown for last-use values
+     */
+    public CooldownJournal(CooldownStore store, Path file, long retentionMs) {
+        this(store, file, retentionMs, System::currentTimeMillis);
+    }
+
+    public CooldownJournal(CooldownStore store, Path file, long retentionMs, LongSupplier wallClockMs) {
+        this.store = store;
+        this.file = file;
+        this.retentionMs = Math.max(0L, retentionMs);
+        this.wallClockMs = wallClockMs;
+    }
+
+    /**
+     * Replay the journal, compact it and start tracking changes in the store.
+     *
+     * @return number of players with persisted cooldowns
+     */
+    public synchronized int load() throws IOException {
+        pending.clear();
+        if (Files.exists(file)) {
+            replay();
+        }
+        dropExpired();
+        compact();
+        store.setChangeListener(this);
+        return pending.size();
+    }
+
+    /**
+     * Move a joining player's persisted cooldowns into the store.
+     *
+     * @return true if the player had persisted cooldowns
+     */
+    public boolean restore(UUID playerId) {
+        Map<String, Long> entries = pending.remove(playerId);
+        if (entries == null) {
+            return false;
+        }
+
+        long nowMs = wallClockMs.getAsLong();
+        long nowTick = store.currentTick();
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            if (entry.getValue() + retentionMs < nowMs) {
+                continue;
+            }
+            store.set(playerId, store.slot(entry.getKey()), toTick(entry.getValue(), nowMs, nowTick));
+        }
+        // Restored values are already on disk
+        dirty.remove(playerId);
+        return true;
+    }
+
+    @Override
+    public void onChange(UUID playerId) {
+        dirty.add(playerId);
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Append the current values of every changed player.
+     *
+     * @return number of players written
+     */
+    public synchronized int flush() throws IOException {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        int written = 0;
+        long nowMs = wallClockMs.getAsLong();
+        long nowTick = store.currentTick();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+            if (Files.size(file) == 0L) {
+                // File was removed since the last compaction: start a new key table
+                writtenKeys.clear();
+                writeHeader(out);
+            }
+            Iterator<UUID> iterator = dirty.iterator();
+            while (iterator.hasNext()) {
+                UUID playerId = iterator.next();
+                iterator.remove();
+                writePlayer(out, playerId, nowMs, nowTick);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Rewrite the journal with only the live state (store rows plus players not yet restored).
+     */
+    public synchronized void compact() throws IOException {
+        long nowMs = wallClockMs.getAsLong();
+        long nowTick = store.currentTick();
+        // Anything changed after this point is appended by the next flush
+        dirty.clear();
+        writtenKeys.clear();
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            writeHeader(out);
+            for (Map.Entry<UUID, Map<String, Long>> entry : pending.entrySet()) {
+                if (store.players().contains(entry.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<String, Long> value : entry.getValue().entrySet()) {
+                    if (value.getValue() + retentionMs >= nowMs) {
+                        writeValue(out, entry.getKey(), store.slot(value.getKey()), value.getValue());
+                    }
+                }
+            }
+            for (UUID playerId : store.players()) {
+                writeValues(out, playerId, nowMs, nowTick);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void replay() throws IOException {
+        Map<Integer, String> keys = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                LOGGER.warning("Ignoring cooldown journal with unknown format: " + file);
+                return;
+            }
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    return;
+                }
+                switch (type) {
+                    case RECORD_KEY -> keys.put((int) in.readShort(), in.readUTF());
+                    case RECORD_PLAYER -> pending.remove(readUuid(in));
+                    case RECORD_VALUE -> {
+                        UUID playerId = readUuid(in);
+                        String key = keys.get((int) in.readShort());
+                        long epochMs = in.readLong();
+                        if (key != null) {
+                            pending.computeIfAbsent(playerId, id -> new HashMap<>()).put(key, epochMs);
+                        }
+                    }
+                    default -> {
+                        LOGGER.warning("Cooldown journal " + file + " is corrupt, keeping entries read so far");
+                        return;
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            LOGGER.warning("Cooldown journal " + file + " ends in a partial record, keeping entries read so far");
+        }
+    }
+
+    private void dropExpired() {
+        long cutoff = wallClockMs.getAsLong() - retentionMs;
+        pending.values().forEach(entries -> entries.values().removeIf(epochMs -> epochMs < cutoff));
+        pending.values().removeIf(Map::isEmpty);
+    }
+
+    private void writePlayer(DataOutputStream out, UUID playerId, long nowMs, long nowTick) throws IOException {
+        out.writeByte(RECORD_PLAYER);
+        writeUuid(out, playerId);
+        writeValues(out, playerId, nowMs, nowTick);
+    }
+
+    private void writeValues(DataOutputStream out, UUID playerId, long nowMs, long nowTick) throws IOException {
+        long[] values = store.snapshot(playerId);
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != 0L) {
+                writeValue(out, playerId, slot, toEpochMs(values[slot], nowMs, nowTick));
+            }
+        }
+    }
+
+    private void writeValue(DataOutputStream out, UUID playerId, int slot, long epochMs) throws IOException {
+        if (writtenKeys.add(slot)) {
+            out.writeByte(RECORD_KEY);
+            out.writeShort(slot);
+            out.writeUTF(store.key(slot));
+        }
+        out.writeByte(RECORD_VALUE);
+        writeUuid(out, playerId);
+        out.writeShort(slot);
+        out.writeLong(epochMs);
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    static long toEpochMs(long tick, long nowMs, long nowTick) {
+        return nowMs + CooldownStore.ticksToMillis(tick - nowTick);
+    }
+
+    static long toTick(long epochMs, long nowMs, long nowTick) {
+        long tick = nowTick + Math.floorDiv(epochMs - nowMs + CooldownStore.MILLIS_PER_TICK - 1, CooldownStore.MILLIS_PER_TICK);
+        // 0 means "unset" in the store
+        return tick == 0L ? -1L : tick;
+    }
+}
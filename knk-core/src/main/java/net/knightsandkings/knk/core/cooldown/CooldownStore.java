@@ -0,0 +1,261 @@
+package net.knightsandkings.knk.core.cooldown;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Tick-based cooldown store.
+ * <p>
+ * Each key (enchantment id, command key, ...) is mapped once to a dense slot index, and every
+ * player has one {@code long[]} of tick values indexed by slot. A lookup is a map read for the
+ * player plus an array read, with no boxing, string building or futures. A value of 0 means
+ * "unset". Callers decide what a value means: an expiry tick ({@link #startCooldown}) or the
+ * tick something last happened ({@link #set}).
+ * <p>
+ * Ticks come from the supplied clock (the server tick counter in production), so cooldowns
+ * follow game time rather than wall-clock time. The clock must return positive values, since
+ * 0 is reserved for "unset". Thread-safe: rows are small and guarded by
+ * their own monitor, which is uncontended on the server thread.
+ */
+public class CooldownStore {
+    public static final long MILLIS_PER_TICK = 50L;
+
+    private final LongSupplier tickClock;
+    private final Map<String, Integer> slotsByKey = new ConcurrentHashMap<>();
+    private final List<String> keysBySlot = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Row> rows = new ConcurrentHashMap<>();
+    private volatile ChangeListener changeListener;
+
+    /**
+     * Notified after a player's values are set or cleared (not on eviction, which only drops
+     * values that are no longer in effect).
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(UUID playerId);
+    }
+
+    public CooldownStore(LongSupplier tickClock) {
+        this.tickClock = Objects.requireNonNull(tickClock, "tickClock must not be null");
+    }
+
+    /**
+     * Clock for use without a running server: wall-clock time in 50 ms ticks.
+     */
+    public static LongSupplier wallClockTicks() {
+        long origin = System.nanoTime();
+        return () -> 1L + (System.nanoTime() - origin) / (MILLIS_PER_TICK * 1_000_000L);
+    }
+
+    public static long millisToTicks(long millis) {
+        return millis <= 0L ? 0L : (millis + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK;
+    }
+
+    public static long ticksToMillis(long ticks) {
+        return ticks * MILLIS_PER_TICK;
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public long currentTick() {
+        return tickClock.getAsLong();
+    }
+
+    /**
+     * Slot index for a key, assigned on first use. Resolve once and keep the index on hot paths.
+     */
+    public int slot(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+        Integer slot = slotsByKey.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (slotsByKey) {
+            return slotsByKey.computeIfAbsent(key, k -> {
+                keysBySlot.add(k);
+                return keysBySlot.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * @return key registered for the slot, or null if unknown
+     */
+    public String key(int slot) {
+        return slot >= 0 && slot < keysBySlot.size() ? keysBySlot.get(slot) : null;
+    }
+
+    public int slotCount() {
+        return keysBySlot.size();
+    }
+
+    /**
+     * @return stored tick value, or 0 if unset
+     */
+    public long get(UUID playerId, int slot) {
+        Row row = rows.get(playerId);
+        return row == null ? 0L : row.get(slot);
+    }
+
+    public void set(UUID playerId, int slot, long tick) {
+        if (tick == 0L) {
+            clear(playerId, slot);
+            return;
+        }
+        // A row evicted concurrently rejects the write; retry on a fresh row
+        while (!rows.computeIfAbsent(playerId, id -> new Row()).set(slot, tick, slotCount())) {
+            Thread.onSpinWait();
+        }
+        notifyChange(playerId);
+    }
+
+    public void clear(UUID playerId, int slot) {
+        Row row = rows.get(playerId);
+        if (row != null) {
+            row.set(slot, 0L, 0);
+            notifyChange(playerId);
+        }
+    }
+
+    public void clearPlayer(UUID playerId) {
+        if (rows.remove(playerId) != null) {
+            notifyChange(playerId);
+        }
+    }
+
+    /**
+     * Store an expiry {@code durationTicks} from now.
+     */
+    public void startCooldown(UUID playerId, int slot, long durationTicks) {
+        if (durationTicks <= 0L) {
+            clear(playerId, slot);
+            return;
+        }
+        set(playerId, slot, currentTick() + durationTicks);
+    }
+
+    /**
+     * @return ticks until the stored expiry, 0 if unset or expired
+     */
+    public long remainingTicks(UUID playerId, int slot) {
+        long expiry = get(playerId, slot);
+        if (expiry == 0L) {
+            return 0L;
+        }
+        return Math.max(0L, expiry - currentTick());
+    }
+
+    /**
+     * Drop a player's row if none of its values is at or after {@code tick}; use the current
+     * tick to drop a player with no running cooldown.
+     *
+     * @return true if the row was removed
+     */
+    public boolean evictIfOlderThan(UUID playerId, long tick) {
+        Row row = rows.get(playerId);
+        if (row == null || !row.retireIfAllBefore(tick)) {
+            return false;
+        }
+        return rows.remove(playerId, row);
+    }
+
+    /**
+     * Drop every row whose values are all before {@code tick}.
+     *
+     * @return number of rows removed
+     */
+    public int sweep(long tick) {
+        int removed = 0;
+        Iterator<Map.Entry<UUID, Row>> iterator = rows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().retireIfAllBefore(tick)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int playerCount() {
+        return rows.size();
+    }
+
+    /**
+     * @return live, read-only view of the players that currently have a row
+     */
+    public Set<UUID> players() {
+        return Collections.unmodifiableSet(rows.keySet());
+    }
+
+    /**
+     * @return copy of the player's values indexed by slot (empty if none)
+     */
+    public long[] snapshot(UUID playerId) {
+        Row row = rows.get(playerId);
+        return row == null ? new long[0] : row.copy();
+    }
+
+    private void notifyChange(UUID playerId) {
+        ChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.onChange(playerId);
+        }
+    }
+
+    private static final class Row {
+        private long[] values = new long[0];
+        private boolean retired;
+
+        synchronized long get(int slot) {
+            return slot >= 0 && slot < values.length ? values[slot] : 0L;
+        }
+
+        /**
+         * @return false if the row has been evicted and must not be written to
+         */
+        synchronized boolean set(int slot, long tick, int capacityHint) {
+            if (slot < 0) {
+                throw new IllegalArgumentException("slot must not be negative: " + slot);
+            }
+            if (retired) {
+                return tick == 0L;
+            }
+            if (slot >= values.length) {
+                if (tick == 0L) {
+                    return true;
+                }
+                values = Arrays.copyOf(values, Math.max(slot + 1, capacityHint));
+            }
+            values[slot] = tick;
+            return true;
+        }
+
+        /**
+         * Mark the row evicted if none of its values is at or after {@code tick}.
+         */
+        synchronized boolean retireIfAllBefore(long tick) {
+            for (long value : values) {
+                if (value != 0L && value >= tick) {
+                    return false;
+                }
+            }
+            retired = true;
+            return true;
+        }
+
+        synchronized long[] copy() {
+            return values.clone();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package net.knightsandkings.knk.core.dataaccess;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.knightsandkings.knk.core.cache.UserCache;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+import net.knightsandkings.knk.core.ports.api.UsersCommandApi;
+import net.knightsandkings.knk.core.ports.api.UsersQueryApi;
+
+/**
+ * Write-behind accumulator for coin changes.
+ * <p>
+ * {@link #add(UUID, int)} merges the delta into a per-user pending total. The user cache keeps
+ * the last balance known to the server and {@link #overlay(UserSummary)} is installed as its read
+ * overlay, so every cached read already includes the pending delta. {@link #flushAsync()}
+ * (called from a timer, or when {@code batchSize} users are pending and the previous flush had no
+ * failures) re-reads each user's balance
+ * from the server and sends one absolute {@code setCoinsByUuid} of that balance plus the delta,
+ * so changes made through the web or API since the user was cached are kept. The API has no
+ * delta endpoint; a change made elsewhere between that read and the write is still overwritten.
+ * <p>
+ * Each write is recorded as an operation (id, delta, balance read, balance sent) before it is
+ * sent. An operation whose outcome is unknown (failed call, or a crash while in flight) is
+ * settled against the server balance at the next flush: if the server holds the balance sent the
+ * delta is dropped, if it still holds the balance read the delta is sent again. Any other balance
+ * means both the write and something else may have changed it; the delta is then dropped with a
+ * warning rather than risk counting it twice. Until an operation is settled its delta stays in
+ * the pending total.
+ * <p>
+ * Before each flush's writes are sent, the pending totals and operations are written to a journal
+ * (atomic replace), and {@link #open(Path)} restores them on startup. Changes made after the last
+ * flush are lost on a crash; a clean shutdown calls {@link #close()}.
+ * <p>
+ * Layout: header {@code [magic][version]} followed by {@code [0][uuid][delta:int]} pending records
+ * and {@code [1][uuid][operation:long][delta:int][base:int][target:int]} operation records.
+ * Version 1 journals hold only {@code [uuid][delta:int]} records.
+ */
+public class CoinsWriteBehind {
+    private static final Logger LOGGER = Logger.getLogger(CoinsWriteBehind.class.getName());
+    private static final int MAGIC = 0x4B4E4B57;
+    private static final byte VERSION = 2;
+    private static final byte PENDING_RECORD = 0;
+    private static final byte OPERATION_RECORD = 1;
+
+    private final UserCache userCache;
+    private final UsersQueryApi usersQueryApi;
+    private final UsersCommandApi usersCommandApi;
+    private final int batchSize;
+    // Guarded by this; includes deltas of unsettled operations
+    private final Map<UUID, Integer> pending = new HashMap<>();
+    // Guarded by this; at most one unsettled operation per user
+    private final Map<UUID, Operation> operations = new HashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    // Set while the last flush left a failed read or write; the timer retries, add() does not
+    private volatile boolean lastFlushFailed;
+    private final Object journalLock = new Object();
+    private long nextOperation = 1;
+    private Path journal;
+
+    /**
+     * One absolute write: {@code delta} on top of the server balance {@code base}, sent as {@code target}.
+     */
+    private record Operation(long id, int delta, int base, int target) {
+    }
+
+    public CoinsWriteBehind(
+        UserCache userCache,
+        UsersQueryApi usersQueryApi,
+        UsersCommandApi usersCommandApi,
+        int batchSize
+    ) {
+        this.userCache = userCache;
+        this.usersQueryApi = usersQueryApi;
+        this.usersCommandApi = usersCommandApi;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Start journaling to {@code file}, restoring deltas and unsettled operations left by the previous run.
+     *
+     * @return number of users with restored deltas
+     */
+    public synchronized int open(Path file) throws IOException {
+        this.journal = file;
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        Map<UUID, Integer> restoredDeltas = new HashMap<>();
+        Map<UUID, Operation> restoredOperations = new HashMap<>();
+        readJournal(file, restoredDeltas, restoredOperations);
+        restoredDeltas.forEach((uuid, delta) -> pending.merge(uuid, delta, Integer::sum));
+        restoredOperations.forEach((uuid, operation) -> {
+            operations.put(uuid, operation);
+            nextOperation = Math.max(nextOperation, operation.id() + 1);
+        });
+        return restoredDeltas.size();
+    }
+
+    /**
+     * Add {@code delta} coins (may be negative) to the user's balance.
+     */
+    public void add(UUID uuid, int delta) {
+        if (uuid == null || delta == 0) {
+            return;
+        }
+        int pendingUsers;
+        synchronized (this) {
+            pending.merge(uuid, delta, Integer::sum);
+            pendingUsers = pending.size();
+        }
+        if (pendingUsers >= batchSize && !lastFlushFailed) {
+            flushAsync();
+        }
+    }
+
+    /**
+     * Apply the user's unflushed delta to a summary holding the server balance.
+     */
+    public synchronized UserSummary overlay(UserSummary user) {
+        if (user == null || user.uuid() == null) {
+            return user;
+        }
+        Integer delta = pending.get(user.uuid());
+        return delta == null ? user : withCoins(user, user.coins() + delta);
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized int pendingDelta(UUID uuid) {
+        return pending.getOrDefault(uuid, 0);
+    }
+
+    /**
+     * Settle unsettled operations, journal, and send all pending deltas.
+     * Does nothing if a flush is already running.
+     *
+     * @return future with the number of users written successfully
+     */
+    public CompletableFuture<Integer> flushAsync() {
+        if (!flushing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<UUID, CompletableFuture<UserSummary>> balances = new HashMap<>();
+        try {
+            Set<UUID> users;
+            synchronized (this) {
+                users = new HashSet<>(pending.keySet());
+                users.addAll(operations.keySet());
+            }
+            for (UUID uuid : users) {
+                balances.put(uuid, readBalance(uuid));
+            }
+        } catch (RuntimeException e) {
+            flushing.set(false);
+            throw e;
+        }
+
+        return CompletableFuture.allOf(balances.values().toArray(CompletableFuture[]::new))
+            .handle((ignored, ex) -> sendAll(balances, failed))
+            .thenCompose(writes -> CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> (int) writes.stream().filter(CompletableFuture::join).count()))
+            .handle((written, ex) -> {
+                lastFlushFailed = ex != null || failed.get();
+                flushing.set(false);
+                writeJournal();
+                if (ex != null) {
+                    LOGGER.log(Level.WARNING, "Coin flush failed, pending deltas kept", ex);
+                    return 0;
+                }
+                return written;
+            });
+    }
+
+    /**
+     * Flush and wait for the writes (shutdown). Whatever could not be sent stays in the journal.
+     */
+    public void close() {
+        try {
+            flushAsync().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Coin flush on shutdown did not complete; pending deltas kept in journal", e);
+        }
+        writeJournal();
+    }
+
+    private CompletableFuture<UserSummary> readBalance(UUID uuid) {
+        try {
+            return usersQueryApi.getByUuid(uuid).thenApply(user -> {
+                if (user == null) {
+                    throw new IllegalStateException("User " + uuid + " not found");
+                }
+                return user;
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Start one operation per user whose server balance was read, journal them, then send them.
+     */
+    private List<CompletableFuture<Boolean>> sendAll(Map<UUID, CompletableFuture<UserSummary>> balances, AtomicBoolean failed) {
+        Map<UUID, Operation> started = new HashMap<>();
+        balances.forEach((uuid, balance) -> {
+            int serverCoins;
+            try {
+                serverCoins = balance.join().coins();
+            } catch (CompletionException e) {
+                LOGGER.log(Level.WARNING, "Failed to read coins for " + uuid + ", retrying next flush", e.getCause());
+                failed.set(true);
+                return;
+            }
+            Operation operation = start(uuid, serverCoins);
+            if (operation != null) {
+                started.put(uuid, operation);
+            }
+        });
+
+        // Journal the operations before any of them can reach the server
+        writeJournal();
+
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+        started.forEach((uuid, operation) -> writes.add(send(uuid, operation, failed)));
+        return writes;
+    }
+
+    /**
+     * Settle the user's previous operation against {@code serverCoins} and start a new one for the pending delta.
+     *
+     * @return the new operation, or null when nothing is left to send
+     */
+    private synchronized Operation start(UUID uuid, int serverCoins) {
+        Operation previous = operations.remove(uuid);
+        if (previous != null && serverCoins != previous.base()) {
+            if (serverCoins != previous.target()) {
+                LOGGER.warning("Coin write #" + previous.id() + " for " + uuid + " has an unknown outcome (server balance "
+                    + serverCoins + ", expected " + previous.base() + " or " + previous.target() + "); dropping its delta of "
+                    + previous.delta() + " rather than risk counting it twice");
+            }
+            settle(uuid, previous.delta());
+        }
+        userCache.getByUuid(uuid).ifPresent(user -> userCache.put(withCoins(user, serverCoins)));
+
+        int delta = pending.getOrDefault(uuid, 0);
+        if (delta == 0) {
+            return null;
+        }
+        Operation operation = new Operation(nextOperation++, delta, serverCoins, serverCoins + delta);
+        operations.put(uuid, operation);
+        return operation;
+    }
+
+    private CompletableFuture<Boolean> send(UUID uuid, Operation operation, AtomicBoolean failed) {
+        CompletableFuture<Void> call;
+        try {
+            call = usersCommandApi.setCoinsByUuid(uuid, operation.target());
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call
+            .thenApply(ignored -> {
+                synchronized (this) {
+                    // Keep anything added while the write was in flight
+                    if (operations.remove(uuid, operation)) {
+                        settle(uuid, operation.delta());
+                        userCache.getByUuid(uuid).ifPresent(user -> userCache.put(withCoins(user, operation.target())));
+                    }
+                }
+                return true;
+            })
+            .exceptionally(ex -> {
+                // The write may still have landed; the operation is settled against the server next flush
+                LOGGER.log(Level.WARNING, "Failed to write coins for " + uuid + ", retrying next flush", ex);
+                failed.set(true);
+                return false;
+            });
+    }
+
+    // Guarded by this
+    private void settle(UUID uuid, int delta) {
+        pending.computeIfPresent(uuid, (id, current) -> current - delta == 0 ? null : current - delta);
+    }
+
+    private void writeJournal() {
+        synchronized (journalLock) {
+            // Snapshot under the journal lock so an older snapshot never replaces a newer one
+            Path file;
+            Map<UUID, Integer> deltas;
+            Map<UUID, Operation> unsettled;
+            synchronized (this) {
+                if (journal == null) {
+                    return;
+                }
+                file = journal;
+                deltas = new HashMap<>(pending);
+                unsettled = new HashMap<>(operations);
+            }
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeByte(VERSION);
+                    for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+                        out.writeByte(PENDING_RECORD);
+                        writeUuid(out, entry.getKey());
+                        out.writeInt(entry.getValue());
+                    }
+                    for (Map.Entry<UUID, Operation> entry : unsettled.entrySet()) {
+                        Operation operation = entry.getValue();
+                        out.writeByte(OPERATION_RECORD);
+                        writeUuid(out, entry.getKey());
+                        out.writeLong(operation.id());
+                        out.writeInt(operation.delta());
+                        out.writeInt(operation.base());
+                        out.writeInt(operation.target());
+                    }
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to write coin journal " + file, e);
+            }
+        }
+    }
+
+    private static void readJournal(Path file, Map<UUID, Integer> deltas, Map<UUID, Operation> operations)
+        throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                LOGGER.warning("Ignoring coin journal with unknown format: " + file);
+                return;
+            }
+            byte version = in.readByte();
+            if (version != 1 && version != VERSION) {
+                LOGGER.warning("Ignoring coin journal with unknown version " + version + ": " + file);
+                return;
+            }
+            while (in.available() > 0) {
+                byte kind = version == 1 ? PENDING_RECORD : in.readByte();
+                UUID uuid = readUuid(in);
+                if (kind == PENDING_RECORD) {
+                    deltas.merge(uuid, in.readInt(), Integer::sum);
+                } else if (kind == OPERATION_RECORD) {
+                    operations.put(uuid, new Operation(in.readLong(), in.readInt(), in.readInt(), in.readInt()));
+                } else {
+                    LOGGER.warning("Coin journal " + file + " has an unknown record, keeping entries read so far");
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            LOGGER.warning("Coin journal " + file + " ends in a partial record, keeping entries read so far");
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static UserSummary withCoins(UserSummary user, int coins) {
+        return new UserSummary(
+            user.id(),
+            user.username(),
+            user.uuid(),
+            user.email(),
+            coins,
+            user.gems(),
+            user.experiencePoints(),
+            user.isFullAccount(),
+            user.isNewUser()
+        );
+    }
+}
@@ -2,6 +2,7 @@ package net.knightsandkings.knk.core.dataaccess;
 
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
@@ -19,17 +20,22 @@ import net.knightsandkings.knk.core.ports.api.UsersQueryApi;
  * Provides cache-first, API-fallback retrieval methods with support for
  * fetch policies, stale reads, invalidation, and background refresh.
  * <p>
+ * Coin changes go through {@link #addCoins(UUID, int)}, a write-behind accumulator
+ * ({@link CoinsWriteBehind}); every read includes changes not yet sent to the API.
+ * <p>
  * Thread-safe: All public methods are async and do not block the calling thread.
  */
 public class UsersDataAccess {
     
     private static final Logger LOGGER = Logger.getLogger(UsersDataAccess.class.getName());
+    private static final int DEFAULT_COINS_BATCH_SIZE = 100;
     
     private final UserCache userCache;
     private final UsersQueryApi usersQueryApi;
     private final UsersCommandApi usersCommandApi;
     private final DataAccessSettings settings;
     private final DataAccessExecutor<UUID, UserSummary> executor;
+    private final CoinsWriteBehind coinsWriteBehind;
     
     /**
      * Create a new UsersDataAccess gateway.
@@ -57,6 +63,9 @@ public class UsersDataAccess {
         this.usersCommandApi = Objects.requireNonNull(usersCommandApi, "usersCommandApi must not be null");
         this.settings = Objects.requireNonNullElse(settings, DataAccessSettings.defaults());
         this.executor = new DataAccessExecutor<>(userCache, this.settings.retryPolicy(), "User");
+        this.coinsWriteBehind = new CoinsWriteBehind(userCache, usersQueryApi, usersCommandApi, DEFAULT_COINS_BATCH_SIZE);
+        // Cache holds server balances; reads add the unflushed coin changes
+        userCache.setReadOverlay(coinsWriteBehind::overlay);
     }
     
     /**
@@ -85,7 +94,7 @@ public class UsersDataAccess {
                 }
                 return userSummary;
             })
-        );
+        ).thenApply(this::withPendingCoins);
     }
     
     /**
@@ -105,9 +114,8 @@ public class UsersDataAccess {
      * <p>
      * Async method; safe for event threads.
      * <p>
-     * Note: The cache is UUID-keyed, not username-keyed. Username lookups
-     * always hit the API, but on success, the result is cached by UUID
-     * for future UUID lookups.
+     * Served from the cache's username index when the user is cached; otherwise
+     * hits the API and caches the result (indexed by UUID and username).
      *
      * @param username The player username
      * @return CompletableFuture resolving to FetchResult<UserSummary>
@@ -115,12 +123,15 @@ public class UsersDataAccess {
     public CompletableFuture<FetchResult<UserSummary>> getByUsernameAsync(String username) {
         Objects.requireNonNull(username, "username must not be null");
         
-        // Username lookups always hit API (cache is UUID-keyed)
-        // We call the API directly without using the executor since the cache is UUID-keyed
+        Optional<UserSummary> cached = userCache.getByUsername(username);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(FetchResult.hit(cached.get()));
+        }
+        
         return usersQueryApi.getByUsername(username).thenApply(userSummary -> {
             if (userSummary != null) {
-                userCache.put(userSummary); // Cache by UUID for future UUID lookups
-                return FetchResult.<UserSummary>missFetched(userSummary);
+                userCache.put(userSummary);
+                return FetchResult.<UserSummary>missFetched(coinsWriteBehind.overlay(userSummary));
             }
             return FetchResult.<UserSummary>notFound();
         }).exceptionally(e -> FetchResult.<UserSummary>error(e));
@@ -199,7 +210,46 @@ public class UsersDataAccess {
                 }
                 return userSummary;
             })
-        );
+        ).thenApply(this::withPendingCoins);
+    }
+    
+    /**
+     * Add coins (negative to remove) to a user's balance.
+     * <p>
+     * Visible to reads immediately; sent to the API in batches by {@link #flushCoinsAsync()}.
+     *
+     * @param uuid The player UUID
+     * @param delta Coins to add
+     */
+    public void addCoins(UUID uuid, int delta) {
+        Objects.requireNonNull(uuid, "uuid must not be null");
+        coinsWriteBehind.add(uuid, delta);
+    }
+    
+    /**
+     * Send pending coin changes to the API (one write per user).
+     *
+     * @return CompletableFuture resolving to the number of users written
+     */
+    public CompletableFuture<Integer> flushCoinsAsync() {
+        return coinsWriteBehind.flushAsync();
+    }
+    
+    /**
+     * The coin write-behind accumulator, for journal setup and shutdown.
+     */
+    public CoinsWriteBehind coinsWriteBehind() {
+        return coinsWriteBehind;
+    }
+    
+    /**
+     * Values fetched from the API are server balances; cached reads are already overlaid.
+     */
+    private FetchResult<UserSummary> withPendingCoins(FetchResult<UserSummary> result) {
+        if (result.status() != FetchStatus.MISS_FETCHED || result.value().isEmpty()) {
+            return result;
+        }
+        return FetchResult.missFetched(coinsWriteBehind.overlay(result.value().get()));
     }
     
     /**
@@ -0,0 +1,91 @@
+package net.knightsandkings.knk.core.domain.enchantment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary form of an item's custom enchantments (enchantment id -> level).
+ *
+ * Layout: {@code [version][count] ([idLength][id UTF-8 bytes][level])*}, one unsigned byte per
+ * length/level field. Entries keep their insertion order so lore can be rendered from it.
+ */
+public final class EnchantmentDataCodec {
+    public static final byte VERSION = 1;
+    private static final int MAX_UNSIGNED_BYTE = 0xFF;
+
+    private EnchantmentDataCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an id is longer than 255 bytes or a level is outside 1..255
+     */
+    public static byte[] encode(Map<String, Integer> enchantments) {
+        if (enchantments == null || enchantments.isEmpty()) {
+            return new byte[] {VERSION, 0};
+        }
+        if (enchantments.size() > MAX_UNSIGNED_BYTE) {
+            throw new IllegalArgumentException("Too many enchantments: " + enchantments.size());
+        }
+
+        byte[][] ids = new byte[enchantments.size()][];
+        int size = 2;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
+            byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (id.length == 0 || id.length > MAX_UNSIGNED_BYTE) {
+                throw new IllegalArgumentException("Invalid enchantment id: " + entry.getKey());
+            }
+            Integer level = entry.getValue();
+            if (level == null || level < 1 || level > MAX_UNSIGNED_BYTE) {
+                throw new IllegalArgumentException("Invalid level for " + entry.getKey() + ": " + level);
+            }
+            ids[i++] = id;
+            size += 2 + id.length;
+        }
+
+        byte[] out = new byte[size];
+        out[0] = VERSION;
+        out[1] = (byte) enchantments.size();
+        int pos = 2;
+        i = 0;
+        for (Integer level : enchantments.values()) {
+            byte[] id = ids[i++];
+            out[pos++] = (byte) id.length;
+            System.arraycopy(id, 0, out, pos, id.length);
+            pos += id.length;
+            out[pos++] = (byte) level.intValue();
+        }
+        return out;
+    }
+
+    /**
+     * @return unmodifiable id -> level map; empty for null, empty, unknown-version or truncated data
+     */
+    public static Map<String, Integer> decode(byte[] data) {
+        if (data == null || data.length < 2 || data[0] != VERSION) {
+            return Map.of();
+        }
+        int count = data[1] & MAX_UNSIGNED_BYTE;
+        if (count == 0) {
+            return Map.of();
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>(count * 2);
+        int pos = 2;
+        for (int i = 0; i < count; i++) {
+            if (pos >= data.length) {
+                return Map.of();
+            }
+            int idLength = data[pos++] & MAX_UNSIGNED_BYTE;
+            if (pos + idLength + 1 > data.length) {
+                return Map.of();
+            }
+            String id = new String(data, pos, idLength, StandardCharsets.UTF_8);
+            pos += idLength;
+            result.put(id, data[pos++] & MAX_UNSIGNED_BYTE);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
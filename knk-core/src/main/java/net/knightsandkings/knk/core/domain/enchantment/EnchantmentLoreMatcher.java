@@ -0,0 +1,198 @@
+package net.knightsandkings.knk.core.domain.enchantment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Precompiled matcher for enchantment lore lines of the form "[colours]Display Name LEVEL".
+ * <p>
+ * Display names are compiled into a case-insensitive character trie. A line is matched in a
+ * single pass over its characters: colour codes are skipped in place, the name is walked down
+ * the trie and the level (roman numeral or decimal) is read straight from the line, so no
+ * regex, stripped copy or substring is created. When one display name is a prefix of another,
+ * the longest name followed by a valid level wins.
+ */
+final class EnchantmentLoreMatcher {
+    private static final char COLOR_CHAR = '§';
+    private static final int MAX_LEVEL = 255;
+
+    private final Node root;
+
+    EnchantmentLoreMatcher(Collection<Enchantment> enchantments) {
+        Builder builder = new Builder();
+        for (Enchantment enchantment : enchantments) {
+            String name = enchantment.displayName();
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            Builder node = builder;
+            String trimmed = name.trim();
+            for (int i = 0; i < trimmed.length(); i++) {
+                node = node.children.computeIfAbsent(Character.toLowerCase(trimmed.charAt(i)), c -> new Builder());
+            }
+            if (node.terminal == null) {
+                node.terminal = enchantment;
+            }
+        }
+        this.root = builder.freeze();
+    }
+
+    /**
+     * @return the matched enchantment and level, or null if the line is not an enchantment line
+     */
+    EnchantmentRegistry.LoreMatch match(String line) {
+        if (line == null) {
+            return null;
+        }
+
+        int length = line.length();
+        int i = skipIgnorable(line, 0);
+        Node node = root;
+        Enchantment bestEnchantment = null;
+        int bestLevel = -1;
+
+        while (i < length) {
+            char c = line.charAt(i);
+            if (isColorCode(line, i)) {
+                i += 2;
+                continue;
+            }
+            if (node.terminal != null && c == ' ') {
+                int level = parseLevel(line, i);
+                if (level > 0) {
+                    bestEnchantment = node.terminal;
+                    bestLevel = level;
+                }
+            }
+            node = node.child(Character.toLowerCase(c));
+            if (node == null) {
+                break;
+            }
+            i++;
+        }
+
+        return bestEnchantment == null ? null : new EnchantmentRegistry.LoreMatch(bestEnchantment, bestLevel);
+    }
+
+    /**
+     * Read the level token after a display name; the rest of the line must be blank.
+     *
+     * @return level, or -1 if the remainder of the line is not a single valid level
+     */
+    private static int parseLevel(String line, int from) {
+        int length = line.length();
+        int i = skipIgnorable(line, from);
+        if (i >= length) {
+            return -1;
+        }
+
+        int value = 0;
+        int previousRoman = Integer.MAX_VALUE;
+        boolean roman = false;
+        boolean digits = false;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (isColorCode(line, i)) {
+                i += 2;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                break;
+            }
+
+            int romanValue = romanValue(c);
+            if (romanValue > 0 && !digits) {
+                roman = true;
+                // Subtractive notation (IV, IX): undo the smaller numeral added before
+                value += romanValue > previousRoman ? romanValue - 2 * previousRoman : romanValue;
+                previousRoman = romanValue;
+            } else if (c >= '0' && c <= '9' && !roman) {
+                digits = true;
+                value = value * 10 + (c - '0');
+            } else {
+                return -1;
+            }
+            if (value > MAX_LEVEL) {
+                return -1;
+            }
+            i++;
+        }
+
+        return skipIgnorable(line, i) == length && value > 0 ? value : -1;
+    }
+
+    private static int romanValue(char c) {
+        return switch (c) {
+            case 'I', 'i' -> 1;
+            case 'V', 'v' -> 5;
+            case 'X', 'x' -> 10;
+            default -> -1;
+        };
+    }
+
+    private static int skipIgnorable(String line, int from) {
+        int i = from;
+        int length = line.length();
+        while (i < length) {
+            if (isColorCode(line, i)) {
+                i += 2;
+            } else if (Character.isWhitespace(line.charAt(i))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isColorCode(String line, int i) {
+        if (line.charAt(i) != COLOR_CHAR || i + 1 >= line.length()) {
+            return false;
+        }
+        char code = Character.toLowerCase(line.charAt(i + 1));
+        return (code >= '0' && code <= '9') || (code >= 'a' && code <= 'f') || (code >= 'k' && code <= 'o') || code == 'r';
+    }
+
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final Enchantment terminal;
+
+        Node(char[] keys, Node[] children, Enchantment terminal) {
+            this.keys = keys;
+            this.children = children;
+            this.terminal = terminal;
+        }
+
+        Node child(char c) {
+            // Few children per node: a linear scan over the sorted keys beats hashing here
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+                if (keys[i] > c) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder {
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private Enchantment terminal;
+
+        Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, nodes, terminal);
+        }
+    }
+}
@@ -1,33 +1,52 @@
 package net.knightsandkings.knk.core.domain.enchantment;
 
+import net.knightsandkings.knk.core.domain.enchantments.KnkEnchantmentDefinition;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+/**
+ * Registry of custom enchantments.
+ *
+ * All lookups read an immutable snapshot (id index, lowercase display-name index, per-type
+ * lists and a precompiled lore matcher) built once per load. Reloads build a new snapshot and
+ * publish it with a single volatile write, so readers never see a half-updated registry.
+ */
 public final class EnchantmentRegistry {
+    // Built-in enchantments; each has an effect implementation, definitions can only refine them
+    private static final List<Enchantment> DEFAULTS = List.of(
+            new Enchantment("poison", "Poison", 3, 0, EnchantmentType.ATTACK, 0.15d),
+            new Enchantment("wither", "Wither", 3, 0, EnchantmentType.ATTACK, 0.15d),
+            new Enchantment("freeze", "Freeze", 3, 0, EnchantmentType.ATTACK, 0.15d),
+            new Enchantment("blindness", "Blindness", 3, 0, EnchantmentType.ATTACK, null),
+            new Enchantment("confusion", "Confusion", 3, 0, EnchantmentType.ATTACK, 0.15d),
+            new Enchantment("strength", "Strength", 2, 120_000, EnchantmentType.ATTACK, 0.15d),
+            new Enchantment("chaos", "Chaos", 1, 90_000, EnchantmentType.SUPPORT, null),
+            new Enchantment("flash_chaos", "Flash Chaos", 1, 90_000, EnchantmentType.SUPPORT, null),
+            new Enchantment("health_boost", "Health Boost", 1, 120_000, EnchantmentType.SUPPORT, null),
+            new Enchantment("armor_repair", "Armor Repair", 1, 120_000, EnchantmentType.SUPPORT, null),
+            new Enchantment("resistance", "Resistance", 2, 120_000, EnchantmentType.SUPPORT, null),
+            new Enchantment("invisibility", "Invisibility", 1, 90_000, EnchantmentType.SUPPORT, null)
+    );
+    // Declared after DEFAULTS, which the constructor reads
     private static final EnchantmentRegistry INSTANCE = new EnchantmentRegistry();
-    private final Map<String, Enchantment> enchantmentsById;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Result of matching a lore line against the registered display names.
+     */
+    public record LoreMatch(Enchantment enchantment, int level) {}
 
     private EnchantmentRegistry() {
-        Map<String, Enchantment> map = new LinkedHashMap<>();
-        register(map, new Enchantment("poison", "Poison", 3, 0, EnchantmentType.ATTACK, 0.15d));
-        register(map, new Enchantment("wither", "Wither", 3, 0, EnchantmentType.ATTACK, 0.15d));
-        register(map, new Enchantment("freeze", "Freeze", 3, 0, EnchantmentType.ATTACK, 0.15d));
-        register(map, new Enchantment("blindness", "Blindness", 3, 0, EnchantmentType.ATTACK, null));
-        register(map, new Enchantment("confusion", "Confusion", 3, 0, EnchantmentType.ATTACK, 0.15d));
-        register(map, new Enchantment("strength", "Strength", 2, 120_000, EnchantmentType.ATTACK, 0.15d));
-        register(map, new Enchantment("chaos", "Chaos", 1, 90_000, EnchantmentType.SUPPORT, null));
-        register(map, new Enchantment("flash_chaos", "Flash Chaos", 1, 90_000, EnchantmentType.SUPPORT, null));
-        register(map, new Enchantment("health_boost", "Health Boost", 1, 120_000, EnchantmentType.SUPPORT, null));
-        register(map, new Enchantment("armor_repair", "Armor Repair", 1, 120_000, EnchantmentType.SUPPORT, null));
-        register(map, new Enchantment("resistance", "Resistance", 2, 120_000, EnchantmentType.SUPPORT, null));
-        register(map, new Enchantment("invisibility", "Invisibility", 1, 90_000, EnchantmentType.SUPPORT, null));
-        this.enchantmentsById = Collections.unmodifiableMap(map);
+        this.snapshot = new Snapshot(DEFAULTS, 0L);
     }
 
     public static EnchantmentRegistry getInstance() {
@@ -38,17 +57,22 @@ public final class EnchantmentRegistry {
         if (id == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(enchantmentsById.get(id.toLowerCase(Locale.ROOT)));
+        return Optional.ofNullable(snapshot.byId.get(id.toLowerCase(Locale.ROOT)));
+    }
+
+    public Optional<Enchantment> getByDisplayName(String displayName) {
+        if (displayName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.byDisplayName.get(displayName.trim().toLowerCase(Locale.ROOT)));
     }
 
     public Collection<Enchantment> getAll() {
-        return enchantmentsById.values();
+        return snapshot.byId.values();
     }
 
     public List<Enchantment> getByType(EnchantmentType type) {
-        return enchantmentsById.values().stream()
-                .filter(e -> e.type() == type)
-                .collect(Collectors.toList());
+        return snapshot.byType.getOrDefault(type, List.of());
     }
 
     public boolean existsAndValidLevel(String id, Integer level) {
@@ -60,7 +84,111 @@ public final class EnchantmentRegistry {
                 .orElse(false);
     }
 
-    private void register(Map<String, Enchantment> map, Enchantment enchantment) {
-        map.put(enchantment.id(), enchantment);
+    /**
+     * Match a lore line such as "§7Flash Chaos II" in one pass.
+     *
+     * @return the enchantment and level, or null if the line is not an enchantment line
+     */
+    public LoreMatch matchLore(String loreLine) {
+        return snapshot.loreMatcher.match(loreLine);
+    }
+
+    /**
+     * Incremented on every reload; lets callers invalidate data derived from older definitions.
+     */
+    public long version() {
+        return snapshot.version;
+    }
+
+    /**
+     * Replace the registry contents with the given enchantments.
+     */
+    public void reload(Collection<Enchantment> enchantments) {
+        synchronized (this) {
+            snapshot = new Snapshot(enchantments, snapshot.version + 1);
+        }
+    }
+
+    /**
+     * Rebuild the registry from backend definitions. Custom definitions whose key (e.g.
+     * {@code knk:flash_chaos}) names a built-in enchantment override its display name and max
+     * level; type, cooldown and trigger chance stay with the built-in effect. Built-ins without a
+     * definition keep their defaults, and definitions without a built-in effect are ignored.
+     *
+     * @return number of definitions applied
+     */
+    public int reloadFromDefinitions(Collection<KnkEnchantmentDefinition> definitions) {
+        Map<String, Enchantment> merged = new LinkedHashMap<>();
+        for (Enchantment enchantment : DEFAULTS) {
+            merged.put(enchantment.id(), enchantment);
+        }
+
+        int applied = 0;
+        if (definitions != null) {
+            for (KnkEnchantmentDefinition definition : definitions) {
+                if (definition == null || !Boolean.TRUE.equals(definition.isCustom())) {
+                    continue;
+                }
+                String id = idFromKey(definition.key());
+                Enchantment builtIn = merged.get(id);
+                if (builtIn == null) {
+                    continue;
+                }
+                String displayName = definition.displayName() != null && !definition.displayName().isBlank()
+                        ? definition.displayName().trim()
+                        : builtIn.displayName();
+                int maxLevel = definition.maxLevel() != null && definition.maxLevel() > 0
+                        ? definition.maxLevel()
+                        : builtIn.maxLevel();
+                merged.put(id, new Enchantment(
+                        id,
+                        displayName,
+                        maxLevel,
+                        builtIn.cooldownMs(),
+                        builtIn.type(),
+                        builtIn.triggerProbability()
+                ));
+                applied++;
+            }
+        }
+
+        reload(merged.values());
+        return applied;
+    }
+
+    private static String idFromKey(String key) {
+        if (key == null) {
+            return "";
+        }
+        String keyPart = key.substring(key.indexOf(':') + 1);
+        return keyPart.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+    }
+
+    private static final class Snapshot {
+        final Map<String, Enchantment> byId;
+        final Map<String, Enchantment> byDisplayName;
+        final Map<EnchantmentType, List<Enchantment>> byType;
+        final EnchantmentLoreMatcher loreMatcher;
+        final long version;
+
+        Snapshot(Collection<Enchantment> enchantments, long version) {
+            Map<String, Enchantment> ids = new LinkedHashMap<>();
+            Map<String, Enchantment> names = new LinkedHashMap<>();
+            Map<EnchantmentType, List<Enchantment>> types = new EnumMap<>(EnchantmentType.class);
+            for (Enchantment enchantment : enchantments) {
+                ids.put(enchantment.id().toLowerCase(Locale.ROOT), enchantment);
+            }
+            for (Enchantment enchantment : ids.values()) {
+                names.putIfAbsent(enchantment.displayName().trim().toLowerCase(Locale.ROOT), enchantment);
+                types.computeIfAbsent(enchantment.type(), t -> new ArrayList<>()).add(enchantment);
+            }
+            types.replaceAll((type, list) -> List.copyOf(list));
+
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byDisplayName = Collections.unmodifiableMap(names);
+            this.byType = Collections.unmodifiableMap(types);
+            this.loreMatcher = new EnchantmentLoreMatcher(ids.values());
+            this.version = version;
+        }
     }
 }
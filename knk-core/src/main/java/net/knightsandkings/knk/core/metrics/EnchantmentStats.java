@@ -0,0 +1,151 @@
+package net.knightsandkings.knk.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Trigger analytics for enchantment effects, used to balance trigger chances and find
+ * expensive effects.
+ * <p>
+ * Per enchantment and level it counts rolls (the effect was off cooldown and got its chance to
+ * trigger), triggers and cooldown rejects; per enchantment it keeps a {@link LatencyHistogram}
+ * of the server-thread time spent applying the effect. Recording is a map lookup plus atomic
+ * increments, so it stays on in production.
+ */
+public class EnchantmentStats {
+    // Levels above this share the last slot
+    static final int MAX_TRACKED_LEVEL = 10;
+
+    private final Map<String, EffectStats> effects = new ConcurrentHashMap<>();
+
+    /**
+     * Stats for one enchantment, created on first use. Resolve once per trigger and reuse.
+     */
+    public EffectStats effect(String enchantmentId) {
+        EffectStats stats = effects.get(enchantmentId);
+        return stats != null ? stats : effects.computeIfAbsent(enchantmentId, EffectStats::new);
+    }
+
+    /**
+     * One line per enchantment and level that saw any activity, most expensive enchantment
+     * (total apply time) first.
+     */
+    public List<String> summaryLines() {
+        List<EffectStats> sorted = new ArrayList<>();
+        for (EffectStats stats : effects.values()) {
+            if (stats.hasActivity()) {
+                sorted.add(stats);
+            }
+        }
+        sorted.sort(Comparator.comparingLong((EffectStats stats) -> stats.applyTime().getTotalNanos()).reversed()
+                .thenComparing(EffectStats::enchantmentId));
+
+        List<String> lines = new ArrayList<>();
+        for (EffectStats stats : sorted) {
+            lines.add(stats.enchantmentId() + ": apply " + stats.applyTime());
+            for (int level = 1; level <= MAX_TRACKED_LEVEL; level++) {
+                long rolls = stats.rolls(level);
+                long rejects = stats.cooldownRejects(level);
+                if (rolls == 0L && rejects == 0L) {
+                    continue;
+                }
+                long triggers = stats.triggers(level);
+                lines.add(String.format(
+                        "  level %d%s: rolls=%d, triggers=%d (%.1f%%), cooldown-rejects=%d",
+                        level,
+                        level == MAX_TRACKED_LEVEL ? "+" : "",
+                        rolls,
+                        triggers,
+                        rolls == 0L ? 0.0d : triggers * 100.0d / rolls,
+                        rejects
+                ));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Zero every counter and histogram in place. Effects keep the {@link EffectStats} they
+     * resolved, so entries are never removed.
+     */
+    public void reset() {
+        for (EffectStats stats : effects.values()) {
+            stats.reset();
+        }
+    }
+
+    public static final class EffectStats {
+        private final String enchantmentId;
+        private final AtomicLongArray rolls = new AtomicLongArray(MAX_TRACKED_LEVEL + 1);
+        private final AtomicLongArray triggers = new AtomicLongArray(MAX_TRACKED_LEVEL + 1);
+        private final AtomicLongArray cooldownRejects = new AtomicLongArray(MAX_TRACKED_LEVEL + 1);
+        private final LatencyHistogram applyTime = new LatencyHistogram();
+
+        private EffectStats(String enchantmentId) {
+            this.enchantmentId = enchantmentId;
+        }
+
+        public String enchantmentId() {
+            return enchantmentId;
+        }
+
+        public void recordRoll(int level, boolean triggered) {
+            rolls.incrementAndGet(index(level));
+            if (triggered) {
+                triggers.incrementAndGet(index(level));
+            }
+        }
+
+        public void recordCooldownReject(int level) {
+            cooldownRejects.incrementAndGet(index(level));
+        }
+
+        /**
+         * Server-thread time spent in one application of the effect.
+         */
+        public LatencyHistogram applyTime() {
+            return applyTime;
+        }
+
+        public long rolls(int level) {
+            return rolls.get(index(level));
+        }
+
+        public long triggers(int level) {
+            return triggers.get(index(level));
+        }
+
+        public long cooldownRejects(int level) {
+            return cooldownRejects.get(index(level));
+        }
+
+        boolean hasActivity() {
+            if (applyTime.getCount() > 0) {
+                return true;
+            }
+            for (int i = 0; i <= MAX_TRACKED_LEVEL; i++) {
+                if (rolls.get(i) != 0L || cooldownRejects.get(i) != 0L) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void reset() {
+            for (int i = 0; i <= MAX_TRACKED_LEVEL; i++) {
+                rolls.set(i, 0L);
+                triggers.set(i, 0L);
+                cooldownRejects.set(i, 0L);
+            }
+            applyTime.reset();
+        }
+
+        private static int index(int level) {
+            return Math.max(0, Math.min(MAX_TRACKED_LEVEL, level));
+        }
+    }
+}
@@ -7,4 +7,24 @@ public interface CooldownManager {
     CompletableFuture<Long> getRemainingCooldown(UUID playerId, String enchantmentId);
     CompletableFuture<Void> applyCooldown(UUID playerId, String enchantmentId, long durationMs);
     CompletableFuture<Void> clearCooldowns(UUID playerId);
+
+    /**
+     * Non-blocking variant of {@link #getRemainingCooldown(UUID, String)} for the combat hot path.
+     * Implementations backed by local state should override this to answer inline; the default
+     * treats a lookup that has not completed yet as "no cooldown" rather than waiting for it.
+     *
+     * @return remaining cooldown in milliseconds, 0 if none
+     */
+    default long remainingCooldownMs(UUID playerId, String enchantmentId) {
+        Long remaining = getRemainingCooldown(playerId, enchantmentId).getNow(0L);
+        return remaining == null ? 0L : remaining;
+    }
+
+    /**
+     * Non-blocking variant of {@link #applyCooldown(UUID, String, long)}; must not wait for the
+     * cooldown to be stored.
+     */
+    default void startCooldown(UUID playerId, String enchantmentId, long durationMs) {
+        applyCooldown(playerId, enchantmentId, durationMs);
+    }
 }
@@ -2,21 +2,36 @@ package net.knightsandkings.knk.core.ports.enchantment;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
+/**
+ * Applies item enchantments when their trigger fires. Triggers come from server events, so
+ * the apply methods run synchronously on the server thread and return once the effects ran.
+ */
 public interface EnchantmentExecutor {
-    CompletableFuture<Void> executeOnMeleeHit(
-            Map<String, Integer> enchantments,
-            UUID attackerId,
-            UUID targetId,
-            double damageDealt
-    );
+    /**
+     * Apply the attack enchantments of the attacker's weapon to the entity it hit.
+     *
+     * @return number of effects that triggered
+     */
+    int applyMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId);
 
-    CompletableFuture<Boolean> executeOnInteract(Map<String, Integer> enchantments, UUID playerId);
+    /**
+     * Apply the support enchantments of the item in the player's main hand.
+     *
+     * @return number of effects that triggered
+     */
+    int applyInteract(Map<String, Integer> enchantments, UUID playerId);
 
-    CompletableFuture<Void> executeOnBowShoot(
-            Map<String, Integer> enchantments,
-            UUID shooterId,
-            UUID projectileId
-    );
+    /**
+     * @return the bow enchantments a projectile carries to its hit, empty if none
+     */
+    Map<String, Integer> projectileEnchantments(Map<String, Integer> bowEnchantments);
+
+    /**
+     * Apply a projectile's enchantments to the entity it hit. Does nothing if the shooter or
+     * the target is gone.
+     *
+     * @return number of effects that triggered
+     */
+    int applyProjectileHit(Map<String, Integer> enchantments, UUID shooterId, UUID targetId);
 }
@@ -0,0 +1,94 @@
+package net.knightsandkings.knk.core.regions.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed edge list of a footprint, sorted by minimum X for range queries.
+ * <p>
+ * Edges overlapping an X interval are found with two binary searches: an edge can only
+ * reach qMinX if its minX is at least qMinX minus the widest edge, so the candidate range
+ * is [lowerBound(qMinX - maxWidth), upperBound(qMaxX)].
+ */
+final class EdgeIndex {
+    final int size;
+    final long[] ax;
+    final long[] az;
+    final long[] bx;
+    final long[] bz;
+    final long[] minX;
+    private final long maxWidth;
+
+    EdgeIndex(RegionFootprint footprint) {
+        int n = footprint.vertexCount();
+        Integer[] order = new Integer[n];
+        long[] rawAx = new long[n];
+        long[] rawAz = new long[n];
+        long[] rawBx = new long[n];
+        long[] rawBz = new long[n];
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            rawAx[i] = footprint.vertexX(i);
+            rawAz[i] = footprint.vertexZ(i);
+            rawBx[i] = footprint.vertexX(j);
+            rawBz[i] = footprint.vertexZ(j);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(Math.min(rawAx[a], rawBx[a]), Math.min(rawAx[b], rawBx[b])));
+
+        this.size = n;
+        this.ax = new long[n];
+        this.az = new long[n];
+        this.bx = new long[n];
+        this.bz = new long[n];
+        this.minX = new long[n];
+        long widest = 0;
+        for (int i = 0; i < n; i++) {
+            int e = order[i];
+            ax[i] = rawAx[e];
+            az[i] = rawAz[e];
+            bx[i] = rawBx[e];
+            bz[i] = rawBz[e];
+            minX[i] = Math.min(ax[i], bx[i]);
+            widest = Math.max(widest, Math.abs(bx[i] - ax[i]));
+        }
+        this.maxWidth = widest;
+    }
+
+    /**
+     * @return first index whose edge may overlap X values >= qMinX
+     */
+    int rangeStart(double qMinX) {
+        return lowerBound(qMinX - maxWidth);
+    }
+
+    /**
+     * @return index after the last edge whose minX <= qMaxX
+     */
+    int rangeEnd(double qMaxX) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (minX[mid] <= qMaxX) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int lowerBound(double value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (minX[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,202 @@
+package net.knightsandkings.knk.core.regions.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Region-in-region containment on the XZ plane, correct for concave parents.
+ * <p>
+ * Checking only the child's vertices misses child edges that leave a concave parent and come
+ * back (e.g. across the notch of a U-shaped town border). This engine:
+ * <ol>
+ *   <li>rejects on Y range and bounding box,</li>
+ *   <li>checks every child vertex with WorldGuard block semantics,</li>
+ *   <li>for polygon parents, intersects every child edge with the parent's precomputed,
+ *       X-sorted edge list and verifies each piece between intersections stays inside.</li>
+ * </ol>
+ * Edges that never touch the parent boundary need no further work, so typical checks cost
+ * O((n + m) log m) for n child and m parent vertices.
+ */
+public final class PolygonContainment {
+    private static final double EPSILON = 1e-9;
+
+    private PolygonContainment() {
+    }
+
+    /**
+     * @return true if the child footprint (including its Y range) lies entirely inside the parent
+     */
+    public static boolean contains(RegionFootprint parent, RegionFootprint child) {
+        if (child.getMinY() < parent.getMinY() || child.getMaxY() > parent.getMaxY()) {
+            return false;
+        }
+        if (child.getMinX() < parent.getMinX() || child.getMaxX() > parent.getMaxX()
+            || child.getMinZ() < parent.getMinZ() || child.getMaxZ() > parent.getMaxZ()) {
+            return false;
+        }
+
+        int n = child.vertexCount();
+        for (int i = 0; i < n; i++) {
+            if (!parent.contains(child.vertexX(i), child.vertexZ(i))) {
+                return false;
+            }
+        }
+
+        // A cuboid parent is convex: vertices inside means the whole child is inside
+        if (!parent.isPolygon()) {
+            return true;
+        }
+
+        EdgeIndex edges = parent.edges();
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            if (!edgeInside(parent, edges, child.vertexX(i), child.vertexZ(i), child.vertexX(j), child.vertexZ(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verify that segment a->b (whose endpoints are inside the parent) never leaves the parent.
+     * The segment is split at every point where it meets the parent boundary; each piece is
+     * inside iff its midpoint is, unless the piece runs along a parent edge.
+     */
+    private static boolean edgeInside(RegionFootprint parent, EdgeIndex edges, long ax, long az, long bx, long bz) {
+        long rx = bx - ax;
+        long rz = bz - az;
+        if (rx == 0 && rz == 0) {
+            return true;
+        }
+
+        double[] ts = new double[8];
+        int count = 0;
+        // Pieces along a parent edge are on the boundary and therefore inside
+        double[] onBoundary = new double[4];
+        int boundaryCount = 0;
+
+        int start = edges.rangeStart(Math.min(ax, bx));
+        int end = edges.rangeEnd(Math.max(ax, bx));
+        long segMinZ = Math.min(az, bz);
+        long segMaxZ = Math.max(az, bz);
+
+        for (int e = start; e < end; e++) {
+            long cx = edges.ax[e];
+            long cz = edges.az[e];
+            long dx = edges.bx[e];
+            long dz = edges.bz[e];
+            if (Math.max(cx, dx) < Math.min(ax, bx) || Math.min(cz, dz) > segMaxZ || Math.max(cz, dz) < segMinZ) {
+                continue;
+            }
+
+            long sx = dx - cx;
+            long sz = dz - cz;
+            long qpx = cx - ax;
+            long qpz = cz - az;
+            long denom = rx * sz - rz * sx;
+            long qpCrossR = qpx * rz - qpz * rx;
+
+            if (denom != 0) {
+                long qpCrossS = qpx * sz - qpz * sx;
+                double t = (double) qpCrossS / denom;
+                double u = (double) qpCrossR / denom;
+                if (t >= -EPSILON && t <= 1 + EPSILON && u >= -EPSILON && u <= 1 + EPSILON) {
+                    if (count == ts.length) {
+                        ts = Arrays.copyOf(ts, count * 2);
+                    }
+                    ts[count++] = clamp(t);
+                }
+            } else if (qpCrossR == 0) {
+                // Collinear: record the overlapping interval
+                double rr = (double) (rx * rx + rz * rz);
+                double t0 = (qpx * rx + qpz * rz) / rr;
+                double t1 = ((dx - ax) * rx + (dz - az) * rz) / rr;
+                double lo = Math.max(0.0, Math.min(t0, t1));
+                double hi = Math.min(1.0, Math.max(t0, t1));
+                if (lo <= hi + EPSILON) {
+                    if (count + 2 > ts.length) {
+                        ts = Arrays.copyOf(ts, ts.length * 2 + 2);
+                    }
+                    ts[count++] = lo;
+                    ts[count++] = hi;
+                    if (boundaryCount + 2 > onBoundary.length) {
+                        onBoundary = Arrays.copyOf(onBoundary, onBoundary.length * 2);
+                    }
+                    onBoundary[boundaryCount++] = lo;
+                    onBoundary[boundaryCount++] = hi;
+                }
+            }
+        }
+
+        if (count == 0) {
+            // Never meets the boundary and both endpoints are inside
+            return true;
+        }
+
+        if (count + 2 > ts.length) {
+            ts = Arrays.copyOf(ts, count + 2);
+        }
+        ts[count++] = 0.0;
+        ts[count++] = 1.0;
+        Arrays.sort(ts, 0, count);
+
+        for (int i = 1; i < count; i++) {
+            double t0 = ts[i - 1];
+            double t1 = ts[i];
+            if (t1 - t0 <= EPSILON) {
+                continue;
+            }
+            double mid = (t0 + t1) / 2.0;
+            if (withinAny(onBoundary, boundaryCount, mid)) {
+                continue;
+            }
+            double mx = ax + rx * mid;
+            double mz = az + rz * mid;
+            if (!containsPoint(edges, mx, mz)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean withinAny(double[] intervals, int count, double t) {
+        for (int i = 0; i + 1 < count; i += 2) {
+            if (t >= intervals[i] - EPSILON && t <= intervals[i + 1] + EPSILON) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closed point-in-polygon test for real coordinates (boundary counts as inside).
+     */
+    private static boolean containsPoint(EdgeIndex edges, double px, double pz) {
+        boolean inside = false;
+        for (int e = 0; e < edges.size; e++) {
+            double x1 = edges.ax[e];
+            double z1 = edges.az[e];
+            double x2 = edges.bx[e];
+            double z2 = edges.bz[e];
+
+            // On-edge check
+            double cross = (x2 - x1) * (pz - z1) - (z2 - z1) * (px - x1);
+            if (Math.abs(cross) <= EPSILON
+                && px >= Math.min(x1, x2) - EPSILON && px <= Math.max(x1, x2) + EPSILON
+                && pz >= Math.min(z1, z2) - EPSILON && pz <= Math.max(z1, z2) + EPSILON) {
+                return true;
+            }
+
+            if ((z1 > pz) != (z2 > pz)) {
+                double xCross = x1 + (pz - z1) * (x2 - x1) / (z2 - z1);
+                if (px < xCross) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static double clamp(double t) {
+        return t < 0 ? 0 : (t > 1 ? 1 : t);
+    }
+}
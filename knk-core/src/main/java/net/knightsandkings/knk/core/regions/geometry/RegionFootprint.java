@@ -0,0 +1,301 @@
+package net.knightsandkings.knk.core.regions.geometry;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable, platform-independent copy of a WorldGuard region's shape.
+ *
+ * Stores block coordinates only, so it can be queried from any thread without touching
+ * WorldGuard. Containment follows WorldGuard's block semantics: cuboids are inclusive on
+ * both corners and polygons use the same even-odd test (vertices and edges count as inside).
+ */
+public final class RegionFootprint {
+    private final String regionId;
+    private final String worldName;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    // Polygon vertices in order; null for cuboids
+    private final int[] xs;
+    private final int[] zs;
+    // Built on first containment query; racing builds produce identical indexes
+    private volatile EdgeIndex edgeIndex;
+
+    private RegionFootprint(String regionId, String worldName,
+                            int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                            int[] xs, int[] zs) {
+        this.regionId = Objects.requireNonNull(regionId, "regionId");
+        this.worldName = Objects.requireNonNull(worldName, "worldName");
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.xs = xs;
+        this.zs = zs;
+    }
+
+    /**
+     * Create a footprint for a cuboid region.
+     */
+    public static RegionFootprint cuboid(String regionId, String worldName,
+                                         int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return new RegionFootprint(regionId, worldName,
+            Math.min(minX, maxX), Math.min(minY, maxY), Math.min(minZ, maxZ),
+            Math.max(minX, maxX), Math.max(minY, maxY), Math.max(minZ, maxZ),
+            null, null);
+    }
+
+    /**
+     * Create a footprint for a 2D polygon region extruded between minY and maxY.
+     *
+     * @param xs vertex X coordinates, in polygon order
+     * @param zs vertex Z coordinates, in polygon order
+     */
+    public static RegionFootprint polygon(String regionId, String worldName,
+                                          int[] xs, int[] zs, int minY, int maxY) {
+        if (xs == null || zs == null || xs.length != zs.length || xs.length < 3) {
+            throw new IllegalArgumentException("Polygon requires at least 3 vertices with matching x/z arrays");
+        }
+        int bMinX = Integer.MAX_VALUE;
+        int bMinZ = Integer.MAX_VALUE;
+        int bMaxX = Integer.MIN_VALUE;
+        int bMaxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            bMinX = Math.min(bMinX, xs[i]);
+            bMaxX = Math.max(bMaxX, xs[i]);
+            bMinZ = Math.min(bMinZ, zs[i]);
+            bMaxZ = Math.max(bMaxZ, zs[i]);
+        }
+        return new RegionFootprint(regionId, worldName,
+            bMinX, Math.min(minY, maxY), bMinZ, bMaxX, Math.max(minY, maxY), bMaxZ,
+            xs.clone(), zs.clone());
+    }
+
+    /**
+     * Create a footprint from the XZ convex hull of a set of points, e.g. the vertices of a
+     * convex polyhedral region projected onto the ground plane.
+     */
+    public static RegionFootprint convexHull(String regionId, String worldName,
+                                             int[] xs, int[] zs, int minY, int maxY) {
+        if (xs == null || zs == null || xs.length != zs.length || xs.length == 0) {
+            throw new IllegalArgumentException("Convex hull requires at least one point with matching x/z arrays");
+        }
+        int n = xs.length;
+        long[][] points = new long[n][];
+        for (int i = 0; i < n; i++) {
+            points[i] = new long[] {xs[i], zs[i]};
+        }
+        Arrays.sort(points, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        // Andrew's monotone chain, O(n log n)
+        long[][] hull = new long[2 * n][];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            while (k >= 2 && cross(hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = points[i];
+        }
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && cross(hull[k - 2], hull[k - 1], points[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = points[i];
+        }
+        int size = Math.max(1, k - 1);
+
+        if (size < 3) {
+            // Degenerate (point or line): fall back to the bounding box
+            int bMinX = Integer.MAX_VALUE;
+            int bMinZ = Integer.MAX_VALUE;
+            int bMaxX = Integer.MIN_VALUE;
+            int bMaxZ = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                bMinX = Math.min(bMinX, xs[i]);
+                bMaxX = Math.max(bMaxX, xs[i]);
+                bMinZ = Math.min(bMinZ, zs[i]);
+                bMaxZ = Math.max(bMaxZ, zs[i]);
+            }
+            return cuboid(regionId, worldName, bMinX, minY, bMinZ, bMaxX, maxY, bMaxZ);
+        }
+
+        int[] hullXs = new int[size];
+        int[] hullZs = new int[size];
+        for (int i = 0; i < size; i++) {
+            hullXs[i] = (int) hull[i][0];
+            hullZs[i] = (int) hull[i][1];
+        }
+        return polygon(regionId, worldName, hullXs, hullZs, minY, maxY);
+    }
+
+    private static long cross(long[] o, long[] a, long[] b) {
+        return (a[0] - o[0]) * (b[1] - o[1]) - (a[1] - o[1]) * (b[0] - o[0]);
+    }
+
+    public String getRegionId() {
+        return regionId;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public boolean isPolygon() {
+        return xs != null;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * @return number of vertices; 4 for cuboids (their XZ corners)
+     */
+    public int vertexCount() {
+        return xs != null ? xs.length : 4;
+    }
+
+    /**
+     * @return X coordinate of vertex i; cuboid corners are ordered counter-clockwise from (minX, minZ)
+     */
+    public int vertexX(int i) {
+        if (xs != null) {
+            return xs[i];
+        }
+        return (i == 0 || i == 3) ? minX : maxX;
+    }
+
+    /**
+     * @return Z coordinate of vertex i; cuboid corners are ordered counter-clockwise from (minX, minZ)
+     */
+    public int vertexZ(int i) {
+        if (zs != null) {
+            return zs[i];
+        }
+        return (i == 0 || i == 1) ? minZ : maxZ;
+    }
+
+    /**
+     * Edge list of this footprint sorted for range queries, built once and reused.
+     */
+    EdgeIndex edges() {
+        EdgeIndex index = edgeIndex;
+        if (index == null) {
+            index = new EdgeIndex(this);
+            edgeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Bounding-box overlap test on the XZ plane.
+     */
+    public boolean boundsIntersect(int otherMinX, int otherMinZ, int otherMaxX, int otherMaxZ) {
+        return minX <= otherMaxX && maxX >= otherMinX && minZ <= otherMaxZ && maxZ >= otherMinZ;
+    }
+
+    /**
+     * Check whether a block column (ignoring Y) lies inside this footprint.
+     */
+    public boolean contains(int x, int z) {
+        if (x < minX || x > maxX || z < minZ || z > maxZ) {
+            return false;
+        }
+        if (xs == null) {
+            return true;
+        }
+        return polygonContains(x, z);
+    }
+
+    /**
+     * Check whether a block lies inside this footprint including its Y range.
+     */
+    public boolean contains(int x, int y, int z) {
+        return y >= minY && y <= maxY && contains(x, z);
+    }
+
+    /**
+     * Even-odd test mirroring ProtectedPolygonalRegion#contains, so results match WorldGuard exactly.
+     */
+    private boolean polygonContains(int targetX, int targetZ) {
+        boolean inside = false;
+        int n = xs.length;
+        int xOld = xs[n - 1];
+        int zOld = zs[n - 1];
+
+        for (int i = 0; i < n; i++) {
+            int xNew = xs[i];
+            int zNew = zs[i];
+            if (xNew == targetX && zNew == targetZ) {
+                return true;
+            }
+
+            int x1;
+            int x2;
+            int z1;
+            int z2;
+            if (xNew > xOld) {
+                x1 = xOld;
+                x2 = xNew;
+                z1 = zOld;
+                z2 = zNew;
+            } else {
+                x1 = xNew;
+                x2 = xOld;
+                z1 = zNew;
+                z2 = zOld;
+            }
+
+            if (x1 <= targetX && targetX <= x2) {
+                long crossProduct = ((long) targetZ - (long) z1) * (long) (x2 - x1)
+                    - ((long) z2 - (long) z1) * (long) (targetX - x1);
+                if (crossProduct == 0) {
+                    if ((z1 <= targetZ) == (targetZ <= z2)) {
+                        return true; // on edge
+                    }
+                } else if (crossProduct < 0 && x1 != targetX) {
+                    inside = !inside;
+                }
+            }
+            xOld = xNew;
+            zOld = zNew;
+        }
+        return inside;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionFootprint{" +
+            "regionId='" + regionId + '\'' +
+            ", world='" + worldName + '\'' +
+            ", bounds=[" + minX + "," + minZ + " -> " + maxX + "," + maxZ + "]" +
+            (xs != null ? ", vertices=" + Arrays.toString(xs) + "/" + Arrays.toString(zs) : "") +
+            '}';
+    }
+}
@@ -0,0 +1,172 @@
+package net.knightsandkings.knk.core.scheduler;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel driven by one {@link #advance()} call per server tick.
+ * <p>
+ * Timers are hashed into {@code slotCount} buckets by deadline; each advance only visits the
+ * current bucket, so scheduling, cancelling and expiring are O(1) regardless of how many timers
+ * are pending. Timers further away than one revolution stay in their bucket until their round
+ * comes up. Buckets are intrusive doubly linked lists, so cancelling needs no search. Timers due
+ * on the same tick run in the order they were scheduled.
+ * <p>
+ * Not thread-safe: schedule, cancel and advance from the server thread only.
+ */
+public final class TickWheel {
+    private static final Logger LOGGER = Logger.getLogger(TickWheel.class.getName());
+
+    private static final int DONE = 0;
+    private static final int LINKED = 1;
+    private static final int DUE = 2;
+
+    private final Timeout[] heads;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param slotCount number of buckets, rounded up to a power of two
+     */
+    public TickWheel(int slotCount) {
+        int slots = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.heads = new Timeout[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Ticks advanced so far.
+     */
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Run {@code task} after {@code delayTicks} advances (at least one).
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(this, currentTick + Math.max(1L, delayTicks), task);
+        link(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance one tick and run every timer that is due.
+     *
+     * @return number of timers run
+     */
+    public int advance() {
+        currentTick++;
+        int bucket = (int) (currentTick & mask);
+
+        // Detach everything due before running any task: tasks may schedule or cancel timers
+        Timeout due = null;
+        Timeout timeout = heads[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= currentTick) {
+                unlink(timeout);
+                timeout.state = DUE;
+                timeout.next = due;
+                due = timeout;
+            }
+            timeout = next;
+        }
+
+        int ran = 0;
+        while (due != null) {
+            Timeout next = due.next;
+            due.next = null;
+            if (due.state == DUE) {
+                due.state = DONE;
+                ran++;
+                try {
+                    due.task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Timed task failed", e);
+                }
+            }
+            due = next;
+        }
+        return ran;
+    }
+
+    private void link(Timeout timeout) {
+        int bucket = (int) (timeout.deadline & mask);
+        Timeout head = heads[bucket];
+        timeout.bucket = bucket;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        heads[bucket] = timeout;
+        timeout.state = LINKED;
+        size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.state = DONE;
+        size--;
+    }
+
+    /**
+     * Handle of a scheduled timer.
+     */
+    public static final class Timeout {
+        private final TickWheel wheel;
+        private final long deadline;
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket;
+        private int state;
+
+        private Timeout(TickWheel wheel, long deadline, Runnable task) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Tick at which the timer runs.
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return state != DONE;
+        }
+
+        /**
+         * @return true if the timer was still pending and will no longer run
+         */
+        public boolean cancel() {
+            if (state == LINKED) {
+                wheel.unlink(this);
+                return true;
+            }
+            if (state == DUE) {
+                // Detached for this tick's run but not started yet
+                state = DONE;
+                return true;
+            }
+            return false;
+        }
+    }
+}
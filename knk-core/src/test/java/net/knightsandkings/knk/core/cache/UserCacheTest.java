@@ -0,0 +1,81 @@
+package net.knightsandkings.knk.core.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+
+class UserCacheTest {
+
+    @Test
+    void usernameIndexIsCaseInsensitive() {
+        UserCache cache = new UserCache(Duration.ofMinutes(5));
+        UUID uuid = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Steve", uuid, 10));
+
+        assertEquals(uuid, cache.getByUsername("steve").orElseThrow().uuid());
+        assertTrue(cache.getByUsername("Alex").isEmpty());
+    }
+
+    @Test
+    void renameDropsOldUsername() {
+        UserCache cache = new UserCache(Duration.ofMinutes(5));
+        UUID uuid = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Steve", uuid, 10));
+        cache.put(new UserSummary(1, "Herobrine", uuid, 10));
+
+        assertTrue(cache.getByUsername("Steve").isEmpty());
+        assertTrue(cache.getByUsername("Herobrine").isPresent());
+    }
+
+    @Test
+    void pinnedEntriesSurviveExpiry() throws InterruptedException {
+        UserCache cache = new UserCache(Duration.ofMillis(1));
+        UUID online = UUID.randomUUID();
+        UUID offline = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Online", online, 0));
+        cache.put(new UserSummary(2, "Offline", offline, 0));
+        cache.pin(online);
+
+        Thread.sleep(10);
+
+        assertTrue(cache.getByUuid(online).isPresent());
+        assertTrue(cache.getByUuid(offline).isEmpty());
+        assertEquals(1, cache.evictExpired());
+        assertEquals(1, cache.size());
+        assertTrue(cache.getByUsername("Offline").isEmpty());
+    }
+
+    @Test
+    void unpinRestartsTtl() throws InterruptedException {
+        UserCache cache = new UserCache(Duration.ofMillis(200));
+        UUID uuid = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Steve", uuid, 0));
+        cache.pin(uuid);
+        Thread.sleep(300);
+
+        // Fetched longer than a TTL ago, but the quit starts a fresh TTL
+        cache.unpin(uuid);
+
+        assertEquals(0, cache.evictExpired());
+        assertTrue(cache.getByUuid(uuid).isPresent());
+    }
+
+    @Test
+    void peekServesExpiredEntriesWithoutMetrics() throws InterruptedException {
+        UserCache cache = new UserCache(Duration.ofMillis(1));
+        UUID uuid = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Steve", uuid, 10));
+        Thread.sleep(10);
+
+        assertEquals(10, cache.peek(uuid).orElseThrow().coins());
+        assertTrue(cache.peek(UUID.randomUUID()).isEmpty());
+        assertEquals(0, cache.getMetrics().getHits());
+        assertEquals(0, cache.getMetrics().getMisses());
+        assertEquals(0, cache.getMetrics().getStaleHits());
+    }
+}
@@ -0,0 +1,132 @@
+package net.knightsandkings.knk.core.cooldown;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownJournalTest {
+    private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Test
+    void cooldownSurvivesRestartWithWallClockTimePassed() throws IOException {
+        Path file = Files.createTempDirectory("cooldowns").resolve("cooldowns.dat");
+        AtomicLong wallMs = new AtomicLong(1_000_000L);
+
+        CooldownStore before = new CooldownStore(new AtomicLong(5_000L)::get);
+        CooldownJournal journal = new CooldownJournal(before, file, 0L, wallMs::get);
+        journal.load();
+        before.startCooldown(PLAYER, before.slot("strength"), 2_400L);
+        assertEquals(1, journal.dirtyCount());
+        assertEquals(1, journal.flush());
+        assertEquals(0, journal.dirtyCount());
+
+        // Restart: tick counter starts over, 30 seconds of wall-clock time have passed
+        wallMs.addAndGet(30_000L);
+        CooldownStore after = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal reloaded = new CooldownJournal(after, file, 0L, wallMs::get);
+        assertEquals(1, reloaded.load());
+        assertEquals(0L, after.remainingTicks(PLAYER, after.slot("strength")));
+
+        assertTrue(reloaded.restore(PLAYER));
+        assertEquals(1_800L, after.remainingTicks(PLAYER, after.slot("strength")));
+        assertEquals(0, reloaded.dirtyCount());
+        assertFalse(reloaded.restore(PLAYER));
+    }
+
+    @Test
+    void clearedAndExpiredCooldownsAreNotRestored() throws IOException {
+        Path file = Files.createTempDirectory("cooldowns").resolve("cooldowns.dat");
+        AtomicLong wallMs = new AtomicLong(1_000_000L);
+        AtomicLong tick = new AtomicLong(100L);
+        UUID cleared = UUID.randomUUID();
+
+        CooldownStore store = new CooldownStore(tick::get);
+        CooldownJournal journal = new CooldownJournal(store, file, 0L, wallMs::get);
+        journal.load();
+        store.startCooldown(PLAYER, store.slot("chaos"), 20L);
+        store.startCooldown(cleared, store.slot("chaos"), 2_000L);
+        journal.flush();
+        store.clearPlayer(cleared);
+        journal.flush();
+
+        wallMs.addAndGet(5_000L);
+        CooldownStore after = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal reloaded = new CooldownJournal(after, file, 0L, wallMs::get);
+
+        assertEquals(0, reloaded.load());
+    }
+
+    @Test
+    void compactionKeepsPlayersThatHaveNotRejoined() throws IOException {
+        Path file = Files.createTempDirectory("cooldowns").resolve("cooldowns.dat");
+        AtomicLong wallMs = new AtomicLong(1_000_000L);
+
+        CooldownStore store = new CooldownStore(new AtomicLong(10L)::get);
+        CooldownJournal journal = new CooldownJournal(store, file, 0L, wallMs::get);
+        journal.load();
+        store.startCooldown(PLAYER, store.slot("invisibility"), 1_800L);
+        journal.flush();
+
+        CooldownStore second = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal secondJournal = new CooldownJournal(second, file, 0L, wallMs::get);
+        secondJournal.load();
+        secondJournal.compact();
+
+        CooldownStore third = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal thirdJournal = new CooldownJournal(third, file, 0L, wallMs::get);
+        assertEquals(1, thirdJournal.load());
+        thirdJournal.restore(PLAYER);
+        assertEquals(1_800L, third.remainingTicks(PLAYER, third.slot("invisibility")));
+    }
+
+    @Test
+    void partialRecordAtEndIsIgnored() throws IOException {
+        Path file = Files.createTempDirectory("cooldowns").resolve("cooldowns.dat");
+        AtomicLong wallMs = new AtomicLong(1_000_000L);
+
+        CooldownStore store = new CooldownStore(new AtomicLong(10L)::get);
+        CooldownJournal journal = new CooldownJournal(store, file, 0L, wallMs::get);
+        journal.load();
+        store.startCooldown(PLAYER, store.slot("poison"), 200L);
+        journal.flush();
+        Files.write(file, new byte[]{3, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        CooldownStore after = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal reloaded = new CooldownJournal(after, file, 0L, wallMs::get);
+
+        assertEquals(1, reloaded.load());
+        reloaded.restore(PLAYER);
+        assertEquals(200L, after.remainingTicks(PLAYER, after.slot("poison")));
+    }
+
+    @Test
+    void lastUseValuesAreKeptForTheRetentionWindow() throws IOException {
+        Path file = Files.createTempDirectory("cooldowns").resolve("cooldowns.dat");
+        AtomicLong wallMs = new AtomicLong(1_000_000L);
+        AtomicLong tick = new AtomicLong(50L);
+
+        CooldownStore store = new CooldownStore(tick::get);
+        CooldownJournal journal = new CooldownJournal(store, file, 60_000L, wallMs::get);
+        journal.load();
+        store.set(PLAYER, store.slot("link.generate"), store.currentTick());
+        journal.flush();
+
+        wallMs.addAndGet(10_000L);
+        CooldownStore after = new CooldownStore(new AtomicLong(1L)::get);
+        CooldownJournal reloaded = new CooldownJournal(after, file, 60_000L, wallMs::get);
+        reloaded.load();
+        reloaded.restore(PLAYER);
+
+        // Used 10 seconds (200 ticks) ago, before this server started
+        assertEquals(-199L, after.get(PLAYER, after.slot("link.generate")));
+    }
+}
@@ -0,0 +1,100 @@
+package net.knightsandkings.knk.core.cooldown;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownStoreTest {
+
+    @Test
+    void slotsAreDenseAndStable() {
+        CooldownStore store = new CooldownStore(new AtomicLong()::get);
+
+        int poison = store.slot("poison");
+        int chaos = store.slot("chaos");
+
+        assertEquals(0, poison);
+        assertEquals(1, chaos);
+        assertEquals(poison, store.slot("poison"));
+        assertEquals("chaos", store.key(chaos));
+        assertNull(store.key(5));
+    }
+
+    @Test
+    void cooldownCountsDownInTicks() {
+        AtomicLong tick = new AtomicLong(100);
+        CooldownStore store = new CooldownStore(tick::get);
+        UUID playerId = UUID.randomUUID();
+        int slot = store.slot("strength");
+
+        store.startCooldown(playerId, slot, CooldownStore.millisToTicks(2_000));
+        assertEquals(40L, store.remainingTicks(playerId, slot));
+
+        tick.addAndGet(30);
+        assertEquals(10L, store.remainingTicks(playerId, slot));
+
+        tick.addAndGet(10);
+        assertEquals(0L, store.remainingTicks(playerId, slot));
+    }
+
+    @Test
+    void rowsGrowForSlotsRegisteredLater() {
+        CooldownStore store = new CooldownStore(new AtomicLong(1)::get);
+        UUID playerId = UUID.randomUUID();
+
+        store.startCooldown(playerId, store.slot("first"), 20);
+        int late = store.slot("late");
+        store.startCooldown(playerId, late, 40);
+
+        assertEquals(20L, store.remainingTicks(playerId, store.slot("first")));
+        assertEquals(40L, store.remainingTicks(playerId, late));
+    }
+
+    @Test
+    void evictionKeepsPlayersWithRunningCooldowns() {
+        AtomicLong tick = new AtomicLong(0);
+        CooldownStore store = new CooldownStore(tick::get);
+        UUID active = UUID.randomUUID();
+        UUID idle = UUID.randomUUID();
+        int slot = store.slot("chaos");
+
+        store.startCooldown(active, slot, 100);
+        store.startCooldown(idle, slot, 5);
+        tick.set(10);
+
+        assertFalse(store.evictIfOlderThan(active, store.currentTick()));
+        assertTrue(store.evictIfOlderThan(idle, store.currentTick()));
+        assertEquals(1, store.playerCount());
+
+        tick.set(200);
+        assertEquals(1, store.sweep(store.currentTick()));
+        assertEquals(0, store.playerCount());
+    }
+
+    @Test
+    void writeAfterEvictionStartsFreshRow() {
+        AtomicLong tick = new AtomicLong(0);
+        CooldownStore store = new CooldownStore(tick::get);
+        UUID playerId = UUID.randomUUID();
+        int slot = store.slot("poison");
+
+        store.set(playerId, slot, 1);
+        store.sweep(5);
+        store.startCooldown(playerId, slot, 20);
+
+        assertEquals(20L, store.remainingTicks(playerId, slot));
+    }
+
+    @Test
+    void millisRoundUpToWholeTicks() {
+        assertEquals(0L, CooldownStore.millisToTicks(0));
+        assertEquals(1L, CooldownStore.millisToTicks(1));
+        assertEquals(2400L, CooldownStore.millisToTicks(120_000));
+    }
+}
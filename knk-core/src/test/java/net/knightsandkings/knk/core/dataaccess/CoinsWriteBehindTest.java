@@ -0,0 +1,266 @@
+package net.knightsandkings.knk.core.dataaccess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.core.cache.UserCache;
+import net.knightsandkings.knk.core.domain.common.Page;
+import net.knightsandkings.knk.core.domain.common.PagedQuery;
+import net.knightsandkings.knk.core.domain.users.UserDetail;
+import net.knightsandkings.knk.core.domain.users.UserListItem;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+import net.knightsandkings.knk.core.ports.api.UsersCommandApi;
+import net.knightsandkings.knk.core.ports.api.UsersQueryApi;
+
+class CoinsWriteBehindTest {
+
+    private UserCache cache;
+    private RecordingCommandApi commandApi;
+    private UUID uuid;
+    // Balances held by the API
+    private final Map<UUID, UserSummary> server = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(Duration.ofMinutes(15));
+        commandApi = new RecordingCommandApi();
+        uuid = UUID.randomUUID();
+        server.put(uuid, new UserSummary(1, "Steve", uuid, 100));
+        cache.put(server.get(uuid));
+    }
+
+    @Test
+    void mergesDeltasIntoOneWrite() {
+        CoinsWriteBehind writeBehind = newWriteBehind(100);
+
+        writeBehind.add(uuid, 5);
+        writeBehind.add(uuid, 10);
+        writeBehind.add(uuid, -3);
+
+        assertEquals(112, cache.getByUuid(uuid).orElseThrow().coins());
+        assertEquals(1, writeBehind.flushAsync().join());
+        assertEquals(List.of(112), commandApi.writes);
+        assertEquals(0, writeBehind.pendingCount());
+        assertEquals(112, cache.getByUuid(uuid).orElseThrow().coins());
+    }
+
+    @Test
+    void failedWriteKeepsDelta() {
+        CoinsWriteBehind writeBehind = newWriteBehind(100);
+        commandApi.fail = true;
+
+        writeBehind.add(uuid, 7);
+
+        assertEquals(0, writeBehind.flushAsync().join());
+        assertEquals(7, writeBehind.pendingDelta(uuid));
+        assertEquals(107, cache.getByUuid(uuid).orElseThrow().coins());
+
+        commandApi.fail = false;
+        assertEquals(1, writeBehind.flushAsync().join());
+        assertEquals(List.of(107), commandApi.writes);
+    }
+
+    @Test
+    void flushesWhenBatchIsFull() {
+        CoinsWriteBehind writeBehind = newWriteBehind(2);
+        UUID other = UUID.randomUUID();
+        server.put(other, new UserSummary(2, "Alex", other, 0));
+        cache.put(server.get(other));
+
+        writeBehind.add(uuid, 1);
+        assertTrue(commandApi.writes.isEmpty());
+        writeBehind.add(other, 1);
+
+        assertEquals(2, commandApi.writes.size());
+    }
+
+    @Test
+    void failedFlushLeavesRetriesToTimer() {
+        CoinsWriteBehind writeBehind = newWriteBehind(1);
+        commandApi.fail = true;
+
+        writeBehind.add(uuid, 1);
+        writeBehind.add(uuid, 1);
+        assertEquals(1, commandApi.attempts);
+
+        commandApi.fail = false;
+        assertEquals(1, writeBehind.flushAsync().join());
+        assertEquals(2, commandApi.attempts);
+
+        writeBehind.add(uuid, 1);
+        assertEquals(3, commandApi.attempts);
+        assertEquals(List.of(102, 103), commandApi.writes);
+    }
+
+    @Test
+    void journalSurvivesRestart() throws Exception {
+        Path file = Files.createTempDirectory("coins").resolve("coins.dat");
+        CoinsWriteBehind first = newWriteBehind(100);
+        first.open(file);
+        commandApi.fail = true;
+        first.add(uuid, 25);
+        first.close();
+
+        UserCache restartedCache = new UserCache(Duration.ofMinutes(15));
+        CoinsWriteBehind second = new CoinsWriteBehind(restartedCache, new StubQueryApi(), commandApi, 100);
+        restartedCache.setReadOverlay(second::overlay);
+
+        assertEquals(1, second.open(file));
+        assertEquals(25, second.pendingDelta(uuid));
+
+        // Not cached after the restart: the server balance is fetched before writing
+        commandApi.fail = false;
+        assertEquals(1, second.flushAsync().join());
+        assertEquals(List.of(125), commandApi.writes);
+    }
+
+    @Test
+    void flushKeepsBalanceChangedElsewhere() {
+        CoinsWriteBehind writeBehind = newWriteBehind(100);
+
+        writeBehind.add(uuid, 10);
+        // Coins awarded through the web while the cached entry still says 100
+        server.put(uuid, new UserSummary(1, "Steve", uuid, 150));
+
+        assertEquals(1, writeBehind.flushAsync().join());
+        assertEquals(List.of(160), commandApi.writes);
+        assertEquals(160, cache.getByUuid(uuid).orElseThrow().coins());
+    }
+
+    @Test
+    void replayDoesNotRecountWriteThatLandedBeforeCrash() throws Exception {
+        Path file = Files.createTempDirectory("coins").resolve("coins.dat");
+        CoinsWriteBehind first = newWriteBehind(100);
+        first.open(file);
+        commandApi.hang = true;
+        first.add(uuid, 25);
+        // The server applies the write, then the process dies before the journal is rewritten
+        first.flushAsync();
+        assertEquals(125, server.get(uuid).coins());
+
+        CoinsWriteBehind second = restarted(file);
+        commandApi.hang = false;
+        assertEquals(0, second.flushAsync().join());
+        assertEquals(0, second.pendingDelta(uuid));
+        assertEquals(List.of(125), commandApi.writes);
+        assertEquals(125, server.get(uuid).coins());
+    }
+
+    @Test
+    void replaySendsWriteThatNeverLanded() throws Exception {
+        Path file = Files.createTempDirectory("coins").resolve("coins.dat");
+        CoinsWriteBehind first = newWriteBehind(100);
+        first.open(file);
+        commandApi.fail = true;
+        first.add(uuid, 25);
+        first.flushAsync().join();
+
+        CoinsWriteBehind second = restarted(file);
+        commandApi.fail = false;
+        assertEquals(1, second.flushAsync().join());
+        assertEquals(0, second.pendingDelta(uuid));
+        assertEquals(List.of(125), commandApi.writes);
+
+        // Settled and journaled: a second restart has nothing to replay
+        CoinsWriteBehind third = restarted(file);
+        assertEquals(0, third.pendingDelta(uuid));
+        assertEquals(0, third.flushAsync().join());
+        assertEquals(List.of(125), commandApi.writes);
+    }
+
+    @Test
+    void replayDropsWriteWithUnknownOutcome() throws Exception {
+        Path file = Files.createTempDirectory("coins").resolve("coins.dat");
+        CoinsWriteBehind first = newWriteBehind(100);
+        first.open(file);
+        commandApi.hang = true;
+        first.add(uuid, 25);
+        first.flushAsync();
+        // Changed elsewhere after the write: the server balance matches neither side of it
+        server.put(uuid, new UserSummary(1, "Steve", uuid, 140));
+
+        CoinsWriteBehind second = restarted(file);
+        commandApi.hang = false;
+        assertEquals(0, second.flushAsync().join());
+        assertEquals(0, second.pendingDelta(uuid));
+        assertEquals(140, server.get(uuid).coins());
+    }
+
+    private CoinsWriteBehind restarted(Path file) throws Exception {
+        UserCache restartedCache = new UserCache(Duration.ofMinutes(15));
+        CoinsWriteBehind restarted = new CoinsWriteBehind(restartedCache, new StubQueryApi(), commandApi, 100);
+        restartedCache.setReadOverlay(restarted::overlay);
+        restarted.open(file);
+        return restarted;
+    }
+
+    private CoinsWriteBehind newWriteBehind(int batchSize) {
+        CoinsWriteBehind writeBehind = new CoinsWriteBehind(cache, new StubQueryApi(), commandApi, batchSize);
+        cache.setReadOverlay(writeBehind::overlay);
+        return writeBehind;
+    }
+
+    private class StubQueryApi implements UsersQueryApi {
+        @Override
+        public CompletableFuture<Page<UserListItem>> search(PagedQuery query) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<UserDetail> getById(int id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<UserSummary> getByUuid(UUID id) {
+            return CompletableFuture.completedFuture(server.get(id));
+        }
+
+        @Override
+        public CompletableFuture<UserSummary> getByUsername(String username) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private class RecordingCommandApi implements UsersCommandApi {
+        final List<Integer> writes = new ArrayList<>();
+        int attempts;
+        boolean fail;
+        // Apply the write but never answer, as if the process died with the call in flight
+        boolean hang;
+
+        @Override
+        public CompletableFuture<Void> setCoinsById(int id, int coins) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> setCoinsByUuid(UUID uuid, int coins) {
+            attempts++;
+            if (fail) {
+                return CompletableFuture.failedFuture(new IllegalStateException("API down"));
+            }
+            writes.add(coins);
+            UserSummary user = server.get(uuid);
+            server.put(uuid, new UserSummary(user.id(), user.username(), uuid, coins));
+            return hang ? new CompletableFuture<>() : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<UserDetail> create(UserDetail user) {
+            return CompletableFuture.completedFuture(user);
+        }
+    }
+}
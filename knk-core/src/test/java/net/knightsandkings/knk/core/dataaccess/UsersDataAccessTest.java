@@ -102,6 +102,19 @@ public class UsersDataAccessTest {
         assertTrue(cache.getByUuid(testUuid).isPresent());
     }
     
+    @Test
+    void testGetByUsername_ServedFromIndexAfterUuidFetch() throws Exception {
+        // Arrange: UUID fetch caches the user and indexes the name
+        gateway.getByUuidAsync(testUuid).get();
+        
+        // Act
+        FetchResult<UserSummary> result = gateway.getByUsernameAsync("testplayer").get();
+        
+        // Assert
+        assertEquals(FetchStatus.HIT, result.status());
+        assertEquals(testUser, result.value().orElse(null));
+    }
+    
     @Test
     void testGetByUsername_NotFound() throws Exception {
         // Arrange: API returns null for unknown username
@@ -0,0 +1,41 @@
+package net.knightsandkings.knk.core.domain.enchantment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnchantmentDataCodecTest {
+
+    @Test
+    void roundTripKeepsEntriesInOrder() {
+        Map<String, Integer> enchantments = new LinkedHashMap<>();
+        enchantments.put("poison", 2);
+        enchantments.put("flash_chaos", 1);
+        enchantments.put("strength", 2);
+
+        Map<String, Integer> decoded = EnchantmentDataCodec.decode(EnchantmentDataCodec.encode(enchantments));
+
+        assertEquals(enchantments, decoded);
+        assertEquals(List.of("poison", "flash_chaos", "strength"), List.copyOf(decoded.keySet()));
+    }
+
+    @Test
+    void emptyAndMalformedDataDecodeToEmptyMap() {
+        assertTrue(EnchantmentDataCodec.decode(EnchantmentDataCodec.encode(Map.of())).isEmpty());
+        assertTrue(EnchantmentDataCodec.decode(null).isEmpty());
+        assertTrue(EnchantmentDataCodec.decode(new byte[] {99, 1, 1, 'a', 1}).isEmpty());
+        assertTrue(EnchantmentDataCodec.decode(new byte[] {EnchantmentDataCodec.VERSION, 1, 6, 'p', 'o'}).isEmpty());
+    }
+
+    @Test
+    void encodeRejectsInvalidLevels() {
+        assertThrows(IllegalArgumentException.class, () -> EnchantmentDataCodec.encode(Map.of("poison", 0)));
+        assertThrows(IllegalArgumentException.class, () -> EnchantmentDataCodec.encode(Map.of("poison", 256)));
+    }
+}
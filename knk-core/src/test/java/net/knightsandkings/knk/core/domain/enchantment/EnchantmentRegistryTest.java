@@ -1,9 +1,13 @@
 package net.knightsandkings.knk.core.domain.enchantment;
 
+import net.knightsandkings.knk.core.domain.enchantments.KnkEnchantmentDefinition;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EnchantmentRegistryTest {
@@ -32,4 +36,53 @@ class EnchantmentRegistryTest {
         assertFalse(registry.existsAndValidLevel("unknown", 1));
         assertFalse(registry.existsAndValidLevel("strength", 0));
     }
+
+    @Test
+    void displayNameLookupIsCaseInsensitive() {
+        EnchantmentRegistry registry = EnchantmentRegistry.getInstance();
+        assertEquals("flash_chaos", registry.getByDisplayName("flash CHAOS").orElseThrow().id());
+        assertTrue(registry.getByDisplayName("Lifesteal").isEmpty());
+    }
+
+    @Test
+    void loreMatcherSkipsColourCodesAndReadsLevel() {
+        EnchantmentRegistry registry = EnchantmentRegistry.getInstance();
+
+        EnchantmentRegistry.LoreMatch flashChaos = registry.matchLore("§7Flash Chaos I");
+        EnchantmentRegistry.LoreMatch wither = registry.matchLore("§l§7Wither§r  III ");
+        EnchantmentRegistry.LoreMatch poison = registry.matchLore("poison 4");
+
+        assertEquals("flash_chaos", flashChaos.enchantment().id());
+        assertEquals(1, flashChaos.level());
+        assertEquals("wither", wither.enchantment().id());
+        assertEquals(3, wither.level());
+        assertEquals(4, poison.level());
+        assertNull(registry.matchLore("§7Chaos"));
+        assertNull(registry.matchLore("§7Chaos I extra"));
+        assertNull(registry.matchLore("§8Some other lore"));
+    }
+
+    @Test
+    void reloadFromDefinitionsOverridesBuiltInsAndIgnoresUnknownKeys() {
+        EnchantmentRegistry registry = EnchantmentRegistry.getInstance();
+        long version = registry.version();
+        try {
+            int applied = registry.reloadFromDefinitions(List.of(
+                    new KnkEnchantmentDefinition(1, "knk:poison", "Venom", null, true, 5, null, null),
+                    new KnkEnchantmentDefinition(2, "knk:lifesteal", "Lifesteal", null, true, 3, null, null),
+                    new KnkEnchantmentDefinition(3, "minecraft:sharpness", "Sharpness", null, false, 5, null, null)
+            ));
+
+            assertEquals(1, applied);
+            assertTrue(registry.version() > version);
+            assertEquals(12, registry.getAll().size());
+            assertEquals("Venom", registry.getById("poison").orElseThrow().displayName());
+            assertTrue(registry.existsAndValidLevel("poison", 5));
+            assertEquals("poison", registry.matchLore("§7Venom II").enchantment().id());
+            assertNull(registry.matchLore("§7Poison II"));
+        } finally {
+            registry.reloadFromDefinitions(List.of());
+        }
+        assertEquals("Poison", registry.getById("poison").orElseThrow().displayName());
+    }
 }
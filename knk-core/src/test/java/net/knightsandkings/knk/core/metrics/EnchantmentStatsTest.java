@@ -0,0 +1,78 @@
+package net.knightsandkings.knk.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnchantmentStatsTest {
+
+    @Test
+    void countsRollsTriggersAndRejectsPerLevel() {
+        EnchantmentStats stats = new EnchantmentStats();
+        EnchantmentStats.EffectStats poison = stats.effect("poison");
+
+        poison.recordRoll(1, true);
+        poison.recordRoll(1, false);
+        poison.recordRoll(2, true);
+        poison.recordCooldownReject(2);
+
+        assertSame(poison, stats.effect("poison"));
+        assertEquals(2, poison.rolls(1));
+        assertEquals(1, poison.triggers(1));
+        assertEquals(1, poison.rolls(2));
+        assertEquals(1, poison.cooldownRejects(2));
+    }
+
+    @Test
+    void highLevelsShareTheLastSlot() {
+        EnchantmentStats.EffectStats stats = new EnchantmentStats().effect("chaos");
+
+        stats.recordRoll(EnchantmentStats.MAX_TRACKED_LEVEL, true);
+        stats.recordRoll(EnchantmentStats.MAX_TRACKED_LEVEL + 5, true);
+
+        assertEquals(2, stats.triggers(EnchantmentStats.MAX_TRACKED_LEVEL));
+    }
+
+    @Test
+    void summaryListsMostExpensiveEffectFirst() {
+        EnchantmentStats stats = new EnchantmentStats();
+        stats.effect("poison").recordRoll(1, true);
+        stats.effect("poison").applyTime().record(1_000);
+        stats.effect("chaos").recordRoll(1, true);
+        stats.effect("chaos").applyTime().record(5_000_000);
+
+        List<String> lines = stats.summaryLines();
+
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("chaos: apply count=1"), lines.get(0));
+        assertTrue(lines.get(1).contains("level 1: rolls=1, triggers=1 (100.0%)"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("poison:"), lines.get(2));
+
+        stats.reset();
+        assertTrue(stats.summaryLines().isEmpty());
+    }
+
+    @Test
+    void resetKeepsStatsResolvedBeforeIt() {
+        EnchantmentStats stats = new EnchantmentStats();
+        // Resolved once, as effects do when the executor is built
+        EnchantmentStats.EffectStats freeze = stats.effect("freeze");
+        freeze.recordRoll(1, true);
+        freeze.applyTime().record(2_000);
+
+        stats.reset();
+        assertEquals(0, freeze.rolls(1));
+        assertEquals(0, freeze.applyTime().getCount());
+
+        freeze.applyTime().record(3_000);
+        stats.effect("freeze").recordRoll(1, true);
+
+        assertSame(freeze, stats.effect("freeze"));
+        assertEquals(1, stats.effect("freeze").applyTime().getCount());
+        assertTrue(stats.summaryLines().get(0).startsWith("freeze: apply count=1"), stats.summaryLines().get(0));
+    }
+}
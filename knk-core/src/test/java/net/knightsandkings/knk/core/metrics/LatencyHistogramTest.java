@@ -0,0 +1,41 @@
+package net.knightsandkings.knk.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentileNanos(99));
+        assertEquals(0, histogram.getAverageNanos());
+    }
+
+    @Test
+    void percentilesAreWithinFactorTwoOfSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        long p50 = histogram.percentileNanos(50);
+        assertTrue(p50 >= 1_000 && p50 < 2_048, "p50 was " + p50);
+        assertEquals(1_000_000, histogram.percentileNanos(100));
+        assertEquals(1_000_000, histogram.getMaxNanos());
+    }
+
+    @Test
+    void resetClearsSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,58 @@
+package net.knightsandkings.knk.core.regions.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolygonContainmentTest {
+
+    // U shape: base 0..10 x 0..5, arms up to z=10, notch between x=4 and x=6
+    private static final RegionFootprint U_SHAPE = RegionFootprint.polygon("town", "world",
+        new int[] {0, 10, 10, 6, 6, 4, 4, 0}, new int[] {0, 0, 10, 10, 5, 5, 10, 10}, 0, 255);
+
+    @Test
+    void rejectsChildSpanningConcaveNotchEvenWithAllVerticesInside() {
+        RegionFootprint spanning = RegionFootprint.cuboid("plot", "world", 2, 10, 7, 8, 20, 9);
+
+        assertFalse(PolygonContainment.contains(U_SHAPE, spanning));
+    }
+
+    @Test
+    void rejectsDiagonalEdgeThroughNotchCorners() {
+        RegionFootprint diagonal = RegionFootprint.polygon("plot", "world",
+            new int[] {4, 6, 1}, new int[] {5, 10, 8}, 10, 20);
+
+        assertFalse(PolygonContainment.contains(U_SHAPE, diagonal));
+    }
+
+    @Test
+    void acceptsChildTouchingParentEdges() {
+        RegionFootprint base = RegionFootprint.cuboid("plot", "world", 0, 10, 0, 10, 20, 5);
+        RegionFootprint intoNotch = RegionFootprint.cuboid("plot", "world", 0, 10, 0, 10, 20, 6);
+
+        assertTrue(PolygonContainment.contains(U_SHAPE, base));
+        assertTrue(PolygonContainment.contains(U_SHAPE, U_SHAPE));
+        assertFalse(PolygonContainment.contains(U_SHAPE, intoNotch));
+    }
+
+    @Test
+    void checksYRangeAndCuboidParents() {
+        RegionFootprint square = RegionFootprint.cuboid("district", "world", 0, 0, 0, 20, 255, 20);
+        RegionFootprint below = RegionFootprint.cuboid("plot", "world", 1, -1, 1, 2, 20, 2);
+
+        assertTrue(PolygonContainment.contains(square, U_SHAPE));
+        assertFalse(PolygonContainment.contains(U_SHAPE, square));
+        assertFalse(PolygonContainment.contains(U_SHAPE, below));
+    }
+
+    @Test
+    void convexHullDropsInteriorPoints() {
+        RegionFootprint hull = RegionFootprint.convexHull("plot", "world",
+            new int[] {0, 5, 10, 5, 5}, new int[] {0, 5, 0, 10, 2}, 0, 1);
+
+        assertEquals(3, hull.vertexCount());
+        assertTrue(hull.contains(5, 5));
+    }
+}
@@ -0,0 +1,59 @@
+package net.knightsandkings.knk.core.regions.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFootprintTest {
+
+    @Test
+    void cuboidContainsIsInclusiveOnBothCorners() {
+        RegionFootprint cuboid = RegionFootprint.cuboid("town", "world", 10, 0, 10, 0, 255, 0);
+
+        assertTrue(cuboid.contains(0, 0));
+        assertTrue(cuboid.contains(10, 10));
+        assertTrue(cuboid.contains(5, 7));
+        assertFalse(cuboid.contains(11, 5));
+        assertFalse(cuboid.contains(5, -1));
+        assertEquals(0, cuboid.getMinX());
+        assertEquals(10, cuboid.getMaxZ());
+    }
+
+    @Test
+    void polygonTreatsVerticesAndEdgesAsInside() {
+        RegionFootprint triangle = RegionFootprint.polygon("plot", "world",
+            new int[] {0, 10, 0}, new int[] {0, 0, 10}, 60, 80);
+
+        assertTrue(triangle.contains(0, 0));
+        assertTrue(triangle.contains(5, 0));
+        assertTrue(triangle.contains(5, 5));
+        assertTrue(triangle.contains(2, 2));
+        assertFalse(triangle.contains(6, 6));
+        assertFalse(triangle.contains(-1, 3));
+    }
+
+    @Test
+    void concavePolygonExcludesNotch() {
+        // U-shape: notch between x=4..6 from z=5 upwards
+        RegionFootprint u = RegionFootprint.polygon("u", "world",
+            new int[] {0, 10, 10, 6, 6, 4, 4, 0},
+            new int[] {0, 0, 10, 10, 5, 5, 10, 10},
+            0, 255);
+
+        assertTrue(u.contains(2, 8));
+        assertTrue(u.contains(8, 8));
+        assertFalse(u.contains(5, 8));
+        assertTrue(u.contains(5, 3));
+    }
+
+    @Test
+    void yRangeIsRespectedFor3dChecks() {
+        RegionFootprint cuboid = RegionFootprint.cuboid("c", "world", 0, 10, 0, 5, 20, 5);
+
+        assertTrue(cuboid.contains(1, 10, 1));
+        assertFalse(cuboid.contains(1, 21, 1));
+        assertTrue(cuboid.contains(1, 1));
+    }
+}
@@ -0,0 +1,106 @@
+package net.knightsandkings.knk.core.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickWheelTest {
+
+    @Test
+    void timersRunOnTheirDeadlineTick() {
+        TickWheel wheel = new TickWheel(8);
+        List<Long> runs = new ArrayList<>();
+
+        wheel.schedule(3, () -> runs.add(wheel.currentTick()));
+        wheel.schedule(1, () -> runs.add(wheel.currentTick()));
+
+        for (int i = 0; i < 5; i++) {
+            wheel.advance();
+        }
+
+        assertEquals(List.of(1L, 3L), runs);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersBeyondOneRevolutionWaitForTheirRound() {
+        TickWheel wheel = new TickWheel(4);
+        List<Long> runs = new ArrayList<>();
+
+        wheel.schedule(10, () -> runs.add(wheel.currentTick()));
+
+        for (int i = 0; i < 9; i++) {
+            wheel.advance();
+        }
+        assertTrue(runs.isEmpty());
+
+        wheel.advance();
+        assertEquals(List.of(10L), runs);
+    }
+
+    @Test
+    void cancelledTimerDoesNotRun() {
+        TickWheel wheel = new TickWheel(8);
+        int[] runs = {0};
+
+        TickWheel.Timeout first = wheel.schedule(2, () -> runs[0]++);
+        TickWheel.Timeout second = wheel.schedule(2, () -> runs[0] += 10);
+        TickWheel.Timeout third = wheel.schedule(2, () -> runs[0] += 100);
+
+        assertTrue(second.cancel());
+        assertFalse(second.cancel());
+        wheel.advance();
+        wheel.advance();
+
+        assertEquals(101, runs[0]);
+        assertFalse(first.isPending());
+        assertFalse(third.isPending());
+    }
+
+    @Test
+    void taskMayRescheduleAndFailuresDoNotStopTheTick() {
+        TickWheel wheel = new TickWheel(8);
+        int[] runs = {0};
+
+        wheel.schedule(1, () -> {
+            throw new IllegalStateException("boom");
+        });
+        wheel.schedule(1, new Runnable() {
+            @Override
+            public void run() {
+                if (++runs[0] < 3) {
+                    wheel.schedule(2, this);
+                }
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            wheel.advance();
+        }
+
+        assertEquals(3, runs[0]);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timerCancelledByAnotherDueTimerDoesNotRun() {
+        TickWheel wheel = new TickWheel(8);
+        int[] runs = {0};
+        TickWheel.Timeout[] victim = new TickWheel.Timeout[1];
+
+        wheel.schedule(1, () -> {
+            runs[0]++;
+            victim[0].cancel();
+        });
+        victim[0] = wheel.schedule(1, () -> runs[0] += 10);
+        wheel.advance();
+
+        // Due timers run in the order they were scheduled
+        assertEquals(1, runs[0]);
+    }
+}
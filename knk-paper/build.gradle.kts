@@ -29,8 +29,21 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform {
-        // Skip integration tests by default during build
-        excludeTags("integration", "requires-bukkit")
+        // Skip integration tests and benchmarks by default during build
+        excludeTags("integration", "requires-bukkit", "benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the micro-benchmarks tagged 'benchmark'."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
     }
 }
 
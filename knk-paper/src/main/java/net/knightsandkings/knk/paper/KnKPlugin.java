@@ -1,5 +1,7 @@
 package net.knightsandkings.knk.paper;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Logger;
@@ -12,6 +14,8 @@ import net.knightsandkings.knk.api.auth.AuthProvider;
 import net.knightsandkings.knk.api.auth.BearerAuthProvider;
 import net.knightsandkings.knk.api.auth.NoAuthProvider;
 import net.knightsandkings.knk.api.client.KnkApiClient;
+import net.knightsandkings.knk.core.cooldown.CooldownJournal;
+import net.knightsandkings.knk.core.dataaccess.FetchPolicy;
 import net.knightsandkings.knk.core.dataaccess.TownsDataAccess;
 import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
 import net.knightsandkings.knk.core.ports.api.DistrictsQueryApi;
@@ -47,24 +51,38 @@ import net.knightsandkings.knk.paper.dataaccess.DataAccessFactory;
 import net.knightsandkings.knk.paper.gates.PaperGateControlAdapter;
 import net.knightsandkings.knk.paper.http.RegionHttpServer;
 import net.knightsandkings.knk.paper.listeners.ChatCaptureListener;
+import net.knightsandkings.knk.paper.listeners.CooldownRestoreListener;
 import net.knightsandkings.knk.paper.listeners.PlayerListener;
 import net.knightsandkings.knk.paper.listeners.RegionTaskEventListener;
 import net.knightsandkings.knk.paper.listeners.UserAccountListener;
 import net.knightsandkings.knk.paper.listeners.WorldGuardRegionListener;
 import net.knightsandkings.knk.paper.listeners.WorldTaskChatListener;
+import net.knightsandkings.knk.paper.login.JoinWarmup;
+import net.knightsandkings.knk.paper.login.LoginAdmissionController;
+import net.knightsandkings.knk.paper.regions.RegionGeometryIndex;
 import net.knightsandkings.knk.paper.regions.WorldGuardRegionTracker;
+import net.knightsandkings.knk.paper.scoreboard.ScoreboardService;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+import net.knightsandkings.knk.paper.scheduler.MainThreadWorkQueue;
+import net.knightsandkings.knk.paper.tasks.CooldownPersistenceTask;
+import net.knightsandkings.knk.paper.tasks.TempRegionExpiryIndex;
 import net.knightsandkings.knk.paper.tasks.TempRegionRetentionTask;
 import net.knightsandkings.knk.paper.tasks.WgRegionIdTaskHandler;
 import net.knightsandkings.knk.paper.tasks.LocationTaskHandler;
 import net.knightsandkings.knk.paper.tasks.WorldTaskHandlerRegistry;
+import net.knightsandkings.knk.paper.user.AccountFlows;
 import net.knightsandkings.knk.paper.user.UserManager;
 import net.knightsandkings.knk.paper.utils.CommandCooldownManager;
 
 public class KnKPlugin extends JavaPlugin {
+    // Command cooldowns older than this are dropped from memory and from the cooldown journal
+    private static final int COMMAND_COOLDOWN_MAX_AGE_SECONDS = 3600;
     private KnkApiClient apiClient;
     private RegionHttpServer regionHttpServer;
     private KnkConfig config;
     private CacheManager cacheManager;
+    private ScoreboardService scoreboardService;
     private DataAccessFactory dataAccessFactory;
     private TownsQueryApi townsQueryApi;
     private LocationsQueryApi locationsQueryApi;
@@ -87,10 +105,17 @@ public class KnKPlugin extends JavaPlugin {
     private WorldTaskHandlerRegistry worldTaskHandlerRegistry;
     private UserManager userManager;
     private ChatCaptureManager chatCaptureManager;
+    private PlayerSessionRegistry sessionRegistry;
+    private PlayerSlots playerSlots;
+    private AccountFlows accountFlows;
+    private LoginAdmissionController loginAdmission;
     private CommandCooldownManager cooldownManager;
     private EnchantmentBootstrap.EnchantmentRuntime enchantmentRuntime;
     private ExecutorService regionLookupExecutor;
     private TempRegionRetentionTask tempRegionRetentionTask;
+    private CooldownPersistenceTask cooldownPersistenceTask;
+    private RegionGeometryIndex regionGeometryIndex;
+    private MainThreadWorkQueue mainThreadWorkQueue;
     
     @Override
     public void onEnable() {
@@ -150,21 +175,30 @@ public class KnKPlugin extends JavaPlugin {
             // Initialize cache manager
             this.cacheManager = new CacheManager(config.cache().ttl());
             getLogger().info("Cache manager initialized with TTL: " + config.cache().ttl());
+
+            // Dense per-player slots for per-player state arrays; players already online after a reload get theirs now
+            this.playerSlots = new PlayerSlots();
+            getServer().getOnlinePlayers().forEach(player -> playerSlots.acquire(player.getUniqueId()));
+            getServer().getPluginManager().registerEvents(playerSlots, this);
             
                         // Initialize UserManager for account management (Phase 2)
                         this.userManager = new UserManager(
                             this,
                             userAccountApi,
                             usersQueryApi,
-                            cacheManager.getUserCache(),  // Legacy cache for PlayerListener compatibility
+                            cacheManager.getUserCache(),  // Session store shared with UsersDataAccess
                             getLogger(),
                             config.account(),
                             config.messages()
                         );
                         getLogger().info("UserManager initialized for account management");
             
+            // Per-player chat capture and world task sessions: timeouts on one wheel, ended on quit
+            this.sessionRegistry = new PlayerSessionRegistry(this);
+            getServer().getPluginManager().registerEvents(sessionRegistry, this);
+
             // Initialize ChatCaptureManager for secure input (Phase 3)
-            this.chatCaptureManager = new ChatCaptureManager(this, config, getLogger());
+            this.chatCaptureManager = new ChatCaptureManager(this, config, getLogger(), sessionRegistry);
             getLogger().info("ChatCaptureManager initialized for secure chat input");
             
             // Initialize CommandCooldownManager for rate limiting (Phase 5)
@@ -176,7 +210,7 @@ public class KnKPlugin extends JavaPlugin {
             int cleanupTicks = cleanupInterval * 60 * 20; // Convert minutes to ticks (20 ticks/sec)
             getServer().getScheduler().runTaskTimerAsynchronously(
                 this,
-                () -> cooldownManager.cleanup(3600), // Remove cooldowns older than 1 hour
+                () -> cooldownManager.cleanup(COMMAND_COOLDOWN_MAX_AGE_SECONDS),
                 cleanupTicks,
                 cleanupTicks
             );
@@ -192,30 +226,50 @@ public class KnKPlugin extends JavaPlugin {
             // Initialize WorldTask handler registry and register handlers
             this.worldTaskHandlerRegistry = new WorldTaskHandlerRegistry();
             
+            // Off-main-thread region geometry for containment queries (rebuilt when regions change)
+            regionGeometryIndex = new RegionGeometryIndex(this);
+            regionGeometryIndex.start();
+
+            // Creation-time index of temp regions, used by the retention task instead of a full scan
+            TempRegionExpiryIndex tempRegionExpiryIndex = new TempRegionExpiryIndex(this);
+
             // Register WgRegionId handler
-            WgRegionIdTaskHandler wgRegionIdHandler = new WgRegionIdTaskHandler(worldTasksApi, this);
+            WgRegionIdTaskHandler wgRegionIdHandler = new WgRegionIdTaskHandler(
+                worldTasksApi, this, regionGeometryIndex, tempRegionExpiryIndex, sessionRegistry);
             worldTaskHandlerRegistry.registerHandler(wgRegionIdHandler);
             
             // Register Location handler
-            LocationTaskHandler locationHandler = new LocationTaskHandler(worldTasksApi, this);
+            LocationTaskHandler locationHandler = new LocationTaskHandler(worldTasksApi, this, sessionRegistry);
             worldTaskHandlerRegistry.registerHandler(locationHandler);
 
+            // Shared queue for main-thread work requested from other threads (drained once per tick)
+            mainThreadWorkQueue = new MainThreadWorkQueue(
+                this,
+                config.regionHttp().mainThreadQueueCapacity(),
+                config.regionHttp().mainThreadBudgetMs()
+            );
+            mainThreadWorkQueue.start();
+
             // Start lightweight HTTP server for region rename callbacks (default port 8081)
-            int httpPort = 8081;
-            try {
-                httpPort = this.getConfig().getInt("region-http.port", 8081);
-            } catch (Exception ignored) { }
-            regionHttpServer = new RegionHttpServer(this, wgRegionIdHandler, httpPort);
+            regionHttpServer = new RegionHttpServer(
+                this,
+                wgRegionIdHandler,
+                regionGeometryIndex,
+                mainThreadWorkQueue,
+                config.regionHttp().port(),
+                config.regionHttp().workerThreads(),
+                config.regionHttp().queueCapacity()
+            );
             regionHttpServer.start();
 
             // Start temp region retention task (14 day retention policy)
-            tempRegionRetentionTask = new TempRegionRetentionTask(this, 14);
+            tempRegionRetentionTask = new TempRegionRetentionTask(this, 14, tempRegionExpiryIndex, regionGeometryIndex);
             tempRegionRetentionTask.start();
             
             getLogger().info("WorldTaskHandlerRegistry initialized with handlers");
             
-            // Initialize cache manager and data access factory from config
-            this.cacheManager = new CacheManager(config.cache().ttl());
+            // Initialize data access factory from config (reuses the cache manager so
+            // UsersDataAccess and UserManager share one user cache)
             this.dataAccessFactory = new DataAccessFactory(config.cache().entities());
             this.usersDataAccess = dataAccessFactory.createUsersDataAccess(
                 cacheManager.getUserCache(),
@@ -238,12 +292,50 @@ public class KnKPlugin extends JavaPlugin {
                 config.cache().ttl(),
                 minecraftMaterialRefsQueryApi
             );
-            getLogger().info("Cache manager initialized with TTL: " + config.cache().ttl());
             getLogger().info("Data access factory initialized with entity-specific settings");
 
+            // Drop cached users one TTL after they quit (online players are pinned)
+            long evictTicks = Math.max(1L, config.cache().ttl().toSeconds()) * 20L;
+            getServer().getScheduler().runTaskTimerAsynchronously(
+                this,
+                cacheManager::evictExpiredUsers,
+                evictTicks,
+                evictTicks
+            );
+
             initializeEnchantmentRuntime();
             getLogger().info("Registered custom enchantment runtime listeners and /ce command");
 
+            // Periodic trigger/timing dump for balancing (same data as /ce stats)
+            int statsInterval = enchantmentRuntime.configManager().statsLogIntervalMinutes();
+            if (statsInterval > 0) {
+                long statsTicks = statsInterval * 60L * 20L;
+                getServer().getScheduler().runTaskTimerAsynchronously(
+                    this,
+                    this::logEnchantmentStats,
+                    statsTicks,
+                    statsTicks
+                );
+            }
+
+            // Keep enchantment and command cooldowns across restarts
+            cooldownPersistenceTask = new CooldownPersistenceTask(this, List.of(
+                new CooldownJournal(enchantmentRuntime.cooldownStore(), getDataFolder().toPath().resolve("cooldowns-enchantments.dat"), 0L),
+                new CooldownJournal(cooldownManager.store(), getDataFolder().toPath().resolve("cooldowns-commands.dat"), COMMAND_COOLDOWN_MAX_AGE_SECONDS * 1000L)
+            ));
+            cooldownPersistenceTask.start();
+
+            // Batch coin changes: one API write per user per interval, journaled across restarts
+            usersDataAccess.coinsWriteBehind().open(getDataFolder().toPath().resolve("coins-journal.dat"));
+            long coinsFlushTicks = config.cache().entities().users().coinsFlushInterval().toSeconds() * 20L;
+            getServer().getScheduler().runTaskTimerAsynchronously(
+                this,
+                () -> usersDataAccess.flushCoinsAsync(),
+                coinsFlushTicks,
+                coinsFlushTicks
+            );
+            getServer().getPluginManager().registerEvents(new CooldownRestoreListener(cooldownPersistenceTask), this);
+
             // Register commands
             registerCommands();
 
@@ -284,10 +376,11 @@ public class KnKPlugin extends JavaPlugin {
                 regionDomainResolver,
                 regionLookupExecutor,
                 this,  // Plugin instance for scheduler access
+                playerSlots,
                 Logger.getLogger(WorldGuardRegionTracker.class.getName()),
                 true  // Enable console logging; set to false to disable
             );
-            registerEvents(regionTracker);
+            registerEvents(regionTracker, regionDomainResolver);
             
             // Register task event listeners (wired after handler registration)
             var retrievedWgRegionHandler = (WgRegionIdTaskHandler) 
@@ -324,6 +417,27 @@ public class KnKPlugin extends JavaPlugin {
         if (tempRegionRetentionTask != null) {
             tempRegionRetentionTask.stop();
         }
+        if (cooldownPersistenceTask != null) {
+            cooldownPersistenceTask.stop();
+        }
+        if (scoreboardService != null) {
+            scoreboardService.stop();
+        }
+        if (sessionRegistry != null) {
+            sessionRegistry.stop();
+        }
+        if (usersDataAccess != null) {
+            usersDataAccess.coinsWriteBehind().close();
+        }
+        if (enchantmentRuntime != null) {
+            logEnchantmentStats();
+        }
+        if (loginAdmission != null && loginAdmission.waitTime().getCount() > 0) {
+            getLogger().info("Login admission: " + loginAdmission.summary());
+        }
+        if (accountFlows != null && !accountFlows.summaryLines().isEmpty()) {
+            getLogger().info("Account flow latency:\n" + String.join("\n", accountFlows.summaryLines()));
+        }
         if (cacheManager != null) {
             getLogger().info("Logging final cache metrics...");
             cacheManager.logMetrics();
@@ -336,20 +450,56 @@ public class KnKPlugin extends JavaPlugin {
         if (regionHttpServer != null) {
             regionHttpServer.stop();
         }
+        if (mainThreadWorkQueue != null) {
+            mainThreadWorkQueue.stop();
+        }
+        if (regionGeometryIndex != null) {
+            regionGeometryIndex.stop();
+        }
         if (regionLookupExecutor != null) {
             regionLookupExecutor.shutdownNow();
         }
         getLogger().info("KnightsAndKings Plugin Disabled!");
     }
 
-    private void registerEvents(WorldGuardRegionTracker regionTracker) {
+    private void registerEvents(WorldGuardRegionTracker regionTracker, RegionDomainResolver regionDomainResolver) {
         var pluginManager = getServer().getPluginManager();
         // Event registration moved to onEnable after region transition service setup
 
         pluginManager.registerEvents(new WorldGuardRegionListener(regionTracker), this);
-        pluginManager.registerEvents(new PlayerListener(usersDataAccess, townsDataAccess, this.getCacheManager()), this);
-        pluginManager.registerEvents(new UserAccountListener(userManager, config.messages(), getLogger()), this);
+        scoreboardService = new ScoreboardService(this, cacheManager.getUserCache(), regionTracker::currentTownName);
+        scoreboardService.start();
+        JoinWarmup joinWarmup = new JoinWarmup(
+            this,
+            usersDataAccess,
+            townsDataAccess,
+            regionDomainResolver,
+            regionTracker::getRegionNamesAt,
+            PlayerListener.DEFAULT_RESPAWN_TOWN_ID,
+            config.joinWarmup().maxWait().toMillis()
+        );
+        joinWarmup.start();
+        pluginManager.registerEvents(joinWarmup, this);
+        pluginManager.registerEvents(new PlayerListener(usersDataAccess, townsDataAccess, this.getCacheManager(), scoreboardService, joinWarmup, playerSlots), this);
+        pluginManager.registerEvents(new UserAccountListener(this, userManager, config.messages(), getLogger()), this);
         getLogger().info("Registered UserAccountListener for account management");
+
+        // Registered last so its MONITOR handler releases the login slot after the other pre-login work
+        loginAdmission = new LoginAdmissionController(
+            config.loginAdmission().maxConcurrent(),
+            config.loginAdmission().warmBatchSize(),
+            config.loginAdmission().maxWait().toMillis(),
+            playerIds -> CompletableFuture.allOf(playerIds.stream()
+                .map(playerId -> usersDataAccess.getByUuidAsync(playerId, FetchPolicy.STALE_OK))
+                .toArray(CompletableFuture[]::new)),
+            joinWarmup::warmDestination
+        );
+        pluginManager.registerEvents(loginAdmission, this);
+        getServer().getScheduler().runTaskTimerAsynchronously(this, () -> {
+            if (loginAdmission.queueDepth() > 0) {
+                getLogger().info("Login admission: " + loginAdmission.summary());
+            }
+        }, 100L, 100L);
     }
     
     /**
@@ -388,6 +538,7 @@ public class KnKPlugin extends JavaPlugin {
                 districtsQueryApi, 
                 streetsQueryApi, 
                 cacheManager,
+                usersDataAccess,
                 worldTasksApi,
                 worldTaskHandlerRegistry,
                 serverId
@@ -401,11 +552,12 @@ public class KnKPlugin extends JavaPlugin {
 
         PluginCommand accountCommand = getCommand("account");
         if (accountCommand != null) {
+            accountFlows = new AccountFlows(userAccountApi);
             accountCommand.setExecutor(new AccountCommandRegistry(
                 this,
                 userManager,
                 chatCaptureManager,
-                userAccountApi,
+                accountFlows,
                 config,
                 cooldownManager
             ));
@@ -441,10 +593,17 @@ public class KnKPlugin extends JavaPlugin {
     }
 
     private void initializeEnchantmentRuntime() {
-        EnchantmentBootstrap bootstrap = new EnchantmentBootstrap(this);
+        EnchantmentBootstrap bootstrap = new EnchantmentBootstrap(this, enchantmentDefinitionsDataAccess, playerSlots);
         this.enchantmentRuntime = bootstrap.initialize();
     }
 
+    private void logEnchantmentStats() {
+        List<String> lines = enchantmentRuntime.enchantmentStats().summaryLines();
+        if (!lines.isEmpty()) {
+            getLogger().info("Enchantment statistics:\n" + String.join("\n", lines));
+        }
+    }
+
     private AuthProvider createAuthProvider(KnkConfig.AuthConfig authConfig) {
         String type = authConfig.type().toLowerCase();
         return switch (type) {
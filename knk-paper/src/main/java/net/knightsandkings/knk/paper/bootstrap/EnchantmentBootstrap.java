@@ -1,39 +1,71 @@
 package net.knightsandkings.knk.paper.bootstrap;
 
 import net.knightsandkings.knk.api.impl.enchantment.LocalEnchantmentRepositoryImpl;
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
+import net.knightsandkings.knk.core.dataaccess.EnchantmentDefinitionsDataAccess;
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentExecutor;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 import net.knightsandkings.knk.paper.commands.enchantment.EnchantmentCommandHandler;
 import net.knightsandkings.knk.paper.config.EnchantmentConfigManager;
+import net.knightsandkings.knk.paper.enchantment.EnchantmentDefinitionSync;
 import net.knightsandkings.knk.paper.enchantment.ExecutorImpl;
 import net.knightsandkings.knk.paper.enchantment.FrozenPlayerTracker;
 import net.knightsandkings.knk.paper.enchantment.InMemoryCooldownManager;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
+import net.knightsandkings.knk.paper.enchantment.ProjectileEffectQueue;
+import net.knightsandkings.knk.paper.enchantment.TimedEffectScheduler;
+import net.knightsandkings.knk.paper.listeners.CooldownQuitListener;
 import net.knightsandkings.knk.paper.listeners.EnchantmentCombatListener;
 import net.knightsandkings.knk.paper.listeners.EnchantmentEnchantTableListener;
 import net.knightsandkings.knk.paper.listeners.EnchantmentInteractListener;
+import net.knightsandkings.knk.paper.listeners.EnchantmentMigrationListener;
+import net.knightsandkings.knk.paper.listeners.EnchantmentProjectileListener;
 import net.knightsandkings.knk.paper.listeners.FreezeMovementListener;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.Plugin;
 
 public class EnchantmentBootstrap {
         private final Plugin plugin;
+    private final EnchantmentDefinitionsDataAccess definitionsDataAccess;
+    private final PlayerSlots playerSlots;
 
         public EnchantmentBootstrap(Plugin plugin) {
+        this(plugin, null);
+    }
+
+    public EnchantmentBootstrap(Plugin plugin, EnchantmentDefinitionsDataAccess definitionsDataAccess) {
+        this(plugin, definitionsDataAccess, null);
+    }
+
+    public EnchantmentBootstrap(Plugin plugin, EnchantmentDefinitionsDataAccess definitionsDataAccess, PlayerSlots playerSlots) {
         this.plugin = plugin;
+        this.definitionsDataAccess = definitionsDataAccess;
+        this.playerSlots = playerSlots;
     }
 
     public EnchantmentRuntime initialize() {
         EnchantmentConfigManager configManager = new EnchantmentConfigManager(plugin);
         EnchantmentRepository enchantmentRepository = new LocalEnchantmentRepositoryImpl();
-        CooldownManager cooldownManager = new InMemoryCooldownManager();
-        FrozenPlayerTracker frozenPlayerTracker = new FrozenPlayerTracker(plugin);
-        EnchantmentExecutor enchantmentExecutor = new ExecutorImpl(plugin, cooldownManager, frozenPlayerTracker);
+        InMemoryCooldownManager cooldownManager = new InMemoryCooldownManager();
+        FrozenPlayerTracker frozenPlayerTracker = new FrozenPlayerTracker(new TimedEffectScheduler(plugin), playerSlots);
+        ExecutorImpl enchantmentExecutor = new ExecutorImpl(plugin, cooldownManager, frozenPlayerTracker);
+        // Built-in definitions are used until (and unless) the backend definitions load
+        EnchantmentDefinitionSync definitionSync = definitionsDataAccess != null
+                ? new EnchantmentDefinitionSync(definitionsDataAccess)
+                : null;
+        if (definitionSync != null) {
+            definitionSync.reloadAsync();
+        }
         EnchantmentCommandHandler commandHandler = new EnchantmentCommandHandler(
                 plugin,
                 configManager,
                 enchantmentRepository,
-                cooldownManager
+                cooldownManager,
+                definitionSync,
+                enchantmentExecutor.stats()
         );
 
         var pluginManager = plugin.getServer().getPluginManager();
@@ -55,8 +87,22 @@ public class EnchantmentBootstrap {
                 ),
                 plugin
         );
+        pluginManager.registerEvents(
+                new EnchantmentProjectileListener(
+                        enchantmentRepository,
+                        enchantmentExecutor,
+                        new ProjectileEffectQueue(plugin, configManager.projectileHitsPerTick()),
+                        configManager.disableForCreative()
+                ),
+                plugin
+        );
         pluginManager.registerEvents(new EnchantmentEnchantTableListener(enchantmentRepository), plugin);
         pluginManager.registerEvents(new FreezeMovementListener(frozenPlayerTracker), plugin);
+        pluginManager.registerEvents(new CooldownQuitListener(cooldownManager.store()), plugin);
+        pluginManager.registerEvents(
+                new EnchantmentMigrationListener(new ItemEnchantmentStore(enchantmentRepository)),
+                plugin
+        );
 
                 PluginCommand enchantmentCommand = plugin.getServer().getPluginCommand("ce");
         if (enchantmentCommand == null) {
@@ -72,7 +118,9 @@ public class EnchantmentBootstrap {
                 cooldownManager,
                 enchantmentExecutor,
                 frozenPlayerTracker,
-                commandHandler
+                commandHandler,
+                cooldownManager.store(),
+                enchantmentExecutor.stats()
         );
     }
 
@@ -82,7 +130,9 @@ public class EnchantmentBootstrap {
             CooldownManager cooldownManager,
             EnchantmentExecutor enchantmentExecutor,
             FrozenPlayerTracker frozenPlayerTracker,
-            EnchantmentCommandHandler commandHandler
+            EnchantmentCommandHandler commandHandler,
+            CooldownStore cooldownStore,
+            EnchantmentStats enchantmentStats
     ) {
     }
 }
\ No newline at end of file
@@ -139,6 +139,19 @@ public class CacheManager {
         LOGGER.info("All caches cleared");
     }
 
+    /**
+     * Removes expired, unpinned entries from the user cache.
+     * <p>
+     * Town, district and structure entries are kept after they expire: they back the
+     * STALE_OK fallback when the API is unavailable. Safe to call from an async task.
+     */
+    public void evictExpiredUsers() {
+        int removed = userCache.evictExpired();
+        if (removed > 0) {
+            LOGGER.fine("Evicted " + removed + " expired user cache entries");
+        }
+    }
+
     /**
      * Resets all cache metrics (hit/miss counters).
      * <p>
@@ -2,7 +2,6 @@ package net.knightsandkings.knk.paper.chat;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -11,10 +10,13 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import net.knightsandkings.knk.paper.config.KnkConfig;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
 
 /**
  * Manages chat capture sessions for secure player input.
  * Handles multi-step flows like account creation with email/password capture.
+ * Sessions live in the shared {@link PlayerSessionRegistry}, which times them out and
+ * ends them when the player quits.
  */
 public class ChatCaptureManager {
     private static final Pattern EMAIL_PATTERN = 
@@ -23,13 +25,13 @@ public class ChatCaptureManager {
     private final JavaPlugin plugin;
     private final KnkConfig config;
     private final Logger logger;
-    private final Map<UUID, ChatCaptureSession> activeSessions;
+    private final PlayerSessionRegistry.Sessions<ChatCaptureSession> activeSessions;
     
-    public ChatCaptureManager(JavaPlugin plugin, KnkConfig config, Logger logger) {
+    public ChatCaptureManager(JavaPlugin plugin, KnkConfig config, Logger logger, PlayerSessionRegistry sessionRegistry) {
         this.plugin = plugin;
         this.config = config;
         this.logger = logger;
-        this.activeSessions = new ConcurrentHashMap<>();
+        this.activeSessions = sessionRegistry.register("chat-capture", this::onSessionEnded);
     }
     
     /**
@@ -63,7 +65,7 @@ public class ChatCaptureManager {
         session.setOnComplete(onComplete);
         session.setOnCancel(onCancel);
         
-        activeSessions.put(player.getUniqueId(), session);
+        activeSessions.put(player.getUniqueId(), session, timeoutTicks());
         
         String prefix = config.messages().prefix();
         
@@ -81,9 +83,6 @@ public class ChatCaptureManager {
         player.sendMessage("  §7Email: §f" + (accountBEmail != null ? accountBEmail : "§cNot linked"));
         player.sendMessage("");
         player.sendMessage(prefix + "§eType §6A §eor §6B §eto choose which account to keep");
-        
-        // Start timeout task
-        startTimeoutTask(player);
     }
     
     /**
@@ -184,7 +183,7 @@ public class ChatCaptureManager {
      * Check if a player is currently capturing chat input.
      */
     public boolean isCapturingChat(UUID playerId) {
-        return activeSessions.containsKey(playerId);
+        return activeSessions.contains(playerId);
     }
     
     /**
@@ -194,19 +193,34 @@ public class ChatCaptureManager {
         return EMAIL_PATTERN.matcher(email).matches();
     }
     
+    private long timeoutTicks() {
+        return config.account().chatCaptureTimeoutSeconds() * 20L;
+    }
+
     /**
-     * Start a timeout task for a player's capture session.
+     * Registry callback for sessions that timed out or whose player quit.
      */
-    private void startTimeoutTask(Player player) {
-        int timeoutTicks = config.account().chatCaptureTimeoutSeconds() * 20;
-        
-        plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, () -> {
-            if (activeSessions.containsKey(player.getUniqueId())) {
+    private void onSessionEnded(UUID playerId, ChatCaptureSession session, PlayerSessionRegistry.EndReason reason) {
+        if (reason == PlayerSessionRegistry.EndReason.EXPIRED) {
+            Player player = plugin.getServer().getPlayer(playerId);
+            if (player != null) {
                 String prefix = config.messages().prefix();
                 player.sendMessage(prefix + "§cInput timeout. Please start over.");
-                cancelSession(player);
+                player.sendMessage(prefix + "§cCancelled.");
             }
-        }, timeoutTicks);
+            Runnable callback = session.getOnCancel();
+            if (callback != null) {
+                try {
+                    callback.run();
+                } catch (Exception e) {
+                    logger.severe("Error in chat capture cancel callback for " + playerId + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        } else {
+            logger.fine("Dropped chat capture session of " + playerId + " on quit (flow: " + session.getFlow() + ")");
+        }
+        session.clearSensitiveData();
     }
     
     /**
@@ -0,0 +1,255 @@
+package net.knightsandkings.knk.paper.chat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds which online players a chat message mentions, in one pass over the message.
+ * <p>
+ * Names are compiled into an Aho-Corasick automaton (a dense DFA over the characters allowed
+ * in Java edition names), so matching costs one table lookup per message character regardless
+ * of how many players are online. Like the old {@code contains} check, a name matches anywhere
+ * in the message, case-insensitively. Names with other characters (e.g. Bedrock players' names
+ * with a {@code .} prefix) are kept outside the automaton and checked with {@code contains}.
+ * <p>
+ * {@link #add} and {@link #remove} (join/quit, main thread) only record the change;
+ * {@link #publish} rebuilds the automaton from the current names and is called once per tick
+ * by {@link MentionNotifier}, so a burst of joins costs one rebuild. {@link #find} runs on async
+ * chat threads against the last published automaton without locking.
+ */
+public class MentionIndex {
+    // a-z, 0-9, _
+    private static final int ALPHABET = 37;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final Map<UUID, String> names = new HashMap<>();
+    // Names changed since the automaton was last built
+    private boolean dirty;
+    private volatile Automaton automaton = Automaton.EMPTY;
+
+    /**
+     * Index a player's name. {@link #find} sees it after the next {@link #publish}.
+     */
+    public synchronized void add(UUID playerId, String name) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        String lowered = name.toLowerCase(Locale.ROOT);
+        if (!lowered.equals(names.put(playerId, lowered))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drop a player's name. {@link #find} stops matching it after the next {@link #publish}.
+     *
+     * @return whether the player was indexed
+     */
+    public synchronized boolean remove(UUID playerId) {
+        if (names.remove(playerId) == null) {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Rebuild the automaton if names changed since the last call.
+     *
+     * @return whether a new automaton was published
+     */
+    public synchronized boolean publish() {
+        if (!dirty) {
+            return false;
+        }
+        automaton = Automaton.build(names);
+        dirty = false;
+        return true;
+    }
+
+    /**
+     * @return players whose name occurs in {@code message}, in order of first occurrence
+     */
+    public Set<UUID> find(String message) {
+        Automaton current = automaton;
+        if (current.size() == 0 || message == null || message.isEmpty()) {
+            return Set.of();
+        }
+        // Player -> end index of their first occurrence; insertion order is end order for the automaton
+        Map<UUID, Integer> found = null;
+        int state = 0;
+        for (int i = 0; i < message.length(); i++) {
+            int symbol = symbol(message.charAt(i));
+            if (symbol < 0) {
+                // Cannot be part of any automaton name
+                state = 0;
+                continue;
+            }
+            state = current.next[state * ALPHABET + symbol];
+            int[] matches = current.output[state];
+            if (matches.length > 0) {
+                if (found == null) {
+                    found = new LinkedHashMap<>();
+                }
+                for (int match : matches) {
+                    found.putIfAbsent(current.players[match], i);
+                }
+            }
+        }
+
+        if (current.fallbackNames.length > 0) {
+            String lowered = message.toLowerCase(Locale.ROOT);
+            boolean fallbackFound = false;
+            for (int f = 0; f < current.fallbackNames.length; f++) {
+                String name = current.fallbackNames[f];
+                int at = lowered.indexOf(name);
+                if (at >= 0) {
+                    if (found == null) {
+                        found = new LinkedHashMap<>();
+                    }
+                    found.put(current.fallbackPlayers[f], at + name.length() - 1);
+                    fallbackFound = true;
+                }
+            }
+            if (fallbackFound) {
+                List<Map.Entry<UUID, Integer>> ordered = new ArrayList<>(found.entrySet());
+                ordered.sort(Map.Entry.comparingByValue());
+                Set<UUID> result = new LinkedHashSet<>();
+                ordered.forEach(entry -> result.add(entry.getKey()));
+                return result;
+            }
+        }
+        return found == null ? Set.of() : found.keySet();
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return c == '_' ? 36 : -1;
+    }
+
+    /**
+     * @param fallbackPlayers players whose names use characters outside the alphabet, matched with {@code contains}
+     */
+    private record Automaton(int[] next, int[][] output, UUID[] players, UUID[] fallbackPlayers, String[] fallbackNames) {
+        static final Automaton EMPTY = new Automaton(new int[ALPHABET], new int[][]{NO_MATCHES}, new UUID[0], new UUID[0], new String[0]);
+
+        int size() {
+            return players.length + fallbackPlayers.length;
+        }
+
+        static Automaton build(Map<UUID, String> names) {
+            List<UUID> players = new ArrayList<>();
+            List<UUID> fallbackPlayers = new ArrayList<>();
+            List<String> fallbackNames = new ArrayList<>();
+            // Trie: goto table grown as nodes are added, -1 = no edge
+            List<int[]> edges = new ArrayList<>();
+            List<List<Integer>> terminal = new ArrayList<>();
+            edges.add(newNode());
+            terminal.add(new ArrayList<>());
+
+            for (Map.Entry<UUID, String> entry : names.entrySet()) {
+                String name = entry.getValue();
+                if (!representable(name)) {
+                    fallbackPlayers.add(entry.getKey());
+                    fallbackNames.add(name);
+                    continue;
+                }
+                int node = 0;
+                for (int i = 0; i < name.length(); i++) {
+                    int symbol = symbol(name.charAt(i));
+                    int child = edges.get(node)[symbol];
+                    if (child < 0) {
+                        child = edges.size();
+                        edges.get(node)[symbol] = child;
+                        edges.add(newNode());
+                        terminal.add(new ArrayList<>());
+                    }
+                    node = child;
+                }
+                terminal.get(node).add(players.size());
+                players.add(entry.getKey());
+            }
+
+            // Breadth-first: fill missing edges from the failure state and inherit its outputs
+            int nodes = edges.size();
+            int[] next = new int[nodes * ALPHABET];
+            int[] fail = new int[nodes];
+            int[][] output = new int[nodes][];
+            output[0] = toArray(terminal.get(0), NO_MATCHES);
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = edges.get(0)[symbol];
+                if (child < 0) {
+                    next[symbol] = 0;
+                } else {
+                    next[symbol] = child;
+                    fail[child] = 0;
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                output[node] = toArray(terminal.get(node), output[fail[node]]);
+                for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                    int child = edges.get(node)[symbol];
+                    if (child < 0) {
+                        next[node * ALPHABET + symbol] = next[fail[node] * ALPHABET + symbol];
+                    } else {
+                        next[node * ALPHABET + symbol] = child;
+                        fail[child] = next[fail[node] * ALPHABET + symbol];
+                        queue.add(child);
+                    }
+                }
+            }
+            return new Automaton(next, output, players.toArray(new UUID[0]),
+                fallbackPlayers.toArray(new UUID[0]), fallbackNames.toArray(new String[0]));
+        }
+
+        private static boolean representable(String name) {
+            for (int i = 0; i < name.length(); i++) {
+                if (symbol(name.charAt(i)) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int[] newNode() {
+            int[] node = new int[ALPHABET];
+            Arrays.fill(node, -1);
+            return node;
+        }
+
+        private static int[] toArray(List<Integer> own, int[] inherited) {
+            if (own.isEmpty()) {
+                return inherited;
+            }
+            int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+            for (int i = 0; i < own.size(); i++) {
+                merged[inherited.length + i] = own.get(i);
+            }
+            return merged;
+        }
+    }
+}
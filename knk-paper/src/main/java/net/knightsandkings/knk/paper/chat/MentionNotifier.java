@@ -0,0 +1,128 @@
+package net.knightsandkings.knk.paper.chat;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+
+/**
+ * Plays the mention sound for players named in chat.
+ * <p>
+ * {@link #onMessage(String)} runs on the async chat thread: it looks the names up in the
+ * {@link MentionIndex}, applies the per-player sound cooldown and queues the targets. The sounds
+ * are played on the main thread by one task per tick that drains everything queued so far.
+ * Cooldowns are kept per {@link PlayerSlots} slot and dropped when the player quits.
+ * <p>
+ * Joins and quits update the index names right away; the automaton is rebuilt by one task
+ * at most per tick, however many players joined or left in it.
+ */
+public class MentionNotifier {
+    private final Plugin plugin;
+    private final MentionIndex index;
+    private final long cooldownMillis;
+    private final LongSupplier clock;
+    private final PlayerSlots playerSlots;
+    private final PlayerSlots.Longs lastPing;
+    private final Queue<UUID> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    public MentionNotifier(Plugin plugin, MentionIndex index, PlayerSlots playerSlots, long cooldownMillis) {
+        this(plugin, index, playerSlots, cooldownMillis, System::currentTimeMillis);
+    }
+
+    MentionNotifier(Plugin plugin, MentionIndex index, PlayerSlots playerSlots, long cooldownMillis, LongSupplier clock) {
+        this.plugin = plugin;
+        this.index = index;
+        this.playerSlots = playerSlots;
+        this.lastPing = playerSlots.newLongs(Long.MIN_VALUE);
+        this.cooldownMillis = cooldownMillis;
+        this.clock = clock;
+    }
+
+    public MentionIndex index() {
+        return index;
+    }
+
+    /**
+     * Make a joining player mentionable from the next tick on.
+     */
+    public void join(UUID playerId, String name) {
+        index.add(playerId, name);
+        schedulePublish();
+    }
+
+    public void quit(UUID playerId) {
+        // Until the rebuild, mentions of the player are dropped by the slot check in onMessage
+        if (index.remove(playerId)) {
+            schedulePublish();
+        }
+    }
+
+    private void schedulePublish() {
+        if (publishScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTask(plugin, this::publishNames);
+        }
+    }
+
+    /**
+     * Main thread: rebuild the index with the joins and quits of this tick.
+     */
+    void publishNames() {
+        publishScheduled.set(false);
+        index.publish();
+    }
+
+    /**
+     * Queue the mention sound for every player named in {@code plainMessage}.
+     *
+     * @return number of players queued
+     */
+    public int onMessage(String plainMessage) {
+        int count = 0;
+        long now = clock.getAsLong();
+        for (UUID playerId : index.find(plainMessage)) {
+            int slot = playerSlots.slotOf(playerId);
+            if (slot == PlayerSlots.NO_SLOT) {
+                // Quit since the index was read
+                continue;
+            }
+            long last = lastPing.get(slot);
+            if (last != Long.MIN_VALUE && now - last < cooldownMillis) {
+                continue;
+            }
+            lastPing.set(slot, now);
+            queued.add(playerId);
+            count++;
+        }
+        if (count > 0 && drainScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTask(plugin, this::drain);
+        }
+        return count;
+    }
+
+    int queued() {
+        return queued.size();
+    }
+
+    /**
+     * Main thread: play the sound for everything queued.
+     */
+    void drain() {
+        drainScheduled.set(false);
+        UUID playerId;
+        while ((playerId = queued.poll()) != null) {
+            Player player = plugin.getServer().getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0F, 1.0F);
+            }
+        }
+    }
+}
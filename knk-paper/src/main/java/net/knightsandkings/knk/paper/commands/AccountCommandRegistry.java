@@ -7,10 +7,10 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 
-import net.knightsandkings.knk.core.ports.api.UserAccountApi;
 import net.knightsandkings.knk.paper.KnKPlugin;
 import net.knightsandkings.knk.paper.chat.ChatCaptureManager;
 import net.knightsandkings.knk.paper.config.KnkConfig;
+import net.knightsandkings.knk.paper.user.AccountFlows;
 import net.knightsandkings.knk.paper.user.UserManager;
 import net.knightsandkings.knk.paper.utils.CommandCooldownManager;
 
@@ -26,7 +26,7 @@ public class AccountCommandRegistry implements CommandExecutor {
         KnKPlugin plugin,
         UserManager userManager,
         ChatCaptureManager chatCaptureManager,
-        UserAccountApi userAccountApi,
+        AccountFlows accountFlows,
         KnkConfig config,
         CommandCooldownManager cooldownManager
     ) {
@@ -37,7 +37,7 @@ public class AccountCommandRegistry implements CommandExecutor {
             plugin,
             userManager,
             chatCaptureManager,
-            userAccountApi,
+            accountFlows,
             config,
             cooldownManager
         );
@@ -8,14 +8,12 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import net.knightsandkings.knk.api.dto.DuplicateCheckResponseDto;
-import net.knightsandkings.knk.api.dto.LinkCodeResponseDto;
-import net.knightsandkings.knk.api.dto.MergeAccountsRequestDto;
 import net.knightsandkings.knk.api.dto.UserResponseDto;
 import net.knightsandkings.knk.api.dto.ValidateLinkCodeResponseDto;
-import net.knightsandkings.knk.core.ports.api.UserAccountApi;
 import net.knightsandkings.knk.paper.KnKPlugin;
 import net.knightsandkings.knk.paper.chat.ChatCaptureManager;
 import net.knightsandkings.knk.paper.config.KnkConfig;
+import net.knightsandkings.knk.paper.user.AccountFlows;
 import net.knightsandkings.knk.paper.user.PlayerUserData;
 import net.knightsandkings.knk.paper.user.UserManager;
 import net.knightsandkings.knk.paper.utils.CommandCooldownManager;
@@ -28,7 +26,7 @@ public class AccountLinkCommand implements CommandExecutor {
     private final KnKPlugin plugin;
     private final UserManager userManager;
     private final ChatCaptureManager chatCaptureManager;
-    private final UserAccountApi userAccountApi;
+    private final AccountFlows accountFlows;
     private final KnkConfig config;
     private final CommandCooldownManager cooldownManager;
 
@@ -36,14 +34,14 @@ public class AccountLinkCommand implements CommandExecutor {
         KnKPlugin plugin,
         UserManager userManager,
         ChatCaptureManager chatCaptureManager,
-        UserAccountApi userAccountApi,
+        AccountFlows accountFlows,
         KnkConfig config,
         CommandCooldownManager cooldownManager
     ) {
         this.plugin = plugin;
         this.userManager = userManager;
         this.chatCaptureManager = chatCaptureManager;
-        this.userAccountApi = userAccountApi;
+        this.accountFlows = accountFlows;
         this.config = config;
         this.cooldownManager = cooldownManager;
     }
@@ -94,9 +92,8 @@ public class AccountLinkCommand implements CommandExecutor {
         plugin.getLogger().info("Generating link code for " + player.getName() + " (ID: " + userData.userId() + ")");
         cooldownManager.recordExecution(player.getUniqueId(), "link.generate");
 
-        userAccountApi.generateLinkCode(userData.userId())
-            .thenAccept(responseObj -> {
-                LinkCodeResponseDto response = (LinkCodeResponseDto) responseObj;
+        accountFlows.generateLinkCode(userData.userId())
+            .thenAccept(response -> {
                 runSync(() -> {
                     String formattedCode = response.formattedCode() != null ? response.formattedCode() : response.code();
                     String message = config.messages().linkCodeGenerated()
@@ -133,11 +130,11 @@ public class AccountLinkCommand implements CommandExecutor {
         plugin.getLogger().info(player.getName() + " attempting to consume link code: " + code);
         cooldownManager.recordExecution(player.getUniqueId(), "link.consume");
         
-        // Validate link code (minecraft-first flow)
-        userAccountApi.validateLinkCode(code)
-            .thenAccept(validationObj -> {
-                ValidateLinkCodeResponseDto validation = (ValidateLinkCodeResponseDto) validationObj;
-                if (!Boolean.TRUE.equals(validation.isValid())) {
+        // Validate link code while fetching the player's accounts (minecraft-first flow)
+        accountFlows.link(player.getUniqueId(), player.getName(), code)
+            .thenAccept(result -> {
+                ValidateLinkCodeResponseDto validation = result.validation();
+                if (!result.isValid()) {
                     plugin.getLogger().info("Invalid link code provided by " + player.getName() + ": " + code);
                     runSync(() -> {
                         sendPrefixed(player, config.messages().invalidLinkCode());
@@ -160,18 +157,24 @@ public class AccountLinkCommand implements CommandExecutor {
                 }
 
                 plugin.getLogger().fine("Link code validated for " + player.getName() + " (web account ID: " + webAccountUserId + ")");
-                
+
+                if (result.mergeRequired()) {
+                    runSync(() -> startMergeFlow(player, result.duplicates()));
+                    return;
+                }
+
                 // Update cached user with linked account information
+                UserResponseDto current = result.linkedAccount(userData != null ? userData.userId() : null);
                 runSync(() -> {
-                    // Create updated user data with linked account info
+                    // Balances from the fresh summary of this account when the duplicate check returned it
                     PlayerUserData updated = new PlayerUserData(
                         userData != null ? userData.userId() : null,
                         validation.username() != null ? validation.username() : (userData != null ? userData.username() : player.getName()),
                         player.getUniqueId(),
                         validation.email(),
-                        userData != null ? userData.coins() : 0,
-                        userData != null ? userData.gems() : 0,
-                        userData != null ? userData.experiencePoints() : 0,
+                        current != null ? safeInt(current.coins()) : (userData != null ? userData.coins() : 0),
+                        current != null ? safeInt(current.gems()) : (userData != null ? userData.gems() : 0),
+                        current != null ? safeInt(current.experiencePoints()) : (userData != null ? userData.experiencePoints() : 0),
                         validation.email() != null && !validation.email().isBlank(),
                         false,
                         null
@@ -235,9 +238,8 @@ public class AccountLinkCommand implements CommandExecutor {
 
     private void mergeAccounts(Player player, Integer primaryId, Integer secondaryId) {
         plugin.getLogger().info("Merging accounts for " + player.getName() + " (keeping: " + primaryId + ", merging: " + secondaryId + ")");
-        userAccountApi.mergeAccounts(new MergeAccountsRequestDto(primaryId, secondaryId))
-            .thenAccept(mergedObj -> {
-                UserResponseDto merged = (UserResponseDto) mergedObj;
+        accountFlows.merge(primaryId, secondaryId)
+            .thenAccept(merged -> {
                 runSync(() -> {
                     PlayerUserData userData = userManager.getCachedUser(player.getUniqueId());
                     updateCachedUser(player, userData, merged);
@@ -0,0 +1,87 @@
+package net.knightsandkings.knk.paper.commands;
+
+import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Command handler for /knk coins &lt;player&gt; &lt;amount&gt;.
+ * Awards (or with a negative amount, removes) coins through the batched coin write-behind,
+ * so the new balance is visible at once and reaches the API on the next flush.
+ */
+public class CoinsCommand implements CommandExecutor {
+    private final Plugin plugin;
+    private final UsersDataAccess usersDataAccess;
+
+    public CoinsCommand(Plugin plugin, UsersDataAccess usersDataAccess) {
+        this.plugin = plugin;
+        this.usersDataAccess = usersDataAccess;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length != 2) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /knk coins <player> <amount>");
+            return true;
+        }
+
+        int amount;
+        try {
+            amount = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatColor.RED + "Amount must be a whole number: " + args[1]);
+            return true;
+        }
+        if (amount == 0) {
+            sender.sendMessage(ChatColor.RED + "Amount must not be zero.");
+            return true;
+        }
+
+        String playerName = args[0];
+        resolveUuid(playerName).thenCompose(uuid -> {
+            if (uuid == null) {
+                return CompletableFuture.completedFuture((UserSummary) null);
+            }
+            usersDataAccess.addCoins(uuid, amount);
+            // Reads include the pending change
+            return usersDataAccess.getByUuidAsync(uuid).thenApply(result -> result.value().orElse(null));
+        }).whenComplete((user, ex) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (ex != null) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                sender.sendMessage(ChatColor.RED + "Failed to update coins for " + playerName + ": " + cause.getMessage());
+                plugin.getLogger().warning("Coin update failed for " + playerName + ": " + cause.getMessage());
+            } else if (user == null) {
+                sender.sendMessage(ChatColor.RED + "No user found with name " + playerName);
+            } else {
+                sender.sendMessage(ChatColor.GREEN + (amount > 0 ? "Added " : "Removed ") + Math.abs(amount)
+                        + " coins " + (amount > 0 ? "to " : "from ") + user.username()
+                        + ChatColor.GRAY + " (balance: " + user.coins() + ")");
+            }
+        }));
+        return true;
+    }
+
+    private CompletableFuture<UUID> resolveUuid(String playerName) {
+        Player online = Bukkit.getPlayerExact(playerName);
+        if (online != null) {
+            return CompletableFuture.completedFuture(online.getUniqueId());
+        }
+        return usersDataAccess.getByUsernameAsync(playerName)
+                .thenApply(result -> {
+                    if (result.error().isPresent()) {
+                        throw new CompletionException(result.error().get());
+                    }
+                    return result.value().map(UserSummary::uuid).orElse(null);
+                });
+    }
+}
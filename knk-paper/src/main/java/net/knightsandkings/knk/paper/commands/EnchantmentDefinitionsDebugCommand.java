@@ -10,6 +10,7 @@ import net.knightsandkings.knk.core.exception.ApiException;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 import net.knightsandkings.knk.paper.mapper.EnchantmentDefinitionBukkitMapper;
 import net.knightsandkings.knk.paper.utils.DisplayTextFormatter;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.NamespacedKey;
@@ -46,11 +47,13 @@ public class EnchantmentDefinitionsDebugCommand implements CommandExecutor {
     private final Plugin plugin;
     private final EnchantmentDefinitionsDataAccess dataAccess;
     private final EnchantmentRepository customEnchantmentRepository;
+    private final ItemEnchantmentStore customEnchantmentStore;
 
     public EnchantmentDefinitionsDebugCommand(Plugin plugin, EnchantmentDefinitionsDataAccess dataAccess) {
         this.plugin = plugin;
         this.dataAccess = dataAccess;
         this.customEnchantmentRepository = new LocalEnchantmentRepositoryImpl();
+        this.customEnchantmentStore = new ItemEnchantmentStore(customEnchantmentRepository);
     }
 
     @Override
@@ -420,6 +423,7 @@ public class EnchantmentDefinitionsDebugCommand implements CommandExecutor {
         }
 
         itemMeta.setLore(updatedLore);
+        customEnchantmentStore.syncFromLore(itemMeta);
         heldItem.setItemMeta(itemMeta);
         player.getInventory().setItemInMainHand(heldItem);
 
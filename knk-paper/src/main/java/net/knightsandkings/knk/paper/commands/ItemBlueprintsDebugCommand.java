@@ -16,6 +16,7 @@ import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 import net.knightsandkings.knk.paper.mapper.EnchantmentDefinitionBukkitMapper;
 import net.knightsandkings.knk.paper.mapper.ItemBlueprintBukkitMapper;
 import net.knightsandkings.knk.paper.utils.DisplayTextFormatter;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -41,6 +42,7 @@ public class ItemBlueprintsDebugCommand implements CommandExecutor {
     private final MinecraftMaterialRefsDataAccess minecraftMaterialRefsDataAccess;
     private final EnchantmentDefinitionsDataAccess enchantmentDefinitionsDataAccess;
     private final EnchantmentRepository customEnchantmentRepository;
+    private final ItemEnchantmentStore customEnchantmentStore;
 
     public ItemBlueprintsDebugCommand(
             Plugin plugin,
@@ -53,6 +55,7 @@ public class ItemBlueprintsDebugCommand implements CommandExecutor {
         this.minecraftMaterialRefsDataAccess = minecraftMaterialRefsDataAccess;
         this.enchantmentDefinitionsDataAccess = enchantmentDefinitionsDataAccess;
         this.customEnchantmentRepository = new LocalEnchantmentRepositoryImpl();
+        this.customEnchantmentStore = new ItemEnchantmentStore(customEnchantmentRepository);
     }
 
     @Override
@@ -309,6 +312,7 @@ public class ItemBlueprintsDebugCommand implements CommandExecutor {
         }
 
         itemMeta.setLore(updatedLore);
+        customEnchantmentStore.syncFromLore(itemMeta);
         itemStack.setItemMeta(itemMeta);
         return true;
     }
@@ -334,6 +338,7 @@ public class ItemBlueprintsDebugCommand implements CommandExecutor {
         }
 
         itemMeta.setLore(reorderedLore);
+        customEnchantmentStore.syncFromLore(itemMeta);
         itemStack.setItemMeta(itemMeta);
     }
 
@@ -3,6 +3,7 @@ package net.knightsandkings.knk.paper.commands;
 import net.knightsandkings.knk.core.dataaccess.EnchantmentDefinitionsDataAccess;
 import net.knightsandkings.knk.core.dataaccess.ItemBlueprintsDataAccess;
 import net.knightsandkings.knk.core.dataaccess.MinecraftMaterialRefsDataAccess;
+import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
 import net.knightsandkings.knk.core.domain.common.Page;
 import net.knightsandkings.knk.core.domain.enchantment.EnchantmentRegistry;
 import net.knightsandkings.knk.core.domain.enchantments.KnkEnchantmentDefinition;
@@ -69,6 +70,7 @@ public class KnkAdminCommand implements CommandExecutor, TabCompleter {
             DistrictsQueryApi districtsApi, 
             StreetsQueryApi streetsApi, 
             CacheManager cacheManager,
+            UsersDataAccess usersDataAccess,
             WorldTasksApi worldTasksApi,
             WorldTaskHandlerRegistry worldTaskHandlerRegistry,
             String serverId
@@ -97,6 +99,14 @@ public class KnkAdminCommand implements CommandExecutor, TabCompleter {
             );
         }
         
+        // Register coins
+        CoinsCommand coinsCommand = new CoinsCommand(plugin, usersDataAccess);
+        registry.register(
+                new CommandMetadata("coins", "Award or remove coins (batched to the API)", "/knk coins <player> <amount>", "knk.admin",
+                        List.of("/knk coins Steve 100", "/knk coins Steve -25")),
+                (sender, args) -> coinsCommand.onCommand(sender, null, "knk", args)
+        );
+        
         // Register towns
         TownsDebugCommand townsCommand = new TownsDebugCommand(plugin, townsApi);
         registry.register(
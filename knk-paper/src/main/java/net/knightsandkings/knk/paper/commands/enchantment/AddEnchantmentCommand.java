@@ -2,6 +2,7 @@ package net.knightsandkings.knk.paper.commands.enchantment;
 
 import net.knightsandkings.knk.core.domain.enchantment.Enchantment;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -14,6 +15,7 @@ import java.util.Optional;
 public class AddEnchantmentCommand implements EnchantmentSubcommand {
     private final EnchantmentCommandHandler handler;
     private final EnchantmentRepository repository;
+    private final ItemEnchantmentStore enchantmentStore;
     private final EnchantmentCommandValidator validator;
 
     public AddEnchantmentCommand(
@@ -23,6 +25,7 @@ public class AddEnchantmentCommand implements EnchantmentSubcommand {
     ) {
         this.handler = handler;
         this.repository = repository;
+        this.enchantmentStore = new ItemEnchantmentStore(repository);
         this.validator = validator;
     }
 
@@ -96,6 +99,7 @@ public class AddEnchantmentCommand implements EnchantmentSubcommand {
         }
         if (itemMeta != null) {
             itemMeta.setLore(updatedLore);
+            enchantmentStore.syncFromLore(itemMeta);
             itemInHand.setItemMeta(itemMeta);
             player.getInventory().setItemInMainHand(itemInHand);
         }
@@ -1,8 +1,10 @@
 package net.knightsandkings.knk.paper.commands.enchantment;
 
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 import net.knightsandkings.knk.paper.config.EnchantmentConfigManager;
+import net.knightsandkings.knk.paper.enchantment.EnchantmentDefinitionSync;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -20,16 +22,20 @@ public class EnchantmentCommandHandler implements CommandExecutor, TabCompleter
     private final Plugin plugin;
     private final EnchantmentConfigManager configManager;
     private final EnchantmentCommandValidator validator;
+    private final EnchantmentDefinitionSync definitionSync;
     private final Map<String, EnchantmentSubcommand> subcommands;
 
     public EnchantmentCommandHandler(
             Plugin plugin,
             EnchantmentConfigManager configManager,
             EnchantmentRepository repository,
-            CooldownManager cooldownManager
+            CooldownManager cooldownManager,
+            EnchantmentDefinitionSync definitionSync,
+            EnchantmentStats stats
     ) {
         this.plugin = plugin;
         this.configManager = configManager;
+        this.definitionSync = definitionSync;
         this.validator = new EnchantmentCommandValidator();
         this.subcommands = new LinkedHashMap<>();
 
@@ -38,6 +44,7 @@ public class EnchantmentCommandHandler implements CommandExecutor, TabCompleter
         register(new InfoEnchantmentCommand(this, repository, cooldownManager, validator));
         register(new ClearCooldownCommand(this, cooldownManager, validator));
         register(new ReloadEnchantmentCommand(this));
+        register(new StatsEnchantmentCommand(this, stats));
     }
 
     @Override
@@ -82,7 +89,7 @@ public class EnchantmentCommandHandler implements CommandExecutor, TabCompleter
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length <= 1) {
-            List<String> root = List.of("add", "remove", "info", "cooldown", "reload");
+            List<String> root = List.of("add", "remove", "info", "cooldown", "reload", "stats");
             return filterByPrefix(root, args.length == 0 ? "" : args[0]);
         }
 
@@ -115,6 +122,13 @@ public class EnchantmentCommandHandler implements CommandExecutor, TabCompleter
         return configManager;
     }
 
+    /**
+     * @return backend definition loader, or null when running without the API
+     */
+    public EnchantmentDefinitionSync definitionSync() {
+        return definitionSync;
+    }
+
     public String message(String key, String fallback) {
         return configManager.getMessage(key, fallback);
     }
@@ -148,6 +162,7 @@ public class EnchantmentCommandHandler implements CommandExecutor, TabCompleter
         sender.sendMessage(colorize("&e/ce info [player]"));
         sender.sendMessage(colorize("&e/ce cooldown clear [player]"));
         sender.sendMessage(colorize("&e/ce reload"));
+        sender.sendMessage(colorize("&e/ce stats [reset]"));
         sender.sendMessage(colorize("&7For canonical definition debugging, use &f/knk enchantments ..."));
     }
 
@@ -4,11 +4,11 @@ import net.knightsandkings.knk.core.domain.enchantment.Enchantment;
 import net.knightsandkings.knk.core.domain.enchantment.EnchantmentRegistry;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.List;
 import java.util.Map;
@@ -17,7 +17,7 @@ import java.util.UUID;
 
 public class InfoEnchantmentCommand implements EnchantmentSubcommand {
     private final EnchantmentCommandHandler handler;
-    private final EnchantmentRepository repository;
+    private final ItemEnchantmentStore enchantmentStore;
     private final CooldownManager cooldownManager;
     private final EnchantmentCommandValidator validator;
 
@@ -28,7 +28,7 @@ public class InfoEnchantmentCommand implements EnchantmentSubcommand {
             EnchantmentCommandValidator validator
     ) {
         this.handler = handler;
-        this.repository = repository;
+        this.enchantmentStore = new ItemEnchantmentStore(repository);
         this.cooldownManager = cooldownManager;
         this.validator = validator;
     }
@@ -69,9 +69,7 @@ public class InfoEnchantmentCommand implements EnchantmentSubcommand {
         }
 
         ItemStack heldItem = heldItemOptional.get();
-        ItemMeta itemMeta = heldItem.getItemMeta();
-        List<String> lore = itemMeta != null && itemMeta.hasLore() ? itemMeta.getLore() : List.of();
-        Map<String, Integer> enchantments = repository.getEnchantments(lore).join();
+        Map<String, Integer> enchantments = enchantmentStore.read(heldItem);
 
         if (enchantments.isEmpty()) {
             sender.sendMessage(handler.colorize(handler.message("messages.cmd-info-none", "&7No custom enchantments found on held item.")));
@@ -22,6 +22,9 @@ public class ReloadEnchantmentCommand implements EnchantmentSubcommand {
     @Override
     public boolean execute(CommandSender sender, String[] args) {
         handler.configManager().reload();
+        if (handler.definitionSync() != null) {
+            handler.definitionSync().reloadAsync();
+        }
         sender.sendMessage(handler.colorize(handler.message("messages.cmd-reload", "&aPlugin configuration was reloaded.")));
         return true;
     }
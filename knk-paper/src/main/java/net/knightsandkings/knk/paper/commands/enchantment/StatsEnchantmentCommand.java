@@ -0,0 +1,55 @@
+package net.knightsandkings.knk.paper.commands.enchantment;
+
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+public class StatsEnchantmentCommand implements EnchantmentSubcommand {
+    private final EnchantmentCommandHandler handler;
+    private final EnchantmentStats stats;
+
+    public StatsEnchantmentCommand(EnchantmentCommandHandler handler, EnchantmentStats stats) {
+        this.handler = handler;
+        this.stats = stats;
+    }
+
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public String permission() {
+        return "customenchantments.command.stats";
+    }
+
+    @Override
+    public boolean execute(CommandSender sender, String[] args) {
+        if (args.length > 0 && "reset".equalsIgnoreCase(args[0])) {
+            stats.reset();
+            sender.sendMessage(handler.colorize(handler.message("messages.cmd-stats-reset", "&aEnchantment statistics were reset.")));
+            return true;
+        }
+
+        List<String> lines = stats.summaryLines();
+        if (lines.isEmpty()) {
+            sender.sendMessage(handler.colorize(handler.message("messages.cmd-stats-none", "&7No enchantment has been used yet.")));
+            return true;
+        }
+
+        sender.sendMessage(handler.colorize(handler.message("messages.cmd-stats-header", "&6Enchantment statistics (since start or last reset):")));
+        for (String line : lines) {
+            sender.sendMessage(handler.colorize((line.startsWith(" ") ? "&7" : "&f") + line));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, String[] args) {
+        if (args.length == 1 && "reset".startsWith(args[0] == null ? "" : args[0].toLowerCase())) {
+            return List.of("reset");
+        }
+        return List.of();
+    }
+}
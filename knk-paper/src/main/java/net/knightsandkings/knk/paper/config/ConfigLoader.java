@@ -101,7 +101,43 @@ public class ConfigLoader {
             messagesSection.getString("merge-complete", "&aAccount merge complete. Your account now has {coins} coins, {gems} gems, and {exp} XP.")
         );
         
-        KnkConfig knkConfig = new KnkConfig(apiConfig, cacheConfig, accountConfig, messagesConfig);
+        // Load login admission configuration
+        ConfigurationSection loginAdmissionSection = config.getConfigurationSection("login-admission");
+        KnkConfig.LoginAdmissionSettings loginAdmission = loginAdmissionSection != null
+            ? new KnkConfig.LoginAdmissionSettings(
+                loginAdmissionSection.getInt("max-concurrent", 8),
+                loginAdmissionSection.getInt("warm-batch-size", 16),
+                loginAdmissionSection.getInt("max-wait-seconds", 10)
+            )
+            : KnkConfig.LoginAdmissionSettings.defaults();
+        
+        // Load join warm-up configuration
+        ConfigurationSection joinWarmupSection = config.getConfigurationSection("join-warmup");
+        KnkConfig.JoinWarmupSettings joinWarmup = joinWarmupSection != null
+            ? new KnkConfig.JoinWarmupSettings(joinWarmupSection.getInt("max-wait-ms", 2000))
+            : KnkConfig.JoinWarmupSettings.defaults();
+        
+        // Load region HTTP server configuration
+        ConfigurationSection regionHttpSection = config.getConfigurationSection("region-http");
+        KnkConfig.RegionHttpSettings regionHttp = regionHttpSection != null
+            ? new KnkConfig.RegionHttpSettings(
+                regionHttpSection.getInt("port", 8081),
+                regionHttpSection.getInt("worker-threads", 4),
+                regionHttpSection.getInt("queue-capacity", 64),
+                regionHttpSection.getInt("main-thread-queue-capacity", 1000),
+                regionHttpSection.getInt("main-thread-budget-ms", 5)
+            )
+            : KnkConfig.RegionHttpSettings.defaults();
+        
+        KnkConfig knkConfig = new KnkConfig(
+            apiConfig,
+            cacheConfig,
+            accountConfig,
+            messagesConfig,
+            loginAdmission,
+            joinWarmup,
+            regionHttp
+        );
         knkConfig.validate();
         
         return knkConfig;
@@ -114,7 +150,7 @@ public class ConfigLoader {
         }
         
         return new KnkConfig.EntityCacheSettings(
-            loadEntitySettings(entitiesSection, "users"),
+            loadUserSettings(entitiesSection),
             loadEntitySettings(entitiesSection, "towns"),
             loadEntitySettings(entitiesSection, "districts"),
             loadEntitySettings(entitiesSection, "structures"),
@@ -128,6 +164,14 @@ public class ConfigLoader {
         );
     }
     
+    private static KnkConfig.UserSettings loadUserSettings(ConfigurationSection entitiesSection) {
+        ConfigurationSection section = entitiesSection.getConfigurationSection("users");
+        return new KnkConfig.UserSettings(
+            loadEntitySettings(entitiesSection, "users"),
+            section != null ? section.getInt("coins-flush-interval-seconds", 5) : 5
+        );
+    }
+    
     private static KnkConfig.EntitySettings loadEntitySettings(ConfigurationSection entitiesSection, String entityName) {
         ConfigurationSection section = entitiesSection.getConfigurationSection(entityName);
         if (section == null) {
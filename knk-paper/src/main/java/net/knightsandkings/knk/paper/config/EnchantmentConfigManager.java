@@ -8,6 +8,8 @@ import java.util.Map;
 public class EnchantmentConfigManager {
     private static final String ROOT = "custom-enchantments";
     private static final String DEFAULT_COOLDOWN_MESSAGE = "&c%seconds% seconds remaining";
+    private static final int DEFAULT_STATS_LOG_INTERVAL_MINUTES = 30;
+    private static final int DEFAULT_PROJECTILE_HITS_PER_TICK = 20;
 
     private final Plugin plugin;
 
@@ -36,6 +38,28 @@ public class EnchantmentConfigManager {
         return configured;
     }
 
+    /**
+     * @return minutes between enchantment statistics dumps to the log, 0 to disable
+     */
+    public int statsLogIntervalMinutes() {
+        FileConfiguration config = plugin.getConfig();
+        if (config == null) {
+            return DEFAULT_STATS_LOG_INTERVAL_MINUTES;
+        }
+        return Math.max(0, config.getInt(ROOT + ".stats-log-interval-minutes", DEFAULT_STATS_LOG_INTERVAL_MINUTES));
+    }
+
+    /**
+     * @return projectile hits whose enchantments are applied per tick; the rest wait for later ticks
+     */
+    public int projectileHitsPerTick() {
+        FileConfiguration config = plugin.getConfig();
+        if (config == null) {
+            return DEFAULT_PROJECTILE_HITS_PER_TICK;
+        }
+        return Math.max(1, config.getInt(ROOT + ".projectile-hits-per-tick", DEFAULT_PROJECTILE_HITS_PER_TICK));
+    }
+
     public String getMessage(String key, String fallback) {
         FileConfiguration config = plugin.getConfig();
         if (config == null) {
@@ -2,6 +2,8 @@ package net.knightsandkings.knk.paper.config;
 
 import java.time.Duration;
 
+import net.knightsandkings.knk.paper.login.LoginAdmissionController;
+
 /**
  * Plugin configuration loaded from config.yml.
  */
@@ -9,7 +11,10 @@ public record KnkConfig(
     ApiConfig api,
     CacheConfig cache,
     AccountConfig account,
-    MessagesConfig messages
+    MessagesConfig messages,
+    LoginAdmissionSettings loginAdmission,
+    JoinWarmupSettings joinWarmup,
+    RegionHttpSettings regionHttp
 ) {
     public record ApiConfig(
         String baseUrl,
@@ -83,6 +88,7 @@ public record KnkConfig(
         if (cache == null) {
             throw new IllegalArgumentException("cache configuration is required");
         }
+        cache.entities().users().validate();
         if (account == null) {
             throw new IllegalArgumentException("account configuration is required");
         }
@@ -91,6 +97,18 @@ public record KnkConfig(
             throw new IllegalArgumentException("messages configuration is required");
         }
         messages.validate();
+        if (loginAdmission == null) {
+            throw new IllegalArgumentException("login-admission configuration is required");
+        }
+        loginAdmission.validate();
+        if (joinWarmup == null) {
+            throw new IllegalArgumentException("join-warmup configuration is required");
+        }
+        joinWarmup.validate();
+        if (regionHttp == null) {
+            throw new IllegalArgumentException("region-http configuration is required");
+        }
+        regionHttp.validate();
     }
     
     public record CacheConfig(
@@ -117,7 +135,7 @@ public record KnkConfig(
     }
 
     public record EntityCacheSettings(
-        EntitySettings users,
+        UserSettings users,
         EntitySettings towns,
         EntitySettings districts,
         EntitySettings structures,
@@ -131,7 +149,7 @@ public record KnkConfig(
     ) {
         public static EntityCacheSettings defaults() {
             return new EntityCacheSettings(
-                EntitySettings.defaults(), // users
+                UserSettings.defaults(), // users
                 EntitySettings.defaults(), // towns
                 EntitySettings.defaults(), // districts
                 EntitySettings.defaults(), // structures
@@ -146,6 +164,33 @@ public record KnkConfig(
         }
     }
 
+    /**
+     * User cache settings: the common entity settings plus the coin write-behind flush interval.
+     */
+    public record UserSettings(
+        EntitySettings entity,
+        int coinsFlushIntervalSeconds
+    ) {
+        /**
+         * How often batched coin changes are sent to the API.
+         */
+        public Duration coinsFlushInterval() {
+            return Duration.ofSeconds(coinsFlushIntervalSeconds);
+        }
+
+        public void validate() {
+            if (coinsFlushIntervalSeconds < 1) {
+                throw new IllegalArgumentException(
+                    "cache.entities.users.coins-flush-interval-seconds must be at least 1 (got: " + coinsFlushIntervalSeconds + ")"
+                );
+            }
+        }
+
+        public static UserSettings defaults() {
+            return new UserSettings(EntitySettings.defaults(), 5);
+        }
+    }
+
     public record EntitySettings(
         Integer ttlMinutes,
         Integer ttlSeconds,
@@ -340,4 +385,117 @@ public record KnkConfig(
             }
         }
     }
+    
+    /**
+     * Pre-login admission control: concurrent account loads, cache warm batch size and
+     * the longest a login may wait for a slot.
+     */
+    public record LoginAdmissionSettings(
+        int maxConcurrent,
+        int warmBatchSize,
+        int maxWaitSeconds
+    ) {
+        /**
+         * Get the admission wait limit as a Duration.
+         */
+        public Duration maxWait() {
+            return Duration.ofSeconds(maxWaitSeconds);
+        }
+        
+        public void validate() {
+            if (maxConcurrent < 1) {
+                throw new IllegalArgumentException(
+                    "login-admission.max-concurrent must be at least 1 (got: " + maxConcurrent + ")"
+                );
+            }
+            if (warmBatchSize < 1) {
+                throw new IllegalArgumentException(
+                    "login-admission.warm-batch-size must be at least 1 (got: " + warmBatchSize + ")"
+                );
+            }
+            if (maxWaitSeconds < 1) {
+                throw new IllegalArgumentException(
+                    "login-admission.max-wait-seconds must be at least 1 (got: " + maxWaitSeconds + ")"
+                );
+            }
+            long limitSeconds = LoginAdmissionController.MAX_WAIT_LIMIT_MILLIS / 1000L;
+            if (maxWaitSeconds > limitSeconds) {
+                throw new IllegalArgumentException(
+                    "login-admission.max-wait-seconds must not exceed " + limitSeconds + " (login time budget) (got: " + maxWaitSeconds + ")"
+                );
+            }
+        }
+        
+        public static LoginAdmissionSettings defaults() {
+            return new LoginAdmissionSettings(8, 16, 10);
+        }
+    }
+    
+    /**
+     * Pre-login warm-up of the join destination: how long a login waits for it.
+     * Zero still starts the warm-up but lets the player in without waiting.
+     */
+    public record JoinWarmupSettings(
+        int maxWaitMs
+    ) {
+        public Duration maxWait() {
+            return Duration.ofMillis(maxWaitMs);
+        }
+        
+        public void validate() {
+            if (maxWaitMs < 0) {
+                throw new IllegalArgumentException(
+                    "join-warmup.max-wait-ms must be non-negative (got: " + maxWaitMs + ")"
+                );
+            }
+        }
+        
+        public static JoinWarmupSettings defaults() {
+            return new JoinWarmupSettings(2000);
+        }
+    }
+    
+    /**
+     * Region HTTP server used by the Web API: listen port, worker pool and the queue of
+     * WorldGuard operations drained on the main thread.
+     */
+    public record RegionHttpSettings(
+        int port,
+        int workerThreads,
+        int queueCapacity,
+        int mainThreadQueueCapacity,
+        int mainThreadBudgetMs
+    ) {
+        public void validate() {
+            if (port < 1 || port > 65535) {
+                throw new IllegalArgumentException(
+                    "region-http.port must be between 1 and 65535 (got: " + port + ")"
+                );
+            }
+            if (workerThreads < 1) {
+                throw new IllegalArgumentException(
+                    "region-http.worker-threads must be at least 1 (got: " + workerThreads + ")"
+                );
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException(
+                    "region-http.queue-capacity must be at least 1 (got: " + queueCapacity + ")"
+                );
+            }
+            if (mainThreadQueueCapacity < 1) {
+                throw new IllegalArgumentException(
+                    "region-http.main-thread-queue-capacity must be at least 1 (got: " + mainThreadQueueCapacity + ")"
+                );
+            }
+            if (mainThreadBudgetMs < 1) {
+                throw new IllegalArgumentException(
+                    "region-http.main-thread-budget-ms must be at least 1 (got: " + mainThreadBudgetMs + ")"
+                );
+            }
+        }
+        
+        public static RegionHttpSettings defaults() {
+            return new RegionHttpSettings(8081, 4, 64, 1000, 5);
+        }
+    }
 }
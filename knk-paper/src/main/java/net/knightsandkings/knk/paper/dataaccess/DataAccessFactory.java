@@ -42,7 +42,7 @@ public class DataAccessFactory {
         UsersQueryApi usersQueryApi,
         UsersCommandApi usersCommandApi
     ) {
-        DataAccessSettings settings = buildSettings(entitySettings.users(), "Users");
+        DataAccessSettings settings = buildSettings(entitySettings.users().entity(), "Users");
         return new UsersDataAccess(userCache, usersQueryApi, usersCommandApi, settings);
     }
     
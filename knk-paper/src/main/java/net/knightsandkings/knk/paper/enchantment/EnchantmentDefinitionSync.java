@@ -0,0 +1,65 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.core.dataaccess.EnchantmentDefinitionsDataAccess;
+import net.knightsandkings.knk.core.domain.common.Page;
+import net.knightsandkings.knk.core.domain.enchantment.EnchantmentRegistry;
+import net.knightsandkings.knk.core.domain.enchantments.KnkEnchantmentDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Loads enchantment definitions from the backend into {@link EnchantmentRegistry}.
+ *
+ * All pages are fetched off the main thread and the registry is swapped in one step once the
+ * full list is available; if the backend is unreachable the current registry stays in place.
+ */
+public class EnchantmentDefinitionSync {
+    private static final Logger LOGGER = Logger.getLogger(EnchantmentDefinitionSync.class.getName());
+    private static final int PAGE_SIZE = 100;
+
+    private final EnchantmentDefinitionsDataAccess dataAccess;
+
+    public EnchantmentDefinitionSync(EnchantmentDefinitionsDataAccess dataAccess) {
+        this.dataAccess = dataAccess;
+    }
+
+    /**
+     * @return future completing with the number of definitions applied, or -1 if loading failed
+     */
+    public CompletableFuture<Integer> reloadAsync() {
+        List<KnkEnchantmentDefinition> definitions = new ArrayList<>();
+        return fetchPage(1, definitions)
+                .thenApply(ignored -> {
+                    int applied = EnchantmentRegistry.getInstance().reloadFromDefinitions(definitions);
+                    LOGGER.info("Enchantment registry reloaded: " + applied + " of " + definitions.size()
+                            + " definitions applied, " + EnchantmentRegistry.getInstance().getAll().size() + " enchantments");
+                    return applied;
+                })
+                .exceptionally(ex -> {
+                    LOGGER.warning("Failed to load enchantment definitions, keeping current registry: " + ex.getMessage());
+                    return -1;
+                });
+    }
+
+    private CompletableFuture<Void> fetchPage(int pageNumber, List<KnkEnchantmentDefinition> sink) {
+        return dataAccess.listAsync(pageNumber, PAGE_SIZE).thenCompose(page -> {
+            if (page == null || page.items() == null || page.items().isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            sink.addAll(page.items());
+            if (pageNumber >= totalPages(page)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return fetchPage(pageNumber + 1, sink);
+        });
+    }
+
+    private static int totalPages(Page<KnkEnchantmentDefinition> page) {
+        return page.pageSize() > 0
+                ? Math.max(1, (int) Math.ceil((double) page.totalCount() / page.pageSize()))
+                : 1;
+    }
+}
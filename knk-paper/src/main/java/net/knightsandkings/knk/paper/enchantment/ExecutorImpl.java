@@ -1,9 +1,12 @@
 package net.knightsandkings.knk.paper.enchantment;
 
+import net.knightsandkings.knk.core.domain.enchantment.Enchantment;
 import net.knightsandkings.knk.core.domain.enchantment.EnchantmentRegistry;
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentExecutor;
 import net.knightsandkings.knk.paper.enchantment.effects.AttackEnchantmentEffect;
+import net.knightsandkings.knk.paper.enchantment.effects.NearbyEntitySnapshot;
 import net.knightsandkings.knk.paper.enchantment.effects.SupportEnchantmentEffect;
 import net.knightsandkings.knk.paper.enchantment.effects.impl.ArmorRepairEffect;
 import net.knightsandkings.knk.paper.enchantment.effects.impl.BlindnessEffect;
@@ -18,7 +21,6 @@ import net.knightsandkings.knk.paper.enchantment.effects.impl.ResistanceEffect;
 import net.knightsandkings.knk.paper.enchantment.effects.impl.StrengthEffect;
 import net.knightsandkings.knk.paper.enchantment.effects.impl.WitherEffect;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -27,135 +29,199 @@ import org.bukkit.plugin.Plugin;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
+/**
+ * Runs enchantment effects on the server thread.
+ *
+ * Triggers come from Bukkit events, so the cooldown check, probability roll and effect are all
+ * done inline during the event: no futures, no executor hand-off and no scheduler task per
+ * effect. Players and entities are looked up by id once per trigger.
+ *
+ * Bow shots resolve the bow's attack enchantments once ({@link #projectileEnchantments}) and
+ * the listener stores them on the projectile; the hit applies them without reading the bow again.
+ *
+ * Rolls, triggers, cooldown rejects and effect timings are recorded to {@link #stats()}.
+ */
 public class ExecutorImpl implements EnchantmentExecutor {
-    private final Plugin plugin;
+
     private final CooldownManager cooldownManager;
     private final Map<String, AttackEnchantmentEffect> attackEffects;
     private final Map<String, SupportEnchantmentEffect> supportEffects;
+    private final EnchantmentStats stats = new EnchantmentStats();
 
     public ExecutorImpl(Plugin plugin, CooldownManager cooldownManager, FrozenPlayerTracker frozenPlayerTracker) {
-        this.plugin = plugin;
+        this(
+                cooldownManager,
+                buildAttackEffects(plugin, frozenPlayerTracker),
+                buildSupportEffects(plugin, frozenPlayerTracker.scheduler())
+        );
+    }
+
+    ExecutorImpl(
+            CooldownManager cooldownManager,
+            Map<String, AttackEnchantmentEffect> attackEffects,
+            Map<String, SupportEnchantmentEffect> supportEffects
+    ) {
         this.cooldownManager = cooldownManager;
-        this.attackEffects = buildAttackEffects(plugin, frozenPlayerTracker);
-        this.supportEffects = buildSupportEffects(plugin);
+        this.attackEffects = Map.copyOf(attackEffects);
+        this.supportEffects = Map.copyOf(supportEffects);
+        this.attackEffects.values().forEach(effect -> effect.recordStatsTo(stats));
+        this.supportEffects.values().forEach(effect -> effect.recordStatsTo(stats));
+    }
+
+    public EnchantmentStats stats() {
+        return stats;
     }
 
     @Override
-    public CompletableFuture<Void> executeOnMeleeHit(
-            Map<String, Integer> enchantments,
-            UUID attackerId,
-            UUID targetId,
-            double damageDealt
-    ) {
+    public int applyMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId) {
         if (enchantments == null || enchantments.isEmpty()) {
-            return CompletableFuture.completedFuture(null);
+            return 0;
         }
 
         Player attacker = Bukkit.getPlayer(attackerId);
-        Entity targetEntity = Bukkit.getEntity(targetId);
-        if (attacker == null || !(targetEntity instanceof LivingEntity target)) {
-            return CompletableFuture.completedFuture(null);
+        if (attacker == null || !(Bukkit.getEntity(targetId) instanceof LivingEntity target)) {
+            return 0;
         }
 
         ItemStack weapon = attacker.getInventory().getItemInMainHand();
         if (weapon == null || weapon.getType().isAir()) {
-            return CompletableFuture.completedFuture(null);
+            return 0;
+        }
+
+        return applyMeleeHit(enchantments, attacker, target, weapon);
+    }
+
+    /**
+     * Apply the attack enchantments of one melee hit. Must be called on the server thread.
+     *
+     * @return number of effects that triggered
+     */
+    int applyMeleeHit(Map<String, Integer> enchantments, Player attacker, LivingEntity target, ItemStack weapon) {
+        if (enchantments == null || enchantments.isEmpty() || attacker == null || target == null) {
+            return 0;
         }
 
-        return CompletableFuture.runAsync(() -> {
-            for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
-                String enchantmentId = entry.getKey();
-                int level = entry.getValue() == null ? 0 : entry.getValue();
-                if (level < 1) {
-                    continue;
-                }
-
-                AttackEnchantmentEffect effect = attackEffects.get(enchantmentId);
-                if (effect == null) {
-                    continue;
-                }
-
-                long remainingCooldown = cooldownManager.getRemainingCooldown(attackerId, enchantmentId).join();
-                if (remainingCooldown > 0L) {
-                    continue;
-                }
-
-                boolean triggered = effect.tryExecute(weapon, attacker, target, level);
-                if (!triggered) {
-                    continue;
-                }
-
-                EnchantmentRegistry.getInstance().getById(enchantmentId).ifPresent(definition -> {
-                    if (definition.cooldownMs() > 0) {
-                        cooldownManager.applyCooldown(attackerId, enchantmentId, definition.cooldownMs()).join();
-                    }
-                });
+        UUID attackerId = attacker.getUniqueId();
+        int triggered = 0;
+        for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
+            Integer level = entry.getValue();
+            if (level == null || level < 1) {
+                continue;
             }
-        });
+
+            AttackEnchantmentEffect effect = attackEffects.get(entry.getKey());
+            if (effect == null) {
+                continue;
+            }
+
+            EnchantmentStats.EffectStats effectStats = stats.effect(effect.enchantmentId());
+            if (cooldownManager.remainingCooldownMs(attackerId, effect.enchantmentId()) > 0L) {
+                effectStats.recordCooldownReject(level);
+                continue;
+            }
+
+            boolean fired = effect.tryExecute(weapon, attacker, target, level);
+            effectStats.recordRoll(level, fired);
+            if (fired) {
+                startCooldown(attackerId, effect.enchantmentId());
+                triggered++;
+            }
+        }
+        return triggered;
     }
 
     @Override
-    public CompletableFuture<Boolean> executeOnInteract(Map<String, Integer> enchantments, UUID playerId) {
+    public int applyInteract(Map<String, Integer> enchantments, UUID playerId) {
         if (enchantments == null || enchantments.isEmpty()) {
-            return CompletableFuture.completedFuture(false);
+            return 0;
         }
 
         Player player = Bukkit.getPlayer(playerId);
         if (player == null) {
-            return CompletableFuture.completedFuture(false);
+            return 0;
         }
 
-        ItemStack itemInHand = player.getInventory().getItemInMainHand();
-        if (itemInHand == null || itemInHand.getType().isAir()) {
-            return CompletableFuture.completedFuture(false);
+        return applyInteract(enchantments, player, player.getInventory().getItemInMainHand());
+    }
+
+    /**
+     * Apply the support enchantments of one right click. Must be called on the server thread.
+     *
+     * @return number of effects that triggered
+     */
+    int applyInteract(Map<String, Integer> enchantments, Player player, ItemStack itemInHand) {
+        if (enchantments == null || enchantments.isEmpty() || player == null
+                || itemInHand == null || itemInHand.getType().isAir()) {
+            return 0;
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            boolean triggeredAny = false;
-
-            for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
-                String enchantmentId = entry.getKey();
-                int level = entry.getValue() == null ? 0 : entry.getValue();
-                if (level < 1) {
-                    continue;
-                }
-
-                SupportEnchantmentEffect effect = supportEffects.get(enchantmentId);
-                if (effect == null) {
-                    continue;
-                }
-
-                long remainingCooldown = cooldownManager.getRemainingCooldown(playerId, enchantmentId).join();
-                if (remainingCooldown > 0L) {
-                    continue;
-                }
-
-                boolean triggered = effect.tryExecute(itemInHand, player, level);
-                if (!triggered) {
-                    continue;
-                }
-
-                triggeredAny = true;
-                EnchantmentRegistry.getInstance().getById(enchantmentId).ifPresent(definition -> {
-                    if (definition.cooldownMs() > 0) {
-                        cooldownManager.applyCooldown(playerId, enchantmentId, definition.cooldownMs()).join();
-                    }
-                });
+        UUID playerId = player.getUniqueId();
+        int triggered = 0;
+        for (Map.Entry<String, Integer> entry : enchantments.entrySet()) {
+            Integer level = entry.getValue();
+            if (level == null || level < 1) {
+                continue;
+            }
+
+            SupportEnchantmentEffect effect = supportEffects.get(entry.getKey());
+            if (effect == null) {
+                continue;
+            }
+
+            EnchantmentStats.EffectStats effectStats = stats.effect(effect.enchantmentId());
+            if (cooldownManager.remainingCooldownMs(playerId, effect.enchantmentId()) > 0L) {
+                effectStats.recordCooldownReject(level);
+                continue;
             }
 
-            return triggeredAny;
-        });
+            boolean fired = effect.tryExecute(itemInHand, player, level);
+            effectStats.recordRoll(level, fired);
+            if (fired) {
+                startCooldown(playerId, effect.enchantmentId());
+                triggered++;
+            }
+        }
+        return triggered;
     }
 
     @Override
-    public CompletableFuture<Void> executeOnBowShoot(
-            Map<String, Integer> enchantments,
-            UUID shooterId,
-            UUID projectileId
-    ) {
-        return CompletableFuture.completedFuture(null);
+    public Map<String, Integer> projectileEnchantments(Map<String, Integer> bowEnchantments) {
+        if (bowEnchantments == null || bowEnchantments.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Integer> attackEnchantments = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : bowEnchantments.entrySet()) {
+            Integer level = entry.getValue();
+            if (level != null && level >= 1 && attackEffects.containsKey(entry.getKey())) {
+                attackEnchantments.put(entry.getKey(), level);
+            }
+        }
+        return attackEnchantments;
+    }
+
+    @Override
+    public int applyProjectileHit(Map<String, Integer> enchantments, UUID shooterId, UUID targetId) {
+        if (enchantments == null || enchantments.isEmpty()) {
+            return 0;
+        }
+
+        // Deferred hits: shooter or target may be gone by now
+        Player shooter = Bukkit.getPlayer(shooterId);
+        if (shooter == null || !(Bukkit.getEntity(targetId) instanceof LivingEntity target) || !target.isValid()) {
+            return 0;
+        }
+
+        // Effects get no weapon: the bow may no longer be in hand when the projectile lands
+        return applyMeleeHit(enchantments, shooter, target, null);
+    }
+
+    private void startCooldown(UUID playerId, String enchantmentId) {
+        Enchantment definition = EnchantmentRegistry.getInstance().getById(enchantmentId).orElse(null);
+        if (definition != null && definition.cooldownMs() > 0) {
+            cooldownManager.startCooldown(playerId, enchantmentId, definition.cooldownMs());
+        }
     }
 
     private static Map<String, AttackEnchantmentEffect> buildAttackEffects(Plugin plugin, FrozenPlayerTracker frozenPlayerTracker) {
@@ -169,14 +235,16 @@ public class ExecutorImpl implements EnchantmentExecutor {
         return map;
     }
 
-    private static Map<String, SupportEnchantmentEffect> buildSupportEffects(Plugin plugin) {
+    private static Map<String, SupportEnchantmentEffect> buildSupportEffects(Plugin plugin, TimedEffectScheduler scheduler) {
         Map<String, SupportEnchantmentEffect> map = new LinkedHashMap<>();
-        map.put("health_boost", new HealthBoostEffect(plugin));
+        map.put("health_boost", new HealthBoostEffect(plugin, scheduler));
         map.put("armor_repair", new ArmorRepairEffect(plugin));
         map.put("resistance", new ResistanceEffect(plugin));
         map.put("invisibility", new InvisibilityEffect(plugin));
-        map.put("chaos", new ChaosEffect(plugin));
-        map.put("flash_chaos", new FlashChaosEffect(plugin));
+        // Both chaos effects can fire from one item; they share one area scan per tick
+        NearbyEntitySnapshot nearbyEntities = new NearbyEntitySnapshot();
+        map.put("chaos", new ChaosEffect(plugin, nearbyEntities));
+        map.put("flash_chaos", new FlashChaosEffect(plugin, nearbyEntities));
         return map;
     }
 }
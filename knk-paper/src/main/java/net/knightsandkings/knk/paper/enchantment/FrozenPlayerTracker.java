@@ -1,5 +1,8 @@
 package net.knightsandkings.knk.paper.enchantment;
 
+import net.knightsandkings.knk.core.scheduler.TickWheel;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+import net.knightsandkings.knk.paper.utils.ServerTickClock;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
@@ -10,15 +13,61 @@ import org.bukkit.util.Vector;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks frozen entities as a deadline on the {@link TimedEffectScheduler} tick.
+ *
+ * All per-entity state lives in one map entry, so the movement check is a single map read and
+ * a compare. Expiry (including restoring a mob's AI) is one wheel timer that is cancelled and
+ * replaced when the entity is frozen again.
+ * <p>
+ * With {@link PlayerSlots}, online players are tracked apart from mobs: only their deadline tick
+ * is kept, in a primitive array indexed by slot. They have no AI to restore, so they need no
+ * expiry timer, and the deadline is dropped with the slot when they quit. Their deadlines are on
+ * the server tick ({@link ServerTickClock}), not the wheel tick, which only advances while
+ * timers are pending.
+ */
 public class FrozenPlayerTracker {
-    private final Plugin plugin;
-    private final Map<UUID, Integer> pendingUnfreezeTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> frozenUntilMillis = new ConcurrentHashMap<>();
-    private final Map<UUID, Boolean> originalAiStates = new ConcurrentHashMap<>();
+    private final TimedEffectScheduler scheduler;
+    private final Map<UUID, FreezeState> frozen = new ConcurrentHashMap<>();
+    private final PlayerSlots playerSlots;
+    private final PlayerSlots.Longs frozenUntilBySlot;
+    private final LongSupplier serverTicks;
+
+    private static final class FreezeState {
+        private final long untilTick;
+        private final Boolean originalAi;
+        private final TickWheel.Timeout expiry;
+
+        private FreezeState(long untilTick, Boolean originalAi, TickWheel.Timeout expiry) {
+            this.untilTick = untilTick;
+            this.originalAi = originalAi;
+            this.expiry = expiry;
+        }
+    }
 
     public FrozenPlayerTracker(Plugin plugin) {
-        this.plugin = plugin;
+        this(new TimedEffectScheduler(plugin));
+    }
+
+    public FrozenPlayerTracker(TimedEffectScheduler scheduler) {
+        this(scheduler, null);
+    }
+
+    public FrozenPlayerTracker(TimedEffectScheduler scheduler, PlayerSlots playerSlots) {
+        this(scheduler, playerSlots, ServerTickClock.INSTANCE);
+    }
+
+    FrozenPlayerTracker(TimedEffectScheduler scheduler, PlayerSlots playerSlots, LongSupplier serverTicks) {
+        this.scheduler = scheduler;
+        this.playerSlots = playerSlots;
+        this.frozenUntilBySlot = playerSlots != null ? playerSlots.newLongs(0L) : null;
+        this.serverTicks = serverTicks;
+    }
+
+    public TimedEffectScheduler scheduler() {
+        return scheduler;
     }
 
     public void freeze(LivingEntity target, int durationTicks) {
@@ -27,29 +76,34 @@ public class FrozenPlayerTracker {
         }
 
         UUID targetId = target.getUniqueId();
-        frozenUntilMillis.put(targetId, System.currentTimeMillis() + (durationTicks * 50L));
+        int slot = playerSlot(target);
+        if (slot != PlayerSlots.NO_SLOT) {
+            frozenUntilBySlot.set(slot, serverTicks.getAsLong() + durationTicks);
+            return;
+        }
 
-        Integer previousTask = pendingUnfreezeTasks.remove(targetId);
-        if (previousTask != null) {
-            Bukkit.getScheduler().cancelTask(previousTask);
+        FreezeState previous = frozen.remove(targetId);
+        Boolean originalAi = null;
+        if (previous != null) {
+            previous.expiry.cancel();
+            // Keep the AI state from before the first freeze, not the disabled one
+            originalAi = previous.originalAi;
         }
 
         if (!(target instanceof Player)) {
             try {
-                originalAiStates.put(targetId, target.hasAI());
+                if (originalAi == null) {
+                    originalAi = target.hasAI();
+                }
                 target.setAI(false);
             } catch (UnsupportedOperationException ignored) {
-                originalAiStates.remove(targetId);
+                originalAi = null;
             }
             target.setVelocity(new Vector(0.0d, 0.0d, 0.0d));
         }
 
-        int taskId = Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
-            restoreEntityState(targetId);
-            frozenUntilMillis.remove(targetId);
-            pendingUnfreezeTasks.remove(targetId);
-        }, durationTicks);
-        pendingUnfreezeTasks.put(targetId, taskId);
+        TickWheel.Timeout expiry = scheduler.schedule(durationTicks, () -> expire(targetId));
+        frozen.put(targetId, new FreezeState(scheduler.currentTick() + durationTicks, originalAi, expiry));
     }
 
     public void freeze(Player player, int durationTicks) {
@@ -61,18 +115,12 @@ public class FrozenPlayerTracker {
             return false;
         }
 
-        Long frozenUntil = frozenUntilMillis.get(playerId);
-        if (frozenUntil == null) {
-            return false;
-        }
-
-        if (frozenUntil <= System.currentTimeMillis()) {
-            frozenUntilMillis.remove(playerId);
-            pendingUnfreezeTasks.remove(playerId);
-            return false;
+        int slot = playerSlots != null ? playerSlots.slotOf(playerId) : PlayerSlots.NO_SLOT;
+        if (slot != PlayerSlots.NO_SLOT) {
+            return frozenUntilBySlot.get(slot) > serverTicks.getAsLong();
         }
-
-        return true;
+        FreezeState state = frozen.get(playerId);
+        return state != null && state.untilTick > scheduler.currentTick();
     }
 
     public void unfreeze(UUID playerId) {
@@ -80,24 +128,36 @@ public class FrozenPlayerTracker {
             return;
         }
 
-        frozenUntilMillis.remove(playerId);
-        restoreEntityState(playerId);
-        Integer taskId = pendingUnfreezeTasks.remove(playerId);
-        if (taskId != null) {
-            Bukkit.getScheduler().cancelTask(taskId);
+        if (playerSlots != null) {
+            frozenUntilBySlot.set(playerSlots.slotOf(playerId), 0L);
+        }
+        FreezeState state = frozen.remove(playerId);
+        if (state != null) {
+            state.expiry.cancel();
+            restoreEntityState(playerId, state);
+        }
+    }
+
+    private int playerSlot(LivingEntity target) {
+        return playerSlots != null && target instanceof Player ? playerSlots.slotOf(target.getUniqueId()) : PlayerSlots.NO_SLOT;
+    }
+
+    private void expire(UUID entityId) {
+        FreezeState state = frozen.remove(entityId);
+        if (state != null) {
+            restoreEntityState(entityId, state);
         }
     }
 
-    private void restoreEntityState(UUID entityId) {
-        Boolean originalAi = originalAiStates.remove(entityId);
-        if (originalAi == null) {
+    private void restoreEntityState(UUID entityId, FreezeState state) {
+        if (state.originalAi == null) {
             return;
         }
 
         Entity entity = Bukkit.getEntity(entityId);
         if (entity instanceof LivingEntity livingEntity && !(livingEntity instanceof Player)) {
             try {
-                livingEntity.setAI(originalAi);
+                livingEntity.setAI(state.originalAi);
             } catch (UnsupportedOperationException ignored) {
                 // No AI support on this entity implementation
             }
@@ -1,50 +1,58 @@
 package net.knightsandkings.knk.paper.enchantment;
 
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
+import net.knightsandkings.knk.paper.utils.ServerTickClock;
 
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Enchantment cooldowns on top of the tick-based {@link CooldownStore}: one slot per
+ * enchantment id and one expiry array per player. Durations are given in milliseconds and
+ * rounded up to whole ticks.
+ */
 public class InMemoryCooldownManager implements CooldownManager {
-    private final Map<UUID, Map<String, Long>> cooldowns = new ConcurrentHashMap<>();
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
 
-    @Override
-    public CompletableFuture<Long> getRemainingCooldown(UUID playerId, String enchantmentId) {
-        long now = System.currentTimeMillis();
-        Map<String, Long> playerCooldowns = cooldowns.get(playerId);
-        if (playerCooldowns == null) {
-            return CompletableFuture.completedFuture(0L);
-        }
+    private final CooldownStore store;
 
-        Long expiry = playerCooldowns.get(enchantmentId);
-        if (expiry == null) {
-            return CompletableFuture.completedFuture(0L);
-        }
+    public InMemoryCooldownManager() {
+        this(new CooldownStore(ServerTickClock.INSTANCE));
+    }
 
-        if (expiry <= now) {
-            playerCooldowns.remove(enchantmentId);
-            if (playerCooldowns.isEmpty()) {
-                cooldowns.remove(playerId);
-            }
-            return CompletableFuture.completedFuture(0L);
-        }
+    public InMemoryCooldownManager(CooldownStore store) {
+        this.store = store;
+    }
 
-        return CompletableFuture.completedFuture(expiry - now);
+    public CooldownStore store() {
+        return store;
+    }
+
+    @Override
+    public CompletableFuture<Long> getRemainingCooldown(UUID playerId, String enchantmentId) {
+        return CompletableFuture.completedFuture(remainingCooldownMs(playerId, enchantmentId));
     }
 
     @Override
     public CompletableFuture<Void> applyCooldown(UUID playerId, String enchantmentId, long durationMs) {
-        long expiry = System.currentTimeMillis() + Math.max(durationMs, 0L);
-        cooldowns.computeIfAbsent(playerId, ignored -> new ConcurrentHashMap<>())
-                .put(enchantmentId, expiry);
-        return CompletableFuture.completedFuture(null);
+        startCooldown(playerId, enchantmentId, durationMs);
+        return DONE;
     }
 
     @Override
     public CompletableFuture<Void> clearCooldowns(UUID playerId) {
-        cooldowns.remove(playerId);
-        return CompletableFuture.completedFuture(null);
+        store.clearPlayer(playerId);
+        return DONE;
+    }
+
+    @Override
+    public long remainingCooldownMs(UUID playerId, String enchantmentId) {
+        return CooldownStore.ticksToMillis(store.remainingTicks(playerId, store.slot(enchantmentId)));
+    }
+
+    @Override
+    public void startCooldown(UUID playerId, String enchantmentId, long durationMs) {
+        store.startCooldown(playerId, store.slot(enchantmentId), CooldownStore.millisToTicks(durationMs));
     }
 }
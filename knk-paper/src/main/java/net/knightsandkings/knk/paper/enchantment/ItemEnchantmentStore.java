@@ -0,0 +1,113 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.core.domain.enchantment.EnchantmentDataCodec;
+import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes custom enchantments stored in an item's PersistentDataContainer.
+ *
+ * The container entry (see {@link EnchantmentDataCodec}) is the source of truth; lore is only
+ * display. Items enchanted before the entry existed are read from their lore through the
+ * repository's parse cache until {@link #migrate(ItemStack)} writes the entry for them.
+ */
+public class ItemEnchantmentStore {
+    private static final Logger LOGGER = Logger.getLogger(ItemEnchantmentStore.class.getName());
+    public static final NamespacedKey ENCHANTMENTS_KEY = new NamespacedKey("knk", "custom_enchantments");
+
+    private final EnchantmentRepository loreRepository;
+
+    public ItemEnchantmentStore(EnchantmentRepository loreRepository) {
+        this.loreRepository = loreRepository;
+    }
+
+    /**
+     * @return id -> level map of the item's custom enchantments (empty if none)
+     */
+    public Map<String, Integer> read(ItemStack itemStack) {
+        if (itemStack == null || itemStack.getType().isAir() || !itemStack.hasItemMeta()) {
+            return Map.of();
+        }
+        return read(itemStack.getItemMeta());
+    }
+
+    public Map<String, Integer> read(ItemMeta itemMeta) {
+        if (itemMeta == null) {
+            return Map.of();
+        }
+
+        byte[] data = itemMeta.getPersistentDataContainer().get(ENCHANTMENTS_KEY, PersistentDataType.BYTE_ARRAY);
+        if (data != null) {
+            return EnchantmentDataCodec.decode(data);
+        }
+
+        // Legacy item: enchantments only exist in lore
+        if (!itemMeta.hasLore()) {
+            return Map.of();
+        }
+        List<String> lore = itemMeta.getLore();
+        return loreRepository.getEnchantments(lore).join();
+    }
+
+    public boolean hasAny(ItemStack itemStack) {
+        return !read(itemStack).isEmpty();
+    }
+
+    /**
+     * Store the enchantments in the item's container; an empty map removes the entry.
+     * Lore is not touched.
+     */
+    public void write(ItemMeta itemMeta, Map<String, Integer> enchantments) {
+        PersistentDataContainer container = itemMeta.getPersistentDataContainer();
+        if (enchantments == null || enchantments.isEmpty()) {
+            container.remove(ENCHANTMENTS_KEY);
+            return;
+        }
+        container.set(ENCHANTMENTS_KEY, PersistentDataType.BYTE_ARRAY, EnchantmentDataCodec.encode(enchantments));
+    }
+
+    /**
+     * Re-derive the container entry from the item's (just edited) lore.
+     */
+    public void syncFromLore(ItemMeta itemMeta) {
+        List<String> lore = itemMeta.hasLore() ? itemMeta.getLore() : List.of();
+        write(itemMeta, loreRepository.getEnchantments(lore).join());
+    }
+
+    /**
+     * Write the container entry for a lore-only item.
+     *
+     * @return true if the item was changed
+     */
+    public boolean migrate(ItemStack itemStack) {
+        if (itemStack == null || itemStack.getType().isAir() || !itemStack.hasItemMeta()) {
+            return false;
+        }
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        if (itemMeta == null || !itemMeta.hasLore()
+                || itemMeta.getPersistentDataContainer().has(ENCHANTMENTS_KEY, PersistentDataType.BYTE_ARRAY)) {
+            return false;
+        }
+
+        Map<String, Integer> enchantments = loreRepository.getEnchantments(itemMeta.getLore()).join();
+        if (enchantments.isEmpty()) {
+            return false;
+        }
+        try {
+            write(itemMeta, enchantments);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Skipping enchantment migration for " + itemStack.getType() + ": " + e.getMessage());
+            return false;
+        }
+        itemStack.setItemMeta(itemMeta);
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.paper.utils.ServerTickClock;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caps how many projectile hits apply their enchantment effects per server tick.
+ * <p>
+ * Hits run inline while the tick's budget lasts; the rest wait in a FIFO backlog that a
+ * repeating task drains at the same rate, so a volley of arrows is spread over a few ticks
+ * instead of landing in one. The task only runs while the backlog is non-empty. Hits beyond
+ * {@code maxBacklog} are dropped. Server thread only.
+ */
+public class ProjectileEffectQueue {
+    private static final Logger LOGGER = Logger.getLogger(ProjectileEffectQueue.class.getName());
+
+    private final Plugin plugin;
+    private final int perTickLimit;
+    private final int maxBacklog;
+    private final LongSupplier tickClock;
+    private final ArrayDeque<Runnable> backlog = new ArrayDeque<>();
+    private BukkitTask drainTask;
+    private long budgetTick = Long.MIN_VALUE;
+    private int usedThisTick;
+    private long dropped;
+
+    public ProjectileEffectQueue(Plugin plugin, int perTickLimit) {
+        this(plugin, perTickLimit, perTickLimit * 20, ServerTickClock.INSTANCE);
+    }
+
+    ProjectileEffectQueue(Plugin plugin, int perTickLimit, int maxBacklog, LongSupplier tickClock) {
+        this.plugin = plugin;
+        this.perTickLimit = Math.max(1, perTickLimit);
+        this.maxBacklog = Math.max(0, maxBacklog);
+        this.tickClock = tickClock;
+    }
+
+    /**
+     * Run {@code hit} now if this tick's budget allows, otherwise on a later tick.
+     *
+     * @return false if the backlog is full and the hit was dropped
+     */
+    public boolean submit(Runnable hit) {
+        if (backlog.isEmpty() && tryUseBudget()) {
+            run(hit);
+            return true;
+        }
+        if (backlog.size() >= maxBacklog) {
+            dropped++;
+            return false;
+        }
+        backlog.addLast(hit);
+        ensureDraining();
+        return true;
+    }
+
+    public int backlog() {
+        return backlog.size();
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Run up to the remaining budget of backlogged hits.
+     *
+     * @return number of hits run
+     */
+    int drain() {
+        int ran = 0;
+        while (!backlog.isEmpty() && tryUseBudget()) {
+            run(backlog.pollFirst());
+            ran++;
+        }
+        if (backlog.isEmpty()) {
+            stop();
+        }
+        return ran;
+    }
+
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    private boolean tryUseBudget() {
+        long tick = tickClock.getAsLong();
+        if (tick != budgetTick) {
+            budgetTick = tick;
+            usedThisTick = 0;
+        }
+        if (usedThisTick >= perTickLimit) {
+            return false;
+        }
+        usedThisTick++;
+        return true;
+    }
+
+    private void ensureDraining() {
+        if (drainTask == null) {
+            drainTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    private static void run(Runnable hit) {
+        try {
+            hit.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Projectile enchantment effect failed", e);
+        }
+    }
+}
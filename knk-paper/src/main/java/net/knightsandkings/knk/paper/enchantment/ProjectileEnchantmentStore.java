@@ -0,0 +1,35 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.core.domain.enchantment.EnchantmentDataCodec;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Projectile;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Map;
+
+/**
+ * Carries a bow's enchantments on the projectile it shot, in the projectile's
+ * PersistentDataContainer, so the hit is resolved without reading the bow again.
+ */
+public final class ProjectileEnchantmentStore {
+    public static final NamespacedKey ENCHANTMENTS_KEY = new NamespacedKey("knk", "projectile_enchantments");
+
+    private ProjectileEnchantmentStore() {
+    }
+
+    public static void write(Projectile projectile, Map<String, Integer> enchantments) {
+        projectile.getPersistentDataContainer().set(
+                ENCHANTMENTS_KEY,
+                PersistentDataType.BYTE_ARRAY,
+                EnchantmentDataCodec.encode(enchantments)
+        );
+    }
+
+    /**
+     * @return enchantments stored by {@link #write}, empty if none
+     */
+    public static Map<String, Integer> read(Projectile projectile) {
+        byte[] data = projectile.getPersistentDataContainer().get(ENCHANTMENTS_KEY, PersistentDataType.BYTE_ARRAY);
+        return data == null ? Map.of() : EnchantmentDataCodec.decode(data);
+    }
+}
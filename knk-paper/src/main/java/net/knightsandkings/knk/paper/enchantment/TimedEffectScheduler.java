@@ -0,0 +1,87 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.core.scheduler.TickWheel;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs timed enchantment work (freeze expiry, AI restoration, repeating particles and heals)
+ * from a single {@link TickWheel}.
+ * <p>
+ * One repeating Bukkit task advances the wheel each tick while timers are pending and is
+ * cancelled again once the wheel is empty, so effects never create a Bukkit task of their own.
+ * Server thread only.
+ */
+public class TimedEffectScheduler {
+    private static final int WHEEL_SLOTS = 512;
+
+    private final Plugin plugin;
+    private final TickWheel wheel = new TickWheel(WHEEL_SLOTS);
+    private BukkitTask tickTask;
+
+    public TimedEffectScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Current wheel tick; deadlines for {@link #schedule} are relative to it.
+     */
+    public long currentTick() {
+        return wheel.currentTick();
+    }
+
+    /**
+     * Run {@code task} after {@code delayTicks} ticks (at least one).
+     */
+    public TickWheel.Timeout schedule(long delayTicks, Runnable task) {
+        TickWheel.Timeout timeout = wheel.schedule(delayTicks, task);
+        ensureTicking();
+        return timeout;
+    }
+
+    /**
+     * Run {@code step} now and then every {@code periodTicks} ticks, at most {@code runs} times
+     * in total; stops early once {@code step} returns false.
+     */
+    public void repeat(long periodTicks, int runs, BooleanSupplier step) {
+        if (runs <= 0 || !step.getAsBoolean() || runs == 1) {
+            return;
+        }
+        schedule(periodTicks, new Runnable() {
+            private int remaining = runs - 1;
+
+            @Override
+            public void run() {
+                if (step.getAsBoolean() && --remaining > 0) {
+                    schedule(periodTicks, this);
+                }
+            }
+        });
+    }
+
+    public int pending() {
+        return wheel.size();
+    }
+
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    private void ensureTicking() {
+        if (tickTask == null) {
+            tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        wheel.advance();
+        if (wheel.size() == 0) {
+            stop();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package net.knightsandkings.knk.paper.enchantment.effects;
 
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import org.bukkit.Bukkit;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -17,6 +18,7 @@ public abstract class AttackEnchantmentEffect implements EnchantmentEffect {
     private final String enchantmentId;
     private final Double triggerProbabilityPerLevel;
     private final Plugin plugin;
+    private EnchantmentStats.EffectStats stats;
     private final DoubleSupplier rollSupplier;
 
     protected AttackEnchantmentEffect(String enchantmentId, Double triggerProbabilityPerLevel, Plugin plugin) {
@@ -46,12 +48,37 @@ public abstract class AttackEnchantmentEffect implements EnchantmentEffect {
             return false;
         }
 
-        runOnMainThread(() -> applyEffect(weapon, attacker, target, level));
+        if (isMainThread()) {
+            applyTimed(weapon, attacker, target, level);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, () -> applyTimed(weapon, attacker, target, level));
+        }
         return true;
     }
 
     protected abstract void applyEffect(ItemStack weapon, Player attacker, LivingEntity target, int level);
 
+    /**
+     * Record the time spent in {@link #applyEffect} to {@code stats}.
+     */
+    public final void recordStatsTo(EnchantmentStats stats) {
+        this.stats = stats.effect(enchantmentId);
+    }
+
+    private void applyTimed(ItemStack weapon, Player attacker, LivingEntity target, int level) {
+        EnchantmentStats.EffectStats current = stats;
+        if (current == null) {
+            applyEffect(weapon, attacker, target, level);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            applyEffect(weapon, attacker, target, level);
+        } finally {
+            current.applyTime().recordSince(start);
+        }
+    }
+
     protected final boolean shouldTrigger(int level) {
         if (level < 1) {
             return false;
@@ -66,12 +93,7 @@ public abstract class AttackEnchantmentEffect implements EnchantmentEffect {
     }
 
     protected final void runOnMainThread(Runnable runnable) {
-        if (Bukkit.getServer() == null) {
-            runnable.run();
-            return;
-        }
-
-        if (Bukkit.isPrimaryThread()) {
+        if (isMainThread()) {
             runnable.run();
             return;
         }
@@ -79,6 +101,11 @@ public abstract class AttackEnchantmentEffect implements EnchantmentEffect {
         Bukkit.getScheduler().runTask(plugin, runnable);
     }
 
+    // No server in unit tests: run inline
+    private static boolean isMainThread() {
+        return Bukkit.getServer() == null || Bukkit.isPrimaryThread();
+    }
+
     protected final void playEffect(Location location, Effect effect, int data) {
         if (location == null || location.getWorld() == null || effect == null) {
             return;
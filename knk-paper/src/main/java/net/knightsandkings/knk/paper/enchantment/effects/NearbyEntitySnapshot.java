@@ -0,0 +1,101 @@
+package net.knightsandkings.knk.paper.enchantment.effects;
+
+import net.knightsandkings.knk.paper.utils.ServerTickClock;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-tick snapshot of the living entities around a caster, shared by area effects.
+ * <p>
+ * One {@code getNearbyEntities} scan is taken per caster, radius and tick; positions are read
+ * once into the snapshot and the damage and knockback rings are split from it with squared
+ * distances. Further casts by the same player in the same tick (chaos and flash chaos on one
+ * item) reuse the scan. Entities don't move until they tick, so the positions stay accurate for
+ * the whole tick. Server thread only.
+ */
+public class NearbyEntitySnapshot {
+    private final LongSupplier tickClock;
+    private final Map<ScanKey, List<Target>> scans = new HashMap<>();
+    private final Location scratch = new Location(null, 0.0d, 0.0d, 0.0d);
+    private long scanTick = Long.MIN_VALUE;
+
+    /**
+     * Living entity in range, with its offset from the caster at scan time.
+     */
+    public record Target(LivingEntity entity, double dx, double dy, double dz, double distanceSquared) {}
+
+    /**
+     * Targets within the inner radius, and targets beyond it but within the outer radius.
+     */
+    public record Rings(List<Target> inner, List<Target> outer) {}
+
+    private record ScanKey(UUID centerId, double radius) {}
+
+    public NearbyEntitySnapshot() {
+        this(ServerTickClock.INSTANCE);
+    }
+
+    public NearbyEntitySnapshot(LongSupplier tickClock) {
+        this.tickClock = tickClock;
+    }
+
+    /**
+     * Split the living entities around {@code center} (excluding it) into an inner and an outer
+     * ring. Entities removed since the scan (killed by an earlier cast this tick) are skipped.
+     */
+    public Rings rings(Entity center, double innerRadius, double outerRadius) {
+        double innerSquared = innerRadius * innerRadius;
+        double outerSquared = outerRadius * outerRadius;
+        List<Target> inner = new ArrayList<>();
+        List<Target> outer = new ArrayList<>();
+        for (Target target : scan(center, outerRadius)) {
+            if (!target.entity().isValid()) {
+                continue;
+            }
+            if (target.distanceSquared() <= innerSquared) {
+                inner.add(target);
+            } else if (target.distanceSquared() <= outerSquared) {
+                outer.add(target);
+            }
+        }
+        return new Rings(inner, outer);
+    }
+
+    private List<Target> scan(Entity center, double radius) {
+        long tick = tickClock.getAsLong();
+        if (tick != scanTick) {
+            scans.clear();
+            scanTick = tick;
+        }
+        return scans.computeIfAbsent(new ScanKey(center.getUniqueId(), radius), key -> collect(center, radius));
+    }
+
+    private List<Target> collect(Entity center, double radius) {
+        Location origin = center.getLocation(scratch);
+        double x = origin.getX();
+        double y = origin.getY();
+        double z = origin.getZ();
+        UUID centerId = center.getUniqueId();
+
+        List<Target> targets = new ArrayList<>();
+        for (Entity nearby : center.getNearbyEntities(radius, radius, radius)) {
+            if (!(nearby instanceof LivingEntity livingEntity) || livingEntity.getUniqueId().equals(centerId)) {
+                continue;
+            }
+            Location position = livingEntity.getLocation(scratch);
+            double dx = position.getX() - x;
+            double dy = position.getY() - y;
+            double dz = position.getZ() - z;
+            targets.add(new Target(livingEntity, dx, dy, dz, dx * dx + dy * dy + dz * dz));
+        }
+        return targets;
+    }
+}
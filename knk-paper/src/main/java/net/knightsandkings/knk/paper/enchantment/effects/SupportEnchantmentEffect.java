@@ -1,5 +1,6 @@
 package net.knightsandkings.knk.paper.enchantment.effects;
 
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import org.bukkit.Bukkit;
 import org.bukkit.Effect;
 import org.bukkit.Location;
@@ -14,6 +15,7 @@ import java.util.Objects;
 public abstract class SupportEnchantmentEffect implements EnchantmentEffect {
     private final String enchantmentId;
     private final Plugin plugin;
+    private EnchantmentStats.EffectStats stats;
 
     protected SupportEnchantmentEffect(String enchantmentId, Plugin plugin) {
         this.enchantmentId = Objects.requireNonNull(enchantmentId, "enchantmentId must not be null");
@@ -30,7 +32,11 @@ public abstract class SupportEnchantmentEffect implements EnchantmentEffect {
             return false;
         }
 
-        runOnMainThread(() -> applyEffect(item, player, level));
+        if (isMainThread()) {
+            applyTimed(item, player, level);
+        } else {
+            Bukkit.getScheduler().runTask(plugin, () -> applyTimed(item, player, level));
+        }
         return true;
     }
 
@@ -41,13 +47,29 @@ public abstract class SupportEnchantmentEffect implements EnchantmentEffect {
 
     protected abstract void applyEffect(ItemStack item, Player player, int level);
 
-    protected final void runOnMainThread(Runnable runnable) {
-        if (Bukkit.getServer() == null) {
-            runnable.run();
+    /**
+     * Record the time spent in {@link #applyEffect} to {@code stats}.
+     */
+    public final void recordStatsTo(EnchantmentStats stats) {
+        this.stats = stats.effect(enchantmentId);
+    }
+
+    private void applyTimed(ItemStack item, Player player, int level) {
+        EnchantmentStats.EffectStats current = stats;
+        if (current == null) {
+            applyEffect(item, player, level);
             return;
         }
+        long start = System.nanoTime();
+        try {
+            applyEffect(item, player, level);
+        } finally {
+            current.applyTime().recordSince(start);
+        }
+    }
 
-        if (Bukkit.isPrimaryThread()) {
+    protected final void runOnMainThread(Runnable runnable) {
+        if (isMainThread()) {
             runnable.run();
             return;
         }
@@ -55,6 +77,11 @@ public abstract class SupportEnchantmentEffect implements EnchantmentEffect {
         Bukkit.getScheduler().runTask(plugin, runnable);
     }
 
+    // No server in unit tests: run inline
+    private static boolean isMainThread() {
+        return Bukkit.getServer() == null || Bukkit.isPrimaryThread();
+    }
+
     protected final void playEffect(Location location, Effect effect, int data) {
         if (location == null || location.getWorld() == null || effect == null) {
             return;
@@ -0,0 +1,79 @@
+package net.knightsandkings.knk.paper.enchantment.effects.impl;
+
+import net.knightsandkings.knk.paper.enchantment.effects.NearbyEntitySnapshot;
+import net.knightsandkings.knk.paper.enchantment.effects.SupportEnchantmentEffect;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base for support effects that damage and knock back everything around the caster.
+ */
+public abstract class AreaBurstEffect extends SupportEnchantmentEffect {
+    private final NearbyEntitySnapshot nearbyEntities;
+
+    protected AreaBurstEffect(String enchantmentId, Plugin plugin, NearbyEntitySnapshot nearbyEntities) {
+        super(enchantmentId, plugin);
+        this.nearbyEntities = nearbyEntities;
+    }
+
+    protected final NearbyEntitySnapshot.Rings rings(Player player, double damageRadius, double knockbackRadius) {
+        return nearbyEntities.rings(player, damageRadius, knockbackRadius);
+    }
+
+    /**
+     * Damage a volley of targets. Every damage event is dispatched before any damage is applied,
+     * so listeners see the whole volley against unchanged health.
+     *
+     * @return the targets whose damage event was not cancelled
+     */
+    protected final List<NearbyEntitySnapshot.Target> damageAll(
+            Player attacker,
+            List<NearbyEntitySnapshot.Target> targets,
+            double damage
+    ) {
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+
+        PluginManager pluginManager = plugin().getServer().getPluginManager();
+        EntityDamageByEntityEvent[] events = new EntityDamageByEntityEvent[targets.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new EntityDamageByEntityEvent(
+                    attacker,
+                    targets.get(i).entity(),
+                    EntityDamageEvent.DamageCause.CUSTOM,
+                    damage
+            );
+            pluginManager.callEvent(events[i]);
+        }
+
+        List<NearbyEntitySnapshot.Target> damaged = new ArrayList<>(targets.size());
+        for (int i = 0; i < events.length; i++) {
+            if (events[i].isCancelled()) {
+                continue;
+            }
+            NearbyEntitySnapshot.Target target = targets.get(i);
+            target.entity().damage(events[i].getFinalDamage(), attacker);
+            damaged.add(target);
+        }
+        return damaged;
+    }
+
+    protected final void applyKnockback(NearbyEntitySnapshot.Target target) {
+        Vector direction = new Vector(target.dx(), target.dy(), target.dz());
+        if (target.distanceSquared() <= 0.0001d) {
+            direction = new Vector(0.01d, 0.0d, 0.01d);
+        }
+
+        Vector velocity = direction.normalize().multiply(1.2d);
+        velocity.setY(0.4d);
+        target.entity().setVelocity(velocity);
+    }
+}
@@ -1,28 +1,24 @@
 package net.knightsandkings.knk.paper.enchantment.effects.impl;
 
-import net.knightsandkings.knk.paper.enchantment.effects.SupportEnchantmentEffect;
+import net.knightsandkings.knk.paper.enchantment.effects.NearbyEntitySnapshot;
 import org.bukkit.Effect;
 import org.bukkit.Location;
 import org.bukkit.Sound;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.util.Vector;
 
-import java.util.HashSet;
-import java.util.Set;
-
-public class ChaosEffect extends SupportEnchantmentEffect {
+public class ChaosEffect extends AreaBurstEffect {
     private static final double DAMAGE_RADIUS = 3.0d;
     private static final double KNOCKBACK_RADIUS = 5.0d;
     private static final double DAMAGE_AMOUNT = 40.0d;
 
     public ChaosEffect(Plugin plugin) {
-        super("chaos", plugin);
+        this(plugin, new NearbyEntitySnapshot());
+    }
+
+    public ChaosEffect(Plugin plugin, NearbyEntitySnapshot nearbyEntities) {
+        super("chaos", plugin, nearbyEntities);
     }
 
     @Override
@@ -32,60 +28,15 @@ public class ChaosEffect extends SupportEnchantmentEffect {
         playSound(playerLocation, Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1.0f, 1.0f);
         playEffect(playerLocation.clone().add(0.0d, 1.0d, 0.0d), Effect.FIREWORK_SHOOT, 0);
 
-        Set<LivingEntity> knockedBackEntities = new HashSet<>();
-        for (Entity nearby : player.getNearbyEntities(KNOCKBACK_RADIUS, KNOCKBACK_RADIUS, KNOCKBACK_RADIUS)) {
-            if (!(nearby instanceof LivingEntity livingEntity) || livingEntity.getUniqueId().equals(player.getUniqueId())) {
-                continue;
-            }
-
-            double distance = livingEntity.getLocation().distance(playerLocation);
-            if (distance <= DAMAGE_RADIUS) {
-                boolean damageApplied = callDamageEventAndApply(player, livingEntity, DAMAGE_AMOUNT);
-                if (!damageApplied) {
-                    continue;
-                }
-            }
+        NearbyEntitySnapshot.Rings rings = rings(player, DAMAGE_RADIUS, KNOCKBACK_RADIUS);
+        damageAll(player, rings.inner(), DAMAGE_AMOUNT);
 
-            applyKnockback(player, livingEntity);
-            knockedBackEntities.add(livingEntity);
+        // Everything in range is knocked back, whether or not its damage went through
+        for (NearbyEntitySnapshot.Target target : rings.inner()) {
+            applyKnockback(target);
         }
-
-        for (Entity nearby : player.getNearbyEntities(KNOCKBACK_RADIUS, KNOCKBACK_RADIUS, KNOCKBACK_RADIUS)) {
-            if (!(nearby instanceof LivingEntity livingEntity)
-                    || livingEntity.getUniqueId().equals(player.getUniqueId())
-                    || knockedBackEntities.contains(livingEntity)) {
-                continue;
-            }
-
-            applyKnockback(player, livingEntity);
+        for (NearbyEntitySnapshot.Target target : rings.outer()) {
+            applyKnockback(target);
         }
     }
-
-    protected boolean callDamageEventAndApply(Player attacker, LivingEntity target, double damage) {
-        EntityDamageByEntityEvent damageEvent = new EntityDamageByEntityEvent(
-                attacker,
-                target,
-                EntityDamageEvent.DamageCause.CUSTOM,
-                damage
-        );
-        plugin().getServer().getPluginManager().callEvent(damageEvent);
-
-        if (damageEvent.isCancelled()) {
-            return false;
-        }
-
-        target.damage(damageEvent.getFinalDamage(), attacker);
-        return true;
-    }
-
-    protected void applyKnockback(Player attacker, LivingEntity target) {
-        Vector direction = target.getLocation().toVector().subtract(attacker.getLocation().toVector());
-        if (direction.lengthSquared() <= 0.0001d) {
-            direction = new Vector(0.01d, 0.0d, 0.01d);
-        }
-
-        Vector velocity = direction.normalize().multiply(1.2d);
-        velocity.setY(0.4d);
-        target.setVelocity(velocity);
-    }
 }
@@ -2,7 +2,6 @@ package net.knightsandkings.knk.paper.enchantment.effects.impl;
 
 import net.knightsandkings.knk.paper.enchantment.FrozenPlayerTracker;
 import net.knightsandkings.knk.paper.enchantment.effects.AttackEnchantmentEffect;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
@@ -25,31 +24,31 @@ public class FreezeEffect extends AttackEnchantmentEffect {
         frozenPlayerTracker.freeze(target, durationTicks);
         playSound(target.getLocation(), Sound.BLOCK_GLASS_BREAK, 0.8f, 1.2f);
 
-        for (int tick = 0; tick <= durationTicks; tick += 20) {
-            Bukkit.getScheduler().runTaskLater(plugin(), () -> {
-                if (frozenPlayerTracker.isFrozen(target.getUniqueId()) && target.getWorld() != null) {
-                    var center = target.getLocation().clone().add(0.0d, 0.6d, 0.0d);
-                    target.getWorld().spawnParticle(
-                            Particle.BLOCK,
-                            center,
-                            16,
-                            0.35d,
-                            0.45d,
-                            0.35d,
-                            Material.PACKED_ICE.createBlockData()
-                    );
-                    target.getWorld().spawnParticle(
-                            Particle.SNOWFLAKE,
-                            center,
-                            10,
-                            0.3d,
-                            0.35d,
-                            0.3d,
-                            0.01d
-                    );
-                    playSound(center, Sound.BLOCK_GLASS_BREAK, 0.5f, 1.35f);
-                }
-            }, tick);
-        }
+        frozenPlayerTracker.scheduler().repeat(20L, durationTicks / 20 + 1, () -> {
+            if (!frozenPlayerTracker.isFrozen(target.getUniqueId()) || target.getWorld() == null) {
+                return false;
+            }
+            var center = target.getLocation().clone().add(0.0d, 0.6d, 0.0d);
+            target.getWorld().spawnParticle(
+                    Particle.BLOCK,
+                    center,
+                    16,
+                    0.35d,
+                    0.45d,
+                    0.35d,
+                    Material.PACKED_ICE.createBlockData()
+            );
+            target.getWorld().spawnParticle(
+                    Particle.SNOWFLAKE,
+                    center,
+                    10,
+                    0.3d,
+                    0.35d,
+                    0.3d,
+                    0.01d
+            );
+            playSound(center, Sound.BLOCK_GLASS_BREAK, 0.5f, 1.35f);
+            return true;
+        });
     }
 }
@@ -1,42 +1,39 @@
 package net.knightsandkings.knk.paper.enchantment.effects.impl;
 
+import net.knightsandkings.knk.paper.enchantment.TimedEffectScheduler;
 import net.knightsandkings.knk.paper.enchantment.effects.SupportEnchantmentEffect;
 import org.bukkit.Effect;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
 public class HealthBoostEffect extends SupportEnchantmentEffect {
+    private final TimedEffectScheduler scheduler;
+
     public HealthBoostEffect(Plugin plugin) {
+        this(plugin, new TimedEffectScheduler(plugin));
+    }
+
+    public HealthBoostEffect(Plugin plugin, TimedEffectScheduler scheduler) {
         super("health_boost", plugin);
+        this.scheduler = scheduler;
     }
 
     @Override
     protected void applyEffect(ItemStack item, Player player, int level) {
-        new BukkitRunnable() {
-            private int remainingIterations = 6;
-
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
-                    return;
-                }
-
-                double maxHealth = player.getAttribute(Attribute.MAX_HEALTH) != null
-                        ? player.getAttribute(Attribute.MAX_HEALTH).getValue()
-                        : player.getMaxHealth();
-                double newHealth = Math.min(maxHealth, player.getHealth() + Math.max(level, 1));
-                player.setHealth(newHealth);
-                playEffect(player.getLocation().clone().add(0.0d, 1.5d, 0.0d), Effect.POTION_BREAK, 0);
-
-                remainingIterations--;
-                if (remainingIterations <= 0) {
-                    cancel();
-                }
+        scheduler.repeat(5L, 6, () -> {
+            if (!player.isOnline()) {
+                return false;
             }
-        }.runTaskTimer(plugin(), 0L, 5L);
+
+            double maxHealth = player.getAttribute(Attribute.MAX_HEALTH) != null
+                    ? player.getAttribute(Attribute.MAX_HEALTH).getValue()
+                    : player.getMaxHealth();
+            double newHealth = Math.min(maxHealth, player.getHealth() + Math.max(level, 1));
+            player.setHealth(newHealth);
+            playEffect(player.getLocation().clone().add(0.0d, 1.5d, 0.0d), Effect.POTION_BREAK, 0);
+            return true;
+        });
     }
 }
@@ -1,20 +1,47 @@
 package net.knightsandkings.knk.paper.http;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import net.knightsandkings.knk.core.metrics.LatencyHistogram;
+import net.knightsandkings.knk.paper.regions.RegionGeometryIndex;
+import net.knightsandkings.knk.paper.scheduler.MainThreadWorkQueue;
 import net.knightsandkings.knk.paper.tasks.LocationTaskHandler;
 import net.knightsandkings.knk.paper.tasks.WgRegionIdTaskHandler;
 import org.bukkit.plugin.Plugin;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 /**
@@ -23,47 +50,216 @@ import java.util.logging.Logger;
  * - POST /Regions/rename?oldRegionId=...&newRegionId=...
  * - GET /api/regions/{regionId}/contains-location?x=...&z=...&allowBoundary=false
  * - GET /api/regions/{parentRegionId}/contains-region/{childRegionId}?requireFullContainment=true
+ * - POST /api/regions/containment:batch (JSON array of location and region checks)
+ * - GET /metrics (plain-text endpoint latency and queue depth)
+ *
+ * Requests are handed from a small acceptor pool to a bounded worker pool. When the worker
+ * queue or the main-thread queue is full the request is shed with 503. WorldGuard work is
+ * queued on the shared {@link MainThreadWorkQueue} (drained once per tick) and the response
+ * is written by the worker once the result is ready, never from the main thread.
  */
 public class RegionHttpServer {
     private static final Logger LOGGER = Logger.getLogger(RegionHttpServer.class.getName());
+    private static final int MAX_BATCH_SIZE = 5000;
+    // Checks per main-thread operation, so a large batch is spread over ticks by the queue's budget
+    static final int MAIN_THREAD_CHUNK_SIZE = 64;
+    private static final int ACCEPTOR_THREADS = 2;
+    private static final long MAIN_THREAD_TIMEOUT_SECONDS = 30;
 
     private final Plugin plugin;
-    private final WgRegionIdTaskHandler handler;
+    private final RegionChecks regionChecks;
+    private final RegionGeometryIndex geometryIndex;
+    private final MainThreadWorkQueue mainThreadQueue;
     private final int port;
+    private final int workerThreads;
+    private final int queueCapacity;
+    private final Map<String, EndpointMetrics> metrics = new LinkedHashMap<>();
     private HttpServer server;
-    private ExecutorService executor = Executors.newCachedThreadPool();
+    private ExecutorService acceptor;
+    private ThreadPoolExecutor workers;
 
-    public RegionHttpServer(Plugin plugin, WgRegionIdTaskHandler handler, int port) {
+    public RegionHttpServer(Plugin plugin, WgRegionIdTaskHandler handler, RegionGeometryIndex geometryIndex,
+                            MainThreadWorkQueue mainThreadQueue, int port, int workerThreads, int queueCapacity) {
+        this(plugin, new WorldGuardRegionChecks(handler), geometryIndex, mainThreadQueue, port, workerThreads, queueCapacity);
+    }
+
+    RegionHttpServer(Plugin plugin, RegionChecks regionChecks, RegionGeometryIndex geometryIndex,
+                     MainThreadWorkQueue mainThreadQueue, int port, int workerThreads, int queueCapacity) {
         this.plugin = plugin;
-        this.handler = handler;
+        this.regionChecks = regionChecks;
+        this.geometryIndex = geometryIndex;
+        this.mainThreadQueue = mainThreadQueue;
         this.port = port;
+        this.workerThreads = Math.max(1, workerThreads);
+        this.queueCapacity = Math.max(1, queueCapacity);
     }
 
     public void start() throws IOException {
+        acceptor = Executors.newFixedThreadPool(ACCEPTOR_THREADS, namedDaemon("knk-http-accept"));
+        workers = new ThreadPoolExecutor(
+            workerThreads,
+            workerThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            namedDaemon("knk-http-worker"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
         server = HttpServer.create(new InetSocketAddress(port), 0);
-        server.createContext("/Regions/rename", new RenameHandler());
-        server.createContext("/api/regions/", new RegionContainmentHandler());
-        server.setExecutor(executor);
+        server.createContext("/Regions/rename", dispatch(exchange -> "rename", new RenameHandler()));
+        server.createContext("/api/regions/", dispatch(this::containmentEndpointName, new RegionContainmentHandler()));
+        server.createContext("/api/regions/containment:batch", dispatch(exchange -> "containment-batch", new BatchContainmentHandler()));
+        server.createContext("/metrics", dispatch(exchange -> "metrics", exchange -> send(exchange, 200, getMetricsSummary())));
+        server.setExecutor(acceptor);
         server.start();
-        LOGGER.info("RegionHttpServer started on port " + port);
+        LOGGER.info("RegionHttpServer started on port " + port + " (workers=" + workerThreads
+            + ", queue=" + queueCapacity + ")");
     }
 
     public void stop() {
         if (server != null) {
             server.stop(0);
             LOGGER.info("RegionHttpServer stopped");
+            LOGGER.info(getMetricsSummary());
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (acceptor != null) {
+            acceptor.shutdownNow();
+        }
+    }
+
+    /**
+     * Port the server is listening on (differs from the configured port when that is 0).
+     */
+    int boundPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return per-endpoint latency/rejection counters plus worker and main-thread queue depth
+     */
+    public String getMetricsSummary() {
+        StringBuilder sb = new StringBuilder("RegionHttpServer metrics\n");
+        synchronized (metrics) {
+            for (Map.Entry<String, EndpointMetrics> entry : metrics.entrySet()) {
+                sb.append(String.format("%-18s: %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        if (workers != null) {
+            sb.append(String.format("%-18s: active=%d, queued=%d/%d%n", "workers",
+                workers.getActiveCount(), workers.getQueue().size(), queueCapacity));
         }
-        if (executor != null) {
-            executor.shutdownNow();
+        sb.append(String.format("%-18s: %s%n", "main-thread", mainThreadQueue));
+        return sb.toString();
+    }
+
+    private EndpointMetrics metricsFor(String endpoint) {
+        synchronized (metrics) {
+            return metrics.computeIfAbsent(endpoint, k -> new EndpointMetrics());
         }
     }
 
-    private class RenameHandler implements HttpHandler {
+    /**
+     * Wrap an endpoint so it runs on the bounded worker pool, shedding load with 503 when full.
+     */
+    private HttpHandler dispatch(Function<HttpExchange, String> endpointName, Endpoint delegate) {
+        return exchange -> {
+            long start = System.nanoTime();
+            String endpoint = endpointName.apply(exchange);
+            EndpointMetrics endpointMetrics = metricsFor(endpoint);
+            try {
+                workers.execute(() -> {
+                    int status = 500;
+                    try {
+                        status = delegate.handle(exchange);
+                    } catch (MainThreadUnavailableException e) {
+                        status = e.status;
+                    } catch (Exception e) {
+                        LOGGER.warning("Unhandled error in " + endpoint + " endpoint: " + e.getMessage());
+                        trySend(exchange, 500, "Internal Server Error");
+                    } finally {
+                        endpointMetrics.record(status, start);
+                        exchange.close();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                endpointMetrics.recordRejected();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                send(exchange, 503, "Server busy");
+            }
+        };
+    }
+
+    private String containmentEndpointName(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/contains-location")) {
+            return "contains-location";
+        }
+        return path.contains("/contains-region/") ? "contains-region" : "regions-other";
+    }
+
+    /**
+     * Run a WorldGuard operation on the main thread and wait (on the worker) for its result.
+     *
+     * @throws MainThreadUnavailableException after an error response has been sent
+     */
+    private <T> T awaitMainThread(HttpExchange exchange, Callable<T> operation)
+            throws IOException, MainThreadUnavailableException {
+        CompletableFuture<T> future = mainThreadQueue.submit(operation);
+        return await(exchange, future, List.of(future));
+    }
+
+    /**
+     * Run several main-thread operations (queued in order, drained within the tick budget) and
+     * wait for all of them.
+     *
+     * @throws MainThreadUnavailableException after an error response has been sent
+     */
+    private void awaitMainThread(HttpExchange exchange, List<? extends Callable<?>> operations)
+            throws IOException, MainThreadUnavailableException {
+        List<CompletableFuture<?>> futures = new ArrayList<>(operations.size());
+        for (Callable<?> operation : operations) {
+            futures.add(mainThreadQueue.submit(operation));
+        }
+        await(exchange, CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)), futures);
+    }
+
+    /**
+     * @param submitted the queued operations, cancelled when no result is sent so they are skipped
+     */
+    private <T> T await(HttpExchange exchange, CompletableFuture<T> result, List<? extends CompletableFuture<?>> submitted)
+            throws IOException, MainThreadUnavailableException {
+        int status;
+        try {
+            return result.get(MAIN_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                status = send(exchange, 503, "Server busy");
+            } else {
+                LOGGER.warning("Main-thread operation failed: " + e.getCause());
+                status = send(exchange, 500, "Internal Server Error");
+            }
+        } catch (TimeoutException e) {
+            status = send(exchange, 504, "Timed out waiting for the server main thread");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = send(exchange, 503, "Server shutting down");
+        }
+        for (CompletableFuture<?> future : submitted) {
+            future.cancel(false);
+        }
+        throw new MainThreadUnavailableException(status);
+    }
+
+    private class RenameHandler implements Endpoint {
         @Override
-        public void handle(HttpExchange exchange) throws IOException {
+        public int handle(HttpExchange exchange) throws IOException, MainThreadUnavailableException {
             if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
-                send(exchange, 405, "Method Not Allowed");
-                return;
+                return send(exchange, 405, "Method Not Allowed");
             }
 
             Map<String, String> query = parseQuery(exchange.getRequestURI());
@@ -71,20 +267,12 @@ public class RegionHttpServer {
             String newRegionId = query.get("newRegionId");
 
             if (oldRegionId == null || newRegionId == null || oldRegionId.isBlank() || newRegionId.isBlank()) {
-                send(exchange, 400, "oldRegionId and newRegionId are required");
-                return;
+                return send(exchange, 400, "oldRegionId and newRegionId are required");
             }
 
             // Run rename on main thread to keep WorldGuard safe
-            plugin.getServer().getScheduler().callSyncMethod(plugin, () -> {
-                boolean result = handler.renameRegion(oldRegionId, newRegionId);
-                try {
-                    send(exchange, 200, Boolean.toString(result));
-                } catch (IOException e) {
-                    LOGGER.warning("Failed to send response: " + e.getMessage());
-                }
-                return null;
-            });
+            Boolean result = awaitMainThread(exchange, () -> regionChecks.renameRegion(oldRegionId, newRegionId));
+            return send(exchange, 200, Boolean.toString(result));
         }
     }
 
@@ -110,26 +298,34 @@ public class RegionHttpServer {
         }
     }
 
-    private void send(HttpExchange exchange, int status, String body) throws IOException {
-        byte[] bytes = body.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    private int send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
         exchange.sendResponseHeaders(status, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
+        return status;
+    }
+
+    private void trySend(HttpExchange exchange, int status, String body) {
+        try {
+            send(exchange, status, body);
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.fine("Failed to send response: " + e.getMessage());
+        }
     }
 
     /**
      * Handler for checking region containment.
-        * GET /api/regions/{regionId}/contains-location?x=...&z=...&allowBoundary=false
+     * GET /api/regions/{regionId}/contains-location?x=...&z=...&allowBoundary=false
      * GET /api/regions/{parentRegionId}/contains-region/{childRegionId}?requireFullContainment=true
      */
-    private class RegionContainmentHandler implements HttpHandler {
+    private class RegionContainmentHandler implements Endpoint {
         @Override
-        public void handle(HttpExchange exchange) throws IOException {
+        public int handle(HttpExchange exchange) throws IOException, MainThreadUnavailableException {
             if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
-                send(exchange, 405, "Method Not Allowed");
-                return;
+                return send(exchange, 405, "Method Not Allowed");
             }
 
             // Parse path: /api/regions/{parentRegionId}/contains-region/{childRegionId}
@@ -137,8 +333,7 @@ public class RegionHttpServer {
             String[] parts = path.split("/");
 
             if (parts.length < 5 || !"api".equals(parts[1]) || !"regions".equals(parts[2])) {
-                send(exchange, 400, "Invalid path format. Expected: /api/regions/{regionId}/contains-location or /api/regions/{parentRegionId}/contains-region/{childRegionId}");
-                return;
+                return send(exchange, 400, "Invalid path format. Expected: /api/regions/{regionId}/contains-location or /api/regions/{parentRegionId}/contains-region/{childRegionId}");
             }
 
             // /api/regions/{regionId}/contains-location?x=...&z=...&allowBoundary=false
@@ -146,8 +341,7 @@ public class RegionHttpServer {
                 String regionId = urlDecode(parts[3]);
 
                 if (regionId.isEmpty()) {
-                    send(exchange, 400, "regionId is required");
-                    return;
+                    return send(exchange, 400, "regionId is required");
                 }
 
                 Map<String, String> query = parseQuery(exchange.getRequestURI());
@@ -156,8 +350,7 @@ public class RegionHttpServer {
                 String allowBoundaryStr = query.getOrDefault("allowBoundary", "false");
 
                 if (xStr == null || zStr == null) {
-                    send(exchange, 400, "x and z are required");
-                    return;
+                    return send(exchange, 400, "x and z are required");
                 }
 
                 final double x;
@@ -169,36 +362,34 @@ public class RegionHttpServer {
                     z = Double.parseDouble(zStr);
                     allowBoundary = Boolean.parseBoolean(allowBoundaryStr);
                 } catch (Exception ex) {
-                    send(exchange, 400, "Invalid query parameters. x and z must be numbers.");
-                    return;
+                    return send(exchange, 400, "Invalid query parameters. x and z must be numbers.");
                 }
 
-                plugin.getServer().getScheduler().callSyncMethod(plugin, () -> {
-                    boolean result = LocationTaskHandler.checkLocationInsideRegion(regionId, x, z, allowBoundary);
-                    try {
-                        send(exchange, 200, Boolean.toString(result));
-                    } catch (IOException e) {
-                        LOGGER.warning("Failed to send response: " + e.getMessage());
-                    }
-                    return null;
-                });
+                // Answer from the geometry index on this thread when possible
+                Boolean indexed = geometryIndex != null
+                    ? geometryIndex.containsLocation(regionId, x, z, allowBoundary)
+                    : null;
+                if (indexed != null) {
+                    return send(exchange, 200, Boolean.toString(indexed));
+                }
 
-                return;
+                // Unknown or non-indexable region: fall back to WorldGuard on the main thread
+                Boolean result = awaitMainThread(exchange,
+                    () -> regionChecks.containsLocation(regionId, x, z, allowBoundary));
+                return send(exchange, 200, Boolean.toString(result));
             }
 
             // /api/regions/{parentRegionId}/contains-region/{childRegionId}?requireFullContainment=true
             // Expected: ["", "api", "regions", "{parentRegionId}", "contains-region", "{childRegionId}"]
             if (parts.length != 6 || !"contains-region".equals(parts[4])) {
-                send(exchange, 400, "Invalid path format. Expected: /api/regions/{regionId}/contains-location or /api/regions/{parentRegionId}/contains-region/{childRegionId}");
-                return;
+                return send(exchange, 400, "Invalid path format. Expected: /api/regions/{regionId}/contains-location or /api/regions/{parentRegionId}/contains-region/{childRegionId}");
             }
 
             String parentRegionId = urlDecode(parts[3]);
             String childRegionId = urlDecode(parts[5]);
 
             if (parentRegionId.isEmpty() || childRegionId.isEmpty()) {
-                send(exchange, 400, "parentRegionId and childRegionId are required");
-                return;
+                return send(exchange, 400, "parentRegionId and childRegionId are required");
             }
 
             // Parse query parameters
@@ -207,15 +398,242 @@ public class RegionHttpServer {
             boolean requireFullContainment = Boolean.parseBoolean(requireFullStr);
 
             // Run containment check on main thread to keep WorldGuard safe
-            plugin.getServer().getScheduler().callSyncMethod(plugin, () -> {
-                boolean result = handler.checkRegionContainment(parentRegionId, childRegionId, requireFullContainment);
+            Boolean result = awaitMainThread(exchange,
+                () -> regionChecks.containsRegion(parentRegionId, childRegionId, requireFullContainment));
+            return send(exchange, 200, Boolean.toString(result));
+        }
+    }
+
+    /**
+     * Handler for batched containment checks.
+     * POST /api/regions/containment:batch
+     *
+     * Body is a JSON array; each element is either a location check
+     * {"regionId": "...", "x": 0, "z": 0, "allowBoundary": false}
+     * or a region check
+     * {"parentRegionId": "...", "childRegionId": "...", "requireFullContainment": true}.
+     *
+     * Responds with a JSON array in request order, one {"result": bool} or {"error": "..."} per check.
+     * Location checks are answered from the geometry index; everything else runs on the main
+     * thread in operations of {@link #MAIN_THREAD_CHUNK_SIZE} checks. A check that fails gets its
+     * own error entry without failing the rest of the batch.
+     */
+    private class BatchContainmentHandler implements Endpoint {
+        @Override
+        public int handle(HttpExchange exchange) throws IOException, MainThreadUnavailableException {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                return send(exchange, 405, "Method Not Allowed");
+            }
+
+            JsonArray checks;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                JsonElement body = JsonParser.parseReader(reader);
+                if (!body.isJsonArray()) {
+                    return send(exchange, 400, "Request body must be a JSON array of checks");
+                }
+                checks = body.getAsJsonArray();
+            } catch (Exception e) {
+                return send(exchange, 400, "Invalid JSON body: " + e.getMessage());
+            }
+
+            if (checks.size() > MAX_BATCH_SIZE) {
+                return send(exchange, 413, "Batch too large (max " + MAX_BATCH_SIZE + " checks)");
+            }
+
+            BatchResult[] results = new BatchResult[checks.size()];
+            List<MainThreadCheck> mainThreadChecks = new ArrayList<>();
+
+            for (int i = 0; i < checks.size(); i++) {
+                final int index = i;
                 try {
-                    send(exchange, 200, Boolean.toString(result));
-                } catch (IOException e) {
-                    LOGGER.warning("Failed to send response: " + e.getMessage());
+                    JsonObject check = checks.get(i).getAsJsonObject();
+
+                    if (check.has("regionId")) {
+                        String regionId = check.get("regionId").getAsString();
+                        double x = check.get("x").getAsDouble();
+                        double z = check.get("z").getAsDouble();
+                        boolean allowBoundary = check.has("allowBoundary") && check.get("allowBoundary").getAsBoolean();
+
+                        Boolean indexed = geometryIndex != null
+                            ? geometryIndex.containsLocation(regionId, x, z, allowBoundary)
+                            : null;
+                        if (indexed != null) {
+                            results[index] = BatchResult.of(indexed);
+                        } else {
+                            mainThreadChecks.add(new MainThreadCheck(index,
+                                () -> regionChecks.containsLocation(regionId, x, z, allowBoundary)));
+                        }
+                    } else if (check.has("parentRegionId") && check.has("childRegionId")) {
+                        String parentRegionId = check.get("parentRegionId").getAsString();
+                        String childRegionId = check.get("childRegionId").getAsString();
+                        boolean requireFullContainment = !check.has("requireFullContainment")
+                            || check.get("requireFullContainment").getAsBoolean();
+
+                        mainThreadChecks.add(new MainThreadCheck(index,
+                            () -> regionChecks.containsRegion(parentRegionId, childRegionId, requireFullContainment)));
+                    } else {
+                        results[index] = BatchResult.error("Expected regionId/x/z or parentRegionId/childRegionId");
+                    }
+                } catch (Exception e) {
+                    results[index] = BatchResult.error("Invalid check: " + e.getMessage());
+                }
+            }
+
+            if (!mainThreadChecks.isEmpty()) {
+                List<Callable<Boolean>> operations = new ArrayList<>();
+                for (int start = 0; start < mainThreadChecks.size(); start += MAIN_THREAD_CHUNK_SIZE) {
+                    List<MainThreadCheck> chunk = mainThreadChecks.subList(start,
+                        Math.min(start + MAIN_THREAD_CHUNK_SIZE, mainThreadChecks.size()));
+                    operations.add(() -> {
+                        for (MainThreadCheck check : chunk) {
+                            check.runInto(results);
+                        }
+                        return Boolean.TRUE;
+                    });
                 }
-                return null;
-            });
+                awaitMainThread(exchange, operations);
+            }
+
+            // Stream results back with chunked encoding
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                writer.beginArray();
+                for (BatchResult result : results) {
+                    writer.beginObject();
+                    if (result == null || result.error != null) {
+                        writer.name("error").value(result != null ? result.error : "Check was not evaluated");
+                    } else {
+                        writer.name("result").value(result.value);
+                    }
+                    writer.endObject();
+                }
+                writer.endArray();
+            }
+            return 200;
+        }
+    }
+
+    /**
+     * A batch entry that needs WorldGuard, evaluated on the main thread.
+     */
+    private record MainThreadCheck(int index, Callable<Boolean> check) {
+        void runInto(BatchResult[] results) {
+            try {
+                results[index] = BatchResult.of(check.call());
+            } catch (Exception e) {
+                LOGGER.fine("Batch containment check " + index + " failed: " + e);
+                results[index] = BatchResult.error("Check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static ThreadFactory namedDaemon(String name) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Endpoint body executed on a worker thread.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        /**
+         * @return HTTP status that was sent (used for metrics)
+         */
+        int handle(HttpExchange exchange) throws IOException, MainThreadUnavailableException;
+    }
+
+    /**
+     * The WorldGuard operations behind the endpoints (main thread).
+     */
+    interface RegionChecks {
+        boolean renameRegion(String oldRegionId, String newRegionId);
+
+        boolean containsLocation(String regionId, double x, double z, boolean allowBoundary);
+
+        boolean containsRegion(String parentRegionId, String childRegionId, boolean requireFullContainment);
+    }
+
+    private static final class WorldGuardRegionChecks implements RegionChecks {
+        private final WgRegionIdTaskHandler handler;
+
+        private WorldGuardRegionChecks(WgRegionIdTaskHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean renameRegion(String oldRegionId, String newRegionId) {
+            return handler.renameRegion(oldRegionId, newRegionId);
+        }
+
+        @Override
+        public boolean containsLocation(String regionId, double x, double z, boolean allowBoundary) {
+            return LocationTaskHandler.checkLocationInsideRegion(regionId, x, z, allowBoundary);
+        }
+
+        @Override
+        public boolean containsRegion(String parentRegionId, String childRegionId, boolean requireFullContainment) {
+            return handler.checkRegionContainment(parentRegionId, childRegionId, requireFullContainment);
+        }
+    }
+
+    /**
+     * Raised once an error response has been sent because main-thread work could not complete.
+     */
+    private static final class MainThreadUnavailableException extends Exception {
+        final int status;
+
+        MainThreadUnavailableException(int status) {
+            super("Main-thread work unavailable (HTTP " + status + ")", null, false, false);
+            this.status = status;
+        }
+    }
+
+    private static final class EndpointMetrics {
+        private final AtomicLong requests = new AtomicLong(0);
+        private final AtomicLong rejected = new AtomicLong(0);
+        private final AtomicLong errors = new AtomicLong(0);
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(int status, long startNanos) {
+            requests.incrementAndGet();
+            if (status >= 500) {
+                errors.incrementAndGet();
+            }
+            latency.recordSince(startNanos);
+        }
+
+        void recordRejected() {
+            rejected.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d, rejected=%d, errors=%d, latency=[%s]",
+                requests.get(), rejected.get(), errors.get(), latency);
+        }
+    }
+
+    private static final class BatchResult {
+        final boolean value;
+        final String error;
+
+        private BatchResult(boolean value, String error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static BatchResult of(boolean value) {
+            return new BatchResult(value, null);
+        }
+
+        static BatchResult error(String message) {
+            return new BatchResult(false, message);
         }
     }
 }
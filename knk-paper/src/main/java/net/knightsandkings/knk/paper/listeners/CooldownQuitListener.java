@@ -0,0 +1,36 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Releases a player's cooldown row on quit.
+ * <p>
+ * Rows that still hold a running cooldown are kept, so logging out does not reset it. Those
+ * rows are dropped by a sweep piggybacked on later quits (at most once per sweep interval)
+ * once everything in them has expired.
+ */
+public class CooldownQuitListener implements Listener {
+    private static final long SWEEP_INTERVAL_TICKS = 5L * 60L * 20L;
+
+    private final CooldownStore store;
+    private long lastSweepTick;
+
+    public CooldownQuitListener(CooldownStore store) {
+        this.store = store;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        long now = store.currentTick();
+        store.evictIfOlderThan(event.getPlayer().getUniqueId(), now);
+
+        if (now - lastSweepTick >= SWEEP_INTERVAL_TICKS) {
+            lastSweepTick = now;
+            store.sweep(now);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import net.knightsandkings.knk.paper.tasks.CooldownPersistenceTask;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * Puts a joining player's persisted cooldowns back before anything else handles the join.
+ */
+public class CooldownRestoreListener implements Listener {
+    private final CooldownPersistenceTask persistenceTask;
+
+    public CooldownRestoreListener(CooldownPersistenceTask persistenceTask) {
+        this.persistenceTask = persistenceTask;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        persistenceTask.restore(event.getPlayer().getUniqueId());
+    }
+}
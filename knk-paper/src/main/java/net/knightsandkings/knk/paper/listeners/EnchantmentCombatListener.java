@@ -2,6 +2,7 @@ package net.knightsandkings.knk.paper.listeners;
 
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentExecutor;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.GameMode;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -10,12 +11,12 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.List;
+import java.util.Map;
 
 public class EnchantmentCombatListener implements Listener {
     private final EnchantmentRepository enchantmentRepository;
+    private final ItemEnchantmentStore enchantmentStore;
     private final EnchantmentExecutor enchantmentExecutor;
     private final boolean disableForCreative;
 
@@ -25,6 +26,7 @@ public class EnchantmentCombatListener implements Listener {
             boolean disableForCreative
     ) {
         this.enchantmentRepository = enchantmentRepository;
+        this.enchantmentStore = new ItemEnchantmentStore(enchantmentRepository);
         this.enchantmentExecutor = enchantmentExecutor;
         this.disableForCreative = disableForCreative;
     }
@@ -48,15 +50,11 @@ public class EnchantmentCombatListener implements Listener {
             return;
         }
 
-        ItemMeta itemMeta = weapon.getItemMeta();
-        List<String> lore = itemMeta != null && itemMeta.hasLore() ? itemMeta.getLore() : List.of();
+        Map<String, Integer> enchantments = enchantmentStore.read(weapon);
+        if (enchantments.isEmpty()) {
+            return;
+        }
 
-        enchantmentRepository.getEnchantments(lore)
-                .thenCompose(enchantments -> enchantmentExecutor.executeOnMeleeHit(
-                        enchantments,
-                        attacker.getUniqueId(),
-                        target.getUniqueId(),
-                        event.getDamage()
-                ));
+        enchantmentExecutor.applyMeleeHit(enchantments, attacker.getUniqueId(), target.getUniqueId());
     }
 }
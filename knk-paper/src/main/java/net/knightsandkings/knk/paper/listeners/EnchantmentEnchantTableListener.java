@@ -1,20 +1,18 @@
 package net.knightsandkings.knk.paper.listeners;
 
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.enchantment.EnchantItemEvent;
 import org.bukkit.event.enchantment.PrepareItemEnchantEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-
-import java.util.List;
 
 public class EnchantmentEnchantTableListener implements Listener {
-    private final EnchantmentRepository enchantmentRepository;
+    private final ItemEnchantmentStore enchantmentStore;
 
     public EnchantmentEnchantTableListener(EnchantmentRepository enchantmentRepository) {
-        this.enchantmentRepository = enchantmentRepository;
+        this.enchantmentStore = new ItemEnchantmentStore(enchantmentRepository);
     }
 
     @EventHandler(ignoreCancelled = true)
@@ -32,12 +30,6 @@ public class EnchantmentEnchantTableListener implements Listener {
     }
 
     private boolean hasAnyCustomEnchantment(ItemStack itemStack) {
-        if (itemStack == null || itemStack.getType().isAir()) {
-            return false;
-        }
-
-        ItemMeta itemMeta = itemStack.getItemMeta();
-        List<String> lore = itemMeta != null && itemMeta.hasLore() ? itemMeta.getLore() : List.of();
-        return enchantmentRepository.hasAnyEnchantment(lore).join();
+        return enchantmentStore.hasAny(itemStack);
     }
 }
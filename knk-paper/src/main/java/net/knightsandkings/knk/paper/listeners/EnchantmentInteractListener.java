@@ -5,6 +5,7 @@ import net.knightsandkings.knk.core.domain.enchantment.EnchantmentType;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentExecutor;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
@@ -15,17 +16,15 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public class EnchantmentInteractListener implements Listener {
     private static final String DEFAULT_COOLDOWN_MESSAGE = "&c%seconds% seconds remaining";
 
-    private final EnchantmentRepository enchantmentRepository;
+    private final ItemEnchantmentStore enchantmentStore;
     private final EnchantmentExecutor enchantmentExecutor;
     private final CooldownManager cooldownManager;
     private final boolean disableForCreative;
@@ -38,7 +37,7 @@ public class EnchantmentInteractListener implements Listener {
             boolean disableForCreative,
             String cooldownMessageTemplate
     ) {
-        this.enchantmentRepository = enchantmentRepository;
+        this.enchantmentStore = new ItemEnchantmentStore(enchantmentRepository);
         this.enchantmentExecutor = enchantmentExecutor;
         this.cooldownManager = cooldownManager;
         this.disableForCreative = disableForCreative;
@@ -70,9 +69,7 @@ public class EnchantmentInteractListener implements Listener {
             return;
         }
 
-        ItemMeta itemMeta = itemInHand.getItemMeta();
-        List<String> lore = itemMeta != null && itemMeta.hasLore() ? itemMeta.getLore() : List.of();
-        Map<String, Integer> enchantments = enchantmentRepository.getEnchantments(lore).join();
+        Map<String, Integer> enchantments = enchantmentStore.read(itemInHand);
         if (enchantments.isEmpty()) {
             return;
         }
@@ -96,7 +93,7 @@ public class EnchantmentInteractListener implements Listener {
                 continue;
             }
 
-            long remainingCooldownMs = cooldownManager.getRemainingCooldown(playerId, enchantmentId).join();
+            long remainingCooldownMs = cooldownManager.remainingCooldownMs(playerId, enchantmentId);
             if (remainingCooldownMs > 0L) {
                 sendCooldownMessage(player, remainingCooldownMs);
                 continue;
@@ -109,8 +106,7 @@ public class EnchantmentInteractListener implements Listener {
             return;
         }
 
-        boolean triggered = enchantmentExecutor.executeOnInteract(activatableSupportEnchantments, playerId).join();
-        if (triggered) {
+        if (enchantmentExecutor.applyInteract(activatableSupportEnchantments, playerId) > 0) {
             event.setCancelled(true);
         }
     }
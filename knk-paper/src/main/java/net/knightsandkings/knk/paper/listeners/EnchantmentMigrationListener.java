@@ -0,0 +1,42 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.logging.Logger;
+
+/**
+ * Moves lore-only custom enchantments into the item's PersistentDataContainer when a player joins,
+ * so combat lookups no longer have to parse their lore.
+ */
+public class EnchantmentMigrationListener implements Listener {
+    private static final Logger LOGGER = Logger.getLogger(EnchantmentMigrationListener.class.getName());
+
+    private final ItemEnchantmentStore enchantmentStore;
+
+    public EnchantmentMigrationListener(ItemEnchantmentStore enchantmentStore) {
+        this.enchantmentStore = enchantmentStore;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        PlayerInventory inventory = event.getPlayer().getInventory();
+        ItemStack[] contents = inventory.getContents();
+        int migrated = 0;
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack item = contents[slot];
+            if (enchantmentStore.migrate(item)) {
+                inventory.setItem(slot, item);
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            LOGGER.fine("Migrated custom enchantments on " + migrated + " items for " + event.getPlayer().getName());
+        }
+    }
+}
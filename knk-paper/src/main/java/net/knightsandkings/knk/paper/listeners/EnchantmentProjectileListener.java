@@ -0,0 +1,77 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import net.knightsandkings.knk.core.ports.enchantment.EnchantmentExecutor;
+import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.ItemEnchantmentStore;
+import net.knightsandkings.knk.paper.enchantment.ProjectileEffectQueue;
+import net.knightsandkings.knk.paper.enchantment.ProjectileEnchantmentStore;
+import org.bukkit.GameMode;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityShootBowEvent;
+import org.bukkit.event.entity.ProjectileHitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bow enchantments: the bow is read once when it is shot and the result travels on the
+ * projectile; hits are applied through a {@link ProjectileEffectQueue} so volleys stay within
+ * the per-tick budget.
+ */
+public class EnchantmentProjectileListener implements Listener {
+    private final ItemEnchantmentStore enchantmentStore;
+    private final EnchantmentExecutor enchantmentExecutor;
+    private final ProjectileEffectQueue hitQueue;
+    private final boolean disableForCreative;
+
+    public EnchantmentProjectileListener(
+            EnchantmentRepository enchantmentRepository,
+            EnchantmentExecutor enchantmentExecutor,
+            ProjectileEffectQueue hitQueue,
+            boolean disableForCreative
+    ) {
+        this.enchantmentStore = new ItemEnchantmentStore(enchantmentRepository);
+        this.enchantmentExecutor = enchantmentExecutor;
+        this.hitQueue = hitQueue;
+        this.disableForCreative = disableForCreative;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onShootBow(EntityShootBowEvent event) {
+        if (!(event.getEntity() instanceof Player shooter) || !(event.getProjectile() instanceof Projectile projectile)) {
+            return;
+        }
+
+        if (disableForCreative && shooter.getGameMode() == GameMode.CREATIVE) {
+            return;
+        }
+
+        Map<String, Integer> enchantments = enchantmentExecutor.projectileEnchantments(enchantmentStore.read(event.getBow()));
+        if (!enchantments.isEmpty()) {
+            ProjectileEnchantmentStore.write(projectile, enchantments);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onProjectileHit(ProjectileHitEvent event) {
+        if (!(event.getHitEntity() instanceof LivingEntity target)
+                || !(event.getEntity().getShooter() instanceof Player shooter)
+                || target.equals(shooter)) {
+            return;
+        }
+
+        Map<String, Integer> enchantments = ProjectileEnchantmentStore.read(event.getEntity());
+        if (enchantments.isEmpty()) {
+            return;
+        }
+
+        UUID shooterId = shooter.getUniqueId();
+        UUID targetId = target.getUniqueId();
+        hitQueue.submit(() -> enchantmentExecutor.applyProjectileHit(enchantments, shooterId, targetId));
+    }
+}
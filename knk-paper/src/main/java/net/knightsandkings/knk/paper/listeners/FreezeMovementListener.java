@@ -16,20 +16,17 @@ public class FreezeMovementListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        if (!frozenPlayerTracker.isFrozen(event.getPlayer().getUniqueId())) {
-            return;
-        }
-
         Location from = event.getFrom();
         Location to = event.getTo();
         if (to == null) {
             return;
         }
 
+        // Looking around is always allowed; only block changes need the frozen lookup
         boolean samePosition = from.getBlockX() == to.getBlockX()
                 && from.getBlockY() == to.getBlockY()
                 && from.getBlockZ() == to.getBlockZ();
-        if (samePosition) {
+        if (samePosition || !frozenPlayerTracker.isFrozen(event.getPlayer().getUniqueId())) {
             return;
         }
 
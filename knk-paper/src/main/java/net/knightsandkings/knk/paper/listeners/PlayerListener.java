@@ -1,17 +1,13 @@
 package net.knightsandkings.knk.paper.listeners;
 
-import java.util.Arrays;
 import java.util.Date;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
-import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -23,7 +19,6 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import io.papermc.paper.event.player.AsyncChatEvent;
 import net.knightsandkings.knk.core.dataaccess.FetchPolicy;
@@ -36,9 +31,14 @@ import net.knightsandkings.knk.core.domain.users.UserDetail;
 import net.knightsandkings.knk.core.domain.users.UserSummary;
 import net.knightsandkings.knk.paper.KnKPlugin;
 import net.knightsandkings.knk.paper.cache.CacheManager;
+import net.knightsandkings.knk.paper.chat.MentionIndex;
+import net.knightsandkings.knk.paper.chat.MentionNotifier;
+import net.knightsandkings.knk.paper.login.JoinWarmup;
+import net.knightsandkings.knk.paper.scoreboard.ScoreboardService;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
 import net.knightsandkings.knk.paper.utils.ColorOptions;
-import net.knightsandkings.knk.paper.utils.ScoreboardUtil;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 
@@ -51,21 +51,35 @@ import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 public class PlayerListener implements Listener {
 	private static final Logger LOGGER = Logger.getLogger(PlayerListener.class.getName());
 	private static final long MENTION_SOUND_COOLDOWN_MILLIS = 5_000L;
-	private static final int DEFAULT_RESPAWN_TOWN_ID = 4;
-	private static final Map<UUID, Long> mentionSoundCooldowns = new ConcurrentHashMap<>();
+	public static final int DEFAULT_RESPAWN_TOWN_ID = 4;
 
 	private final UsersDataAccess usersDataAccess;
 	private final TownsDataAccess townsDataAccess;
 	private final CacheManager cacheManager;
+	private final MentionNotifier mentionNotifier;
+	private final ScoreboardService scoreboardService;
+	private final JoinWarmup joinWarmup;
 
-	public PlayerListener(UsersDataAccess usersDataAccess, TownsDataAccess townsDataAccess, CacheManager cacheManager) {
+	public PlayerListener(UsersDataAccess usersDataAccess, TownsDataAccess townsDataAccess, CacheManager cacheManager, ScoreboardService scoreboardService, JoinWarmup joinWarmup, PlayerSlots playerSlots) {
 		this.usersDataAccess = usersDataAccess;
 		this.townsDataAccess = townsDataAccess;
 		this.cacheManager = cacheManager;
+		this.scoreboardService = scoreboardService;
+		this.joinWarmup = joinWarmup;
+		this.mentionNotifier = new MentionNotifier(KnKPlugin.getPlugin(KnKPlugin.class), new MentionIndex(), playerSlots, MENTION_SOUND_COOLDOWN_MILLIS);
+		// Players already online after a reload
+		for (Player online : Bukkit.getOnlinePlayers()) {
+			mentionNotifier.join(online.getUniqueId(), online.getName());
+			scoreboardService.join(online);
+		}
 	}
 
 	@EventHandler
 	public void onValidateLogin(AsyncPlayerPreLoginEvent e) {
+		// Logins refused earlier (e.g. by admission control) must not cost a user lookup
+		if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+			return;
+		}
 		UUID uuid = e.getUniqueId();
 		String username = e.getName();
 
@@ -125,6 +139,7 @@ public class PlayerListener implements Listener {
 	@EventHandler
 	public void onJoin(PlayerJoinEvent e) {
 		Player player = e.getPlayer();
+		mentionNotifier.join(player.getUniqueId(), player.getName());
         UserSummary user = cacheManager.getUserCache().getByUuid(player.getUniqueId()).orElse(null);
 
 		e.joinMessage(Component.text("► " + "Player " + player.getName() + " joined").color(ColorOptions.message));
@@ -140,20 +155,17 @@ public class PlayerListener implements Listener {
 		if (!player.hasPermission("k&k.join.owner")) {
 			player.setGameMode(GameMode.SURVIVAL);
 			player.setFlying(false);
-			// Town town = (Town) RepositoryManager.getInstance().getRepository(Town.class, Dominion.KEY_CLASS).getList().get(0);
-			// if (town != null) {
-			// 	user.teleport(town.getLocation().getLocation(), town.getName());
-			// } else {
-			// 	user.teleport(Bukkit.getWorld(KNK.WORLD_NAME_DEF).getSpawnLocation(), null);
-			// }
-            player.teleport(Bukkit.getWorld(Bukkit.getWorlds().get(0).getName()).getSpawnLocation());
+			// World spawn; its region domains were warmed during pre-login
+			player.teleport(joinWarmup.joinLocation());
 		}
-		ScoreboardUtil.setScoreboard(Arrays.asList(player));
+		scoreboardService.join(player);
 	}
 
 	@EventHandler
 	public void onLeave(PlayerQuitEvent e) {
 		Player player = e.getPlayer();
+		mentionNotifier.quit(player.getUniqueId());
+		scoreboardService.quit(player);
 		e.quitMessage(Component.text(ColorOptions.messageArrow + "Player " + player.getName() + " left").color(ColorOptions.message));
 		e.quitMessage(Component.text(ColorOptions.messageArrow + "Player " + player.getName() + " left").color(ColorOptions.message));
 	}
@@ -179,52 +191,64 @@ public class PlayerListener implements Listener {
 		Player player = e.getPlayer();
 
 		String rawMessage = PlainTextComponentSerializer.plainText().serialize(e.message());
-		String dn = player.getName();
 		String capitalizedMessage = rawMessage.isEmpty() ? rawMessage : ("" + rawMessage.charAt(0)).toUpperCase() + rawMessage.substring(1);
 		
-		// Convert legacy color codes (&c, &4, etc.) to Adventure Component
-		String legacyFormattedMessage = ChatColor.translateAlternateColorCodes('&', capitalizedMessage);
-		Component messageComponent = LegacyComponentSerializer.legacySection().deserialize(legacyFormattedMessage);
-
-		Component finalMessage;
-		if (player.hasPermission("k&k.owner")) {
-			// Build owner format with proper Components using ColorOptions TextColor objects
-			Component prefixComponent = Component.text("[")
-					.color(ColorOptions.ownerformat)
-					.append(Component.text("OWNER").color(ColorOptions.ownersubjects))
-					.append(Component.text("]").color(ColorOptions.ownerformat))
-					.append(Component.text(" " + dn + ": ").color(ColorOptions.ownersubjects));
-			finalMessage = prefixComponent.append(messageComponent);
-			e.renderer((source, sourceDisplayName, message, viewer) -> finalMessage);
+		// Convert legacy color codes (&c, &4, etc.) to Adventure Component; most messages have none
+		Component messageComponent;
+		if (capitalizedMessage.indexOf('&') < 0 && capitalizedMessage.indexOf(ChatColor.COLOR_CHAR) < 0) {
+			messageComponent = Component.text(capitalizedMessage);
 		} else {
-			// Build default format with proper Components using ColorOptions TextColor objects
-			Component prefixComponent = Component.text(" " + dn + ": ")
-					.color(ColorOptions.defaultsubjects);
-			finalMessage = prefixComponent.append(messageComponent);
-			e.renderer((source, sourceDisplayName, message, viewer) -> finalMessage);
+			String legacyFormattedMessage = ChatColor.translateAlternateColorCodes('&', capitalizedMessage);
+			messageComponent = LegacyComponentSerializer.legacySection().deserialize(legacyFormattedMessage);
 		}
 
+		ChatGroup group = player.hasPermission("k&k.owner") ? ChatGroup.OWNER : ChatGroup.DEFAULT;
+		Component finalMessage = formatChat(group, player.getName(), messageComponent);
+		e.renderer((source, sourceDisplayName, message, viewer) -> finalMessage);
+
 		/**
 		 * Player mention
 		 */
-		new BukkitRunnable() {
-			@Override
-			public void run() {
-				long now = System.currentTimeMillis();
-				String lowered = rawMessage.toLowerCase();
-				for (Player p : Bukkit.getOnlinePlayers()) {
-					if (!lowered.contains(p.getName().toLowerCase())) {
-						continue;
-					}
-					Long last = mentionSoundCooldowns.get(p.getUniqueId());
-					if (last != null && now - last < MENTION_SOUND_COOLDOWN_MILLIS) {
-						continue;
-					}
-					mentionSoundCooldowns.put(p.getUniqueId(), now);
-					p.playSound(p.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0F, 1.0F);
-				}
-			}
-		}.runTaskAsynchronously(KnKPlugin.getPlugin(KnKPlugin.class));
+		mentionNotifier.onMessage(rawMessage);
+	}
+
+	/**
+	 * Builds the chat line; the message is appended to the group's root component so it inherits
+	 * that colour, which is what the per-group formats did before they were shared.
+	 */
+	static Component formatChat(ChatGroup group, String playerName, Component message) {
+		Component name = Component.text(" " + playerName + ": ").color(group.nameColor());
+		Component line = group.prefix() == null ? name : group.prefix().append(name);
+		return line.append(message);
+	}
+
+	/**
+	 * Chat permission groups; each group's tag is built once, only the name part varies per player.
+	 */
+	enum ChatGroup {
+		OWNER(Component.text("[")
+				.color(ColorOptions.ownerformat)
+				.append(Component.text("OWNER").color(ColorOptions.ownersubjects))
+				.append(Component.text("]").color(ColorOptions.ownerformat)),
+				ColorOptions.ownersubjects),
+		// No tag: the coloured name is the root, so the message stays green
+		DEFAULT(null, ColorOptions.defaultsubjects);
+
+		private final Component prefix;
+		private final TextColor nameColor;
+
+		ChatGroup(Component prefix, TextColor nameColor) {
+			this.prefix = prefix;
+			this.nameColor = nameColor;
+		}
+
+		Component prefix() {
+			return prefix;
+		}
+
+		TextColor nameColor() {
+			return nameColor;
+		}
 	}
 
 	@EventHandler
@@ -239,7 +263,7 @@ public class PlayerListener implements Listener {
 		Player player = e.getPlayer();
 		
 		// Fetch default town using TownsDataAccess (typically cached after server startup)
-		townsDataAccess.getByIdAsync(4, FetchPolicy.CACHE_FIRST).thenAccept(result -> {
+		townsDataAccess.getByIdAsync(DEFAULT_RESPAWN_TOWN_ID, FetchPolicy.CACHE_FIRST).thenAccept(result -> {
 			if (!result.isSuccess()) {
 				LOGGER.severe("Failed to load default town for respawn");
 				return;
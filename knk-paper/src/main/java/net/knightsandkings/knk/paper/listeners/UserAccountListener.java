@@ -1,5 +1,9 @@
 package net.knightsandkings.knk.paper.listeners;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
 import org.bukkit.ChatColor;
@@ -7,8 +11,11 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
 
 import net.knightsandkings.knk.paper.config.KnkConfig;
 import net.knightsandkings.knk.paper.user.PlayerUserData;
@@ -22,25 +29,32 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
  * Listener for player join/quit events related to account management.
  * 
  * Responsibilities:
- * - Sync user data on join via UserManager
+ * - Load user data at pre-login via UserManager (async thread)
  * - Display welcome messages with account status
  * - Prompt for account linking if needed
- * - Clear cache on player quit
+ * - Clear cache on player quit, rejected login, or a login that never completes
  * 
- * Priority: HIGH
- * - Runs early in join sequence to ensure user data is available
- * - Must complete before other plugins that depend on user state
+ * The join handler never calls the API. If the pre-login load has not finished,
+ * the player gets a placeholder entry and the messages follow once the load completes.
  */
 public class UserAccountListener implements Listener {
+    // Pre-login waits this long for account data before letting the player in with a placeholder
+    private static final long PRELOAD_TIMEOUT_SECONDS = 5;
+    // Well past the client's login timeout: a player not joined by then never will
+    private static final long LOGIN_GRACE_TICKS = 60 * 20L;
+    
+    private final Plugin plugin;
     private final UserManager userManager;
     private final KnkConfig.MessagesConfig messagesConfig;
     private final Logger logger;
     
     public UserAccountListener(
+        Plugin plugin,
         UserManager userManager,
         KnkConfig.MessagesConfig messagesConfig,
         Logger logger
     ) {
+        this.plugin = plugin;
         this.userManager = userManager;
         this.messagesConfig = messagesConfig;
         this.logger = logger;
@@ -56,20 +70,73 @@ public class UserAccountListener implements Listener {
     }
     
     /**
-     * Handle player join - sync user data and display account status.
+     * Load account data while the player is still logging in.
      * 
-     * Priority: HIGH to ensure user data is loaded early in the join sequence.
+     * Priority: MONITOR so logins rejected by other handlers never hit the API.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        userManager.expireUnlessJoined(event.getUniqueId(), LOGIN_GRACE_TICKS);
+        try {
+            // Blocking is fine here - this event runs off the main thread
+            userManager.preloadUser(event.getUniqueId(), event.getName())
+                .get(PRELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException ex) {
+            logger.warning("Account data for " + event.getName() + " not ready after "
+                + PRELOAD_TIMEOUT_SECONDS + "s, finishing after join");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            logger.severe("Failed to preload account data for " + event.getName() + ": " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Drop preloaded data if the login was rejected after pre-login (whitelist, full server).
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            userManager.clearCachedUser(event.getPlayer().getUniqueId());
+        }
+    }
+    
+    /**
+     * Handle player join - display account status from the preloaded data.
+     * 
+     * Priority: HIGH so a placeholder is cached before other plugins read user state.
      */
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
         
-        logger.info("Player " + player.getName() + " joined, syncing account data...");
+        userManager.markJoined(uuid);
+        // The pre-login load when there was one; a new load only if it was dropped
+        CompletableFuture<PlayerUserData> load = userManager.preloadUser(uuid, player.getName());
+        if (load.isDone()) {
+            PlayerUserData cached = userManager.getCachedUser(uuid);
+            sendJoinMessages(player, cached != null ? cached : load.join());
+            return;
+        }
         
+        logger.info("Account data for " + player.getName() + " still loading, using placeholder");
+        userManager.getOrPlaceholder(uuid, player.getName());
+        load.thenAccept(loaded ->
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (player.isOnline()) {
+                    sendJoinMessages(player, loaded);
+                }
+            })
+        );
+    }
+    
+    private void sendJoinMessages(Player player, PlayerUserData userData) {
         try {
-            // Sync user data (blocking call - acceptable on join)
-            PlayerUserData userData = userManager.onPlayerJoin(player);
-            
             // Send welcome message
             sendWelcomeMessage(player, userData);
             
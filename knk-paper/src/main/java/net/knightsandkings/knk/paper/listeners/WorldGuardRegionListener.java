@@ -7,7 +7,6 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
 import net.knightsandkings.knk.core.regions.RegionTransitionDecision;
@@ -68,12 +67,6 @@ public class WorldGuardRegionListener implements Listener {
         }
     }
 
-    @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        LOGGER.info("[KnK Listener] PlayerQuitEvent: " + event.getPlayer().getName());
-        tracker.handleQuit(event.getPlayer());
-    }
-
     private void handle(Player player, Location from, Location to, org.bukkit.event.Cancellable event) {
         RegionTransitionDecision decision = tracker.handleMove(player, from, to);
         if (decision == null) {
@@ -0,0 +1,153 @@
+package net.knightsandkings.knk.paper.login;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.plugin.Plugin;
+
+import net.knightsandkings.knk.core.dataaccess.FetchPolicy;
+import net.knightsandkings.knk.core.dataaccess.TownsDataAccess;
+import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
+import net.knightsandkings.knk.core.regions.RegionDomainResolver;
+
+/**
+ * Warms the caches a joining player needs where they end up, before they arrive.
+ * <p>
+ * Players are teleported to the main world's spawn on join. The spawn's WorldGuard regions are
+ * resolved on the main thread and kept; during pre-login the player's user, the respawn town
+ * (used when they die) and the domains of the spawn regions are fetched in one batch, so the
+ * region lookup after the teleport hits warm caches instead of going to the API a second time.
+ */
+public class JoinWarmup implements Listener {
+    private static final Logger LOGGER = Logger.getLogger(JoinWarmup.class.getName());
+
+    private final Plugin plugin;
+    private final UsersDataAccess usersDataAccess;
+    private final TownsDataAccess townsDataAccess;
+    private final RegionDomainResolver regionResolver;
+    private final Function<Location, Set<String>> regionsAt;
+    private final int respawnTownId;
+    private final long maxWaitMillis;
+
+    private volatile Destination destination;
+
+    /**
+     * @param regionsAt IDs of the WorldGuard regions at a location (main thread)
+     * @param respawnTownId town prefetched for the respawn handler
+     * @param maxWaitMillis how long pre-login waits for the warm-up before letting the player in anyway
+     */
+    public JoinWarmup(
+        Plugin plugin,
+        UsersDataAccess usersDataAccess,
+        TownsDataAccess townsDataAccess,
+        RegionDomainResolver regionResolver,
+        Function<Location, Set<String>> regionsAt,
+        int respawnTownId,
+        long maxWaitMillis
+    ) {
+        this.plugin = plugin;
+        this.usersDataAccess = usersDataAccess;
+        this.townsDataAccess = townsDataAccess;
+        this.regionResolver = regionResolver;
+        this.regionsAt = regionsAt;
+        this.respawnTownId = respawnTownId;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Resolve the spawn regions and prefetch the respawn town (main thread).
+     */
+    public void start() {
+        resolveDestination(spawnLocation());
+        prefetchRespawnTown().exceptionally(ex -> {
+            LOGGER.log(Level.WARNING, "Failed to prefetch respawn town " + respawnTownId, ex);
+            return null;
+        });
+    }
+
+    /**
+     * Runs after admission ({@code LOWEST}) and before the user is loaded or created
+     * ({@code NORMAL}), which then finds the user in the cache.
+     */
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        try {
+            prepare(event.getUniqueId()).get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOGGER.fine("Join warm-up for " + event.getUniqueId() + " did not finish within " + maxWaitMillis + " ms");
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.FINE, "Join warm-up for " + event.getUniqueId() + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetch the player's user, the respawn town and the spawn regions' domains in one batch.
+     */
+    public CompletableFuture<Void> prepare(UUID playerId) {
+        return CompletableFuture.allOf(
+            usersDataAccess.getByUuidAsync(playerId, FetchPolicy.STALE_OK),
+            prefetchRespawnTown(),
+            warmDestination()
+        );
+    }
+
+    /**
+     * Fetch the domains of the spawn regions that are not cached yet.
+     */
+    public CompletableFuture<Void> warmDestination() {
+        Destination current = destination;
+        if (current == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return regionResolver.warmCache(current.regionIds());
+    }
+
+    /**
+     * Where players are teleported on join: the main world's spawn (main thread).
+     * <p>
+     * Re-resolves the spawn regions if the spawn point moved since they were last resolved.
+     */
+    public Location joinLocation() {
+        Location spawn = spawnLocation();
+        Destination current = destination;
+        if (current == null || !current.location().equals(spawn)) {
+            resolveDestination(spawn);
+        }
+        return spawn.clone();
+    }
+
+    private CompletableFuture<Void> prefetchRespawnTown() {
+        return townsDataAccess.getByIdAsync(respawnTownId, FetchPolicy.CACHE_FIRST).thenApply(result -> null);
+    }
+
+    private void resolveDestination(Location spawn) {
+        Set<String> regionIds = Set.copyOf(regionsAt.apply(spawn));
+        destination = new Destination(spawn.clone(), regionIds);
+        LOGGER.fine("Join destination: " + spawn + ", regions=" + regionIds);
+        regionResolver.warmCache(regionIds);
+    }
+
+    private Location spawnLocation() {
+        return plugin.getServer().getWorlds().get(0).getSpawnLocation();
+    }
+
+    private record Destination(Location location, Set<String> regionIds) {
+    }
+}
@@ -0,0 +1,255 @@
+package net.knightsandkings.knk.paper.login;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+
+import net.knightsandkings.knk.core.metrics.LatencyHistogram;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Limits how many logins do API-bound pre-login work (user load/creation, account sync) at once.
+ * <p>
+ * The first {@link AsyncPlayerPreLoginEvent} handler ({@code LOWEST}) takes a permit from a fair
+ * semaphore, so logins beyond the limit wait in arrival order; the last handler
+ * ({@code MONITOR}, this listener must be registered after the other pre-login listeners) gives
+ * it back. A login that waits longer than {@code maxWaitMillis} is refused with a busy message.
+ * <p>
+ * The client drops a login after 30 s without an answer, and the wait for a slot is only the
+ * first part of pre-login: after admission {@link JoinWarmup} waits up to 2 s and
+ * {@code UserAccountListener} up to 5 s, with the user load in {@code PlayerListener} on top when
+ * the caches are cold. The wait is therefore capped at {@link #MAX_WAIT_LIMIT_MILLIS} (15 s),
+ * leaving about 8 s of headroom; a refused login can reconnect, a timed out one just hangs.
+ * <p>
+ * While logins wait, their users are fetched ahead of their turn in batches of
+ * {@code warmBatchSize}, together with the domains of the regions at the join destination, so
+ * the work done once admitted mostly hits the caches. Queue depth, logins in flight and the time spent waiting
+ * are exposed for metrics.
+ */
+public class LoginAdmissionController implements Listener {
+    private static final Logger LOGGER = Logger.getLogger(LoginAdmissionController.class.getName());
+    /** Longest allowed wait for a slot, well below the client's 30 s login timeout. */
+    public static final long MAX_WAIT_LIMIT_MILLIS = 15_000L;
+    private static final Component BUSY_MESSAGE =
+        Component.text("The server is busy letting players in. Please reconnect in a moment.", NamedTextColor.RED);
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final int warmBatchSize;
+    private final long maxWaitMillis;
+    private final Function<List<UUID>, CompletableFuture<?>> userWarmer;
+    private final Supplier<CompletableFuture<?>> destinationWarmer;
+
+    private final Queue<Waiting> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean warming = new AtomicBoolean();
+    private final Map<AsyncPlayerPreLoginEvent, Ticket> tickets = new ConcurrentHashMap<>();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final AtomicLong refused = new AtomicLong();
+
+    /**
+     * @param userWarmer fetches a batch of users into the cache
+     * @param destinationWarmer fetches the domains of the regions at the join destination into the cache
+     */
+    public LoginAdmissionController(
+        int maxConcurrent,
+        int warmBatchSize,
+        long maxWaitMillis,
+        Function<List<UUID>, CompletableFuture<?>> userWarmer,
+        Supplier<CompletableFuture<?>> destinationWarmer
+    ) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.warmBatchSize = Math.max(1, warmBatchSize);
+        if (maxWaitMillis > MAX_WAIT_LIMIT_MILLIS) {
+            LOGGER.warning("Login admission wait of " + maxWaitMillis + " ms exceeds the login time budget; capped at "
+                + MAX_WAIT_LIMIT_MILLIS + " ms");
+        }
+        this.maxWaitMillis = Math.min(maxWaitMillis, MAX_WAIT_LIMIT_MILLIS);
+        this.userWarmer = userWarmer;
+        this.destinationWarmer = destinationWarmer;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPreLoginAdmit(AsyncPlayerPreLoginEvent event) {
+        Ticket ticket;
+        try {
+            ticket = admit(event.getUniqueId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ticket = null;
+        }
+        if (ticket == null) {
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, BUSY_MESSAGE);
+            return;
+        }
+        tickets.put(event, ticket);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLoginDone(AsyncPlayerPreLoginEvent event) {
+        Ticket ticket = tickets.remove(event);
+        if (ticket != null) {
+            ticket.release();
+        }
+    }
+
+    /**
+     * Wait for a login slot (blocking, pre-login thread).
+     *
+     * @return the slot to release when the login work is done, or null if none freed up in time
+     */
+    public Ticket admit(UUID playerId) throws InterruptedException {
+        long start = System.nanoTime();
+        // Nobody waiting: take a free slot straight away
+        if (!permits.hasQueuedThreads() && permits.tryAcquire()) {
+            waitTime.recordSince(start);
+            return new Ticket();
+        }
+
+        Waiting entry = new Waiting(playerId);
+        waiting.add(entry);
+        warmQueued();
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.remove(entry);
+        }
+        waitTime.recordSince(start);
+        if (!admitted) {
+            refused.incrementAndGet();
+            LOGGER.warning("Refused login of " + playerId + " after waiting " + maxWaitMillis + " ms for a login slot");
+            return null;
+        }
+        return new Ticket();
+    }
+
+    /**
+     * Logins waiting for a slot.
+     */
+    public int queueDepth() {
+        return waiting.size();
+    }
+
+    /**
+     * Logins currently doing pre-login work.
+     */
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Time from the start of pre-login to admission (or refusal).
+     */
+    public LatencyHistogram waitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Longest a login waits for a slot before it is refused.
+     */
+    public long maxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public long refused() {
+        return refused.get();
+    }
+
+    public String summary() {
+        return String.format("queue=%d, inFlight=%d/%d, refused=%d, wait: %s",
+            queueDepth(), inFlight(), maxConcurrent, refused(), waitTime);
+    }
+
+    /**
+     * Start warming the next batch of queued logins unless a batch is already in flight; the
+     * next batch starts when it completes.
+     */
+    private void warmQueued() {
+        if (!warming.compareAndSet(false, true)) {
+            return;
+        }
+        List<UUID> batch = new ArrayList<>(warmBatchSize);
+        for (Waiting entry : waiting) {
+            if (batch.size() >= warmBatchSize) {
+                break;
+            }
+            if (!entry.warmed) {
+                entry.warmed = true;
+                batch.add(entry.playerId);
+            }
+        }
+        if (batch.isEmpty()) {
+            warming.set(false);
+            return;
+        }
+
+        CompletableFuture<?> users;
+        CompletableFuture<?> destination;
+        try {
+            users = nonNull(userWarmer.apply(batch));
+            destination = nonNull(destinationWarmer.get());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to start login cache warm-up", e);
+            warming.set(false);
+            return;
+        }
+        CompletableFuture.allOf(users, destination).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                LOGGER.log(Level.FINE, "Login cache warm-up batch failed", ex);
+            }
+            warming.set(false);
+            if (!waiting.isEmpty()) {
+                warmQueued();
+            }
+        });
+    }
+
+    private static CompletableFuture<?> nonNull(CompletableFuture<?> future) {
+        return future != null ? future : CompletableFuture.completedFuture(null);
+    }
+
+    private static final class Waiting {
+        private final UUID playerId;
+        private volatile boolean warmed;
+
+        private Waiting(UUID playerId) {
+            this.playerId = playerId;
+        }
+    }
+
+    /**
+     * A held login slot.
+     */
+    public final class Ticket {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Ticket() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
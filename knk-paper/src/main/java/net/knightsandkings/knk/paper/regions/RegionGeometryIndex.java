@@ -0,0 +1,187 @@
+package net.knightsandkings.knk.paper.regions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import net.knightsandkings.knk.core.regions.geometry.RegionFootprint;
+
+/**
+ * Read-only, thread-safe copy of WorldGuard region geometry.
+ *
+ * The index is rebuilt on the main thread (the only place WorldGuard may be read) and
+ * published as an immutable snapshot, so HTTP threads can answer containment queries
+ * concurrently without scheduling work on the tick.
+ *
+ * Footprints are looked up by region ID, which also resolves the owning world. Regions the
+ * index cannot represent (polyhedral, global) are reported as unknown so callers fall back to
+ * a main-thread WorldGuard check.
+ *
+ * Plugin code that changes regions calls {@link #requestRebuild()}. Regions edited outside the
+ * plugin ({@code /rg define}, {@code /rg redefine}, {@code /rg remove}) are only picked up by the
+ * periodic refresh, so until then (at most 5 minutes) queries answer from the old footprint.
+ */
+public class RegionGeometryIndex {
+    private static final Logger LOGGER = Logger.getLogger(RegionGeometryIndex.class.getName());
+
+    // Catch regions edited outside the plugin (e.g. /rg define) every 5 minutes
+    private static final long REFRESH_INTERVAL_TICKS = 5 * 60 * 20;
+
+    private final Plugin plugin;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+    // Immutable once published; keyed by normalized region ID
+    private volatile Map<String, RegionFootprint> footprints = Map.of();
+    private BukkitTask refreshTask;
+
+    public RegionGeometryIndex(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Build the initial snapshot and start the periodic refresh. Must be called on the main thread.
+     */
+    public void start() {
+        rebuild();
+        refreshTask = plugin.getServer().getScheduler().runTaskTimer(
+            plugin,
+            this::rebuild,
+            REFRESH_INTERVAL_TICKS,
+            REFRESH_INTERVAL_TICKS
+        );
+    }
+
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        footprints = Map.of();
+    }
+
+    /**
+     * Schedule a rebuild on the next tick. Multiple requests within the same tick are coalesced.
+     * Safe to call from any thread.
+     */
+    public void requestRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                rebuildScheduled.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from WorldGuard. Must be called on the main thread.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<String, RegionFootprint> byId = new HashMap<>();
+        Set<String> unsupported = new HashSet<>();
+
+        try {
+            for (World world : plugin.getServer().getWorlds()) {
+                RegionManager regionManager = WorldGuard.getInstance().getPlatform().getRegionContainer()
+                    .get(BukkitAdapter.adapt(world));
+                if (regionManager == null) {
+                    continue;
+                }
+
+                for (ProtectedRegion region : regionManager.getRegions().values()) {
+                    String key = normalize(region.getId());
+                    // First world wins, matching the world iteration order used by the WorldGuard lookups
+                    if (byId.containsKey(key) || unsupported.contains(key)) {
+                        continue;
+                    }
+
+                    RegionFootprint footprint = WorldGuardFootprints.of(region, world.getName());
+                    if (footprint == null) {
+                        unsupported.add(key);
+                        continue;
+                    }
+
+                    byId.put(key, footprint);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warning("Failed to rebuild region geometry index, keeping previous snapshot: " + e.getMessage());
+            return;
+        }
+
+        footprints = Collections.unmodifiableMap(byId);
+        LOGGER.fine("Region geometry index rebuilt: " + byId.size() + " regions (" + unsupported.size()
+            + " unsupported) in " + ((System.nanoTime() - start) / 1_000_000) + "ms");
+    }
+
+    /**
+     * Containment check matching LocationTaskHandler#checkLocationInsideRegion.
+     * Answers from the last snapshot, which may lag edits made outside the plugin.
+     *
+     * @return TRUE/FALSE when the index can answer, or null when the region is unknown or not
+     *         representable and the caller must fall back to WorldGuard on the main thread
+     */
+    public Boolean containsLocation(String regionId, double x, double z, boolean allowBoundary) {
+        if (regionId == null || regionId.isBlank()) {
+            return null;
+        }
+        RegionFootprint footprint = footprints.get(normalize(regionId));
+        if (footprint == null) {
+            return null;
+        }
+
+        if (!footprint.contains(floor(x), floor(z))) {
+            return false;
+        }
+        if (allowBoundary) {
+            return true;
+        }
+
+        // Same probes as the WorldGuard path: neighbours must also be inside for a strict check
+        double epsilon = 0.001d;
+        return footprint.contains(floor(x - epsilon), floor(z))
+            && footprint.contains(floor(x + epsilon), floor(z))
+            && footprint.contains(floor(x), floor(z - epsilon))
+            && footprint.contains(floor(x), floor(z + epsilon));
+    }
+
+    /**
+     * @return footprint for the region, or null if it is not indexed
+     */
+    public RegionFootprint getFootprint(String regionId) {
+        if (regionId == null) {
+            return null;
+        }
+        return footprints.get(normalize(regionId));
+    }
+
+    /**
+     * @return name of the world holding the region, or null if it is not indexed
+     */
+    public String getWorldName(String regionId) {
+        RegionFootprint footprint = getFootprint(regionId);
+        return footprint != null ? footprint.getWorldName() : null;
+    }
+
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+
+    private static String normalize(String regionId) {
+        // WorldGuard region IDs are case-insensitive
+        return regionId.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,174 @@
+package net.knightsandkings.knk.paper.regions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Polygonal2DRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedPolygonalRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+
+import net.knightsandkings.knk.core.regions.geometry.RegionFootprint;
+
+/**
+ * Converts WorldGuard regions and WorldEdit selections into {@link RegionFootprint}s.
+ * <p>
+ * Polyhedral regions are not part of the WorldGuard API we compile against, so their
+ * {@code getPoints()} is looked up reflectively; the method handle is resolved once per
+ * region class and cached.
+ */
+public final class WorldGuardFootprints {
+    private static final Logger LOGGER = Logger.getLogger(WorldGuardFootprints.class.getName());
+    private static final String POLYHEDRAL_REGION_CLASS = "ProtectedPolyhedralRegion";
+
+    private static final ClassValue<MethodHandle> GET_POINTS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup().findVirtual(type, "getPoints", MethodType.methodType(List.class));
+            } catch (ReflectiveOperationException e) {
+                // Some implementations declare a narrower return type
+                try {
+                    return MethodHandles.publicLookup()
+                        .unreflect(type.getMethod("getPoints"))
+                        .asType(MethodType.methodType(Object.class, type));
+                } catch (ReflectiveOperationException inner) {
+                    LOGGER.warning("No getPoints() on " + type.getName() + ": " + inner.getMessage());
+                    return null;
+                }
+            }
+        }
+    };
+
+    private WorldGuardFootprints() {
+    }
+
+    /**
+     * Exact footprint of a region whose column containment is fully described on the XZ plane.
+     *
+     * @return footprint for cuboid and polygonal regions, or null for other shapes
+     */
+    public static RegionFootprint of(ProtectedRegion region, String worldName) {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+
+        if (region instanceof ProtectedCuboidRegion) {
+            return RegionFootprint.cuboid(region.getId(), worldName,
+                min.x(), min.y(), min.z(), max.x(), max.y(), max.z());
+        }
+
+        if (region instanceof ProtectedPolygonalRegion) {
+            List<BlockVector2> points = region.getPoints();
+            if (points.size() < 3) {
+                return null;
+            }
+            int[] xs = new int[points.size()];
+            int[] zs = new int[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                xs[i] = points.get(i).x();
+                zs[i] = points.get(i).z();
+            }
+            return RegionFootprint.polygon(region.getId(), worldName, xs, zs, min.y(), max.y());
+        }
+
+        return null;
+    }
+
+    /**
+     * Footprint usable as the child of a containment check. Besides exact shapes this also covers
+     * (convex) polyhedral regions via the convex hull of their vertices projected onto XZ, which
+     * encloses the whole region and is therefore safe for "is inside" checks.
+     *
+     * @return footprint, or null if the shape is not supported
+     */
+    public static RegionFootprint ofChild(ProtectedRegion region, String worldName) {
+        RegionFootprint exact = of(region, worldName);
+        if (exact != null) {
+            return exact;
+        }
+
+        List<BlockVector3> points = polyhedralPoints(region);
+        if (points == null || points.isEmpty()) {
+            return null;
+        }
+        return hullOf(region.getId(), worldName, points,
+            region.getMinimumPoint().y(), region.getMaximumPoint().y());
+    }
+
+    /**
+     * Footprint of a WorldEdit selection.
+     *
+     * @return footprint for polygonal and cuboid selections, or null for other selection types
+     */
+    public static RegionFootprint ofSelection(Region selection, String id, String worldName) {
+        if (selection instanceof Polygonal2DRegion) {
+            Polygonal2DRegion poly = (Polygonal2DRegion) selection;
+            List<BlockVector2> points = poly.getPoints();
+            if (points.size() < 3) {
+                return null;
+            }
+            int[] xs = new int[points.size()];
+            int[] zs = new int[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                xs[i] = points.get(i).x();
+                zs[i] = points.get(i).z();
+            }
+            return RegionFootprint.polygon(id, worldName, xs, zs, poly.getMinimumY(), poly.getMaximumY());
+        }
+
+        if (selection instanceof CuboidRegion) {
+            BlockVector3 min = selection.getMinimumPoint();
+            BlockVector3 max = selection.getMaximumPoint();
+            return RegionFootprint.cuboid(id, worldName, min.x(), min.y(), min.z(), max.x(), max.y(), max.z());
+        }
+
+        return null;
+    }
+
+    /**
+     * @return vertices of a polyhedral region, or null if the region is not polyhedral
+     */
+    public static List<BlockVector3> polyhedralPoints(ProtectedRegion region) {
+        if (!POLYHEDRAL_REGION_CLASS.equals(region.getClass().getSimpleName())) {
+            return null;
+        }
+        MethodHandle getPoints = GET_POINTS.get(region.getClass());
+        if (getPoints == null) {
+            return null;
+        }
+        try {
+            Object pointsObject = getPoints.invoke(region);
+            if (!(pointsObject instanceof Iterable)) {
+                return null;
+            }
+            List<BlockVector3> points = new ArrayList<>();
+            for (Object point : (Iterable<?>) pointsObject) {
+                if (point instanceof BlockVector3) {
+                    points.add((BlockVector3) point);
+                }
+            }
+            return points;
+        } catch (Throwable e) {
+            LOGGER.warning("Failed to read polyhedral points of " + region.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static RegionFootprint hullOf(String id, String worldName, List<BlockVector3> points, int minY, int maxY) {
+        int[] xs = new int[points.size()];
+        int[] zs = new int[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = points.get(i).x();
+            zs[i] = points.get(i).z();
+        }
+        return RegionFootprint.convexHull(id, worldName, xs, zs, minY, maxY);
+    }
+}
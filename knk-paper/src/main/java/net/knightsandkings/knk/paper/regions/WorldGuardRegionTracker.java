@@ -1,10 +1,10 @@
 package net.knightsandkings.knk.paper.regions;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -31,6 +31,7 @@ import net.knightsandkings.knk.core.regions.RegionTransitionService;
 import net.knightsandkings.knk.core.regions.RegionTransitionType;
 import net.knightsandkings.knk.paper.events.OnRegionEnterEvent;
 import net.knightsandkings.knk.paper.events.OnRegionLeaveEvent;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
 import net.knightsandkings.knk.paper.utils.ColorOptions;
 
 /**
@@ -41,6 +42,7 @@ import net.knightsandkings.knk.paper.utils.ColorOptions;
  * - Queue-based re-validation enforces security after async API fetch
  * - Stale cache usage allows movement while fresh data loads
  * - Failed lookup cooldown prevents API hammering
+ * - Current regions per player kept in a {@link PlayerSlots} store (main thread), cleared on quit
  */
 public class WorldGuardRegionTracker {
     private final RegionContainer regionContainer;
@@ -51,31 +53,34 @@ public class WorldGuardRegionTracker {
     private final Logger logger;
     private final boolean enableConsoleLogging;
     private final Plugin plugin;
+    private final PlayerSlots playerSlots;
 
-    private final Map<UUID, Set<String>> regionsByPlayer = new HashMap<>();
+    private final PlayerSlots.Values<Set<String>> regionsByPlayer;
     private final Map<String, Long> failedRegionLookups = new ConcurrentHashMap<>();
     private final Map<String, CompletableFuture<Void>> inFlightLookups = new ConcurrentHashMap<>();
     
     private static final long FAILED_LOOKUP_COOLDOWN_MS = 30000;  // 30 second cooldown
 
-    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor, Plugin plugin, Logger logger, boolean enableConsoleLogging) {
+    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor, Plugin plugin, PlayerSlots playerSlots, Logger logger, boolean enableConsoleLogging) {
         this.regionContainer = WorldGuard.getInstance().getPlatform().getRegionContainer();
         this.regionQuery = regionContainer.createQuery();
         this.transitionService = transitionService;
         this.regionResolver = regionResolver;
         this.lookupExecutor = lookupExecutor;
         this.plugin = plugin;
+        this.playerSlots = playerSlots;
+        this.regionsByPlayer = playerSlots.newValues();
         this.logger = logger;
         this.enableConsoleLogging = enableConsoleLogging;
     }
 
-    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor, Plugin plugin) {
-        this(transitionService, regionResolver, lookupExecutor, plugin, null, false);
+    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor, Plugin plugin, PlayerSlots playerSlots) {
+        this(transitionService, regionResolver, lookupExecutor, plugin, playerSlots, null, false);
     }
 
     @Deprecated
-    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor) {
-        this(transitionService, regionResolver, lookupExecutor, null, null, false);
+    public WorldGuardRegionTracker(RegionTransitionService transitionService, RegionDomainResolver regionResolver, Executor lookupExecutor, PlayerSlots playerSlots) {
+        this(transitionService, regionResolver, lookupExecutor, null, playerSlots, null, false);
     }
 
     /**
@@ -89,7 +94,12 @@ public class WorldGuardRegionTracker {
         }
 
         UUID playerId = player.getUniqueId();
-        Set<String> oldRegions = regionsByPlayer.getOrDefault(playerId, Collections.emptySet());
+        int slot = playerSlots.slotOf(playerId);
+        if (slot == PlayerSlots.NO_SLOT) {
+            // Not a joined player (e.g. an NPC)
+            return null;
+        }
+        Set<String> oldRegions = regionsOf(slot);
         Set<String> newRegions = getRegionNamesAt(to);
 
         if (logger != null) {
@@ -125,7 +135,7 @@ public class WorldGuardRegionTracker {
             }
             
             // Update player regions and allow movement with stale/partial data
-            regionsByPlayer.put(playerId, newRegions);
+            regionsByPlayer.set(slot, newRegions);
             
             if (logger != null) {
                 logger.fine("[KnK Tracker] " + player.getName() + " allowing movement (fetch in progress)");
@@ -134,7 +144,7 @@ public class WorldGuardRegionTracker {
         }
 
         // All data cached and fresh - process transition
-        regionsByPlayer.put(playerId, newRegions);
+        regionsByPlayer.set(slot, newRegions);
         
         if (logger != null) {
             logger.fine("[KnK Tracker] " + player.getName() + " processing transition (all data cached)");
@@ -150,10 +160,19 @@ public class WorldGuardRegionTracker {
         return decision;
     }
 
-    public void handleQuit(Player player) {
-        if (player != null) {
-            regionsByPlayer.remove(player.getUniqueId());
+    /**
+     * Name of the town the player is currently in, from cached domain data only (main thread).
+     */
+    public Optional<String> currentTownName(UUID playerId) {
+        for (String regionId : regionsOf(playerSlots.slotOf(playerId))) {
+            Optional<String> town = regionResolver.getDomainByRegionIdNoRefresh(regionId)
+                .filter(domain -> "town".equalsIgnoreCase(domain.domainType()))
+                .map(RegionDomainResolver.DomainSnapshot::name);
+            if (town.isPresent()) {
+                return town;
+            }
         }
+        return Optional.empty();
     }
 
     /**
@@ -169,7 +188,7 @@ public class WorldGuardRegionTracker {
             logger.fine("[KnK Tracker] " + player.getName() + " JOIN: initial regions=" + current);
         }
         
-        regionsByPlayer.put(playerId, current);
+        regionsByPlayer.set(playerSlots.acquire(playerId), current);
         
         if (!current.isEmpty()) {
             // Start async pre-warm (don't block join)
@@ -191,7 +210,15 @@ public class WorldGuardRegionTracker {
         return decision;
     }
 
-    private Set<String> getRegionNamesAt(Location bukkitLocation) {
+    private Set<String> regionsOf(int slot) {
+        Set<String> regions = regionsByPlayer.get(slot);
+        return regions != null ? regions : Collections.emptySet();
+    }
+
+    /**
+     * IDs of the WorldGuard regions at a location (main thread).
+     */
+    public Set<String> getRegionNamesAt(Location bukkitLocation) {
         if (bukkitLocation == null || bukkitLocation.getWorld() == null) {
             return Collections.emptySet();
         }
@@ -366,7 +393,7 @@ public class WorldGuardRegionTracker {
             }
             
             // Update tracked regions
-            regionsByPlayer.put(playerId, Collections.emptySet());
+            regionsByPlayer.set(playerSlots.slotOf(playerId), Collections.emptySet());
         } else if (decision != null ) {
             // Entry allowed - show message
             decision.getMessage().ifPresent(msg -> 
@@ -0,0 +1,163 @@
+package net.knightsandkings.knk.paper.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import net.knightsandkings.knk.core.metrics.LatencyHistogram;
+
+/**
+ * Bounded queue of operations that must run on the server main thread.
+ * <p>
+ * Instead of one scheduler task per operation, a single repeating task drains the queue
+ * once per tick within a time budget; anything left over runs on the next tick. Callers
+ * on other threads get a {@link CompletableFuture} and never block the tick themselves.
+ * Operations whose future was cancelled before their turn are skipped.
+ */
+public class MainThreadWorkQueue {
+    private static final Logger LOGGER = Logger.getLogger(MainThreadWorkQueue.class.getName());
+
+    private final Plugin plugin;
+    private final int maxPending;
+    private final long tickBudgetNanos;
+    private final Queue<PendingOperation<?>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger(0);
+    private final AtomicInteger maxObservedDepth = new AtomicInteger(0);
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram drainTime = new LatencyHistogram();
+    // Written on the main thread, read by submitting (HTTP worker) threads
+    private volatile BukkitTask drainTask;
+
+    /**
+     * @param maxPending      Operations allowed to wait at once; further submits are rejected
+     * @param tickBudgetMillis Main-thread time spent draining per tick before deferring to the next
+     */
+    public MainThreadWorkQueue(Plugin plugin, int maxPending, long tickBudgetMillis) {
+        this.plugin = plugin;
+        this.maxPending = Math.max(1, maxPending);
+        this.tickBudgetNanos = Math.max(1, tickBudgetMillis) * 1_000_000L;
+    }
+
+    public void start() {
+        if (drainTask == null) {
+            drainTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stop draining and fail everything still queued.
+     */
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        PendingOperation<?> op;
+        while ((op = pending.poll()) != null) {
+            depth.decrementAndGet();
+            op.future.completeExceptionally(new RejectedExecutionException("Main-thread queue stopped"));
+        }
+    }
+
+    /**
+     * Queue an operation for the main thread.
+     *
+     * @return future completed on the main thread with the operation's result; completed exceptionally
+     *         with {@link RejectedExecutionException} if the queue is full or stopped
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (drainTask == null) {
+            future.completeExceptionally(new RejectedExecutionException("Main-thread queue not running"));
+            return future;
+        }
+
+        int newDepth = depth.incrementAndGet();
+        if (newDepth > maxPending) {
+            depth.decrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Main-thread queue full (" + maxPending + ")"));
+            return future;
+        }
+        maxObservedDepth.accumulateAndGet(newDepth, Math::max);
+        PendingOperation<T> op = new PendingOperation<>(operation, future, System.nanoTime());
+        pending.add(op);
+        // stop() may have emptied the queue between the running check and the add
+        if (drainTask == null && pending.remove(op)) {
+            depth.decrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Main-thread queue stopped"));
+        }
+        return future;
+    }
+
+    private void drain() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + tickBudgetNanos;
+        PendingOperation<?> op;
+        while ((op = pending.poll()) != null) {
+            depth.decrementAndGet();
+            queueWait.recordSince(op.enqueuedAt);
+            op.run();
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        drainTime.recordSince(start);
+    }
+
+    public int getDepth() {
+        return Math.max(0, depth.get());
+    }
+
+    public int getMaxObservedDepth() {
+        return maxObservedDepth.get();
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getDrainTime() {
+        return drainTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth=%d, maxDepth=%d, wait=[%s], drainPerTick=[%s]",
+            getDepth(), getMaxObservedDepth(), queueWait, drainTime);
+    }
+
+    private static final class PendingOperation<T> {
+        final Callable<T> operation;
+        final CompletableFuture<T> future;
+        final long enqueuedAt;
+
+        PendingOperation(Callable<T> operation, CompletableFuture<T> future, long enqueuedAt) {
+            this.operation = operation;
+            this.future = future;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        void run() {
+            if (future.isDone()) {
+                // Cancelled by a caller that stopped waiting (e.g. an HTTP request that timed out)
+                return;
+            }
+            try {
+                future.complete(operation.call());
+            } catch (Throwable t) {
+                LOGGER.warning("Main-thread operation failed: " + t.getMessage());
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package net.knightsandkings.knk.paper.scoreboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.scoreboard.Criteria;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Score;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import io.papermc.paper.scoreboard.numbers.NumberFormat;
+import net.knightsandkings.knk.core.cache.UserCache;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+import net.knightsandkings.knk.paper.utils.ColorOptions;
+import net.knightsandkings.knk.paper.utils.ScoreboardUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Name tag teams, tab header/footer and a live sidebar for online players.
+ * <p>
+ * Each player has their own scoreboard so the sidebar can show their own coins and town. Team
+ * membership is kept in step incrementally: a join adds the player to every board and everyone
+ * online to the new board, a quit removes the player from the remaining boards, and a group
+ * (permission) change moves the player's entry on every board. The header and footer never
+ * change and are built once.
+ * <p>
+ * A task running every {@link #REFRESH_PERIOD_TICKS} recomputes the sidebar lines and updates
+ * only the lines whose text changed, so an idle sidebar sends nothing. The lines are read with
+ * {@link UserCache#peek}, so the refresh does not count towards the cache's hit/miss metrics.
+ * Permissions have no change event and are re-checked on the same period. Main thread only.
+ */
+public class ScoreboardService {
+    public static final String OWNER_PERMISSION = "k&k.*";
+    static final long REFRESH_PERIOD_TICKS = 20L;
+    private static final String SIDEBAR_OBJECTIVE = "sidebar";
+    private static final String NO_TOWN = "Wilderness";
+    private static final Component TITLE = Component.text("Knights and Kings", NamedTextColor.BLUE);
+    private static final Component HEADER = Component.text("Welcome to ", NamedTextColor.GRAY)
+        .append(Component.text("Knights and Kings", NamedTextColor.BLUE));
+    private static final Component FOOTER = Component.text("Open Beta", NamedTextColor.RED)
+        .append(Component.newline())
+        .append(Component.text("Follow us on instagram @knightsandkings.official", NamedTextColor.RED));
+
+    private final Plugin plugin;
+    private final UserCache userCache;
+    private final Function<UUID, Optional<String>> townLookup;
+    private final Map<UUID, PlayerBoard> boards = new HashMap<>();
+    private BukkitTask task;
+
+    public ScoreboardService(Plugin plugin, UserCache userCache, Function<UUID, Optional<String>> townLookup) {
+        this.plugin = plugin;
+        this.userCache = userCache;
+        this.townLookup = townLookup;
+    }
+
+    public void start() {
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, REFRESH_PERIOD_TICKS, REFRESH_PERIOD_TICKS);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public void join(Player player) {
+        UUID playerId = player.getUniqueId();
+        if (boards.containsKey(playerId)) {
+            return;
+        }
+        Scoreboard scoreboard = plugin.getServer().getScoreboardManager().getNewScoreboard();
+        ScoreboardUtil.setTeams(scoreboard);
+        Objective sidebar = scoreboard.registerNewObjective(SIDEBAR_OBJECTIVE, Criteria.DUMMY, TITLE);
+        sidebar.setDisplaySlot(DisplaySlot.SIDEBAR);
+        sidebar.numberFormat(NumberFormat.blank());
+
+        for (PlayerBoard other : boards.values()) {
+            scoreboard.getTeam(other.team).addEntry(other.name);
+        }
+        PlayerBoard board = new PlayerBoard(player.getName(), teamFor(player), scoreboard, sidebar);
+        boards.put(playerId, board);
+        for (PlayerBoard target : boards.values()) {
+            target.scoreboard.getTeam(board.team).addEntry(board.name);
+        }
+
+        player.setScoreboard(scoreboard);
+        player.sendPlayerListHeaderAndFooter(HEADER, FOOTER);
+        render(board, linesFor(playerId));
+    }
+
+    public void quit(Player player) {
+        PlayerBoard board = boards.remove(player.getUniqueId());
+        if (board == null) {
+            return;
+        }
+        for (PlayerBoard target : boards.values()) {
+            Team team = target.scoreboard.getTeam(board.team);
+            if (team != null) {
+                team.removeEntry(board.name);
+            }
+        }
+    }
+
+    /**
+     * Move the player to the team matching their current permissions, if it changed.
+     */
+    public void refreshTeam(Player player) {
+        PlayerBoard board = boards.get(player.getUniqueId());
+        if (board == null) {
+            return;
+        }
+        String team = teamFor(player);
+        if (team.equals(board.team)) {
+            return;
+        }
+        board.team = team;
+        for (PlayerBoard target : boards.values()) {
+            // Adding to a team removes the entry from its previous one
+            target.scoreboard.getTeam(team).addEntry(board.name);
+        }
+    }
+
+    /**
+     * Sidebar lines for a player, from cached data only (without recording cache metrics).
+     */
+    List<String> linesFor(UUID playerId) {
+        List<String> lines = new ArrayList<>(2);
+        lines.add("Coins: " + userCache.peek(playerId).map(UserSummary::coins).map(String::valueOf).orElse("-"));
+        lines.add("Town: " + townLookup.apply(playerId).orElse(NO_TOWN));
+        return lines;
+    }
+
+    void tick() {
+        for (Map.Entry<UUID, PlayerBoard> entry : List.copyOf(boards.entrySet())) {
+            Player player = plugin.getServer().getPlayer(entry.getKey());
+            if (player != null) {
+                refreshTeam(player);
+            }
+            render(entry.getValue(), linesFor(entry.getKey()));
+        }
+    }
+
+    private static void render(PlayerBoard board, List<String> lines) {
+        for (int index : board.lines.update(lines)) {
+            String entry = entryFor(index);
+            if (index >= lines.size()) {
+                board.scoreboard.resetScores(entry);
+                continue;
+            }
+            Score score = board.sidebar.getScore(entry);
+            if (!score.isScoreSet()) {
+                // Higher scores are listed first; keeps line order independent of line count
+                score.setScore(-index);
+            }
+            score.customName(Component.text(lines.get(index), ColorOptions.message));
+        }
+    }
+
+    private static String teamFor(Player player) {
+        return player.hasPermission(OWNER_PERMISSION) ? ScoreboardUtil.OWNER_TEAM : ScoreboardUtil.DEFAULT_TEAM;
+    }
+
+    private static String entryFor(int index) {
+        // Unique, invisible entry per line; the text shown is the score's custom name
+        return "\u00a7" + Integer.toHexString(index) + "\u00a7r";
+    }
+
+    private static final class PlayerBoard {
+        private final String name;
+        private final Scoreboard scoreboard;
+        private final Objective sidebar;
+        private final SidebarLines lines = new SidebarLines();
+        private String team;
+
+        private PlayerBoard(String name, String team, Scoreboard scoreboard, Objective sidebar) {
+            this.name = name;
+            this.team = team;
+            this.scoreboard = scoreboard;
+            this.sidebar = sidebar;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package net.knightsandkings.knk.paper.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Remembers the sidebar lines last sent to one player and works out which of them changed.
+ */
+class SidebarLines {
+    private String[] sent = new String[0];
+
+    /**
+     * Record {@code lines} as sent.
+     *
+     * @return indexes whose text differs from the previous call, including indexes that no
+     * longer have a line (to be cleared)
+     */
+    List<Integer> update(List<String> lines) {
+        int size = Math.max(sent.length, lines.size());
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String before = i < sent.length ? sent[i] : null;
+            String after = i < lines.size() ? lines.get(i) : null;
+            if (!Objects.equals(before, after)) {
+                changed.add(i);
+            }
+        }
+        if (!changed.isEmpty()) {
+            sent = lines.toArray(String[]::new);
+        }
+        return changed;
+    }
+
+    List<String> sent() {
+        return Arrays.asList(sent);
+    }
+}
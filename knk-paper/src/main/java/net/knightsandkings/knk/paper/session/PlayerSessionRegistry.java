@@ -0,0 +1,248 @@
+package net.knightsandkings.knk.paper.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import net.knightsandkings.knk.core.scheduler.TickWheel;
+
+/**
+ * Per-player interactive sessions (chat capture flows, world tasks) for all features.
+ * <p>
+ * Each feature gets its own {@link Sessions} store from {@link #register}, keyed by player UUID
+ * and safe to read from async chat threads. Session timeouts live on one {@link TickWheel},
+ * advanced by a single Bukkit task that only runs while timeouts are pending, so the scheduler
+ * load does not grow with the number of open sessions. Sessions of a player who quits are ended
+ * in every store.
+ * <p>
+ * Timeouts are scheduled and cancelled on the server thread; calls from other threads hand the
+ * scheduling to the next tick. A session removed off-thread leaves its timeout on the wheel,
+ * where it is ignored when it fires.
+ */
+public class PlayerSessionRegistry implements Listener {
+    private static final Logger LOGGER = Logger.getLogger(PlayerSessionRegistry.class.getName());
+    private static final int WHEEL_SLOTS = 512;
+
+    public enum EndReason {
+        EXPIRED,
+        QUIT
+    }
+
+    /**
+     * Called on the server thread when a session ends without being removed by its feature.
+     */
+    @FunctionalInterface
+    public interface EndListener<T> {
+        void ended(UUID playerId, T session, EndReason reason);
+    }
+
+    private final Plugin plugin;
+    private final BooleanSupplier isMainThread;
+    private final TickWheel wheel = new TickWheel(WHEEL_SLOTS);
+    private final List<Sessions<?>> stores = new CopyOnWriteArrayList<>();
+    private BukkitTask tickTask;
+
+    public PlayerSessionRegistry(Plugin plugin) {
+        this(plugin, () -> plugin.getServer().isPrimaryThread());
+    }
+
+    PlayerSessionRegistry(Plugin plugin, BooleanSupplier isMainThread) {
+        this.plugin = plugin;
+        this.isMainThread = isMainThread;
+    }
+
+    /**
+     * Create the session store for one feature.
+     */
+    public <T> Sessions<T> register(String name, EndListener<T> onEnd) {
+        Sessions<T> sessions = new Sessions<>(this, name, onEnd);
+        stores.add(sessions);
+        return sessions;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        endAll(event.getPlayer().getUniqueId(), EndReason.QUIT);
+    }
+
+    /**
+     * End every session of {@code playerId}, notifying each feature.
+     */
+    public void endAll(UUID playerId, EndReason reason) {
+        for (Sessions<?> sessions : stores) {
+            sessions.end(playerId, reason);
+        }
+    }
+
+    /**
+     * Open sessions over all features.
+     */
+    public int size() {
+        int size = 0;
+        for (Sessions<?> sessions : stores) {
+            size += sessions.size();
+        }
+        return size;
+    }
+
+    /**
+     * Timeouts currently on the wheel (including ones for sessions already removed off-thread).
+     */
+    public int pendingTimeouts() {
+        return wheel.size();
+    }
+
+    /**
+     * Stop the wheel and drop all sessions without notifying features (plugin disable).
+     */
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        for (Sessions<?> sessions : stores) {
+            sessions.clear();
+        }
+    }
+
+    void tick() {
+        wheel.advance();
+        if (wheel.size() == 0 && tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    private <T> void scheduleTimeout(Sessions<T> sessions, UUID playerId, Entry<T> entry, long timeoutTicks) {
+        if (!isMainThread.getAsBoolean()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> scheduleTimeout(sessions, playerId, entry, timeoutTicks));
+            return;
+        }
+        if (sessions.entries.get(playerId) != entry) {
+            // Removed or replaced before the hand-off ran
+            return;
+        }
+        entry.timeout = wheel.schedule(timeoutTicks, () -> sessions.expire(playerId, entry));
+        if (tickTask == null) {
+            tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void cancelTimeout(Entry<?> entry) {
+        if (entry.timeout != null && isMainThread.getAsBoolean()) {
+            entry.timeout.cancel();
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private TickWheel.Timeout timeout;
+
+        private Entry(T value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Sessions of one feature, at most one per player.
+     */
+    public static final class Sessions<T> {
+        private final PlayerSessionRegistry registry;
+        private final String name;
+        private final EndListener<T> onEnd;
+        private final Map<UUID, Entry<T>> entries = new ConcurrentHashMap<>();
+
+        private Sessions(PlayerSessionRegistry registry, String name, EndListener<T> onEnd) {
+            this.registry = registry;
+            this.name = name;
+            this.onEnd = onEnd;
+        }
+
+        /**
+         * Open (or replace) the player's session.
+         *
+         * @param timeoutTicks ticks until the session expires; 0 or less for no timeout
+         */
+        public void put(UUID playerId, T session, long timeoutTicks) {
+            Entry<T> entry = new Entry<>(session);
+            Entry<T> previous = entries.put(playerId, entry);
+            if (previous != null) {
+                registry.cancelTimeout(previous);
+            }
+            if (timeoutTicks > 0) {
+                registry.scheduleTimeout(this, playerId, entry, timeoutTicks);
+            }
+        }
+
+        public T get(UUID playerId) {
+            Entry<T> entry = entries.get(playerId);
+            return entry != null ? entry.value : null;
+        }
+
+        public boolean contains(UUID playerId) {
+            return entries.containsKey(playerId);
+        }
+
+        /**
+         * Close the player's session without notifying the feature.
+         *
+         * @return the removed session, or null
+         */
+        public T remove(UUID playerId) {
+            Entry<T> entry = entries.remove(playerId);
+            if (entry == null) {
+                return null;
+            }
+            registry.cancelTimeout(entry);
+            return entry.value;
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        public void clear() {
+            List<Entry<T>> removed = new ArrayList<>(entries.values());
+            entries.clear();
+            removed.forEach(registry::cancelTimeout);
+        }
+
+        private void expire(UUID playerId, Entry<T> entry) {
+            if (entries.remove(playerId, entry)) {
+                notifyEnd(playerId, entry.value, EndReason.EXPIRED);
+            }
+        }
+
+        private void end(UUID playerId, EndReason reason) {
+            Entry<T> entry = entries.remove(playerId);
+            if (entry != null) {
+                registry.cancelTimeout(entry);
+                notifyEnd(playerId, entry.value, reason);
+            }
+        }
+
+        private void notifyEnd(UUID playerId, T session, EndReason reason) {
+            if (onEnd == null) {
+                return;
+            }
+            try {
+                onEnd.ended(playerId, session, reason);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Ending " + name + " session for " + playerId + " failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package net.knightsandkings.knk.paper.session;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Dense int slots for online players, shared by all features that keep per-player state.
+ * <p>
+ * A player gets a slot when they join ({@code LOWEST}, before other join handlers) and gives it
+ * back when they quit ({@code MONITOR}, after other quit handlers); freed slots are reused first,
+ * so slots stay below the peak number of players online. Features keep their state in
+ * {@link Values} or {@link Longs} arrays indexed by slot: after one {@link #slotOf} lookup per
+ * event every read is an array read, and a slot's entries in every store are cleared when it is
+ * released, so features need no quit cleanup of their own.
+ * <p>
+ * Slots are allocated and released on the server thread. {@link #slotOf} and the store reads
+ * and writes are safe from any thread; a write that races with a quit, or with the store
+ * growing, may be lost or left for the slot's next player, which is fine for caches and
+ * cooldowns but not for state that must be exact.
+ */
+public class PlayerSlots implements Listener {
+    public static final int NO_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private final List<Store> stores = new CopyOnWriteArrayList<>();
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextSlot;
+    private volatile int capacity = INITIAL_CAPACITY;
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        acquire(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        release(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Slot of an online player, allocating one if they have none yet (server thread).
+     */
+    public synchronized int acquire(UUID playerId) {
+        Integer existing = slots.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+        if (slot >= capacity) {
+            int newCapacity = Math.max(slot + 1, capacity * 2);
+            for (Store store : stores) {
+                store.grow(newCapacity);
+            }
+            capacity = newCapacity;
+        }
+        // Published after the stores have room for it
+        slots.put(playerId, slot);
+        return slot;
+    }
+
+    /**
+     * Free the player's slot and clear its entries in every store (server thread).
+     */
+    public synchronized void release(UUID playerId) {
+        Integer slot = slots.remove(playerId);
+        if (slot == null) {
+            return;
+        }
+        for (Store store : stores) {
+            store.clear(slot);
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * @return the player's slot, or {@link #NO_SLOT} if they are not online
+     */
+    public int slotOf(UUID playerId) {
+        Integer slot = playerId != null ? slots.get(playerId) : null;
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    public int slotOf(Player player) {
+        return player != null ? slotOf(player.getUniqueId()) : NO_SLOT;
+    }
+
+    /**
+     * Number of players holding a slot.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Create a store of object values, null for players without one.
+     */
+    public <T> Values<T> newValues() {
+        return register(new Values<>(capacity));
+    }
+
+    /**
+     * Create a store of primitive longs, {@code emptyValue} for players without one.
+     */
+    public Longs newLongs(long emptyValue) {
+        return register(new Longs(capacity, emptyValue));
+    }
+
+    private synchronized <S extends Store> S register(S store) {
+        // Capacity may have grown since the store was sized
+        store.grow(capacity);
+        stores.add(store);
+        return store;
+    }
+
+    private abstract static class Store {
+        abstract void grow(int capacity);
+
+        abstract void clear(int slot);
+    }
+
+    /**
+     * Object values indexed by slot.
+     */
+    public static final class Values<T> extends Store {
+        private volatile Object[] values;
+
+        private Values(int capacity) {
+            this.values = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int slot) {
+            Object[] current = values;
+            return slot >= 0 && slot < current.length ? (T) current[slot] : null;
+        }
+
+        public void set(int slot, T value) {
+            Object[] current = values;
+            if (slot >= 0 && slot < current.length) {
+                current[slot] = value;
+            }
+        }
+
+        @Override
+        void grow(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, capacity);
+            }
+        }
+
+        @Override
+        void clear(int slot) {
+            set(slot, null);
+        }
+    }
+
+    /**
+     * Primitive longs indexed by slot.
+     */
+    public static final class Longs extends Store {
+        private final long emptyValue;
+        private volatile long[] values;
+
+        private Longs(int capacity, long emptyValue) {
+            this.emptyValue = emptyValue;
+            this.values = new long[capacity];
+            Arrays.fill(values, emptyValue);
+        }
+
+        public long get(int slot) {
+            long[] current = values;
+            return slot >= 0 && slot < current.length ? current[slot] : emptyValue;
+        }
+
+        public void set(int slot, long value) {
+            long[] current = values;
+            if (slot >= 0 && slot < current.length) {
+                current[slot] = value;
+            }
+        }
+
+        @Override
+        void grow(int capacity) {
+            int oldLength = values.length;
+            if (capacity > oldLength) {
+                long[] grown = Arrays.copyOf(values, capacity);
+                Arrays.fill(grown, oldLength, capacity, emptyValue);
+                values = grown;
+            }
+        }
+
+        @Override
+        void clear(int slot) {
+            set(slot, emptyValue);
+        }
+    }
+}
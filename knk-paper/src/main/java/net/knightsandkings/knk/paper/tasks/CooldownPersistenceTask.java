@@ -0,0 +1,85 @@
+package net.knightsandkings.knk.paper.tasks;
+
+import net.knightsandkings.knk.core.cooldown.CooldownJournal;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Persists cooldowns across restarts through {@link CooldownJournal}s.
+ *
+ * Changed players are appended to the journals every {@link #FLUSH_INTERVAL_TICKS} ticks off
+ * the main thread; the cooldown stores themselves stay in memory. Persisted cooldowns are put
+ * back when a player joins, and {@link #stop()} writes a compacted journal on shutdown.
+ */
+public class CooldownPersistenceTask {
+    private static final Logger LOGGER = Logger.getLogger(CooldownPersistenceTask.class.getName());
+    private static final long FLUSH_INTERVAL_TICKS = 200L;
+
+    private final Plugin plugin;
+    private final List<CooldownJournal> journals;
+    private BukkitTask flushTask;
+
+    public CooldownPersistenceTask(Plugin plugin, List<CooldownJournal> journals) {
+        this.plugin = plugin;
+        this.journals = List.copyOf(journals);
+    }
+
+    public void start() {
+        int players = 0;
+        for (CooldownJournal journal : journals) {
+            try {
+                players += journal.load();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to load cooldown journal, starting without persisted cooldowns: " + e.getMessage());
+            }
+        }
+        // Players already online (plugin reload) will not fire a join event
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            restore(player.getUniqueId());
+        }
+
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin,
+                this::flush,
+                FLUSH_INTERVAL_TICKS,
+                FLUSH_INTERVAL_TICKS
+        );
+        LOGGER.info("CooldownPersistenceTask started (" + players + " players with persisted cooldowns)");
+    }
+
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        for (CooldownJournal journal : journals) {
+            try {
+                journal.compact();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to write cooldown journal on shutdown: " + e.getMessage());
+            }
+        }
+    }
+
+    public void restore(UUID playerId) {
+        for (CooldownJournal journal : journals) {
+            journal.restore(playerId);
+        }
+    }
+
+    private void flush() {
+        for (CooldownJournal journal : journals) {
+            try {
+                journal.flush();
+            } catch (IOException e) {
+                LOGGER.warning("Failed to append to cooldown journal: " + e.getMessage());
+            }
+        }
+    }
+}
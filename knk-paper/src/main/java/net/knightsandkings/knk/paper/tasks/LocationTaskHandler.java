@@ -11,6 +11,7 @@ import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import net.knightsandkings.knk.core.domain.validation.ValidationResult;
 import net.knightsandkings.knk.core.ports.api.WorldTasksApi;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
 import net.knightsandkings.knk.paper.utils.PlaceholderInterpolationUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -18,8 +19,6 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -34,8 +33,8 @@ public class LocationTaskHandler implements IWorldTaskHandler {
     private final WorldTasksApi worldTasksApi;
     private final Plugin plugin;
     
-    // Track active tasks: player -> TaskContext
-    private final Map<Player, TaskContext> activeTasksByPlayer = new HashMap<>();
+    // Track active tasks: player UUID -> TaskContext (ended on quit by the registry)
+    private final PlayerSessionRegistry.Sessions<TaskContext> activeTasksByPlayer;
 
     /**
      * Internal context for tracking task state
@@ -54,9 +53,11 @@ public class LocationTaskHandler implements IWorldTaskHandler {
         }
     }
 
-    public LocationTaskHandler(WorldTasksApi worldTasksApi, Plugin plugin) {
+    public LocationTaskHandler(WorldTasksApi worldTasksApi, Plugin plugin, PlayerSessionRegistry sessionRegistry) {
         this.worldTasksApi = worldTasksApi;
         this.plugin = plugin;
+        this.activeTasksByPlayer = sessionRegistry.register("location-task", (playerId, context, reason) ->
+            LOGGER.info("Dropped Location task " + context.taskId + " of " + playerId + " (" + reason + ")"));
     }
 
     @Override
@@ -67,7 +68,7 @@ public class LocationTaskHandler implements IWorldTaskHandler {
     @Override
     public void startTask(Player player, int taskId, String inputJson) {
         TaskContext context = new TaskContext(taskId, inputJson);
-        activeTasksByPlayer.put(player, context);
+        activeTasksByPlayer.put(player.getUniqueId(), context, 0L);
 
         player.sendMessage("§6[WorldTask] Capture your current location.");
         player.sendMessage("§7[WorldTask] Task ID: " + taskId);
@@ -82,12 +83,12 @@ public class LocationTaskHandler implements IWorldTaskHandler {
 
     @Override
     public boolean isHandling(Player player) {
-        return activeTasksByPlayer.containsKey(player);
+        return activeTasksByPlayer.contains(player.getUniqueId());
     }
 
     @Override
     public void cancel(Player player) {
-        TaskContext context = activeTasksByPlayer.remove(player);
+        TaskContext context = activeTasksByPlayer.remove(player.getUniqueId());
         if (context != null) {
             player.sendMessage("§c[WorldTask] Task cancelled.");
             LOGGER.info("Cancelled Location task for player " + player.getName() + " (task " + context.taskId + ")");
@@ -96,7 +97,7 @@ public class LocationTaskHandler implements IWorldTaskHandler {
 
     @Override
     public Integer getTaskId(Player player) {
-        TaskContext context = activeTasksByPlayer.get(player);
+        TaskContext context = activeTasksByPlayer.get(player.getUniqueId());
         return context != null ? context.taskId : null;
     }
 
@@ -109,7 +110,7 @@ public class LocationTaskHandler implements IWorldTaskHandler {
      * @return true if the message was handled and should be cancelled
      */
     public boolean onPlayerChat(Player player, String message) {
-        TaskContext context = activeTasksByPlayer.get(player);
+        TaskContext context = activeTasksByPlayer.get(player.getUniqueId());
         if (context == null) return false;
 
         String trimmedMessage = message == null ? "" : message.trim();
@@ -302,7 +303,7 @@ public class LocationTaskHandler implements IWorldTaskHandler {
         worldTasksApi.complete(context.taskId, outputJson)
             .thenAccept(completedTask -> {
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
-                    activeTasksByPlayer.remove(player);
+                    activeTasksByPlayer.remove(player.getUniqueId());
                     player.sendMessage("§a[WorldTask] ✓ Task completed! Location captured.");
                     LOGGER.info("Completed Location task for player " + player.getName() 
                         + " (task " + context.taskId + ") named '" + locationName + "' at position: (" + x + ", " + y + ", " + z + ")");
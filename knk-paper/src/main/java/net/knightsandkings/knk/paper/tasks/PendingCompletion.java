@@ -0,0 +1,42 @@
+package net.knightsandkings.knk.paper.tasks;
+
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
+
+import java.util.UUID;
+
+/**
+ * A task session held out of its store while the task's completion call is in flight.
+ * A quit in that window finds no session to end, so nothing cleans up a region the API is
+ * accepting; a failed call hands the session back so the player can retry.
+ */
+final class PendingCompletion<T> {
+    private final PlayerSessionRegistry.Sessions<T> sessions;
+    private final UUID playerId;
+    private final T session;
+
+    private PendingCompletion(PlayerSessionRegistry.Sessions<T> sessions, UUID playerId, T session) {
+        this.sessions = sessions;
+        this.playerId = playerId;
+        this.session = session;
+    }
+
+    /**
+     * Take the player's session out of {@code sessions} without notifying the feature.
+     */
+    static <T> PendingCompletion<T> detach(PlayerSessionRegistry.Sessions<T> sessions, UUID playerId) {
+        return new PendingCompletion<>(sessions, playerId, sessions.remove(playerId));
+    }
+
+    /**
+     * Put the session back after a failed completion.
+     *
+     * @return false if there was no session, the player left, or they started another task meanwhile
+     */
+    boolean restore(boolean playerOnline) {
+        if (session == null || !playerOnline || sessions.contains(playerId)) {
+            return false;
+        }
+        sessions.put(playerId, session, 0L);
+        return true;
+    }
+}
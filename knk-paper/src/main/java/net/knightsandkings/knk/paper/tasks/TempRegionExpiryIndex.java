@@ -0,0 +1,250 @@
+package net.knightsandkings.knk.paper.tasks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Persistent index of temporary WorldGuard regions ordered by creation time.
+ *
+ * Kept up to date by {@link WgRegionIdTaskHandler} when temp regions are created, renamed or
+ * removed, so {@link TempRegionRetentionTask} only has to look at the oldest entries instead of
+ * scanning every region in every world.
+ *
+ * The index is stored as JSON in the plugin data folder. Writes are coalesced and performed
+ * asynchronously from a snapshot; {@link #saveNow()} is used on shutdown.
+ */
+public class TempRegionExpiryIndex {
+    private static final Logger LOGGER = Logger.getLogger(TempRegionExpiryIndex.class.getName());
+    private static final String FILE_NAME = "temp-region-expiry.json";
+    public static final String TEMP_REGION_PREFIX = "tempregion_worldtask_";
+
+    private static final Comparator<Entry> BY_CREATION = Comparator
+        .comparingLong((Entry e) -> e.createdAt)
+        .thenComparing(e -> e.key);
+
+    private final Plugin plugin;
+    private final Path file;
+    private final Map<String, Entry> byId = new HashMap<>();
+    private final TreeSet<Entry> byCreation = new TreeSet<>(BY_CREATION);
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+    private final Object saveLock = new Object();
+
+    /**
+     * Immutable index entry.
+     */
+    public static final class Entry {
+        private final String regionId;
+        private final String worldName;
+        private final long createdAt;
+        private final String key;
+
+        Entry(String regionId, String worldName, long createdAt) {
+            this.regionId = regionId;
+            this.worldName = worldName;
+            this.createdAt = createdAt;
+            this.key = normalize(regionId);
+        }
+
+        public String getRegionId() {
+            return regionId;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+    }
+
+    public TempRegionExpiryIndex(Plugin plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve(FILE_NAME);
+    }
+
+    /**
+     * Load the index from disk.
+     *
+     * @return false if no index file exists yet (caller should seed it from WorldGuard once)
+     */
+    public synchronized boolean load() {
+        byId.clear();
+        byCreation.clear();
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        try {
+            String json = Files.readString(file, StandardCharsets.UTF_8);
+            JsonArray entries = JsonParser.parseString(json).getAsJsonArray();
+            for (JsonElement element : entries) {
+                JsonObject obj = element.getAsJsonObject();
+                putInternal(new Entry(
+                    obj.get("regionId").getAsString(),
+                    obj.get("world").getAsString(),
+                    obj.get("createdAt").getAsLong()
+                ));
+            }
+            LOGGER.info("Loaded " + byId.size() + " temp region expiry entries");
+            return true;
+        } catch (Exception e) {
+            LOGGER.warning("Failed to load temp region expiry index, it will be rebuilt: " + e.getMessage());
+            byId.clear();
+            byCreation.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Record a temp region (replaces any previous entry with the same ID).
+     */
+    public void track(String regionId, String worldName, long createdAt) {
+        synchronized (this) {
+            putInternal(new Entry(regionId, worldName, createdAt));
+        }
+        scheduleSave();
+    }
+
+    /**
+     * Carry an entry over to a new region ID. If the new ID is not a temp region the entry is dropped.
+     */
+    public void rename(String oldRegionId, String newRegionId) {
+        synchronized (this) {
+            Entry old = removeInternal(oldRegionId);
+            if (old == null) {
+                return;
+            }
+            if (isTempRegion(newRegionId)) {
+                putInternal(new Entry(newRegionId, old.worldName, old.createdAt));
+            }
+        }
+        scheduleSave();
+    }
+
+    public void remove(String regionId) {
+        Entry removed;
+        synchronized (this) {
+            removed = removeInternal(regionId);
+        }
+        if (removed != null) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} entries created before {@code cutoff}, oldest first (not removed)
+     */
+    public synchronized List<Entry> peekExpired(long cutoff, int limit) {
+        List<Entry> expired = new ArrayList<>(Math.min(limit, byCreation.size()));
+        for (Entry entry : byCreation) {
+            if (entry.createdAt >= cutoff || expired.size() >= limit) {
+                break;
+            }
+            expired.add(entry);
+        }
+        return expired;
+    }
+
+    /**
+     * @return creation time of the oldest entry, or -1 if the index is empty
+     */
+    public synchronized long oldestCreatedAt() {
+        return byCreation.isEmpty() ? -1 : byCreation.first().createdAt;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Write the index on the next tick from an async task. Multiple changes are coalesced.
+     */
+    public void scheduleSave() {
+        if (!plugin.isEnabled()) {
+            saveNow();
+            return;
+        }
+        if (saveScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                saveScheduled.set(false);
+                saveNow();
+            });
+        }
+    }
+
+    /**
+     * Write the index synchronously.
+     */
+    public void saveNow() {
+        // Snapshot under the save lock too, so an older snapshot can never overwrite a newer one
+        synchronized (saveLock) {
+            JsonArray entries = new JsonArray();
+            synchronized (this) {
+                for (Entry entry : byCreation) {
+                    JsonObject obj = new JsonObject();
+                    obj.addProperty("regionId", entry.regionId);
+                    obj.addProperty("world", entry.worldName);
+                    obj.addProperty("createdAt", entry.createdAt);
+                    entries.add(obj);
+                }
+            }
+
+            try {
+                Files.createDirectories(file.getParent());
+                // Write to a temp file and move, so a crash mid-write never leaves a truncated index
+                Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+                Files.writeString(tmp, entries.toString(), StandardCharsets.UTF_8);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.warning("Failed to save temp region expiry index: " + e.getMessage());
+            }
+        }
+    }
+
+    private void putInternal(Entry entry) {
+        Entry previous = byId.put(entry.key, entry);
+        if (previous != null) {
+            byCreation.remove(previous);
+        }
+        byCreation.add(entry);
+    }
+
+    private Entry removeInternal(String regionId) {
+        Entry removed = byId.remove(normalize(regionId));
+        if (removed != null) {
+            byCreation.remove(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * @return whether the region ID has the temp region prefix (case-insensitive, like WorldGuard IDs)
+     */
+    public static boolean isTempRegion(String regionId) {
+        return normalize(regionId).startsWith(TEMP_REGION_PREFIX);
+    }
+
+    private static String normalize(String regionId) {
+        // WorldGuard region IDs are case-insensitive
+        return regionId.toLowerCase(Locale.ROOT);
+    }
+}
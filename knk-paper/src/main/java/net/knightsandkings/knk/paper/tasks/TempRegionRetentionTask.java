@@ -2,55 +2,69 @@ package net.knightsandkings.knk.paper.tasks;
 
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.protection.flags.StringFlag;
 import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import net.knightsandkings.knk.paper.regions.RegionGeometryIndex;
 import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
  * Background task for enforcing retention policies on temporary WorldGuard regions.
- * 
+ *
  * Policy:
  * - Delete all regions matching the temp region prefix (e.g., "tempregion_worldtask_")
  *   that are older than the specified retention days.
- * 
- * Runs daily by default; checks region creation metadata to determine age.
+ *
+ * Expiry is driven by {@link TempRegionExpiryIndex}, which is updated as temp regions are created
+ * and renamed. The task only peeks at the oldest index entries and deletes expired regions on the
+ * main thread in small batches per tick; WorldGuard is scanned once only when no index file exists.
  */
 public class TempRegionRetentionTask {
     private static final Logger LOGGER = Logger.getLogger(TempRegionRetentionTask.class.getName());
-    private static final String TEMP_REGION_PREFIX = "tempregion_worldtask_";
-    private static final long RETENTION_MILLIS = 14L * 24 * 60 * 60 * 1000; // 14 days in milliseconds
-    
-    // Custom flag to read creation timestamp (must match the one in WgRegionIdTaskHandler)
-    private static final StringFlag CREATION_TIMESTAMP = new StringFlag("knk-creation-timestamp");
-    
+    private static final String TEMP_REGION_PREFIX = TempRegionExpiryIndex.TEMP_REGION_PREFIX;
+    private static final long CHECK_INTERVAL_TICKS = 60 * 20; // 1 minute
+    private static final int DELETES_PER_TICK = 20;
+
     private final Plugin plugin;
     private final long retentionMillis;
+    private final TempRegionExpiryIndex expiryIndex;
+    private final RegionGeometryIndex geometryIndex;
     private BukkitTask task;
+    private BukkitTask drainTask;
+    private int deletedInRun;
+    // Entries whose delete failed this run; kept in the index and retried by the next check
+    private final Set<String> failedInRun = new HashSet<>();
 
-    public TempRegionRetentionTask(Plugin plugin, long retentionDays) {
+    public TempRegionRetentionTask(Plugin plugin, long retentionDays,
+                                   TempRegionExpiryIndex expiryIndex, RegionGeometryIndex geometryIndex) {
         this.plugin = plugin;
         this.retentionMillis = retentionDays * 24 * 60 * 60 * 1000;
+        this.expiryIndex = expiryIndex;
+        this.geometryIndex = geometryIndex;
     }
 
     /**
-     * Start the retention task, running once per day.
+     * Load (or seed) the expiry index and start the periodic expiry check. Must be called on the main thread.
      */
     public void start() {
-        // Run first check after 5 minutes, then every 24 hours
-        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+        if (!expiryIndex.load()) {
+            seedFromWorldGuard();
+        }
+
+        task = plugin.getServer().getScheduler().runTaskTimer(
             plugin,
-            this::runCleanup,
-            5 * 60 * 20, // 5 minutes (in ticks: 20 ticks/second)
-            24 * 60 * 60 * 20 // 24 hours
+            this::checkExpired,
+            5 * 60 * 20, // first check after 5 minutes (in ticks: 20 ticks/second)
+            CHECK_INTERVAL_TICKS
         );
-        LOGGER.info("TempRegionRetentionTask started. Will clean up temp regions older than " + (retentionMillis / (24 * 60 * 60 * 1000)) + " days");
+        LOGGER.info("TempRegionRetentionTask started. Will clean up temp regions older than " + (retentionMillis / (24 * 60 * 60 * 1000))
+            + " days (" + expiryIndex.size() + " tracked)");
     }
 
     /**
@@ -61,71 +75,152 @@ public class TempRegionRetentionTask {
             task.cancel();
             task = null;
         }
+        stopDrain();
+        expiryIndex.saveNow();
         LOGGER.info("TempRegionRetentionTask stopped");
     }
 
     /**
-     * Run the cleanup operation: scan all worlds for old temp regions and delete them.
+     * Start a per-tick deletion run if the oldest tracked region has expired.
+     */
+    private void checkExpired() {
+        if (drainTask != null) {
+            return;
+        }
+        long oldest = expiryIndex.oldestCreatedAt();
+        if (oldest < 0 || oldest >= System.currentTimeMillis() - retentionMillis) {
+            return;
+        }
+        deletedInRun = 0;
+        failedInRun.clear();
+        drainTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::deleteBatch, 0L, 1L);
+    }
+
+    /**
+     * Delete up to {@link #DELETES_PER_TICK} expired regions; stops the run once nothing is left
+     * but entries that already failed in this run.
      */
-    private void runCleanup() {
+    private void deleteBatch() {
+        long cutoffTime = System.currentTimeMillis() - retentionMillis;
+        List<TempRegionExpiryIndex.Entry> expired = expiryIndex.peekExpired(cutoffTime, DELETES_PER_TICK + failedInRun.size());
+        boolean attempted = false;
+        for (TempRegionExpiryIndex.Entry entry : expired) {
+            if (failedInRun.contains(entry.getRegionId())) {
+                continue;
+            }
+            attempted = true;
+            if (deleteIfExpired(entry, cutoffTime)) {
+                deletedInRun++;
+            }
+        }
+        if (attempted) {
+            return;
+        }
+
+        stopDrain();
+        if (!failedInRun.isEmpty()) {
+            LOGGER.warning(failedInRun.size() + " expired temp regions could not be deleted; retrying at the next check");
+        }
+        if (deletedInRun > 0) {
+            LOGGER.info("Temp region retention cleanup completed. Deleted " + deletedInRun + " regions.");
+            if (geometryIndex != null) {
+                geometryIndex.requestRebuild();
+            }
+        }
+    }
+
+    /**
+     * Delete the region behind an expired entry after re-checking its timestamp flag.
+     * The entry is dropped only when the region is gone or has no valid timestamp; after an error it
+     * is kept so a later check retries the delete.
+     */
+    private boolean deleteIfExpired(TempRegionExpiryIndex.Entry entry, long cutoffTime) {
+        String regionId = entry.getRegionId();
         try {
-            long cutoffTime = System.currentTimeMillis() - retentionMillis;
-            int deletedCount = 0;
+            World world = plugin.getServer().getWorld(entry.getWorldName());
+            RegionManager regionManager = world == null ? null
+                : WorldGuard.getInstance().getPlatform().getRegionContainer().get(BukkitAdapter.adapt(world));
+            ProtectedRegion region = regionManager == null ? null : regionManager.getRegion(regionId);
+            if (region == null) {
+                // Already removed (or world gone)
+                expiryIndex.remove(regionId);
+                return false;
+            }
+
+            Long creationTime = readCreationTime(region);
+            if (creationTime == null) {
+                // Don't delete regions without a valid timestamp - be safe
+                expiryIndex.remove(regionId);
+                return false;
+            }
+            if (creationTime >= cutoffTime) {
+                // Region was recreated under the same ID since it was indexed
+                expiryIndex.track(regionId, entry.getWorldName(), creationTime);
+                return false;
+            }
+
+            regionManager.removeRegion(regionId);
+            expiryIndex.remove(regionId);
+            LOGGER.info("Deleted temp region (retention policy): " + regionId + " from world " + world.getName());
+            return true;
+        } catch (Exception e) {
+            LOGGER.warning("Failed to delete temp region " + regionId + ", keeping it for the next check: " + e.getMessage());
+            failedInRun.add(regionId);
+            return false;
+        }
+    }
 
+    private void stopDrain() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    /**
+     * One-time migration: index existing temp regions when no index file exists yet.
+     */
+    private void seedFromWorldGuard() {
+        int seeded = 0;
+        try {
             for (World world : plugin.getServer().getWorlds()) {
                 RegionManager regionManager = WorldGuard.getInstance().getPlatform()
                     .getRegionContainer().get(BukkitAdapter.adapt(world));
-
                 if (regionManager == null) {
                     continue;
                 }
 
-                List<String> regionsToDelete = new ArrayList<>();
-
-                // Find all temp regions older than retention period
                 for (ProtectedRegion region : regionManager.getRegions().values()) {
-                    if (region.getId().startsWith(TEMP_REGION_PREFIX)) {
-                        // Check region age using creation timestamp flag
-                        String timestampStr = region.getFlag(CREATION_TIMESTAMP);
-                        
-                        if (timestampStr != null) {
-                            try {
-                                long creationTime = Long.parseLong(timestampStr);
-                                
-                                // Only delete if creation time is BEFORE cutoff (i.e., older than retention period)
-                                if (creationTime < cutoffTime) {
-                                    regionsToDelete.add(region.getId());
-                                    LOGGER.fine("Marking region for deletion: " + region.getId() + 
-                                               " (age: " + ((System.currentTimeMillis() - creationTime) / (24 * 60 * 60 * 1000)) + " days)");
-                                }
-                            } catch (NumberFormatException e) {
-                                LOGGER.warning("Invalid creation timestamp for region " + region.getId() + ": " + timestampStr);
-                                // Don't delete if timestamp is invalid - be safe
-                            }
-                        } else {
-                            LOGGER.fine("Skipping region without creation timestamp: " + region.getId());
-                            // Don't delete regions without timestamp - they might be from before this feature
-                        }
+                    if (!region.getId().startsWith(TEMP_REGION_PREFIX)) {
+                        continue;
                     }
-                }
-
-                // Delete old temp regions
-                for (String regionId : regionsToDelete) {
-                    try {
-                        regionManager.removeRegion(regionId);
-                        deletedCount++;
-                        LOGGER.info("Deleted temp region (retention policy): " + regionId + " from world " + world.getName());
-                    } catch (Exception e) {
-                        LOGGER.warning("Failed to delete temp region " + regionId + ": " + e.getMessage());
+                    Long creationTime = readCreationTime(region);
+                    if (creationTime == null) {
+                        LOGGER.fine("Skipping region without creation timestamp: " + region.getId());
+                        // Don't track regions without timestamp - they might be from before this feature
+                        continue;
                     }
+                    expiryIndex.track(region.getId(), world.getName(), creationTime);
+                    seeded++;
                 }
             }
-
-            if (deletedCount > 0) {
-                LOGGER.info("Temp region retention cleanup completed. Deleted " + deletedCount + " regions.");
-            }
         } catch (Exception e) {
-            LOGGER.warning("Error running temp region retention cleanup: " + e.getMessage());
+            LOGGER.warning("Error seeding temp region expiry index: " + e.getMessage());
+        }
+        expiryIndex.saveNow();
+        LOGGER.info("Seeded temp region expiry index with " + seeded + " regions");
+    }
+
+    private static Long readCreationTime(ProtectedRegion region) {
+        String timestampStr = region.getFlag(WgRegionIdTaskHandler.CREATION_TIMESTAMP);
+        if (timestampStr == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(timestampStr);
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid creation timestamp for region " + region.getId() + ": " + timestampStr);
+            return null;
         }
     }
 }
@@ -20,7 +20,12 @@ import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedPolygonalRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import net.knightsandkings.knk.core.domain.validation.ValidationResult;
+import net.knightsandkings.knk.core.regions.geometry.PolygonContainment;
+import net.knightsandkings.knk.core.regions.geometry.RegionFootprint;
 import net.knightsandkings.knk.core.ports.api.WorldTasksApi;
+import net.knightsandkings.knk.paper.regions.RegionGeometryIndex;
+import net.knightsandkings.knk.paper.regions.WorldGuardFootprints;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
 import net.knightsandkings.knk.paper.utils.PlaceholderInterpolationUtil;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -29,6 +34,7 @@ import org.bukkit.plugin.Plugin;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 /**
@@ -41,16 +47,18 @@ import java.util.logging.Logger;
 public class WgRegionIdTaskHandler implements IWorldTaskHandler {
     private static final Logger LOGGER = Logger.getLogger(WgRegionIdTaskHandler.class.getName());
     private static final String FIELD_NAME = "WgRegionId";
-    private static final String TEMP_REGION_PREFIX = "tempregion_worldtask_";
+    private static final String TEMP_REGION_PREFIX = TempRegionExpiryIndex.TEMP_REGION_PREFIX;
     
     // Custom flag to store creation timestamp
     public static final StringFlag CREATION_TIMESTAMP = new StringFlag("knk-creation-timestamp");
 
     private final WorldTasksApi worldTasksApi;
     private final Plugin plugin;
+    private final RegionGeometryIndex geometryIndex;
+    private final TempRegionExpiryIndex expiryIndex;
     
-    // Track active tasks: player -> TaskContext
-    private final Map<Player, TaskContext> activeTasksByPlayer = new HashMap<>();
+    // Track active tasks: player UUID -> TaskContext (ended on quit by the registry)
+    private final PlayerSessionRegistry.Sessions<TaskContext> activeTasksByPlayer;
 
     /**
      * Internal context for tracking task state
@@ -73,9 +81,27 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
         }
     }
 
-    public WgRegionIdTaskHandler(WorldTasksApi worldTasksApi, Plugin plugin) {
+    public WgRegionIdTaskHandler(WorldTasksApi worldTasksApi, Plugin plugin, RegionGeometryIndex geometryIndex,
+                                 TempRegionExpiryIndex expiryIndex, PlayerSessionRegistry sessionRegistry) {
         this.worldTasksApi = worldTasksApi;
         this.plugin = plugin;
+        this.geometryIndex = geometryIndex;
+        this.expiryIndex = expiryIndex;
+        this.activeTasksByPlayer = sessionRegistry.register("wg-region-task", this::onTaskEnded);
+    }
+
+    /**
+     * Registry callback when the player quits mid-task: drop the temp region and WorldEdit session.
+     */
+    private void onTaskEnded(UUID playerId, TaskContext context, PlayerSessionRegistry.EndReason reason) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        if (player != null) {
+            if (context.createdRegionId != null) {
+                cleanupTempRegion(player.getWorld(), context.createdRegionId);
+            }
+            WorldEdit.getInstance().getSessionManager().remove(BukkitAdapter.adapt(player));
+        }
+        LOGGER.info("Dropped WgRegionId task " + context.taskId + " of " + playerId + " (" + reason + ")");
     }
 
     @Override
@@ -103,7 +129,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
             }
         }
         
-        activeTasksByPlayer.put(player, context);
+        activeTasksByPlayer.put(player.getUniqueId(), context, 0L);
         
         // Enable CUI selection for WorldEdit (must run on main thread)
         plugin.getServer().getScheduler().runTask(plugin, () -> {
@@ -130,12 +156,12 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
 
     @Override
     public boolean isHandling(Player player) {
-        return activeTasksByPlayer.containsKey(player);
+        return activeTasksByPlayer.contains(player.getUniqueId());
     }
 
     @Override
     public void cancel(Player player) {
-        TaskContext context = activeTasksByPlayer.remove(player);
+        TaskContext context = activeTasksByPlayer.remove(player.getUniqueId());
         if (context != null) {
             // Cleanup: remove temp region if created
             if (context.createdRegionId != null) {
@@ -154,7 +180,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
 
     @Override
     public Integer getTaskId(Player player) {
-        TaskContext context = activeTasksByPlayer.get(player);
+        TaskContext context = activeTasksByPlayer.get(player.getUniqueId());
         return context != null ? context.taskId : null;
     }
 
@@ -167,7 +193,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
      * @return true if the message was handled and should be cancelled
      */
     public boolean onPlayerChat(Player player, String message) {
-        TaskContext context = activeTasksByPlayer.get(player);
+        TaskContext context = activeTasksByPlayer.get(player.getUniqueId());
         if (context == null) return false;
 
         String cmd = message.trim().toLowerCase();
@@ -245,7 +271,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                             return;
                         }
                         
-                        if (!isSelectionInsideRegion(parentRegion, selection)) {
+                        if (!isSelectionInsideRegion(parentRegion, selection, world.getName())) {
                             player.sendMessage("§c[WorldTask] Selection is not entirely inside required region: " + context.parentRegionId);
                             return;
                         }
@@ -257,7 +283,8 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                 ProtectedRegion region = createRegionFromSelection(selection, tempRegionId, context.priority);
                 
                 // Store creation timestamp for retention policy
-                region.setFlag(CREATION_TIMESTAMP, String.valueOf(System.currentTimeMillis()));
+                long createdAt = System.currentTimeMillis();
+                region.setFlag(CREATION_TIMESTAMP, String.valueOf(createdAt));
                 
                 // Apply flags if any
                 if (!context.flags.isEmpty()) {
@@ -273,6 +300,10 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                 if (regionManager != null) {
                     regionManager.addRegion(region);
                     context.createdRegionId = tempRegionId;
+                    notifyRegionsChanged();
+                    if (expiryIndex != null) {
+                        expiryIndex.track(tempRegionId, world.getName(), createdAt);
+                    }
                     
                     // Clear WorldEdit session
                     WorldEdit.getInstance().getSessionManager().remove(BukkitAdapter.adapt(player));
@@ -337,7 +368,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                     }
                     
                     // Check if selected region is completely inside parent region
-                    if (!isRegionInsideRegion(parentRegion, region)) {
+                    if (!isRegionInsideRegion(parentRegion, region, world.getName())) {
                         player.sendMessage("§c[WorldTask] Region is not entirely inside required parent region: " + context.parentRegionId);
                         return;
                     }
@@ -402,11 +433,13 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
         
         String outputJson = output.toString();
 
+        // Out of the store while the call is in flight, so a quit cannot clean up a region the API accepts
+        PendingCompletion<TaskContext> pending = PendingCompletion.detach(activeTasksByPlayer, player.getUniqueId());
+
         // Complete the task via API
         worldTasksApi.complete(context.taskId, outputJson)
             .thenAccept(completedTask -> {
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
-                    activeTasksByPlayer.remove(player);
                     player.sendMessage("§a[WorldTask] ✓ Task completed! Region " + regionId + " has been created.");
                     LOGGER.info("Completed WgRegionId task for player " + player.getName() 
                         + " (task " + context.taskId + ") with region: " + regionId);
@@ -417,6 +450,10 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                     player.sendMessage("§c[WorldTask] Failed to complete task: " + ex.getMessage());
                     player.sendMessage("§7The region was created but not saved. Cleaning up...");
                     cleanupTempRegion(player.getWorld(), regionId);
+                    context.createdRegionId = null;
+                    if (pending.restore(player.isOnline())) {
+                        player.sendMessage("§7Type 'save' or 'select {regionname}' to try again, or 'cancel' to abort.");
+                    }
                     LOGGER.warning("Failed to complete WgRegionId task " + context.taskId + ": " + ex.getMessage());
                 });
                 return null;
@@ -425,8 +462,16 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
     /**
      * Check if a WorldGuard region is completely inside another WorldGuard region.
      * Supports cuboid, polygon2d and polygon3d (polyhedral) regions.
+     * Cuboid and polygon parents use the edge-aware geometry engine (correct for concave borders);
+     * other parents fall back to probing the child's vertices.
      */
-    private boolean isRegionInsideRegion(ProtectedRegion parentRegion, ProtectedRegion childRegion) {
+    private boolean isRegionInsideRegion(ProtectedRegion parentRegion, ProtectedRegion childRegion, String worldName) {
+        RegionFootprint parentFootprint = WorldGuardFootprints.of(parentRegion, worldName);
+        RegionFootprint childFootprint = WorldGuardFootprints.ofChild(childRegion, worldName);
+        if (parentFootprint != null && childFootprint != null) {
+            return PolygonContainment.contains(parentFootprint, childFootprint);
+        }
+
         if (childRegion instanceof ProtectedPolygonalRegion) {
             ProtectedPolygonalRegion polygonRegion = (ProtectedPolygonalRegion) childRegion;
             return isPolygonal2DInsideRegion(parentRegion, polygonRegion.getPoints(),
@@ -437,8 +482,9 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
             return isCuboidInsideRegion(parentRegion, (ProtectedCuboidRegion) childRegion);
         }
 
-        if ("ProtectedPolyhedralRegion".equals(childRegion.getClass().getSimpleName())) {
-            return isPolyhedralInsideRegionReflective(parentRegion, childRegion);
+        List<BlockVector3> polyhedralPoints = WorldGuardFootprints.polyhedralPoints(childRegion);
+        if (polyhedralPoints != null) {
+            return arePointsInsideRegion(parentRegion, polyhedralPoints);
         }
 
         BlockVector3 min = childRegion.getMinimumPoint();
@@ -489,26 +535,13 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
         return true;
     }
 
-    private boolean isPolyhedralInsideRegionReflective(ProtectedRegion parentRegion, ProtectedRegion polyhedralRegion) {
-        try {
-            Object pointsObject = polyhedralRegion.getClass().getMethod("getPoints").invoke(polyhedralRegion);
-            if (!(pointsObject instanceof Iterable)) {
+    private boolean arePointsInsideRegion(ProtectedRegion parentRegion, List<BlockVector3> points) {
+        for (BlockVector3 point : points) {
+            if (!parentRegion.contains(point)) {
                 return false;
             }
-
-            for (Object point : (Iterable<?>) pointsObject) {
-                if (point instanceof BlockVector3) {
-                    if (!parentRegion.contains((BlockVector3) point)) {
-                        return false;
-                    }
-                }
-            }
-
-            return true;
-        } catch (Exception e) {
-            LOGGER.warning("Failed polyhedral containment check: " + e.getMessage());
-            return false;
         }
+        return true;
     }
 
 
@@ -522,7 +555,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
      */
     @Deprecated
     public void onRegionEnter(Player player, String regionId) {
-        // TaskContext context = activeTasksByPlayer.get(player);
+        // TaskContext context = activeTasksByPlayer.get(player.getUniqueId());
         // if (context == null) return;
 
         // // Build output JSON
@@ -536,7 +569,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
         // worldTasksApi.complete(context.taskId, outputJson)
         //     .thenAccept(completedTask -> {
         //         plugin.getServer().getScheduler().runTask(plugin, () -> {
-        //             activeTasksByPlayer.remove(player);
+        //             activeTasksByPlayer.remove(player.getUniqueId());
         //             player.sendMessage("§a[WorldTask] ✓ Task completed! Region " + regionId + " has been claimed.");
         //             LOGGER.info("Completed WgRegionId task for player " + player.getName() 
         //                 + " (task " + context.taskId + ") with region: " + regionId);
@@ -553,9 +586,16 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
 
     /**
      * Check if a WorldEdit selection is completely inside a WorldGuard region.
-     * Validates all polygon vertices at min and max Y.
+     * Uses the geometry engine for polygon/cuboid shapes, otherwise validates
+     * all polygon vertices at min and max Y.
      */
-    private boolean isSelectionInsideRegion(ProtectedRegion parentRegion, Region selection) {
+    private boolean isSelectionInsideRegion(ProtectedRegion parentRegion, Region selection, String worldName) {
+        RegionFootprint parentFootprint = WorldGuardFootprints.of(parentRegion, worldName);
+        RegionFootprint selectionFootprint = WorldGuardFootprints.ofSelection(selection, "selection", worldName);
+        if (parentFootprint != null && selectionFootprint != null) {
+            return PolygonContainment.contains(parentFootprint, selectionFootprint);
+        }
+
         if (selection instanceof Polygonal2DRegion) {
             Polygonal2DRegion poly = (Polygonal2DRegion) selection;
             
@@ -698,6 +738,10 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
             
             // Add the new region
             regionManager.addRegion(newRegion);
+            notifyRegionsChanged();
+            if (expiryIndex != null) {
+                expiryIndex.rename(oldRegionId, newRegionId);
+            }
             
             LOGGER.info("Successfully renamed region from " + oldRegionId + " to " + newRegionId);
             return true;
@@ -760,7 +804,7 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
             }
 
             // Use shape-aware containment check logic
-            boolean isContained = isRegionInsideRegion(parentRegion, childRegion);
+            boolean isContained = isRegionInsideRegion(parentRegion, childRegion, world.getName());
             
             LOGGER.info("Region containment check: " + childRegionId + " inside " + parentRegionId + " = " + isContained);
             return isContained;
@@ -781,6 +825,19 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
      */
     private World findWorldByRegion(String regionId) {
         try {
+            // Fast path: region -> world map from the geometry index
+            if (geometryIndex != null) {
+                String worldName = geometryIndex.getWorldName(regionId);
+                World indexedWorld = worldName != null ? plugin.getServer().getWorld(worldName) : null;
+                if (indexedWorld != null) {
+                    RegionManager regionManager = WorldGuard.getInstance().getPlatform().getRegionContainer()
+                        .get(BukkitAdapter.adapt(indexedWorld));
+                    if (regionManager != null && regionManager.getRegion(regionId) != null) {
+                        return indexedWorld;
+                    }
+                }
+            }
+
             for (World world : plugin.getServer().getWorlds()) {
                 RegionManager regionManager = WorldGuard.getInstance().getPlatform().getRegionContainer()
                     .get(BukkitAdapter.adapt(world));
@@ -795,6 +852,15 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
         return null;
     }
 
+    /**
+     * Let the geometry index pick up created, renamed or removed regions.
+     */
+    private void notifyRegionsChanged() {
+        if (geometryIndex != null) {
+            geometryIndex.requestRebuild();
+        }
+    }
+
     /**
      * Cleanup temporary region if it's unused
      */
@@ -807,6 +873,10 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                 // TODO: Check if region is linked to any entity before removing
                 // For now, we remove all temp regions on cleanup
                 regionManager.removeRegion(regionId, RemovalStrategy.REMOVE_CHILDREN);
+                notifyRegionsChanged();
+                if (expiryIndex != null) {
+                    expiryIndex.remove(regionId);
+                }
                 LOGGER.info("Cleaned up temporary region: " + regionId);
             }
         } catch (Exception e) {
@@ -1011,6 +1081,19 @@ public class WgRegionIdTaskHandler implements IWorldTaskHandler {
                 }
             }
             
+            // Vertices alone miss edges that cut across a concave parent (e.g. a notch in a town border)
+            if (allPointsInside) {
+                RegionFootprint parentFootprint = WorldGuardFootprints.of(parentRegion, player.getWorld().getName());
+                RegionFootprint childFootprint = WorldGuardFootprints.ofSelection(
+                    childSelection, "selection", player.getWorld().getName());
+                if (parentFootprint != null && childFootprint != null
+                    && !PolygonContainment.contains(parentFootprint, childFootprint)) {
+                    allPointsInside = false;
+                    violationCount++;
+                    violations.append("selection edge crosses the parent region border");
+                }
+            }
+
             LOGGER.info("Containment check complete. All points inside: " + allPointsInside + ", Violations: " + violationCount);
             
             if (!allPointsInside) {
@@ -0,0 +1,158 @@
+package net.knightsandkings.knk.paper.user;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import net.knightsandkings.knk.api.dto.DuplicateCheckResponseDto;
+import net.knightsandkings.knk.api.dto.LinkCodeResponseDto;
+import net.knightsandkings.knk.api.dto.MergeAccountsRequestDto;
+import net.knightsandkings.knk.api.dto.UserResponseDto;
+import net.knightsandkings.knk.api.dto.ValidateLinkCodeResponseDto;
+import net.knightsandkings.knk.core.metrics.LatencyHistogram;
+import net.knightsandkings.knk.core.ports.api.UserAccountApi;
+
+/**
+ * Async pipelines for the /account link code, link and merge flows.
+ * <p>
+ * Independent API calls start together: linking validates the code while the player's account
+ * summaries (duplicate check) are fetched, instead of one after the other. Every API step has
+ * its own timeout, nothing blocks the calling thread, and each flow records its end-to-end
+ * latency (excluding time spent waiting for the player's chat input) in a histogram.
+ */
+public class AccountFlows {
+    private static final Logger LOGGER = Logger.getLogger(AccountFlows.class.getName());
+    public static final long DEFAULT_STEP_TIMEOUT_MILLIS = 10_000L;
+
+    public enum Flow {
+        GENERATE_CODE,
+        LINK,
+        MERGE
+    }
+
+    private final UserAccountApi userAccountApi;
+    private final long stepTimeoutMillis;
+    private final Map<Flow, LatencyHistogram> latency = new EnumMap<>(Flow.class);
+
+    public AccountFlows(UserAccountApi userAccountApi) {
+        this(userAccountApi, DEFAULT_STEP_TIMEOUT_MILLIS);
+    }
+
+    public AccountFlows(UserAccountApi userAccountApi, long stepTimeoutMillis) {
+        this.userAccountApi = userAccountApi;
+        this.stepTimeoutMillis = stepTimeoutMillis;
+        for (Flow flow : Flow.values()) {
+            latency.put(flow, new LatencyHistogram());
+        }
+    }
+
+    public CompletableFuture<LinkCodeResponseDto> generateLinkCode(Integer userId) {
+        long start = System.nanoTime();
+        return timed(Flow.GENERATE_CODE, start,
+            step(() -> userAccountApi.generateLinkCode(userId)).thenApply(LinkCodeResponseDto.class::cast));
+    }
+
+    /**
+     * Validate {@code code} and fetch the player's account summaries in parallel.
+     * <p>
+     * Fails only if validation fails; a failed or timed out duplicate check yields a result
+     * without summaries.
+     */
+    public CompletableFuture<LinkResult> link(UUID uuid, String username, String code) {
+        long start = System.nanoTime();
+        CompletableFuture<ValidateLinkCodeResponseDto> validation = step(() -> userAccountApi.validateLinkCode(code))
+            .thenApply(ValidateLinkCodeResponseDto.class::cast);
+        CompletableFuture<DuplicateCheckResponseDto> duplicates = step(() -> userAccountApi.checkDuplicate(uuid.toString(), username))
+            .thenApply(DuplicateCheckResponseDto.class::cast)
+            .exceptionally(ex -> {
+                LOGGER.fine("Duplicate check during link for " + username + " failed: " + ex.getMessage());
+                return null;
+            });
+        return timed(Flow.LINK, start, validation.thenCombine(duplicates, LinkResult::new));
+    }
+
+    public CompletableFuture<UserResponseDto> merge(Integer primaryId, Integer secondaryId) {
+        long start = System.nanoTime();
+        return timed(Flow.MERGE, start,
+            step(() -> userAccountApi.mergeAccounts(new MergeAccountsRequestDto(primaryId, secondaryId)))
+                .thenApply(UserResponseDto.class::cast));
+    }
+
+    public LatencyHistogram latency(Flow flow) {
+        return latency.get(flow);
+    }
+
+    /**
+     * One line per flow that has run, for logging.
+     */
+    public List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        for (Flow flow : Flow.values()) {
+            LatencyHistogram histogram = latency.get(flow);
+            if (histogram.getCount() > 0) {
+                lines.add(flow + ": " + histogram);
+            }
+        }
+        return lines;
+    }
+
+    private CompletableFuture<Object> step(Supplier<CompletableFuture<Object>> call) {
+        CompletableFuture<Object> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (future == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("API returned no result"));
+        }
+        // Copy so the timeout does not complete the client's own future
+        return future.thenApply(value -> value).orTimeout(stepTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> CompletableFuture<T> timed(Flow flow, long start, CompletableFuture<T> pipeline) {
+        return pipeline.whenComplete((value, ex) -> latency.get(flow).recordSince(start));
+    }
+
+    /**
+     * Outcome of {@link #link}: the code validation and, if available, the player's accounts.
+     */
+    public record LinkResult(ValidateLinkCodeResponseDto validation, DuplicateCheckResponseDto duplicates) {
+        public boolean isValid() {
+            return validation != null && Boolean.TRUE.equals(validation.isValid());
+        }
+
+        /**
+         * True if the player has two accounts whose data must be merged by choice.
+         */
+        public boolean mergeRequired() {
+            return duplicates != null
+                && Boolean.TRUE.equals(duplicates.hasDuplicate())
+                && duplicates.primaryUser() != null
+                && duplicates.conflictingUser() != null;
+        }
+
+        /**
+         * Fresh summary of the account with {@code userId}, if the duplicate check returned it.
+         * Either side of the check may be the player's own account.
+         */
+        public UserResponseDto linkedAccount(Integer userId) {
+            if (duplicates == null || userId == null) {
+                return null;
+            }
+            if (duplicates.primaryUser() != null && userId.equals(duplicates.primaryUser().id())) {
+                return duplicates.primaryUser();
+            }
+            if (duplicates.conflictingUser() != null && userId.equals(duplicates.conflictingUser().id())) {
+                return duplicates.conflictingUser();
+            }
+            return null;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package net.knightsandkings.knk.paper.user;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.bukkit.entity.Player;
@@ -28,13 +31,15 @@ import net.knightsandkings.knk.paper.config.KnkConfig;
  * Thread Safety:
  * - Uses ConcurrentHashMap for thread-safe cache operations
  * - API calls are async (CompletableFuture) with proper exception handling
+ * - Join loads start at pre-login; the main thread only reads the cache
+ * - One load per player session: pre-login and join share the same future
  * - Cache reads are safe (PlayerUserData is immutable)
  */
 public class UserManager {
     private final KnKPlugin plugin;
     private final UserAccountApi userAccountApi;
     private final UsersQueryApi usersQueryApi;
-    private final UserCache legacyUserCache;  // Legacy cache for PlayerListener compatibility
+    private final UserCache sharedUserCache;  // Session store shared with UsersDataAccess/PlayerListener
     private final Logger logger;
     private final KnkConfig.AccountConfig accountConfig;
     private final KnkConfig.MessagesConfig messagesConfig;
@@ -42,11 +47,17 @@ public class UserManager {
     // Thread-safe cache of player data indexed by UUID
     private final ConcurrentHashMap<UUID, PlayerUserData> userCache = new ConcurrentHashMap<>();
     
+    // Load of each player's session, kept after it completes so later callers share it
+    private final ConcurrentHashMap<UUID, CompletableFuture<PlayerUserData>> loads = new ConcurrentHashMap<>();
+    
+    // Players past pre-login who have not joined yet -> token of their expiry check
+    private final ConcurrentHashMap<UUID, Object> awaitingJoin = new ConcurrentHashMap<>();
+    
     public UserManager(
         KnKPlugin plugin,
         UserAccountApi userAccountApi,
         UsersQueryApi usersQueryApi,
-        UserCache legacyUserCache,
+        UserCache sharedUserCache,
         Logger logger,
         KnkConfig.AccountConfig accountConfig,
         KnkConfig.MessagesConfig messagesConfig
@@ -54,74 +65,185 @@ public class UserManager {
         this.plugin = plugin;
         this.userAccountApi = userAccountApi;
         this.usersQueryApi = usersQueryApi;
-        this.legacyUserCache = legacyUserCache;
+        this.sharedUserCache = sharedUserCache;
         this.logger = logger;
         this.accountConfig = accountConfig;
         this.messagesConfig = messagesConfig;
     }
     
     /**
-     * Called on player join to sync user data from API.
-     * Returns PlayerUserData representing the player's account state.
+     * Start loading a player's account data, or return this session's load (in flight or done).
+     * Called from AsyncPlayerPreLoginEvent so the API round trips finish before the
+     * player reaches the main thread.
      * 
      * Flow:
-     * 1. Check for duplicate accounts (UUID + username)
-     * 2. If duplicate found, create conflict entry in cache
-     * 3. If no duplicate, create minimal user account
-     * 4. Cache the result for session duration
+     * 1. Duplicate check and UUID lookup run in parallel
+     * 2. If duplicate found, create conflict entry
+     * 3. Otherwise use the existing account (UUID lookup, then duplicate check's primary user)
+     * 4. Only if neither exists, fall back to username lookup and minimal account creation
+     * 5. Cache the result for session duration
+     * 
+     * The returned future never completes exceptionally; failures yield a minimal fallback entry.
+     * 
+     * @param uuid Player UUID
+     * @param username Player name
+     * @return Future completing with the cached PlayerUserData
+     */
+    public CompletableFuture<PlayerUserData> preloadUser(UUID uuid, String username) {
+        CompletableFuture<PlayerUserData> result = new CompletableFuture<>();
+        CompletableFuture<PlayerUserData> existing = loads.putIfAbsent(uuid, result);
+        if (existing != null) {
+            return existing;
+        }
+        
+        loadUser(uuid, username).whenComplete((userData, ex) -> {
+            PlayerUserData resolved = userData != null ? userData : PlayerUserData.minimal(uuid, username, null);
+            // Atomic with clearCachedUser: skip caching if the player left while the load was running
+            loads.computeIfPresent(uuid, (id, current) -> {
+                if (current == result) {
+                    userCache.put(uuid, resolved);
+                    sharedUserCache.pin(uuid);
+                    logger.info("Cached user data for " + username + " (ID: " + resolved.userId() + ")");
+                }
+                return current;
+            });
+            result.complete(resolved);
+        });
+        return result;
+    }
+    
+    /**
+     * Called on player join to sync user data from API.
+     * Blocks until the data is loaded; prefer {@link #preloadUser} off the main thread.
      * 
      * @param player The player joining the server
      * @return PlayerUserData for the player (never null)
      */
     public PlayerUserData onPlayerJoin(Player player) {
-        UUID uuid = player.getUniqueId();
-        String username = player.getName();
-        
-        try {
-            // Step 1: Check for duplicate accounts
-            logger.info("Checking for duplicate accounts for " + username + " (" + uuid + ")");
-            
-            DuplicateCheckResponseDto duplicateCheck = (DuplicateCheckResponseDto) userAccountApi
-                .checkDuplicate(uuid.toString(), username)
-                .join();
-            
-            PlayerUserData userData;
-            
-            if (duplicateCheck.hasDuplicate()) {
-                // Duplicate detected - create conflict entry
-                logger.warning("Duplicate account detected for " + username + " (UUID: " + uuid + ")");
-                userData = handleDuplicateAccount(player, duplicateCheck);
-            } else {
-                // No duplicate - create or fetch minimal user
-                logger.info("No duplicate found for " + username + ", creating/fetching user");
-                userData = createOrFetchMinimalUser(player);
+        return preloadUser(player.getUniqueId(), player.getName()).join();
+    }
+    
+    /**
+     * Get the player's data if loaded, otherwise cache and return a minimal placeholder
+     * that is replaced once the pending load completes.
+     * 
+     * @param uuid Player UUID
+     * @param username Player name
+     * @return Loaded PlayerUserData or a placeholder (never null)
+     */
+    public PlayerUserData getOrPlaceholder(UUID uuid, String username) {
+        PlayerUserData cached = userCache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
+        PlayerUserData placeholder = PlayerUserData.minimal(uuid, username, null);
+        PlayerUserData raced = userCache.putIfAbsent(uuid, placeholder);
+        return raced != null ? raced : placeholder;
+    }
+    
+    /**
+     * Whether account data for the player is still being loaded.
+     */
+    public boolean isLoading(UUID uuid) {
+        CompletableFuture<PlayerUserData> load = loads.get(uuid);
+        return load != null && !load.isDone();
+    }
+    
+    /**
+     * Drop the player's pre-login data unless they join within {@code graceTicks}.
+     * A client that disconnects between pre-login and join fires neither a login
+     * nor a quit event, so nothing else would unpin it. Safe to call off the main thread.
+     */
+    public void expireUnlessJoined(UUID uuid, long graceTicks) {
+        Object token = new Object();
+        awaitingJoin.put(uuid, token);
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (awaitingJoin.remove(uuid, token)) {
+                logger.info("Login of " + uuid + " never completed, dropping its account data");
+                clearCachedUser(uuid);
             }
-            
-            // Cache the user data
-            userCache.put(uuid, userData);
-            logger.info("Cached user data for " + username + " (ID: " + userData.userId() + ")");
-            
-            return userData;
-            
-        } catch (Exception ex) {
-            logger.severe("Failed to sync user data for " + username + " (" + uuid + "): " + ex.getMessage());
-            ex.printStackTrace();
-            
-            // Create fallback minimal entry
-            PlayerUserData fallback = PlayerUserData.minimal(uuid, username, null);
-            userCache.put(uuid, fallback);
-            return fallback;
+        }, graceTicks);
+    }
+    
+    /**
+     * Cancel the pre-login expiry once the player has joined.
+     */
+    public void markJoined(UUID uuid) {
+        awaitingJoin.remove(uuid);
+    }
+    
+    private CompletableFuture<PlayerUserData> loadUser(UUID uuid, String username) {
+        logger.info("Loading account data for " + username + " (" + uuid + ")");
+        
+        CompletableFuture<DuplicateCheckResponseDto> duplicateCheck = nonNull(
+            userAccountApi.checkDuplicate(uuid.toString(), username)
+        ).thenApply(DuplicateCheckResponseDto.class::cast);
+        
+        // A failed UUID lookup only costs us the fast path; the duplicate check decides the outcome
+        // PlayerListener's pre-login fetch usually has the account cached already
+        CompletableFuture<UserSummary> existingByUuid = sharedUserCache.getByUuid(uuid)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> nonNull(usersQueryApi.getByUuid(uuid)).thenApply(this::cacheSummary))
+            .exceptionally(ex -> {
+                logger.warning("UUID lookup failed for " + username + ": " + ex.getMessage());
+                return null;
+            });
+        
+        return duplicateCheck
+            .thenCombine(existingByUuid, (duplicate, existing) -> resolveLoaded(uuid, username, duplicate, existing))
+            .thenCompose(loaded -> loaded != null
+                ? CompletableFuture.completedFuture(loaded)
+                : createOrFetchMinimalUser(uuid, username))
+            .exceptionally(ex -> {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                logger.log(Level.WARNING, "Failed to sync user data for " + username + " (" + uuid + ")", cause);
+                
+                // Create fallback minimal entry
+                return PlayerUserData.minimal(uuid, username, null);
+            });
+    }
+    
+    /**
+     * Resolve the player's data from the fan-out results.
+     * 
+     * @return PlayerUserData, or null if no account exists yet
+     */
+    private PlayerUserData resolveLoaded(
+        UUID uuid,
+        String username,
+        DuplicateCheckResponseDto duplicateCheck,
+        UserSummary existingByUuid
+    ) {
+        if (duplicateCheck.hasDuplicate()) {
+            // Duplicate detected - create conflict entry
+            logger.warning("Duplicate account detected for " + username + " (UUID: " + uuid + ")");
+            return handleDuplicateAccount(uuid, username, duplicateCheck);
+        }
+        
+        if (existingByUuid != null) {
+            logger.info("User already exists for UUID " + uuid + ": " + existingByUuid.username());
+            //Log all user details for debugging
+            logger.info("User details: ID=" + existingByUuid.id() + 
+                       ", Username=" + existingByUuid.username() + 
+                       ", UUID=" + existingByUuid.uuid() + 
+                       ", Email=" + existingByUuid.email());
+            return mapToPlayerUserData(existingByUuid, uuid, false); // Not new - already exists
+        }
+        
+        if (duplicateCheck.primaryUser() != null) {
+            logger.info("User already exists for " + username + " (from duplicate check)");
+            return mapToPlayerUserData(duplicateCheck.primaryUser(), uuid, false);
         }
+        
+        logger.info("No duplicate found for " + username + ", creating/fetching user");
+        return null;
     }
     
     /**
      * Handle duplicate account detection.
      * Creates a PlayerUserData entry marking the conflict for UI prompting.
      */
-    private PlayerUserData handleDuplicateAccount(Player player, DuplicateCheckResponseDto duplicateCheck) {
-        UUID uuid = player.getUniqueId();
-        String username = player.getName();
-        
+    private PlayerUserData handleDuplicateAccount(UUID uuid, String username, DuplicateCheckResponseDto duplicateCheck) {
         // Get primary and conflicting user info
         UserResponseDto primaryUser = duplicateCheck.primaryUser();
         UserResponseDto conflictingUser = duplicateCheck.conflictingUser();
@@ -142,25 +264,12 @@ public class UserManager {
      * Create a minimal user account (UUID + username only) if not exists.
      * Used for players joining for the first time without email/password.
      */
-    private PlayerUserData createOrFetchMinimalUser(Player player) {
-        UUID uuid = player.getUniqueId();
-        String username = player.getName();
-        
-        try {
-            // Check if user already exists by UUID
-            UserSummary existingByUuid = usersQueryApi.getByUuid(uuid).join();
-            if (existingByUuid != null) {
-                logger.info("User already exists for UUID " + uuid + ": " + existingByUuid.username());
-                                //Log all user details for debugging
-                logger.info("User details: ID=" + existingByUuid.id() + 
-                           ", Username=" + existingByUuid.username() + 
-                           ", UUID=" + existingByUuid.uuid() + 
-                           ", Email=" + existingByUuid.email());
-                return mapToPlayerUserData(existingByUuid, uuid, false); // Not new - already exists
-            }
-
-            // Check if user exists by username (web app first flow)
-            UserSummary existingByUsername = usersQueryApi.getByUsername(username).join();
+    private CompletableFuture<PlayerUserData> createOrFetchMinimalUser(UUID uuid, String username) {
+        // Check if user exists by username (web app first flow)
+        CompletableFuture<UserSummary> byUsername = sharedUserCache.getByUsername(username)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> nonNull(usersQueryApi.getByUsername(username)).thenApply(this::cacheSummary));
+        return byUsername.thenCompose(existingByUsername -> {
             if (existingByUsername != null && existingByUsername.uuid() != null) {
                 logger.info("User already exists for username " + username + " with UUID");
                 //Log all user details for debugging
@@ -168,7 +277,7 @@ public class UserManager {
                            ", Username=" + existingByUsername.username() + 
                            ", UUID=" + existingByUsername.uuid() + 
                            ", Email=" + existingByUsername.email());
-                return mapToPlayerUserData(existingByUsername, uuid, false); // Not new - already exists
+                return CompletableFuture.completedFuture(mapToPlayerUserData(existingByUsername, uuid, false));
             }
 
             // Create minimal user via API
@@ -179,39 +288,49 @@ public class UserManager {
             
             logger.info("Creating minimal user account for " + username);
             
-            UserResponseDto response = (UserResponseDto) userAccountApi
-                .createUser(request)
-                .join();
-            
-            logger.info("User account created/fetched: ID=" + response.id() + 
-                       ", Username=" + response.username());
-            
-            // Create UserSummary for legacy cache with isNewUser = true
-            UserSummary newUserSummary = new UserSummary(
-                response.id(),
-                response.username(),
-                uuid,
-                response.email(),
-                response.coins() != null ? response.coins() : 0,
-                response.gems() != null ? response.gems() : 0,
-                response.experiencePoints() != null ? response.experiencePoints() : 0,
-                false,  // isFullAccount - new users don't have email/password yet
-                true    // isNewUser - we just created this account
-            );
-            
-            // Update legacy cache for PlayerListener compatibility
-            legacyUserCache.put(newUserSummary);
-            logger.info("Updated legacy cache for new user " + username + " with isNewUser=true");
-            
-            // Map to PlayerUserData (mark as new user since we just created it)
-            return mapToPlayerUserData(response, uuid, true); // NEW user - just created
-            
-        } catch (Exception ex) {
-            logger.severe("Failed to create minimal user for " + username + ": " + ex.getMessage());
-            throw new RuntimeException("User creation failed", ex);
+            return nonNull(userAccountApi.createUser(request)).thenApply(created -> {
+                UserResponseDto response = (UserResponseDto) created;
+                logger.info("User account created/fetched: ID=" + response.id() + 
+                           ", Username=" + response.username());
+                
+                // Create UserSummary for shared cache with isNewUser = true
+                UserSummary newUserSummary = new UserSummary(
+                    response.id(),
+                    response.username(),
+                    uuid,
+                    response.email(),
+                    response.coins() != null ? response.coins() : 0,
+                    response.gems() != null ? response.gems() : 0,
+                    response.experiencePoints() != null ? response.experiencePoints() : 0,
+                    false,  // isFullAccount - new users don't have email/password yet
+                    true    // isNewUser - we just created this account
+                );
+                
+                // Update shared cache so PlayerListener sees the new account
+                sharedUserCache.put(newUserSummary);
+                logger.info("Updated shared cache for new user " + username + " with isNewUser=true");
+                
+                // Map to PlayerUserData (mark as new user since we just created it)
+                return mapToPlayerUserData(response, uuid, true); // NEW user - just created
+            });
+        });
+    }
+    
+    private UserSummary cacheSummary(UserSummary summary) {
+        if (summary != null) {
+            sharedUserCache.put(summary);
         }
+        return summary;
     }
     
+    /**
+     * Treat a missing future from an API port as an empty result.
+     */
+    private static <T> CompletableFuture<T> nonNull(CompletableFuture<T> future) {
+        return future != null ? future : CompletableFuture.completedFuture(null);
+    }
+    
+
     /**
      * Map API response to PlayerUserData.
      */
@@ -267,11 +386,16 @@ public class UserManager {
     }
     
     /**
-     * Remove a player from the cache (called on quit).
+     * Remove a player from the cache (called on quit or a rejected login).
+     * A load still in flight completes but is not cached. The shared entry
+     * is unpinned and expires one TTL later.
      * 
      * @param uuid Player UUID
      */
     public void clearCachedUser(UUID uuid) {
+        awaitingJoin.remove(uuid);
+        loads.remove(uuid);
+        sharedUserCache.unpin(uuid);
         PlayerUserData removed = userCache.remove(uuid);
         if (removed != null) {
             logger.fine("Cleared cache for user " + removed.username() + " (UUID: " + uuid + ")");
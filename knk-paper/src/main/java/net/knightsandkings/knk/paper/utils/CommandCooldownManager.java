@@ -1,22 +1,35 @@
 package net.knightsandkings.knk.paper.utils;
 
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
+
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages command cooldowns to prevent spam and rate-limit expensive operations.
  * 
- * Thread-safe implementation using ConcurrentHashMap for cooldown tracking.
+ * Backed by the tick-based {@link CooldownStore}: each command key is a slot holding the tick
+ * of the player's last execution. Thread-safe.
  */
 public class CommandCooldownManager {
-    private final ConcurrentHashMap<String, Long> cooldowns;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final CooldownStore store;
     private final Logger logger;
     
     public CommandCooldownManager(Logger logger) {
-        this.cooldowns = new ConcurrentHashMap<>();
+        this(logger, new CooldownStore(ServerTickClock.INSTANCE));
+    }
+
+    public CommandCooldownManager(Logger logger, CooldownStore store) {
+        this.store = store;
         this.logger = logger;
     }
+
+    public CooldownStore store() {
+        return store;
+    }
     
     /**
      * Check if a player can execute a command, respecting cooldown.
@@ -27,17 +40,7 @@ public class CommandCooldownManager {
      * @return true if command can execute, false if still on cooldown
      */
     public boolean canExecute(UUID playerId, String commandKey, int cooldownSeconds) {
-        String key = playerId.toString() + ":" + commandKey;
-        Long lastExecution = cooldowns.get(key);
-        
-        if (lastExecution == null) {
-            return true;
-        }
-        
-        long now = System.currentTimeMillis();
-        long elapsedSeconds = (now - lastExecution) / 1000;
-        
-        return elapsedSeconds >= cooldownSeconds;
+        return remainingTicks(playerId, commandKey, cooldownSeconds) == 0L;
     }
     
     /**
@@ -49,18 +52,8 @@ public class CommandCooldownManager {
      * @return Remaining seconds, or 0 if no cooldown active
      */
     public int getRemainingCooldown(UUID playerId, String commandKey, int cooldownSeconds) {
-        String key = playerId.toString() + ":" + commandKey;
-        Long lastExecution = cooldowns.get(key);
-        
-        if (lastExecution == null) {
-            return 0;
-        }
-        
-        long now = System.currentTimeMillis();
-        long elapsedSeconds = (now - lastExecution) / 1000;
-        int remaining = (int) (cooldownSeconds - elapsedSeconds);
-        
-        return Math.max(0, remaining);
+        long remaining = remainingTicks(playerId, commandKey, cooldownSeconds);
+        return (int) ((remaining + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND);
     }
     
     /**
@@ -70,10 +63,11 @@ public class CommandCooldownManager {
      * @param commandKey The command identifier
      */
     public void recordExecution(UUID playerId, String commandKey) {
-        String key = playerId.toString() + ":" + commandKey;
-        long now = System.currentTimeMillis();
-        cooldowns.put(key, now);
-        logger.fine("Recorded cooldown for " + playerId + " on " + commandKey + " at " + now);
+        long now = store.currentTick();
+        store.set(playerId, store.slot(commandKey), now);
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Recorded cooldown for " + playerId + " on " + commandKey + " at tick " + now);
+        }
     }
     
     /**
@@ -82,8 +76,7 @@ public class CommandCooldownManager {
      * @param playerId The player UUID
      */
     public void clearPlayerCooldowns(UUID playerId) {
-        String prefix = playerId.toString() + ":";
-        cooldowns.keySet().removeIf(key -> key.startsWith(prefix));
+        store.clearPlayer(playerId);
         logger.fine("Cleared all cooldowns for player " + playerId);
     }
     
@@ -94,8 +87,7 @@ public class CommandCooldownManager {
      * @param commandKey The command identifier
      */
     public void resetCooldown(UUID playerId, String commandKey) {
-        String key = playerId.toString() + ":" + commandKey;
-        cooldowns.remove(key);
+        store.clear(playerId, store.slot(commandKey));
         logger.fine("Reset cooldown for " + playerId + " on " + commandKey);
     }
     
@@ -106,18 +98,20 @@ public class CommandCooldownManager {
      * @param maxAgeSeconds Remove cooldowns older than this (e.g., 3600 = 1 hour)
      */
     public void cleanup(int maxAgeSeconds) {
-        long now = System.currentTimeMillis();
-        long maxAgeMillis = maxAgeSeconds * 1000L;
-        final int[] removedCount = {0}; // Use array to make it effectively final
+        long cutoff = store.currentTick() - (long) maxAgeSeconds * TICKS_PER_SECOND;
+        int removedCount = store.sweep(cutoff);
         
-        cooldowns.entrySet().removeIf(entry -> {
-            boolean expired = (now - entry.getValue()) > maxAgeMillis;
-            if (expired) removedCount[0]++;
-            return expired;
-        });
-        
-        if (removedCount[0] > 0) {
-            logger.info("Cleaned up " + removedCount[0] + " expired cooldowns");
+        if (removedCount > 0) {
+            logger.info("Cleaned up expired cooldowns for " + removedCount + " players");
+        }
+    }
+
+    private long remainingTicks(UUID playerId, String commandKey, int cooldownSeconds) {
+        long lastExecution = store.get(playerId, store.slot(commandKey));
+        if (lastExecution == 0L) {
+            return 0L;
         }
+        long elapsed = store.currentTick() - lastExecution;
+        return Math.max(0L, (long) cooldownSeconds * TICKS_PER_SECOND - elapsed);
     }
 }
@@ -1,9 +1,5 @@
 package net.knightsandkings.knk.paper.utils;
 
-import java.util.List;
-
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Criteria;
 import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
@@ -14,26 +10,22 @@ import org.bukkit.scoreboard.Team;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+/**
+ * Team and objective layout shared by every player scoreboard. Boards themselves are managed by
+ * {@link net.knightsandkings.knk.paper.scoreboard.ScoreboardService}.
+ */
 public class ScoreboardUtil {
-    private static Scoreboard scoreboard;
+    public static final String DEFAULT_TEAM = "default";
+    public static final String OWNER_TEAM = "owner";
 
     public ScoreboardUtil() {}
 
-    public static Scoreboard getScoreboard() {
-        if (scoreboard == null) {
-            scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
-            scoreboard = setTeams(scoreboard);
-        }
-
-        return scoreboard;
-    }
-
     public static Scoreboard setTeams(Scoreboard scoreboard) {
-        Team def = scoreboard.registerNewTeam("default");
+        Team def = scoreboard.registerNewTeam(DEFAULT_TEAM);
         def.prefix(Component.text("§7"));
         def.color(NamedTextColor.GRAY);
 
-        Team owner = scoreboard.registerNewTeam("owner");
+        Team owner = scoreboard.registerNewTeam(OWNER_TEAM);
         owner.prefix(Component.text("§5"));
         owner.color(NamedTextColor.DARK_PURPLE);
 
@@ -42,23 +34,4 @@ public class ScoreboardUtil {
 
         return scoreboard;
     }
-
-    public static void setScoreboard(List<Player> players) {
-        Scoreboard scoreboard = getScoreboard();
-
-        for (Player p : players) {
-            Team team = scoreboard.getTeam("default");
-            if (p.hasPermission("k&k.*")) {
-                team = scoreboard.getTeam("owner");
-            }
-
-            team.addPlayer(p);
-            p.setScoreboard(scoreboard);
-            
-            // Set tab layout header/footer
-            Component header = Component.text("§7Welcome to §9Knights and Kings");
-            Component footer = Component.text("§cOpen Beta\n§cFollow us on instagram @knightsandkings.official");
-            p.sendPlayerListHeaderAndFooter(header, footer);
-        }
-    }
-}
\ No newline at end of file
+}
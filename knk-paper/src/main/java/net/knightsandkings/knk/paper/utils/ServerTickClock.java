@@ -0,0 +1,29 @@
+package net.knightsandkings.knk.paper.utils;
+
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
+import org.bukkit.Bukkit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Server tick counter as a clock for {@link CooldownStore}.
+ * <p>
+ * Offset by one because Bukkit's counter starts at 0, which the store reserves for "unset".
+ * Falls back to wall-clock ticks when no server is running (unit tests).
+ */
+public final class ServerTickClock implements LongSupplier {
+    public static final ServerTickClock INSTANCE = new ServerTickClock();
+
+    private final LongSupplier fallback = CooldownStore.wallClockTicks();
+
+    private ServerTickClock() {
+    }
+
+    @Override
+    public long getAsLong() {
+        if (Bukkit.getServer() == null) {
+            return fallback.getAsLong();
+        }
+        return Bukkit.getCurrentTick() + 1L;
+    }
+}
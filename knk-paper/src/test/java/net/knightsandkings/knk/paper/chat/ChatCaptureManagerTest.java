@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Tag;
 import org.mockito.ArgumentCaptor;
 
 import net.knightsandkings.knk.paper.config.KnkConfig;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -58,7 +59,7 @@ class ChatCaptureManagerTest {
         when(accountConfig.chatCaptureTimeoutSeconds()).thenReturn(120);
         when(mockConfig.account()).thenReturn(accountConfig);
         
-        manager = new ChatCaptureManager(mockPlugin, mockConfig, mockLogger);
+        manager = new ChatCaptureManager(mockPlugin, mockConfig, mockLogger, new PlayerSessionRegistry(mockPlugin));
     }
 
     @Nested
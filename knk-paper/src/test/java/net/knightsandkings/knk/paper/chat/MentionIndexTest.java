@@ -0,0 +1,111 @@
+package net.knightsandkings.knk.paper.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class MentionIndexTest {
+
+    @Test
+    void findsNamesCaseInsensitivelyInOrder() {
+        MentionIndex index = new MentionIndex();
+        UUID steve = UUID.randomUUID();
+        UUID alex = UUID.randomUUID();
+        index.add(steve, "Steve");
+        index.add(alex, "Alex_99");
+        index.publish();
+
+        Set<UUID> found = index.find("hey ALEX_99, have you seen steve?");
+
+        assertEquals(List.of(alex, steve), List.copyOf(found));
+    }
+
+    @Test
+    void matchesOverlappingAndNestedNames() {
+        MentionIndex index = new MentionIndex();
+        UUID bob = UUID.randomUUID();
+        UUID bobby = UUID.randomUUID();
+        UUID obb = UUID.randomUUID();
+        index.add(bob, "bob");
+        index.add(bobby, "bobby");
+        index.add(obb, "obby");
+        index.publish();
+
+        assertEquals(Set.of(bob, bobby, obb), index.find("bobby"));
+        assertEquals(Set.of(bob), index.find("bobob"));
+    }
+
+    @Test
+    void nonNameCharactersBreakMatches() {
+        MentionIndex index = new MentionIndex();
+        UUID steve = UUID.randomUUID();
+        index.add(steve, "Steve");
+        index.publish();
+
+        assertTrue(index.find("ste ve").isEmpty());
+        assertEquals(Set.of(steve), index.find("@steve!"));
+    }
+
+    @Test
+    void namesOutsideTheAlphabetFallBackToContains() {
+        MentionIndex index = new MentionIndex();
+        UUID bedrock = UUID.randomUUID();
+        UUID steve = UUID.randomUUID();
+        index.add(bedrock, ".Bedrock Kid");
+        index.add(steve, "Steve");
+        index.publish();
+
+        assertEquals(List.of(steve, bedrock), List.copyOf(index.find("steve, meet .bedrock kid")));
+        assertEquals(List.of(bedrock, steve), List.copyOf(index.find("hi .BEDROCK KID and steve")));
+        assertTrue(index.find("bedrock kid").isEmpty());
+
+        index.remove(bedrock);
+        index.publish();
+        assertTrue(index.find(".bedrock kid").isEmpty());
+    }
+
+    @Test
+    void removeAndRenameRebuild() {
+        MentionIndex index = new MentionIndex();
+        UUID steve = UUID.randomUUID();
+        index.add(steve, "Steve");
+        index.add(steve, "Herobrine");
+        index.publish();
+
+        assertTrue(index.find("steve").isEmpty());
+        assertEquals(Set.of(steve), index.find("herobrine"));
+
+        index.remove(steve);
+        index.publish();
+        assertTrue(index.find("herobrine").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void changesApplyWhenPublished() {
+        MentionIndex index = new MentionIndex();
+        UUID steve = UUID.randomUUID();
+        UUID alex = UUID.randomUUID();
+        index.add(steve, "Steve");
+        index.add(alex, "Alex");
+
+        assertTrue(index.find("steve and alex").isEmpty());
+        assertTrue(index.publish());
+        assertEquals(List.of(steve, alex), List.copyOf(index.find("steve and alex")));
+
+        // Nothing changed, nothing to rebuild
+        index.add(steve, "STEVE");
+        assertFalse(index.publish());
+
+        index.remove(alex);
+        assertEquals(Set.of(steve, alex), index.find("steve and alex"));
+        assertTrue(index.publish());
+        assertEquals(Set.of(steve), index.find("steve and alex"));
+    }
+}
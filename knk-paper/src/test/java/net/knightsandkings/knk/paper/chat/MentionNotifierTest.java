@@ -0,0 +1,114 @@
+package net.knightsandkings.knk.paper.chat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+
+class MentionNotifierTest {
+
+    private final PlayerSlots slots = new PlayerSlots();
+
+    @Test
+    void batchesPingsIntoOneMainThreadTask() {
+        AtomicInteger scheduled = new AtomicInteger();
+        MentionIndex index = new MentionIndex();
+        index.add(online(), "Steve");
+        index.add(online(), "Alex");
+        index.publish();
+        MentionNotifier notifier = new MentionNotifier(testPlugin(scheduled), index, slots, 5_000L, () -> 0L);
+
+        assertEquals(1, notifier.onMessage("hi steve"));
+        assertEquals(1, notifier.onMessage("hi alex"));
+
+        assertEquals(2, notifier.queued());
+        assertEquals(1, scheduled.get());
+    }
+
+    @Test
+    void cooldownSuppressesRepeatedPings() {
+        AtomicLong now = new AtomicLong();
+        MentionIndex index = new MentionIndex();
+        index.add(online(), "Steve");
+        index.publish();
+        MentionNotifier notifier = new MentionNotifier(testPlugin(new AtomicInteger()), index, slots, 5_000L, now::get);
+
+        assertEquals(1, notifier.onMessage("steve"));
+        now.set(4_999L);
+        assertEquals(0, notifier.onMessage("steve"));
+        now.set(5_000L);
+        assertEquals(1, notifier.onMessage("steve"));
+    }
+
+    @Test
+    void cooldownIsDroppedWithTheSlot() {
+        MentionIndex index = new MentionIndex();
+        UUID steve = online();
+        index.add(steve, "Steve");
+        index.publish();
+        MentionNotifier notifier = new MentionNotifier(testPlugin(new AtomicInteger()), index, slots, 5_000L, () -> 0L);
+        assertEquals(1, notifier.onMessage("steve"));
+
+        // Quit and rejoin, reusing the same slot
+        slots.release(steve);
+        slots.acquire(steve);
+
+        assertEquals(1, notifier.onMessage("steve"));
+    }
+
+    @Test
+    void joinsAndQuitsInOneTickRebuildTheIndexOnce() {
+        AtomicInteger scheduled = new AtomicInteger();
+        MentionIndex index = new MentionIndex();
+        MentionNotifier notifier = new MentionNotifier(testPlugin(scheduled), index, slots, 5_000L, () -> 0L);
+        UUID steve = online();
+        UUID alex = online();
+        UUID herobrine = online();
+
+        notifier.join(steve, "Steve");
+        notifier.join(alex, "Alex");
+        notifier.join(herobrine, "Herobrine");
+        notifier.quit(herobrine);
+        assertEquals(1, scheduled.get());
+
+        notifier.publishNames();
+
+        assertEquals(2, notifier.onMessage("steve, alex, herobrine"));
+    }
+
+    private UUID online() {
+        UUID playerId = UUID.randomUUID();
+        slots.acquire(playerId);
+        return playerId;
+    }
+
+    private static Plugin testPlugin(AtomicInteger scheduled) {
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if ("runTask".equals(method.getName())) {
+                scheduled.incrementAndGet();
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> "getScheduler".equals(method.getName()) ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> "getServer".equals(method.getName()) ? server : null);
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> handler.apply(method, args)
+        ));
+    }
+}
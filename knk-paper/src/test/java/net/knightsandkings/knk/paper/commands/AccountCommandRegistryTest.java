@@ -5,6 +5,7 @@ import net.knightsandkings.knk.paper.KnKPlugin;
 import net.knightsandkings.knk.paper.chat.ChatCaptureManager;
 import net.knightsandkings.knk.paper.config.KnkConfig;
 import net.knightsandkings.knk.paper.config.KnkConfig.EntityCacheSettings;
+import net.knightsandkings.knk.paper.user.AccountFlows;
 import net.knightsandkings.knk.paper.user.PlayerUserData;
 import net.knightsandkings.knk.paper.user.UserManager;
 import net.knightsandkings.knk.paper.utils.CommandCooldownManager;
@@ -47,7 +48,7 @@ class AccountCommandRegistryTest {
             plugin,
             userManager,
             chatCaptureManager,
-            userAccountApi,
+            new AccountFlows(userAccountApi),
             config,
             cooldownManager
         );
@@ -84,7 +85,7 @@ class AccountCommandRegistryTest {
             plugin,
             userManager,
             chatCaptureManager,
-            userAccountApi,
+            new AccountFlows(userAccountApi),
             config,
             cooldownManager
         );
@@ -103,7 +104,7 @@ class AccountCommandRegistryTest {
             plugin,
             userManager,
             chatCaptureManager,
-            userAccountApi,
+            new AccountFlows(userAccountApi),
             config,
             cooldownManager
         );
@@ -132,6 +133,14 @@ class AccountCommandRegistryTest {
             "&aAccount merge complete. Your account now has {coins} coins, {gems} gems, and {exp} XP."
         );
 
-        return new KnkConfig(api, cache, account, messages);
+        return new KnkConfig(
+            api,
+            cache,
+            account,
+            messages,
+            KnkConfig.LoginAdmissionSettings.defaults(),
+            KnkConfig.JoinWarmupSettings.defaults(),
+            KnkConfig.RegionHttpSettings.defaults()
+        );
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package net.knightsandkings.knk.paper.commands.enchantment;
 
+import net.knightsandkings.knk.core.metrics.EnchantmentStats;
 import net.knightsandkings.knk.core.ports.enchantment.CooldownManager;
 import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
 import net.knightsandkings.knk.paper.config.EnchantmentConfigManager;
@@ -28,6 +29,7 @@ class EnchantmentCommandHandlerTest {
         assertTrue(completions.contains("info"));
         assertTrue(completions.contains("cooldown"));
         assertTrue(completions.contains("reload"));
+        assertTrue(completions.contains("stats"));
     }
 
     @Test
@@ -51,7 +53,9 @@ class EnchantmentCommandHandlerTest {
             plugin,
             configManager,
             new NoOpEnchantmentRepository(),
-            new NoOpCooldownManager()
+            new NoOpCooldownManager(),
+            null,
+            new EnchantmentStats()
         );
     }
 
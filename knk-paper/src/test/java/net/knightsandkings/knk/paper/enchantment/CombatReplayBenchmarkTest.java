@@ -0,0 +1,37 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput, allocation and per-tick cost of the melee pipeline (listener, executor, effects)
+ * for a large synthetic fight. Run with {@code ./gradlew :knk-paper:benchmark}; excluded from
+ * the regular test run.
+ */
+@Tag("benchmark")
+class CombatReplayBenchmarkTest {
+    private static final long SEED = 20_240_601L;
+    private static final int ATTACKERS = 200;
+    private static final int TARGETS = 400;
+    private static final int TICKS = 2_000;
+    private static final int HITS_PER_TICK = 50;
+
+    @Test
+    void replayLargeFight() {
+        CombatTrace trace = CombatTrace.synthetic(SEED, ATTACKERS, TARGETS, TICKS, HITS_PER_TICK);
+
+        // Warm-up on a separate world so the measured replay starts from a clean state
+        new CombatReplayHarness(SEED, ATTACKERS, TARGETS).replay(trace);
+        CombatReplayHarness.Report report = new CombatReplayHarness(SEED, ATTACKERS, TARGETS).replay(trace);
+
+        System.out.println("Combat replay (" + ATTACKERS + " attackers, " + TARGETS + " targets, "
+                + TICKS + " ticks): " + report.summary());
+
+        assertEquals(TICKS * HITS_PER_TICK, report.hits());
+        assertTrue(report.triggered() > 0);
+        assertTrue(report.violations().isEmpty(), "Bukkit state touched off the main thread: " + report.violations());
+    }
+}
@@ -0,0 +1,359 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
+import net.knightsandkings.knk.core.domain.enchantment.EnchantmentDataCodec;
+import net.knightsandkings.knk.core.metrics.LatencyHistogram;
+import net.knightsandkings.knk.core.ports.enchantment.EnchantmentRepository;
+import net.knightsandkings.knk.paper.enchantment.effects.AttackEnchantmentEffect;
+import net.knightsandkings.knk.paper.listeners.EnchantmentCombatListener;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.plugin.Plugin;
+import org.mockito.Answers;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.DoubleSupplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Replays a {@link CombatTrace} through {@link EnchantmentCombatListener} and {@link ExecutorImpl}
+ * without a server.
+ * <p>
+ * Entities, inventories, items and the damage event are stubs whose state lives in the harness;
+ * every call on them is checked against the replay ("main") thread and off-thread calls are
+ * reported as violations. The built-in effects need server registries (potion types), so the
+ * six attack enchantments are stand-ins that read the target's location and update its state.
+ * Trigger rolls come from one seeded generator and cooldowns follow the replayed tick, so a
+ * replay with the same seed and trace always ends in the same state ({@link Report#checksum()}).
+ */
+final class CombatReplayHarness {
+    static final String[] ATTACK_IDS = {"poison", "wither", "freeze", "blindness", "confusion", "strength"};
+
+    private final Thread mainThread = Thread.currentThread();
+    private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+    private final SplittableRandom rolls;
+    private final List<ReplayEffect> effects = new ArrayList<>();
+    private final long[] tick = {1L};
+    private final EnchantmentCombatListener listener;
+    private final ExecutorImpl executor;
+    private final Player[] attackers;
+    private final StubEntity[] targetStates;
+    private final LivingEntity[] targets;
+    private final EntityDamageByEntityEvent event;
+    private Player currentAttacker;
+    private LivingEntity currentTarget;
+
+    record Report(
+            int hits,
+            int triggered,
+            long elapsedNanos,
+            long allocatedBytes,
+            LatencyHistogram tickTimes,
+            long checksum,
+            List<String> violations
+    ) {
+        double hitsPerSecond() {
+            return elapsedNanos == 0L ? 0.0d : hits * 1_000_000_000.0d / elapsedNanos;
+        }
+
+        String summary() {
+            String allocation = allocatedBytes < 0L
+                    ? "allocation n/a"
+                    : String.format("%.0f B/hit, %.1f MB/s allocated",
+                            allocatedBytes / (double) Math.max(1, hits),
+                            allocatedBytes / 1_048_576.0d / Math.max(1.0e-9, elapsedNanos / 1_000_000_000.0d));
+            return String.format("%d hits, %d effects triggered, %.0f hits/s, %s, tick time %s",
+                    hits, triggered, hitsPerSecond(), allocation, tickTimes);
+        }
+    }
+
+    CombatReplayHarness(long seed, int attackerCount, int targetCount) {
+        this.rolls = new SplittableRandom(seed);
+        SplittableRandom loadouts = new SplittableRandom(seed ^ 0x5DEECE66DL);
+
+        Map<String, AttackEnchantmentEffect> attackEffects = new LinkedHashMap<>();
+        Plugin plugin = guarded(Plugin.class, (method, args) -> null);
+        for (String id : ATTACK_IDS) {
+            ReplayEffect effect = new ReplayEffect(id, plugin, rolls::nextDouble);
+            effects.add(effect);
+            attackEffects.put(id, effect);
+        }
+        CooldownStore cooldowns = new CooldownStore(() -> tick[0]);
+        this.executor = new ExecutorImpl(new InMemoryCooldownManager(cooldowns), attackEffects, Map.of());
+        this.listener = new EnchantmentCombatListener(new EmptyLoreRepository(), executor, false);
+
+        this.attackers = new Player[attackerCount];
+        for (int i = 0; i < attackerCount; i++) {
+            attackers[i] = attacker(new StubEntity(i, 0), weapon(loadout(loadouts)));
+        }
+        this.targetStates = new StubEntity[targetCount];
+        this.targets = new LivingEntity[targetCount];
+        for (int i = 0; i < targetCount; i++) {
+            targetStates[i] = new StubEntity(i, 8);
+            targets[i] = livingEntity(LivingEntity.class, targetStates[i], null);
+        }
+        this.event = mock(EntityDamageByEntityEvent.class, invocation -> answerEvent(invocation));
+    }
+
+    LivingEntity target(int index) {
+        return targets[index];
+    }
+
+    Report replay(CombatTrace trace) {
+        if (trace.attackers() > attackers.length || trace.targets() > targets.length) {
+            throw new IllegalArgumentException("Trace needs " + trace.attackers() + " attackers and "
+                    + trace.targets() + " targets");
+        }
+
+        LatencyHistogram tickTimes = new LatencyHistogram();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        List<CombatTrace.Hit> hits = trace.hits();
+        int i = 0;
+        while (i < hits.size()) {
+            int hitTick = hits.get(i).tick();
+            tick[0] = hitTick + 1L;
+            long tickStart = System.nanoTime();
+            for (; i < hits.size() && hits.get(i).tick() == hitTick; i++) {
+                currentAttacker = attackers[hits.get(i).attacker()];
+                currentTarget = targets[hits.get(i).target()];
+                listener.onEntityDamage(event);
+            }
+            tickTimes.recordSince(tickStart);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0L || allocatedAfter < 0L ? -1L : allocatedAfter - allocatedBefore;
+
+        int triggered = 0;
+        for (ReplayEffect effect : effects) {
+            triggered += effect.applied;
+        }
+        return new Report(hits.size(), triggered, elapsed, allocated, tickTimes, checksum(), List.copyOf(violations));
+    }
+
+    private long checksum() {
+        long checksum = 17L;
+        for (StubEntity target : targetStates) {
+            checksum = checksum * 31L + target.fireTicks;
+            checksum = checksum * 31L + target.effectsTaken;
+        }
+        for (ReplayEffect effect : effects) {
+            checksum = checksum * 31L + effect.applied;
+        }
+        return checksum;
+    }
+
+    private static Map<String, Integer> loadout(SplittableRandom random) {
+        Map<String, Integer> enchantments = new LinkedHashMap<>();
+        int count = 1 + random.nextInt(4);
+        while (enchantments.size() < count) {
+            enchantments.put(ATTACK_IDS[random.nextInt(ATTACK_IDS.length)], 1 + random.nextInt(3));
+        }
+        return enchantments;
+    }
+
+    private Object answerEvent(InvocationOnMock invocation) throws Throwable {
+        checkThread(invocation.getMethod());
+        return switch (invocation.getMethod().getName()) {
+            case "getDamager" -> currentAttacker;
+            case "getEntity" -> currentTarget;
+            case "getDamage", "getFinalDamage" -> 5.0d;
+            default -> Answers.RETURNS_DEFAULTS.answer(invocation);
+        };
+    }
+
+    private ItemStack weapon(Map<String, Integer> enchantments) {
+        byte[] data = EnchantmentDataCodec.encode(enchantments);
+        PersistentDataContainer container = guarded(PersistentDataContainer.class, (method, args) ->
+                "get".equals(method.getName()) && ItemEnchantmentStore.ENCHANTMENTS_KEY.equals(args[0]) ? data : null);
+        ItemMeta meta = guarded(ItemMeta.class, (method, args) -> switch (method.getName()) {
+            case "getPersistentDataContainer" -> container;
+            case "hasLore" -> false;
+            default -> null;
+        });
+        return mock(ItemStack.class, invocation -> {
+            checkThread(invocation.getMethod());
+            return switch (invocation.getMethod().getName()) {
+                case "getType" -> Material.DIAMOND_SWORD;
+                case "hasItemMeta" -> true;
+                case "getItemMeta" -> meta;
+                default -> Answers.RETURNS_DEFAULTS.answer(invocation);
+            };
+        });
+    }
+
+    private Player attacker(StubEntity state, ItemStack weapon) {
+        PlayerInventory inventory = guarded(PlayerInventory.class, (method, args) ->
+                "getItemInMainHand".equals(method.getName()) ? weapon : null);
+        return livingEntity(Player.class, state, inventory);
+    }
+
+    private <T extends LivingEntity> T livingEntity(Class<T> type, StubEntity state, PlayerInventory inventory) {
+        return guarded(type, (method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> state.id;
+            case "getInventory" -> inventory;
+            case "getGameMode" -> GameMode.SURVIVAL;
+            case "getLocation" -> new Location(null, state.x, 64.0d, state.z);
+            case "getFireTicks" -> state.fireTicks;
+            case "setFireTicks" -> {
+                state.fireTicks = (Integer) args[0];
+                state.effectsTaken++;
+                yield null;
+            }
+            case "isValid" -> true;
+            default -> null;
+        });
+    }
+
+    private <T> T guarded(Class<T> type, StubHandler handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                        };
+                    }
+                    checkThread(method);
+                    Object result = handler.handle(method, args);
+                    return result != null ? result : primitiveDefault(method.getReturnType());
+                }
+        ));
+    }
+
+    private void checkThread(Method method) {
+        if (Thread.currentThread() != mainThread) {
+            violations.add(Thread.currentThread().getName() + " called "
+                    + method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        }
+    }
+
+    private static Object primitiveDefault(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0d;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1L;
+    }
+
+    @FunctionalInterface
+    private interface StubHandler {
+        Object handle(Method method, Object[] args);
+    }
+
+    private static final class StubEntity {
+        private final UUID id = UUID.randomUUID();
+        private final double x;
+        private final double z;
+        private int fireTicks;
+        private int effectsTaken;
+
+        private StubEntity(int index, int offset) {
+            this.x = (index % 32) * 2.0d + offset;
+            this.z = (index / 32) * 2.0d + offset;
+        }
+    }
+
+    /**
+     * Stand-in for a built-in attack effect: same trigger chance, a location read and a state
+     * write on the target.
+     */
+    private static final class ReplayEffect extends AttackEnchantmentEffect {
+        private int applied;
+
+        private ReplayEffect(String enchantmentId, Plugin plugin, DoubleSupplier rolls) {
+            super(enchantmentId, 0.15d, plugin, rolls);
+        }
+
+        @Override
+        protected void applyEffect(ItemStack weapon, Player attacker, LivingEntity target, int level) {
+            Location location = target.getLocation();
+            if (location.getY() > 0.0d) {
+                target.setFireTicks(target.getFireTicks() + level * 20);
+            }
+            applied++;
+        }
+    }
+
+    private static final class EmptyLoreRepository implements EnchantmentRepository {
+        @Override
+        public CompletableFuture<Map<String, Integer>> getEnchantments(List<String> loreLines) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hasAnyEnchantment(List<String> loreLines) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hasEnchantment(List<String> loreLines, String enchantmentId) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        @Override
+        public CompletableFuture<List<String>> applyEnchantment(List<String> loreLines, String enchantmentId, Integer level) {
+            return CompletableFuture.completedFuture(loreLines);
+        }
+
+        @Override
+        public CompletableFuture<List<String>> removeEnchantment(List<String> loreLines, String enchantmentId) {
+            return CompletableFuture.completedFuture(loreLines);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CombatReplayTest {
+
+    @Test
+    void replayWithSameSeedIsDeterministic() {
+        CombatTrace trace = CombatTrace.synthetic(42L, 20, 30, 100, 10);
+
+        CombatReplayHarness.Report first = new CombatReplayHarness(7L, 20, 30).replay(trace);
+        CombatReplayHarness.Report second = new CombatReplayHarness(7L, 20, 30).replay(trace);
+
+        assertEquals(1_000, first.hits());
+        assertTrue(first.triggered() > 0);
+        assertEquals(first.triggered(), second.triggered());
+        assertEquals(first.checksum(), second.checksum());
+        assertTrue(first.violations().isEmpty(), first.violations().toString());
+    }
+
+    @Test
+    void recordedTraceReplays() throws IOException {
+        CombatTrace trace;
+        try (InputStream in = getClass().getResourceAsStream("/combat-replay/sample-trace.txt")) {
+            assertNotNull(in);
+            trace = CombatTrace.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        CombatReplayHarness.Report report = new CombatReplayHarness(1L, trace.attackers(), trace.targets()).replay(trace);
+
+        assertEquals(trace.hits().size(), report.hits());
+        assertTrue(report.violations().isEmpty(), report.violations().toString());
+    }
+
+    @Test
+    void offThreadAccessIsReported() throws InterruptedException {
+        CombatReplayHarness harness = new CombatReplayHarness(1L, 1, 1);
+        Thread worker = new Thread(() -> harness.target(0).getLocation(), "replay-worker");
+        worker.start();
+        worker.join();
+
+        CombatReplayHarness.Report report = harness.replay(CombatTrace.synthetic(1L, 1, 1, 1, 1));
+
+        assertFalse(report.violations().isEmpty());
+        assertTrue(report.violations().get(0).contains("replay-worker"));
+    }
+
+    @Test
+    void parseRejectsUnorderedTrace() {
+        assertThrows(IllegalArgumentException.class, () -> CombatTrace.parse(new StringReader("5 0 0\n3 0 0\n")));
+    }
+}
@@ -0,0 +1,62 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sequence of melee hits to replay, ordered by server tick. Attackers and targets are indices
+ * into the replay world's entities.
+ * <p>
+ * Recorded traces are plain text, one hit per line: {@code <tick> <attacker> <target>}; blank
+ * lines and lines starting with {@code #} are ignored.
+ */
+record CombatTrace(int attackers, int targets, List<Hit> hits) {
+
+    record Hit(int tick, int attacker, int target) {}
+
+    /**
+     * Random but reproducible trace: {@code hitsPerTick} hits on each of {@code ticks} ticks.
+     */
+    static CombatTrace synthetic(long seed, int attackers, int targets, int ticks, int hitsPerTick) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Hit> hits = new ArrayList<>(ticks * hitsPerTick);
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int i = 0; i < hitsPerTick; i++) {
+                hits.add(new Hit(tick, random.nextInt(attackers), random.nextInt(targets)));
+            }
+        }
+        return new CombatTrace(attackers, targets, List.copyOf(hits));
+    }
+
+    static CombatTrace parse(Reader reader) throws IOException {
+        List<Hit> hits = new ArrayList<>();
+        int attackers = 0;
+        int targets = 0;
+        int lastTick = 0;
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected '<tick> <attacker> <target>': " + line);
+            }
+            Hit hit = new Hit(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            if (hit.tick() < lastTick) {
+                throw new IllegalArgumentException("Trace is not ordered by tick: " + line);
+            }
+            lastTick = hit.tick();
+            attackers = Math.max(attackers, hit.attacker() + 1);
+            targets = Math.max(targets, hit.target() + 1);
+            hits.add(hit);
+        }
+        return new CombatTrace(attackers, targets, List.copyOf(hits));
+    }
+}
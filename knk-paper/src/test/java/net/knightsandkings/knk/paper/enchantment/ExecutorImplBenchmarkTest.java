@@ -0,0 +1,116 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.paper.enchantment.effects.AttackEnchantmentEffect;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-hit cost of the melee pipeline for a weapon with six attack enchantments.
+ * Run with {@code ./gradlew :knk-paper:benchmark}; excluded from the regular test run.
+ */
+@Tag("benchmark")
+class ExecutorImplBenchmarkTest {
+    private static final String[] ATTACK_IDS = {"poison", "wither", "freeze", "blindness", "confusion", "strength"};
+    private static final int WARMUP_HITS = 200_000;
+    private static final int MEASURED_HITS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void meleeHitWithSixEnchantments() {
+        CountingEffect[] effects = new CountingEffect[ATTACK_IDS.length];
+        Map<String, AttackEnchantmentEffect> attackEffects = new LinkedHashMap<>();
+        Map<String, Integer> weaponEnchantments = new LinkedHashMap<>();
+        for (int i = 0; i < ATTACK_IDS.length; i++) {
+            effects[i] = new CountingEffect(ATTACK_IDS[i]);
+            attackEffects.put(ATTACK_IDS[i], effects[i]);
+            weaponEnchantments.put(ATTACK_IDS[i], 3);
+        }
+
+        ExecutorImpl executor = new ExecutorImpl(new InMemoryCooldownManager(), attackEffects, Map.of());
+        Player attacker = entity(Player.class, UUID.randomUUID());
+        LivingEntity target = entity(LivingEntity.class, UUID.randomUUID());
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_HITS; i++) {
+            sink += executor.applyMeleeHit(weaponEnchantments, attacker, target, null);
+        }
+
+        double bestNanosPerHit = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_HITS; i++) {
+                sink += executor.applyMeleeHit(weaponEnchantments, attacker, target, null);
+            }
+            bestNanosPerHit = Math.min(bestNanosPerHit, (System.nanoTime() - start) / (double) MEASURED_HITS);
+        }
+
+        System.out.printf("ExecutorImpl.applyMeleeHit, 6 enchantments: %.1f ns/hit (best of %d x %d hits)%n",
+                bestNanosPerHit, ROUNDS, MEASURED_HITS);
+
+        // Strength has a cooldown, so it triggers once; the others trigger on every roll below 45%
+        assertEquals(1L, effects[5].applied);
+        assertTrue(effects[0].applied > 0L);
+        assertTrue(sink > 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T entity(Class<T> type, UUID id) {
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> "getUniqueId".equals(method.getName()) ? id : null
+        );
+    }
+
+    private static Plugin testPlugin() {
+        return (Plugin) Proxy.newProxyInstance(
+                Plugin.class.getClassLoader(),
+                new Class[]{Plugin.class},
+                (proxy, method, args) -> null
+        );
+    }
+
+    private static final class CountingEffect extends AttackEnchantmentEffect {
+        private static final double[] ROLLS = {0.05d, 0.30d, 0.60d, 0.90d, 0.40d, 0.75d, 0.10d};
+
+        private long applied;
+
+        private CountingEffect(String enchantmentId) {
+            super(enchantmentId, 0.15d, testPlugin(), new RollSequence(ROLLS));
+        }
+
+        @Override
+        protected void applyEffect(ItemStack weapon, Player attacker, LivingEntity target, int level) {
+            applied++;
+        }
+    }
+
+    private static final class RollSequence implements DoubleSupplier {
+        private final double[] rolls;
+        private int next;
+
+        private RollSequence(double[] rolls) {
+            this.rolls = rolls;
+        }
+
+        @Override
+        public double getAsDouble() {
+            double roll = rolls[next];
+            next = (next + 1) % rolls.length;
+            return roll;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrozenPlayerTrackerTest {
+
+    private final AtomicLong serverTick = new AtomicLong(100L);
+    private final PlayerSlots slots = new PlayerSlots();
+    private final TimedEffectScheduler scheduler = new TimedEffectScheduler(null);
+    private final FrozenPlayerTracker tracker = new FrozenPlayerTracker(scheduler, slots, serverTick::get);
+
+    @Test
+    void playerFreezeExpiresOnServerTicksWithoutTimer() {
+        UUID playerId = UUID.randomUUID();
+        slots.acquire(playerId);
+
+        tracker.freeze(testPlayer(playerId), 10);
+
+        // The wheel has nothing pending, so only the server tick can end the freeze
+        assertEquals(0, scheduler.pending());
+        serverTick.addAndGet(9L);
+        assertTrue(tracker.isFrozen(playerId));
+        serverTick.incrementAndGet();
+        assertFalse(tracker.isFrozen(playerId));
+    }
+
+    @Test
+    void refreezeExtendsAndUnfreezeClears() {
+        UUID playerId = UUID.randomUUID();
+        slots.acquire(playerId);
+        Player player = testPlayer(playerId);
+
+        tracker.freeze(player, 10);
+        serverTick.addAndGet(5L);
+        tracker.freeze(player, 10);
+        serverTick.addAndGet(8L);
+        assertTrue(tracker.isFrozen(playerId));
+
+        tracker.unfreeze(playerId);
+        assertFalse(tracker.isFrozen(playerId));
+    }
+
+    private static Player testPlayer(UUID playerId) {
+        return (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(),
+                new Class[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> playerId;
+                    case "hashCode" -> playerId.hashCode();
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                }
+        );
+    }
+}
@@ -1,8 +1,10 @@
 package net.knightsandkings.knk.paper.enchantment;
 
+import net.knightsandkings.knk.core.cooldown.CooldownStore;
 import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -22,17 +24,31 @@ class InMemoryCooldownManagerTest {
     }
 
     @Test
-    void expiredCooldownReturnsZero() throws InterruptedException {
-        InMemoryCooldownManager manager = new InMemoryCooldownManager();
+    void expiredCooldownReturnsZero() {
+        AtomicLong tick = new AtomicLong(1);
+        InMemoryCooldownManager manager = new InMemoryCooldownManager(new CooldownStore(tick::get));
         UUID playerId = UUID.randomUUID();
 
-        manager.applyCooldown(playerId, "chaos", 10).join();
-        Thread.sleep(30);
+        manager.applyCooldown(playerId, "chaos", 100).join();
+        assertEquals(100L, manager.remainingCooldownMs(playerId, "chaos"));
+
+        tick.addAndGet(2);
         long remaining = manager.getRemainingCooldown(playerId, "chaos").join();
 
         assertEquals(0L, remaining);
     }
 
+    @Test
+    void durationsRoundUpToWholeTicks() {
+        AtomicLong tick = new AtomicLong(1);
+        InMemoryCooldownManager manager = new InMemoryCooldownManager(new CooldownStore(tick::get));
+        UUID playerId = UUID.randomUUID();
+
+        manager.startCooldown(playerId, "strength", 120_001);
+
+        assertEquals(120_050L, manager.remainingCooldownMs(playerId, "strength"));
+    }
+
     @Test
     void clearRemovesAllCooldownsForPlayer() {
         InMemoryCooldownManager manager = new InMemoryCooldownManager();
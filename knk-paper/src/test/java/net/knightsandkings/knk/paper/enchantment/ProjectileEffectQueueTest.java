@@ -0,0 +1,95 @@
+package net.knightsandkings.knk.paper.enchantment;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectileEffectQueueTest {
+
+    @Test
+    void runsInlineWithinBudgetAndDefersTheRest() {
+        AtomicLong tick = new AtomicLong(1L);
+        AtomicInteger scheduled = new AtomicInteger();
+        ProjectileEffectQueue queue = new ProjectileEffectQueue(testPlugin(scheduled), 2, 10, tick::get);
+        List<Integer> ran = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int hit = i;
+            queue.submit(() -> ran.add(hit));
+        }
+
+        assertEquals(List.of(0, 1), ran);
+        assertEquals(3, queue.backlog());
+        assertEquals(1, scheduled.get());
+
+        tick.incrementAndGet();
+        assertEquals(2, queue.drain());
+        tick.incrementAndGet();
+        assertEquals(1, queue.drain());
+
+        assertEquals(List.of(0, 1, 2, 3, 4), ran);
+        assertEquals(0, queue.backlog());
+    }
+
+    @Test
+    void newHitsWaitBehindTheBacklog() {
+        AtomicLong tick = new AtomicLong(1L);
+        ProjectileEffectQueue queue = new ProjectileEffectQueue(testPlugin(new AtomicInteger()), 1, 10, tick::get);
+        List<String> ran = new ArrayList<>();
+
+        queue.submit(() -> ran.add("a"));
+        queue.submit(() -> ran.add("b"));
+        tick.incrementAndGet();
+        // Budget is free again, but "b" was first
+        queue.submit(() -> ran.add("c"));
+        queue.drain();
+
+        assertEquals(List.of("a", "b"), ran);
+        assertEquals(1, queue.backlog());
+    }
+
+    @Test
+    void dropsHitsBeyondBacklogLimit() {
+        ProjectileEffectQueue queue = new ProjectileEffectQueue(testPlugin(new AtomicInteger()), 1, 1, () -> 1L);
+
+        assertTrue(queue.submit(() -> { }));
+        assertTrue(queue.submit(() -> { }));
+        assertFalse(queue.submit(() -> { }));
+        assertEquals(1L, queue.dropped());
+    }
+
+    private static Plugin testPlugin(AtomicInteger scheduled) {
+        BukkitTask task = proxy(BukkitTask.class, (method, args) -> null);
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if ("runTaskTimer".equals(method.getName())) {
+                scheduled.incrementAndGet();
+                return task;
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> "getScheduler".equals(method.getName()) ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> "getServer".equals(method.getName()) ? server : null);
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> handler.apply(method, args)
+        ));
+    }
+}
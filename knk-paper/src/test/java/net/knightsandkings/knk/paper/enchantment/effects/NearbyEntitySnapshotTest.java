@@ -0,0 +1,104 @@
+package net.knightsandkings.knk.paper.enchantment.effects;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearbyEntitySnapshotTest {
+
+    @Test
+    void splitsTargetsIntoRingsBySquaredDistance() {
+        LivingEntity close = entity(LivingEntity.class, 2.0d, 0.0d, 2.0d, new AtomicBoolean(true));
+        LivingEntity edge = entity(LivingEntity.class, 3.0d, 0.0d, 0.0d, new AtomicBoolean(true));
+        LivingEntity far = entity(LivingEntity.class, 4.0d, 0.0d, 2.0d, new AtomicBoolean(true));
+        LivingEntity corner = entity(LivingEntity.class, 4.9d, 4.9d, 4.9d, new AtomicBoolean(true));
+        Entity item = entity(Entity.class, 1.0d, 0.0d, 0.0d, new AtomicBoolean(true));
+        Player caster = caster(new AtomicInteger(), List.of(close, edge, far, corner, item));
+
+        NearbyEntitySnapshot.Rings rings = new NearbyEntitySnapshot(() -> 1L).rings(caster, 3.0d, 5.0d);
+
+        assertEquals(List.of(close, edge), rings.inner().stream().map(NearbyEntitySnapshot.Target::entity).toList());
+        assertEquals(List.of(far), rings.outer().stream().map(NearbyEntitySnapshot.Target::entity).toList());
+        assertEquals(8.0d, rings.inner().get(0).distanceSquared(), 1.0e-9);
+    }
+
+    @Test
+    void reusesScanWithinTickAndSkipsRemovedEntities() {
+        AtomicLong tick = new AtomicLong(1L);
+        AtomicInteger scans = new AtomicInteger();
+        AtomicBoolean valid = new AtomicBoolean(true);
+        LivingEntity target = entity(LivingEntity.class, 1.0d, 0.0d, 0.0d, valid);
+        Player caster = caster(scans, List.of(target));
+        NearbyEntitySnapshot snapshot = new NearbyEntitySnapshot(tick::get);
+
+        snapshot.rings(caster, 3.0d, 5.0d);
+        valid.set(false);
+        NearbyEntitySnapshot.Rings sameTick = snapshot.rings(caster, 3.0d, 5.0d);
+
+        assertEquals(1, scans.get());
+        assertTrue(sameTick.inner().isEmpty());
+
+        valid.set(true);
+        tick.incrementAndGet();
+        NearbyEntitySnapshot.Rings nextTick = snapshot.rings(caster, 3.0d, 5.0d);
+
+        assertEquals(2, scans.get());
+        assertSame(target, nextTick.inner().get(0).entity());
+    }
+
+    private static Player caster(AtomicInteger scans, List<Entity> nearby) {
+        UUID id = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(),
+                new Class[]{Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> id;
+                    case "getLocation" -> fill(args, 0.0d, 0.0d, 0.0d);
+                    case "getNearbyEntities" -> {
+                        scans.incrementAndGet();
+                        yield nearby;
+                    }
+                    default -> null;
+                }
+        );
+    }
+
+    private static <T extends Entity> T entity(Class<T> type, double x, double y, double z, AtomicBoolean valid) {
+        UUID id = UUID.randomUUID();
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUniqueId" -> id;
+                    case "getLocation" -> fill(args, x, y, z);
+                    case "isValid" -> valid.get();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                }
+        ));
+    }
+
+    private static Location fill(Object[] args, double x, double y, double z) {
+        Location location = args != null && args.length == 1 && args[0] instanceof Location given
+                ? given
+                : new Location(null, 0.0d, 0.0d, 0.0d);
+        location.setX(x);
+        location.setY(y);
+        location.setZ(z);
+        return location;
+    }
+}
@@ -0,0 +1,171 @@
+package net.knightsandkings.knk.paper.http;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.knightsandkings.knk.paper.scheduler.MainThreadWorkQueue;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionHttpServerTest {
+
+    private final AtomicReference<Runnable> drainTask = new AtomicReference<>();
+    private final ScheduledExecutorService mainThread = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger containmentChecks = new AtomicInteger();
+    private MainThreadWorkQueue queue;
+    private RegionHttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        queue = new MainThreadWorkQueue(testPlugin(), 1000, 5L);
+        queue.start();
+        // Stand-in for the server tick
+        mainThread.scheduleAtFixedRate(() -> drainTask.get().run(), 1L, 1L, TimeUnit.MILLISECONDS);
+
+        server = new RegionHttpServer(null, new TestRegionChecks(), null, queue, 0, 2, 8);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        mainThread.shutdownNow();
+    }
+
+    @Test
+    void batchAnswersEachCheckInChunksAndIsolatesFailures() throws Exception {
+        int checks = RegionHttpServer.MAIN_THREAD_CHUNK_SIZE + 10;
+        JsonArray body = new JsonArray();
+        for (int i = 0; i < checks; i++) {
+            body.add(regionCheck("parent", i == 3 ? "broken" : "child" + i));
+        }
+        body.add(new JsonObject());
+
+        HttpResponse<String> response = postBatch(body.toString());
+
+        assertEquals(200, response.statusCode());
+        JsonArray results = JsonParser.parseString(response.body()).getAsJsonArray();
+        assertEquals(checks + 1, results.size());
+        assertTrue(results.get(0).getAsJsonObject().get("result").getAsBoolean());
+        assertTrue(results.get(3).getAsJsonObject().get("error").getAsString().contains("broken region"));
+        assertTrue(results.get(checks - 1).getAsJsonObject().get("result").getAsBoolean());
+        assertTrue(results.get(checks).getAsJsonObject().has("error"));
+        assertEquals(checks, containmentChecks.get());
+        // Two main-thread operations instead of one for the whole batch
+        assertEquals(2, queue.getQueueWait().getCount());
+    }
+
+    @Test
+    void rejectsOversizedBatch() throws Exception {
+        JsonArray body = new JsonArray();
+        for (int i = 0; i <= 5000; i++) {
+            body.add(regionCheck("parent", "child"));
+        }
+
+        HttpResponse<String> response = postBatch(body.toString());
+
+        assertEquals(413, response.statusCode());
+        assertEquals(0, containmentChecks.get());
+    }
+
+    @Test
+    void rejectsNonArrayBody() throws Exception {
+        HttpResponse<String> response = postBatch("{}");
+
+        assertEquals(400, response.statusCode());
+        assertFalse(response.body().isEmpty());
+    }
+
+    @Test
+    void metricsRunOnTheWorkerPoolLikeOtherEndpoints() throws Exception {
+        HttpResponse<String> response = getMetrics();
+
+        assertEquals(200, response.statusCode());
+        // Counted by dispatch like any other endpoint
+        assertTrue(response.body().contains("metrics "));
+    }
+
+    private HttpResponse<String> getMetrics() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.boundPort() + "/metrics"))
+            .GET()
+            .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> postBatch(String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.boundPort() + "/api/regions/containment:batch"))
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonObject regionCheck(String parent, String child) {
+        JsonObject check = new JsonObject();
+        check.addProperty("parentRegionId", parent);
+        check.addProperty("childRegionId", child);
+        return check;
+    }
+
+    private final class TestRegionChecks implements RegionHttpServer.RegionChecks {
+        @Override
+        public boolean renameRegion(String oldRegionId, String newRegionId) {
+            return true;
+        }
+
+        @Override
+        public boolean containsLocation(String regionId, double x, double z, boolean allowBoundary) {
+            return true;
+        }
+
+        @Override
+        public boolean containsRegion(String parentRegionId, String childRegionId, boolean requireFullContainment) {
+            containmentChecks.incrementAndGet();
+            if ("broken".equals(childRegionId)) {
+                throw new IllegalStateException("broken region");
+            }
+            return true;
+        }
+    }
+
+    private Plugin testPlugin() {
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if ("runTaskTimer".equals(method.getName()) && args[1] instanceof Runnable runnable) {
+                drainTask.set(runnable);
+                return proxy(org.bukkit.scheduler.BukkitTask.class, (m, a) -> null);
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> "getScheduler".equals(method.getName()) ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> "getServer".equals(method.getName()) ? server : null);
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> handler.apply(method, args)
+        ));
+    }
+}
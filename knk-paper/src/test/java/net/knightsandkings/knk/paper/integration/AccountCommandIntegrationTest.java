@@ -22,10 +22,12 @@ import net.knightsandkings.knk.paper.KnKPlugin;
 import net.knightsandkings.knk.paper.chat.ChatCaptureManager;
 import net.knightsandkings.knk.paper.commands.AccountLinkCommand;
 import net.knightsandkings.knk.paper.config.KnkConfig;
+import net.knightsandkings.knk.paper.user.AccountFlows;
 import net.knightsandkings.knk.paper.user.PlayerUserData;
 import net.knightsandkings.knk.core.cache.UserCache;
 import net.knightsandkings.knk.paper.user.UserManager;
 import net.knightsandkings.knk.paper.utils.CommandCooldownManager;
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -80,9 +82,9 @@ class AccountCommandIntegrationTest {
         // Initialize components
         UserCache mockUserCache = mock(UserCache.class);
         userManager = new UserManager(mockPlugin, mockApi, mockUsersQueryApi, mockUserCache, mockLogger, mockAccountConfig, mockMessagesConfig);
-        chatCaptureManager = new ChatCaptureManager(mockPlugin, mockConfig, mockLogger);
+        chatCaptureManager = new ChatCaptureManager(mockPlugin, mockConfig, mockLogger, new PlayerSessionRegistry(mockPlugin));
         accountLinkCommand = new AccountLinkCommand(
-            mockPlugin, userManager, chatCaptureManager, mockApi, mockConfig, mockCooldownManager
+            mockPlugin, userManager, chatCaptureManager, new AccountFlows(mockApi), mockConfig, mockCooldownManager
         );
     }
 
@@ -25,13 +25,12 @@ class EnchantmentEffectsIntegrationTest {
         UUID attackerId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        coordinator.handleHit(attackerId, targetId, 5.0d);
+        coordinator.handleHit(attackerId, targetId);
 
         assertEquals(1, executor.meleeInvocations);
         assertEquals(attackerId, executor.lastAttackerId);
         assertEquals(targetId, executor.lastTargetId);
         assertEquals(Map.of("poison", 2), executor.lastMeleeEnchantments);
-        assertEquals(5.0d, executor.lastDamage);
     }
 
     @Test
@@ -92,9 +91,9 @@ class EnchantmentEffectsIntegrationTest {
             this.executor = executor;
         }
 
-        private void handleHit(UUID attackerId, UUID targetId, double damage) {
+        private void handleHit(UUID attackerId, UUID targetId) {
             Map<String, Integer> enchantments = repository.getEnchantments(List.of("§7Poison II")).join();
-            executor.executeOnMeleeHit(enchantments, attackerId, targetId, damage).join();
+            executor.applyMeleeHit(enchantments, attackerId, targetId);
         }
     }
 
@@ -136,7 +135,7 @@ class EnchantmentEffectsIntegrationTest {
                 return false;
             }
 
-            return executor.executeOnInteract(activatable, playerId).join();
+            return executor.applyInteract(activatable, playerId) > 0;
         }
     }
 
@@ -183,33 +182,36 @@ class EnchantmentEffectsIntegrationTest {
         private UUID lastAttackerId;
         private UUID lastTargetId;
         private UUID lastInteractPlayerId;
-        private double lastDamage;
 
         private RecordingEnchantmentExecutor(boolean interactResult) {
             this.interactResult = interactResult;
         }
 
         @Override
-        public CompletableFuture<Void> executeOnMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId, double damageDealt) {
+        public int applyMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId) {
             meleeInvocations++;
             lastMeleeEnchantments = enchantments;
             lastAttackerId = attackerId;
             lastTargetId = targetId;
-            lastDamage = damageDealt;
-            return CompletableFuture.completedFuture(null);
+            return 1;
         }
 
         @Override
-        public CompletableFuture<Boolean> executeOnInteract(Map<String, Integer> enchantments, UUID playerId) {
+        public int applyInteract(Map<String, Integer> enchantments, UUID playerId) {
             interactInvocations++;
             lastInteractEnchantments = enchantments;
             lastInteractPlayerId = playerId;
-            return CompletableFuture.completedFuture(interactResult);
+            return interactResult ? 1 : 0;
         }
 
         @Override
-        public CompletableFuture<Void> executeOnBowShoot(Map<String, Integer> enchantments, UUID shooterId, UUID projectileId) {
-            return CompletableFuture.completedFuture(null);
+        public Map<String, Integer> projectileEnchantments(Map<String, Integer> bowEnchantments) {
+            return Map.of();
+        }
+
+        @Override
+        public int applyProjectileHit(Map<String, Integer> enchantments, UUID shooterId, UUID targetId) {
+            return 0;
         }
     }
 }
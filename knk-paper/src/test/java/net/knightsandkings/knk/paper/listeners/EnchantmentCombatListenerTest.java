@@ -64,18 +64,23 @@ class EnchantmentCombatListenerTest {
 
         EnchantmentExecutor executor = new EnchantmentExecutor() {
             @Override
-            public CompletableFuture<Void> executeOnMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId, double damageDealt) {
-                return CompletableFuture.completedFuture(null);
+            public int applyMeleeHit(Map<String, Integer> enchantments, UUID attackerId, UUID targetId) {
+                return 0;
             }
 
             @Override
-            public CompletableFuture<Boolean> executeOnInteract(Map<String, Integer> enchantments, UUID playerId) {
-                return CompletableFuture.completedFuture(false);
+            public int applyInteract(Map<String, Integer> enchantments, UUID playerId) {
+                return 0;
+            }
+
+            @Override
+            public Map<String, Integer> projectileEnchantments(Map<String, Integer> bowEnchantments) {
+                return Map.of();
             }
 
             @Override
-            public CompletableFuture<Void> executeOnBowShoot(Map<String, Integer> enchantments, UUID shooterId, UUID projectileId) {
-                return CompletableFuture.completedFuture(null);
+            public int applyProjectileHit(Map<String, Integer> enchantments, UUID shooterId, UUID targetId) {
+                return 0;
             }
         };
 
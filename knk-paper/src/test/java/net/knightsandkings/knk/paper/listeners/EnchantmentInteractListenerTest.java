@@ -161,18 +161,23 @@ class EnchantmentInteractListenerTest {
 
     private static final class NoOpEnchantmentExecutor implements EnchantmentExecutor {
         @Override
-        public CompletableFuture<Void> executeOnMeleeHit(java.util.Map<String, Integer> enchantments, UUID attackerId, UUID targetId, double damageDealt) {
-            return CompletableFuture.completedFuture(null);
+        public int applyMeleeHit(java.util.Map<String, Integer> enchantments, UUID attackerId, UUID targetId) {
+            return 0;
         }
 
         @Override
-        public CompletableFuture<Boolean> executeOnInteract(java.util.Map<String, Integer> enchantments, UUID playerId) {
-            return CompletableFuture.completedFuture(false);
+        public int applyInteract(java.util.Map<String, Integer> enchantments, UUID playerId) {
+            return 0;
         }
 
         @Override
-        public CompletableFuture<Void> executeOnBowShoot(java.util.Map<String, Integer> enchantments, UUID shooterId, UUID projectileId) {
-            return CompletableFuture.completedFuture(null);
+        public java.util.Map<String, Integer> projectileEnchantments(java.util.Map<String, Integer> bowEnchantments) {
+            return java.util.Map.of();
+        }
+
+        @Override
+        public int applyProjectileHit(java.util.Map<String, Integer> enchantments, UUID shooterId, UUID targetId) {
+            return 0;
         }
     }
 }
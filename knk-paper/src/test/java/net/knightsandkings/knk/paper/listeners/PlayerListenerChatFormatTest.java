@@ -0,0 +1,46 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.paper.utils.ColorOptions;
+import net.kyori.adventure.text.Component;
+
+class PlayerListenerChatFormatTest {
+
+    private final Component message = Component.text("Hello there");
+
+    @Test
+    void ownerLineMatchesOriginalFormat() {
+        Component expected = Component.text("[")
+                .color(ColorOptions.ownerformat)
+                .append(Component.text("OWNER").color(ColorOptions.ownersubjects))
+                .append(Component.text("]").color(ColorOptions.ownerformat))
+                .append(Component.text(" Steve: ").color(ColorOptions.ownersubjects))
+                .append(message);
+
+        assertEquals(expected, PlayerListener.formatChat(PlayerListener.ChatGroup.OWNER, "Steve", message));
+    }
+
+    @Test
+    void defaultLineKeepsMessageInNameColour() {
+        Component expected = Component.text(" Alex: ")
+                .color(ColorOptions.defaultsubjects)
+                .append(message);
+
+        Component line = PlayerListener.formatChat(PlayerListener.ChatGroup.DEFAULT, "Alex", message);
+
+        assertEquals(expected, line);
+        assertEquals(ColorOptions.defaultsubjects, line.color());
+    }
+
+    @Test
+    void sharedOwnerTagIsNotModifiedBetweenMessages() {
+        Component first = PlayerListener.formatChat(PlayerListener.ChatGroup.OWNER, "Steve", message);
+        Component second = PlayerListener.formatChat(PlayerListener.ChatGroup.OWNER, "Alex", Component.text("Hi"));
+
+        assertEquals(4, first.children().size());
+        assertEquals(4, second.children().size());
+    }
+}
@@ -0,0 +1,69 @@
+package net.knightsandkings.knk.paper.listeners;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import net.knightsandkings.knk.core.dataaccess.FetchPolicy;
+import net.knightsandkings.knk.core.dataaccess.FetchResult;
+import net.knightsandkings.knk.core.dataaccess.TownsDataAccess;
+import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+import net.knightsandkings.knk.paper.cache.CacheManager;
+import net.knightsandkings.knk.paper.login.JoinWarmup;
+import net.knightsandkings.knk.paper.scoreboard.ScoreboardService;
+import net.knightsandkings.knk.paper.session.PlayerSlots;
+
+class PlayerListenerLoginTest {
+
+    private final UUID uuid = UUID.randomUUID();
+    private UsersDataAccess users;
+    private PlayerListener listener;
+
+    @BeforeEach
+    void setUp() {
+        users = mock(UsersDataAccess.class);
+        // The constructor looks up the plugin and online players; both are empty in a unit test
+        try (MockedStatic<JavaPlugin> plugins = mockStatic(JavaPlugin.class);
+             MockedStatic<Bukkit> bukkit = mockStatic(Bukkit.class)) {
+            listener = new PlayerListener(users, mock(TownsDataAccess.class), mock(CacheManager.class),
+                    mock(ScoreboardService.class), mock(JoinWarmup.class), mock(PlayerSlots.class));
+        }
+    }
+
+    @Test
+    void refusedLoginMakesNoDataAccessCalls() {
+        listener.onValidateLogin(preLogin(AsyncPlayerPreLoginEvent.Result.KICK_OTHER));
+
+        verifyNoInteractions(users);
+    }
+
+    @Test
+    void allowedLoginLoadsUser() {
+        when(users.getByUuidAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(FetchResult.hit(mock(UserSummary.class))));
+
+        listener.onValidateLogin(preLogin(AsyncPlayerPreLoginEvent.Result.ALLOWED));
+
+        verify(users).getByUuidAsync(eq(uuid), eq(FetchPolicy.STALE_OK));
+        verifyNoMoreInteractions(users);
+    }
+
+    private AsyncPlayerPreLoginEvent preLogin(AsyncPlayerPreLoginEvent.Result result) {
+        AsyncPlayerPreLoginEvent event = mock(AsyncPlayerPreLoginEvent.class);
+        when(event.getLoginResult()).thenReturn(result);
+        when(event.getUniqueId()).thenReturn(uuid);
+        when(event.getName()).thenReturn("Steve");
+        return event;
+    }
+}
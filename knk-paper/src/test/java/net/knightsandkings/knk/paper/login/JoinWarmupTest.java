@@ -0,0 +1,105 @@
+package net.knightsandkings.knk.paper.login;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.core.dataaccess.FetchPolicy;
+import net.knightsandkings.knk.core.dataaccess.FetchResult;
+import net.knightsandkings.knk.core.dataaccess.TownsDataAccess;
+import net.knightsandkings.knk.core.dataaccess.UsersDataAccess;
+import net.knightsandkings.knk.core.domain.towns.TownDetail;
+import net.knightsandkings.knk.core.regions.RegionDomainResolver;
+
+class JoinWarmupTest {
+
+    private static final int TOWN_ID = 4;
+
+    private Plugin plugin;
+    private World world;
+    private UsersDataAccess users;
+    private TownsDataAccess towns;
+    private RegionDomainResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        plugin = mock(Plugin.class);
+        Server server = mock(Server.class);
+        world = mock(World.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getWorlds()).thenReturn(List.of(world));
+        when(world.getSpawnLocation()).thenAnswer(invocation -> new Location(world, 0, 64, 0));
+
+        users = mock(UsersDataAccess.class);
+        towns = mock(TownsDataAccess.class);
+        resolver = mock(RegionDomainResolver.class);
+        when(users.getByUuidAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(FetchResult.notFound()));
+        when(resolver.warmCache(any())).thenReturn(CompletableFuture.completedFuture(null));
+        givenTown(new TownDetail.Location(1, "Town square", 100.0, 70.0, -20.0, 90f, 0f, "world"));
+    }
+
+    @Test
+    void joinLocationIsWorldSpawnEvenWhenRespawnTownHasALocation() {
+        JoinWarmup warmup = newWarmup();
+        warmup.start();
+
+        assertEquals(new Location(world, 0, 64, 0), warmup.joinLocation());
+        verify(resolver, times(1)).warmCache(Set.of("spawn"));
+        verify(resolver, never()).warmCache(Set.of("town_square"));
+    }
+
+    @Test
+    void joinLocationFollowsAMovedSpawn() {
+        JoinWarmup warmup = newWarmup();
+        warmup.start();
+        when(world.getSpawnLocation()).thenAnswer(invocation -> new Location(world, 100.0, 70.0, -20.0));
+
+        assertEquals(100.0, warmup.joinLocation().getX());
+        verify(resolver).warmCache(Set.of("town_square"));
+    }
+
+    @Test
+    void prepareFetchesUserRespawnTownAndSpawnDomainsTogether() {
+        JoinWarmup warmup = newWarmup();
+        warmup.start();
+        UUID playerId = UUID.randomUUID();
+
+        warmup.prepare(playerId).join();
+
+        verify(users).getByUuidAsync(playerId, FetchPolicy.STALE_OK);
+        verify(towns, times(2)).getByIdAsync(TOWN_ID, FetchPolicy.CACHE_FIRST);
+        verify(resolver, times(2)).warmCache(Set.of("spawn"));
+        verify(resolver, never()).warmCache(Set.of("town_square"));
+    }
+
+    private JoinWarmup newWarmup() {
+        return new JoinWarmup(
+            plugin,
+            users,
+            towns,
+            resolver,
+            location -> location.getX() == 100.0 ? Set.of("town_square") : Set.of("spawn"),
+            TOWN_ID,
+            1_000L
+        );
+    }
+
+    private void givenTown(TownDetail.Location location) {
+        TownDetail town = new TownDetail(TOWN_ID, "Cinix", null, null, true, true, "town_cinix",
+            location != null ? location.id() : null, location, List.of(), List.of(), List.of(), List.of());
+        when(towns.getByIdAsync(anyInt(), any())).thenReturn(CompletableFuture.completedFuture(FetchResult.hit(town)));
+    }
+}
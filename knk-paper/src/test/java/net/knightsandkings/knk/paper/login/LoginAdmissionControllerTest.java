@@ -0,0 +1,112 @@
+package net.knightsandkings.knk.paper.login;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LoginAdmissionControllerTest {
+
+    private final ExecutorService logins = Executors.newCachedThreadPool();
+    private final List<List<UUID>> warmedBatches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger spawnWarmups = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        logins.shutdownNow();
+    }
+
+    @Test
+    void admitsUpToLimitWithoutWaiting() throws Exception {
+        LoginAdmissionController controller = newController(2, 10_000L);
+
+        assertNotNull(controller.admit(UUID.randomUUID()));
+        assertNotNull(controller.admit(UUID.randomUUID()));
+
+        assertEquals(2, controller.inFlight());
+        assertEquals(0, controller.queueDepth());
+        assertTrue(warmedBatches.isEmpty());
+    }
+
+    @Test
+    void maxWaitIsCappedBelowLoginTimeout() {
+        assertEquals(LoginAdmissionController.MAX_WAIT_LIMIT_MILLIS, newController(1, 30_000L).maxWaitMillis());
+        assertEquals(10_000L, newController(1, 10_000L).maxWaitMillis());
+    }
+
+    @Test
+    void queuedLoginsAreWarmedAndAdmittedWhenSlotFrees() throws Exception {
+        LoginAdmissionController controller = newController(1, 10_000L);
+        LoginAdmissionController.Ticket first = controller.admit(UUID.randomUUID());
+        UUID queued = UUID.randomUUID();
+
+        Future<LoginAdmissionController.Ticket> second = logins.submit(() -> controller.admit(queued));
+        await(() -> controller.queueDepth() == 1 && !warmedBatches.isEmpty());
+
+        assertEquals(List.of(List.of(queued)), warmedBatches);
+        assertEquals(1, spawnWarmups.get());
+        assertFalse(second.isDone());
+
+        first.release();
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, controller.queueDepth());
+        assertEquals(2, controller.waitTime().getCount());
+    }
+
+    @Test
+    void refusesLoginThatWaitsTooLong() throws Exception {
+        LoginAdmissionController controller = newController(1, 50L);
+        controller.admit(UUID.randomUUID());
+
+        assertNull(controller.admit(UUID.randomUUID()));
+        assertEquals(1L, controller.refused());
+        assertEquals(0, controller.queueDepth());
+    }
+
+    @Test
+    void releaseIsIdempotent() throws Exception {
+        LoginAdmissionController controller = newController(1, 10_000L);
+        LoginAdmissionController.Ticket ticket = controller.admit(UUID.randomUUID());
+
+        ticket.release();
+        ticket.release();
+
+        assertEquals(0, controller.inFlight());
+    }
+
+    private LoginAdmissionController newController(int maxConcurrent, long maxWaitMillis) {
+        return new LoginAdmissionController(
+            maxConcurrent,
+            16,
+            maxWaitMillis,
+            playerIds -> {
+                warmedBatches.add(List.copyOf(playerIds));
+                return CompletableFuture.completedFuture(null);
+            },
+            () -> {
+                spawnWarmups.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+        );
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
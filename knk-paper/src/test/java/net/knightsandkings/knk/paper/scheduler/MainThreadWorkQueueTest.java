@@ -0,0 +1,104 @@
+package net.knightsandkings.knk.paper.scheduler;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MainThreadWorkQueueTest {
+
+    private final AtomicReference<Runnable> drainTask = new AtomicReference<>();
+
+    @Test
+    void cancelledOperationIsSkipped() throws Exception {
+        MainThreadWorkQueue queue = newQueue(10, 50L);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Integer> abandoned = queue.submit(runs::incrementAndGet);
+        CompletableFuture<Integer> kept = queue.submit(runs::incrementAndGet);
+        abandoned.cancel(false);
+        tick();
+
+        assertEquals(1, runs.get());
+        assertEquals(1, kept.get());
+        assertTrue(abandoned.isCancelled());
+    }
+
+    @Test
+    void drainStopsAtTickBudgetAndResumesNextTick() {
+        MainThreadWorkQueue queue = newQueue(10, 1L);
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            queue.submit(() -> {
+                Thread.sleep(2L);
+                return runs.incrementAndGet();
+            });
+        }
+
+        tick();
+        assertEquals(1, runs.get());
+        assertEquals(2, queue.getDepth());
+
+        tick();
+        tick();
+        assertEquals(3, runs.get());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void rejectsWhenFull() {
+        MainThreadWorkQueue queue = newQueue(1, 50L);
+        queue.submit(() -> 1);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queue.submit(() -> 2).get());
+
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertEquals(1, queue.getDepth());
+    }
+
+    private MainThreadWorkQueue newQueue(int maxPending, long budgetMillis) {
+        MainThreadWorkQueue queue = new MainThreadWorkQueue(testPlugin(), maxPending, budgetMillis);
+        queue.start();
+        return queue;
+    }
+
+    private void tick() {
+        drainTask.get().run();
+    }
+
+    private Plugin testPlugin() {
+        BukkitTask task = proxy(BukkitTask.class, (method, args) -> null);
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if ("runTaskTimer".equals(method.getName()) && args[1] instanceof Runnable runnable) {
+                drainTask.set(runnable);
+                return task;
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> "getScheduler".equals(method.getName()) ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> "getServer".equals(method.getName()) ? server : null);
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> handler.apply(method, args)
+        ));
+    }
+}
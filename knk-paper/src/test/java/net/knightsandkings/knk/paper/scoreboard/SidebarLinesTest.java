@@ -0,0 +1,70 @@
+package net.knightsandkings.knk.paper.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.core.cache.UserCache;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
+
+class SidebarLinesTest {
+
+    @Test
+    void firstUpdateSendsEveryLine() {
+        SidebarLines lines = new SidebarLines();
+
+        assertEquals(List.of(0, 1), lines.update(List.of("Coins: 10", "Town: Cinix")));
+    }
+
+    @Test
+    void unchangedLinesAreSkipped() {
+        SidebarLines lines = new SidebarLines();
+        lines.update(List.of("Coins: 10", "Town: Cinix"));
+
+        assertTrue(lines.update(List.of("Coins: 10", "Town: Cinix")).isEmpty());
+        assertEquals(List.of(0), lines.update(List.of("Coins: 15", "Town: Cinix")));
+        assertEquals(List.of("Coins: 15", "Town: Cinix"), lines.sent());
+    }
+
+    @Test
+    void removedLinesAreReportedForClearing() {
+        SidebarLines lines = new SidebarLines();
+        lines.update(List.of("a", "b", "c"));
+
+        assertEquals(List.of(1, 2), lines.update(List.of("a")));
+        assertEquals(List.of("a"), lines.sent());
+    }
+
+    @Test
+    void serviceLinesComeFromCachedData() {
+        UserCache cache = new UserCache(Duration.ofMinutes(15));
+        UUID uuid = UUID.randomUUID();
+        ScoreboardService service = new ScoreboardService(null, cache, id -> Optional.empty());
+
+        assertEquals(List.of("Coins: -", "Town: Wilderness"), service.linesFor(uuid));
+
+        cache.put(new UserSummary(1, "Steve", uuid, 42));
+        service = new ScoreboardService(null, cache, id -> Optional.of("Cinix"));
+        assertEquals(List.of("Coins: 42", "Town: Cinix"), service.linesFor(uuid));
+    }
+
+    @Test
+    void serviceLinesDoNotRecordCacheMetrics() {
+        UserCache cache = new UserCache(Duration.ofMinutes(15));
+        UUID cached = UUID.randomUUID();
+        cache.put(new UserSummary(1, "Steve", cached, 42));
+        ScoreboardService service = new ScoreboardService(null, cache, id -> Optional.empty());
+
+        service.linesFor(cached);
+        service.linesFor(UUID.randomUUID());
+
+        assertEquals(0, cache.getMetrics().getHits());
+        assertEquals(0, cache.getMetrics().getMisses());
+    }
+}
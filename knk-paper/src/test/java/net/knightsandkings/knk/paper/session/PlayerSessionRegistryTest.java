@@ -0,0 +1,142 @@
+package net.knightsandkings.knk.paper.session;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerSessionRegistryTest {
+
+    private final AtomicInteger timersStarted = new AtomicInteger();
+    private final List<Runnable> nextTick = new ArrayList<>();
+    private final AtomicBoolean mainThread = new AtomicBoolean(true);
+    private final PlayerSessionRegistry registry = new PlayerSessionRegistry(testPlugin(), mainThread::get);
+    private final List<String> ended = new ArrayList<>();
+
+    @Test
+    void sessionsExpireOnOneWheel() {
+        PlayerSessionRegistry.Sessions<String> sessions = registry.register("test", this::record);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        sessions.put(first, "a", 2);
+        sessions.put(second, "b", 3);
+        assertEquals(1, timersStarted.get());
+
+        registry.tick();
+        assertTrue(sessions.contains(first));
+        registry.tick();
+        assertFalse(sessions.contains(first));
+        assertEquals(List.of("a:EXPIRED"), ended);
+
+        registry.tick();
+        assertEquals(List.of("a:EXPIRED", "b:EXPIRED"), ended);
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void removedSessionDoesNotExpire() {
+        PlayerSessionRegistry.Sessions<String> sessions = registry.register("test", this::record);
+        UUID playerId = UUID.randomUUID();
+
+        sessions.put(playerId, "a", 2);
+        assertEquals("a", sessions.remove(playerId));
+        assertEquals(0, registry.pendingTimeouts());
+
+        registry.tick();
+        registry.tick();
+        assertTrue(ended.isEmpty());
+    }
+
+    @Test
+    void replacedSessionKeepsItsOwnTimeout() {
+        PlayerSessionRegistry.Sessions<String> sessions = registry.register("test", this::record);
+        UUID playerId = UUID.randomUUID();
+
+        sessions.put(playerId, "old", 1);
+        sessions.put(playerId, "new", 0);
+        registry.tick();
+
+        assertEquals("new", sessions.get(playerId));
+        assertTrue(ended.isEmpty());
+    }
+
+    @Test
+    void quitEndsSessionsInEveryStore() {
+        PlayerSessionRegistry.Sessions<String> chat = registry.register("chat", this::record);
+        PlayerSessionRegistry.Sessions<String> tasks = registry.register("tasks", this::record);
+        UUID playerId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        chat.put(playerId, "capture", 100);
+        tasks.put(playerId, "task", 0);
+        tasks.put(other, "other", 0);
+        registry.endAll(playerId, PlayerSessionRegistry.EndReason.QUIT);
+
+        assertEquals(List.of("capture:QUIT", "task:QUIT"), ended);
+        assertNull(chat.get(playerId));
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.pendingTimeouts());
+    }
+
+    @Test
+    void offThreadPutSchedulesOnNextTick() {
+        PlayerSessionRegistry.Sessions<String> sessions = registry.register("test", this::record);
+        UUID playerId = UUID.randomUUID();
+
+        mainThread.set(false);
+        sessions.put(playerId, "a", 1);
+        assertEquals(0, registry.pendingTimeouts());
+        assertTrue(sessions.contains(playerId));
+
+        mainThread.set(true);
+        nextTick.forEach(Runnable::run);
+        assertEquals(1, registry.pendingTimeouts());
+        registry.tick();
+        assertEquals(List.of("a:EXPIRED"), ended);
+    }
+
+    private void record(UUID playerId, String session, PlayerSessionRegistry.EndReason reason) {
+        ended.add(session + ":" + reason);
+    }
+
+    private Plugin testPlugin() {
+        BukkitTask task = proxy(BukkitTask.class, (method, args) -> null);
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (method, args) -> {
+            if ("runTaskTimer".equals(method.getName())) {
+                timersStarted.incrementAndGet();
+                return task;
+            }
+            if ("runTask".equals(method.getName()) && args[1] instanceof Runnable runnable) {
+                nextTick.add(runnable);
+                return task;
+            }
+            return null;
+        });
+        Server server = proxy(Server.class, (method, args) -> "getScheduler".equals(method.getName()) ? scheduler : null);
+        return proxy(Plugin.class, (method, args) -> "getServer".equals(method.getName()) ? server : null);
+    }
+
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                (proxy, method, args) -> handler.apply(method, args)
+        ));
+    }
+}
@@ -0,0 +1,67 @@
+package net.knightsandkings.knk.paper.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PlayerSlotsTest {
+
+    private final PlayerSlots slots = new PlayerSlots();
+
+    @Test
+    void slotsAreDenseAndReusedAfterQuit() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertEquals(0, slots.acquire(first));
+        assertEquals(1, slots.acquire(second));
+        assertEquals(0, slots.acquire(first));
+
+        slots.release(first);
+        assertEquals(PlayerSlots.NO_SLOT, slots.slotOf(first));
+        assertEquals(0, slots.acquire(UUID.randomUUID()));
+        assertEquals(2, slots.size());
+    }
+
+    @Test
+    void releaseClearsEveryStore() {
+        PlayerSlots.Values<String> names = slots.newValues();
+        PlayerSlots.Longs cooldowns = slots.newLongs(-1L);
+        UUID playerId = UUID.randomUUID();
+        int slot = slots.acquire(playerId);
+
+        names.set(slot, "Steve");
+        cooldowns.set(slot, 42L);
+        slots.release(playerId);
+
+        assertNull(names.get(slot));
+        assertEquals(-1L, cooldowns.get(slot));
+        assertNull(names.get(PlayerSlots.NO_SLOT));
+        assertEquals(-1L, cooldowns.get(PlayerSlots.NO_SLOT));
+    }
+
+    @Test
+    void storesGrowWithoutLosingValues() {
+        PlayerSlots.Longs values = slots.newLongs(0L);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            UUID playerId = UUID.randomUUID();
+            players.add(playerId);
+            values.set(slots.acquire(playerId), i + 1L);
+        }
+
+        // A store created after growth is sized for every slot handed out
+        PlayerSlots.Values<Integer> late = slots.newValues();
+        late.set(slots.slotOf(players.get(199)), 199);
+
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(i + 1L, values.get(slots.slotOf(players.get(i))));
+        }
+        assertEquals(199, late.get(slots.slotOf(players.get(199))));
+    }
+}
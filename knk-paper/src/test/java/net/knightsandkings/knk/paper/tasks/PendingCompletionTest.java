@@ -0,0 +1,67 @@
+package net.knightsandkings.knk.paper.tasks;
+
+import net.knightsandkings.knk.paper.session.PlayerSessionRegistry;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PendingCompletionTest {
+
+    private final PlayerSessionRegistry registry = new PlayerSessionRegistry(testPlugin());
+    private final List<String> ended = new ArrayList<>();
+    private final PlayerSessionRegistry.Sessions<String> sessions =
+            registry.register("test", (playerId, session, reason) -> ended.add(session + ":" + reason));
+    private final UUID playerId = UUID.randomUUID();
+
+    @Test
+    void quitDuringInFlightCompletionEndsNothing() {
+        sessions.put(playerId, "task", 0L);
+
+        PendingCompletion<String> pending = PendingCompletion.detach(sessions, playerId);
+        registry.endAll(playerId, PlayerSessionRegistry.EndReason.QUIT);
+
+        // The quit found no session, so no temp region cleanup ran
+        assertTrue(ended.isEmpty());
+        // And a failed call does not bring back a session for a player who left
+        assertFalse(pending.restore(false));
+        assertFalse(sessions.contains(playerId));
+    }
+
+    @Test
+    void failedCompletionRestoresSessionForOnlinePlayer() {
+        sessions.put(playerId, "task", 0L);
+
+        PendingCompletion<String> pending = PendingCompletion.detach(sessions, playerId);
+        assertFalse(sessions.contains(playerId));
+
+        assertTrue(pending.restore(true));
+        assertEquals("task", sessions.get(playerId));
+    }
+
+    @Test
+    void restoreKeepsNewerTask() {
+        sessions.put(playerId, "task", 0L);
+
+        PendingCompletion<String> pending = PendingCompletion.detach(sessions, playerId);
+        sessions.put(playerId, "next", 0L);
+
+        assertFalse(pending.restore(true));
+        assertEquals("next", sessions.get(playerId));
+    }
+
+    private static Plugin testPlugin() {
+        return (Plugin) Proxy.newProxyInstance(
+                Plugin.class.getClassLoader(),
+                new Class[]{Plugin.class},
+                (proxy, method, args) -> null
+        );
+    }
+}
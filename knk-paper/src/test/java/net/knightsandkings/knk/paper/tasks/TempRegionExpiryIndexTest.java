@@ -0,0 +1,134 @@
+package net.knightsandkings.knk.paper.tasks;
+
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TempRegionExpiryIndexTest {
+
+    private static final String PREFIX = TempRegionExpiryIndex.TEMP_REGION_PREFIX;
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void peekExpiredReturnsOldestEntriesBeforeCutoff() {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        index.track(PREFIX + "c", "world", 300L);
+        index.track(PREFIX + "a", "world", 100L);
+        index.track(PREFIX + "d", "world", 400L);
+        index.track(PREFIX + "b", "world", 200L);
+
+        assertEquals(List.of(PREFIX + "a", PREFIX + "b"), regionIds(index.peekExpired(300L, 10)));
+        assertEquals(List.of(PREFIX + "a"), regionIds(index.peekExpired(1000L, 1)));
+        assertTrue(index.peekExpired(100L, 10).isEmpty());
+        assertEquals(100L, index.oldestCreatedAt());
+    }
+
+    @Test
+    void trackingAnExistingRegionMovesItsDeadline() {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        index.track(PREFIX + "a", "world", 100L);
+        index.track(PREFIX + "b", "world", 200L);
+
+        index.track(PREFIX + "A", "world", 300L);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(PREFIX + "b", PREFIX + "A"), regionIds(index.peekExpired(1000L, 10)));
+    }
+
+    @Test
+    void renameKeepsCreationTimeWhileStillTemporary() {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        index.track(PREFIX + "a", "world", 100L);
+
+        index.rename(PREFIX + "A", PREFIX + "renamed");
+
+        List<TempRegionExpiryIndex.Entry> expired = index.peekExpired(1000L, 10);
+        assertEquals(List.of(PREFIX + "renamed"), regionIds(expired));
+        assertEquals(100L, expired.get(0).getCreatedAt());
+        assertEquals("world", expired.get(0).getWorldName());
+    }
+
+    @Test
+    void renameToPermanentRegionStopsTracking() {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        index.track(PREFIX + "a", "world", 100L);
+        index.track(PREFIX + "b", "world", 200L);
+
+        index.rename(PREFIX + "a", "town_12");
+        index.rename("not_tracked", PREFIX + "c");
+
+        assertEquals(List.of(PREFIX + "b"), regionIds(index.peekExpired(1000L, 10)));
+        assertTrue(TempRegionExpiryIndex.isTempRegion(PREFIX.toUpperCase() + "x"));
+        assertFalse(TempRegionExpiryIndex.isTempRegion("town_12"));
+    }
+
+    @Test
+    void reloadRestoresEntriesInDeadlineOrder() {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        index.track(PREFIX + "b", "world_nether", 200L);
+        index.track(PREFIX + "a", "world", 100L);
+        index.remove(PREFIX + "b");
+        index.track(PREFIX + "c", "world", 300L);
+
+        TempRegionExpiryIndex reloaded = new TempRegionExpiryIndex(testPlugin());
+
+        assertTrue(reloaded.load());
+        assertEquals(List.of(PREFIX + "a", PREFIX + "c"), regionIds(reloaded.peekExpired(1000L, 10)));
+        assertEquals("world", reloaded.peekExpired(1000L, 1).get(0).getWorldName());
+    }
+
+    @Test
+    void loadReportsMissingOrUnreadableIndex() throws Exception {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        assertFalse(index.load());
+
+        Files.writeString(dataFolder.resolve("temp-region-expiry.json"), "{not json", StandardCharsets.UTF_8);
+
+        assertFalse(index.load());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void saveReplacesIndexFileWithoutLeavingTempFile() throws Exception {
+        TempRegionExpiryIndex index = new TempRegionExpiryIndex(testPlugin());
+        // Left behind by a crash during an earlier save
+        Files.writeString(dataFolder.resolve("temp-region-expiry.json.tmp"), "[{\"truncated", StandardCharsets.UTF_8);
+        index.track(PREFIX + "a", "world", 100L);
+
+        index.saveNow();
+
+        assertFalse(Files.exists(dataFolder.resolve("temp-region-expiry.json.tmp")));
+        TempRegionExpiryIndex reloaded = new TempRegionExpiryIndex(testPlugin());
+        assertTrue(reloaded.load());
+        assertEquals(1, reloaded.size());
+    }
+
+    private static List<String> regionIds(List<TempRegionExpiryIndex.Entry> entries) {
+        return entries.stream().map(TempRegionExpiryIndex.Entry::getRegionId).toList();
+    }
+
+    // Disabled plugin: the index saves synchronously instead of scheduling an async write
+    private Plugin testPlugin() {
+        return (Plugin) Proxy.newProxyInstance(
+                Plugin.class.getClassLoader(),
+                new Class[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDataFolder" -> dataFolder.toFile();
+                    case "isEnabled" -> false;
+                    default -> null;
+                }
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package net.knightsandkings.knk.paper.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.knightsandkings.knk.api.dto.DuplicateCheckResponseDto;
+import net.knightsandkings.knk.api.dto.UserResponseDto;
+import net.knightsandkings.knk.api.dto.ValidateLinkCodeResponseDto;
+import net.knightsandkings.knk.core.ports.api.UserAccountApi;
+
+class AccountFlowsTest {
+
+    private UserAccountApi api;
+    private UUID uuid;
+
+    @BeforeEach
+    void setUp() {
+        api = mock(UserAccountApi.class);
+        uuid = UUID.randomUUID();
+    }
+
+    @Test
+    void linkValidatesAndChecksAccountsInParallel() {
+        CompletableFuture<Object> validation = new CompletableFuture<>();
+        CompletableFuture<Object> duplicates = new CompletableFuture<>();
+        when(api.validateLinkCode("ABC123")).thenReturn(validation);
+        when(api.checkDuplicate(uuid.toString(), "Steve")).thenReturn(duplicates);
+        AccountFlows flows = new AccountFlows(api);
+
+        CompletableFuture<AccountFlows.LinkResult> result = flows.link(uuid, "Steve", "ABC123");
+
+        // Both calls are in flight before either has answered
+        verify(api).validateLinkCode("ABC123");
+        verify(api).checkDuplicate(uuid.toString(), "Steve");
+        assertFalse(result.isDone());
+
+        duplicates.complete(new DuplicateCheckResponseDto(true, user(2, 200), user(1, 100), "Duplicate detected"));
+        validation.complete(new ValidateLinkCodeResponseDto(true, 2, "Steve", "steve@example.com", null));
+
+        AccountFlows.LinkResult link = result.join();
+        assertTrue(link.isValid());
+        assertTrue(link.mergeRequired());
+        assertEquals(100, link.linkedAccount(1).coins());
+        assertEquals(1, flows.latency(AccountFlows.Flow.LINK).getCount());
+    }
+
+    @Test
+    void failedDuplicateCheckDoesNotFailLink() {
+        when(api.validateLinkCode("ABC123")).thenReturn(CompletableFuture.completedFuture(
+            new ValidateLinkCodeResponseDto(true, 2, "Steve", "steve@example.com", null)));
+        when(api.checkDuplicate(any(), any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("API down")));
+
+        AccountFlows.LinkResult link = new AccountFlows(api).link(uuid, "Steve", "ABC123").join();
+
+        assertTrue(link.isValid());
+        assertFalse(link.mergeRequired());
+        assertNull(link.linkedAccount(1));
+    }
+
+    @Test
+    void linkedAccountIsThePlayersOwnEitherSide() {
+        AccountFlows.LinkResult link = new AccountFlows.LinkResult(
+            new ValidateLinkCodeResponseDto(true, 2, "Steve", "steve@example.com", null),
+            new DuplicateCheckResponseDto(true, user(1, 100), user(2, 200), "Duplicate detected"));
+
+        assertEquals(100, link.linkedAccount(1).coins());
+        assertEquals(200, link.linkedAccount(2).coins());
+        assertNull(link.linkedAccount(3));
+    }
+
+    @Test
+    void stepTimeoutFailsFlowWithoutCompletingClientFuture() {
+        CompletableFuture<Object> neverAnswered = new CompletableFuture<>();
+        when(api.validateLinkCode("SLOW")).thenReturn(neverAnswered);
+        when(api.checkDuplicate(any(), any())).thenReturn(new CompletableFuture<>());
+        AccountFlows flows = new AccountFlows(api, 50L);
+
+        CompletionException failure = assertThrows(CompletionException.class,
+            () -> flows.link(uuid, "Steve", "SLOW").join());
+
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertFalse(neverAnswered.isDone());
+        assertEquals(1, flows.latency(AccountFlows.Flow.LINK).getCount());
+    }
+
+    @Test
+    void mergeRecordsLatency() {
+        when(api.mergeAccounts(any())).thenReturn(CompletableFuture.completedFuture(user(1, 300)));
+        AccountFlows flows = new AccountFlows(api);
+
+        assertEquals(300, flows.merge(1, 2).join().coins());
+        assertEquals(1, flows.latency(AccountFlows.Flow.MERGE).getCount());
+        assertEquals(1, flows.summaryLines().size());
+    }
+
+    private UserResponseDto user(int id, int coins) {
+        return new UserResponseDto(id, "Steve", uuid.toString(), null, coins, 0, 0, false, "MINECRAFT");
+    }
+}
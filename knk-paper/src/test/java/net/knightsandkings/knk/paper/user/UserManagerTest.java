@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Tag;
 import net.knightsandkings.knk.api.dto.CreateUserRequestDto;
 import net.knightsandkings.knk.api.dto.DuplicateCheckResponseDto;
 import net.knightsandkings.knk.api.dto.UserResponseDto;
+import net.knightsandkings.knk.core.domain.users.UserSummary;
 import net.knightsandkings.knk.core.ports.api.UserAccountApi;
 import net.knightsandkings.knk.core.ports.api.UsersQueryApi;
 import net.knightsandkings.knk.paper.KnKPlugin;
@@ -451,6 +452,96 @@ class UserManagerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pre-login Preload Tests")
+    class PreloadTests {
+
+        @Test
+        @DisplayName("Should start duplicate check and UUID lookup together")
+        void shouldFanOutDuplicateCheckAndUuidLookup() {
+            // Arrange - neither call completes until both have been issued
+            CompletableFuture<Object> duplicateCheck = new CompletableFuture<>();
+            CompletableFuture<UserSummary> byUuid = new CompletableFuture<>();
+            when(mockApi.checkDuplicate(testUUID.toString(), "TestPlayer")).thenReturn(duplicateCheck);
+            when(mockUsersQueryApi.getByUuid(testUUID)).thenReturn(byUuid);
+
+            // Act
+            CompletableFuture<PlayerUserData> preload = userManager.preloadUser(testUUID, "TestPlayer");
+
+            // Assert
+            verify(mockApi).checkDuplicate(testUUID.toString(), "TestPlayer");
+            verify(mockUsersQueryApi).getByUuid(testUUID);
+            assertFalse(preload.isDone());
+            assertTrue(userManager.isLoading(testUUID));
+
+            byUuid.complete(new UserSummary(7, "TestPlayer", testUUID, "test@example.com", 10, 20, 30, true));
+            duplicateCheck.complete(new DuplicateCheckResponseDto(false, null, null, null));
+
+            PlayerUserData result = preload.join();
+            assertEquals(7, result.userId());
+            assertEquals(result, userManager.getCachedUser(testUUID));
+            assertFalse(userManager.isLoading(testUUID));
+            verify(mockApi, never()).createUser(any());
+        }
+
+        @Test
+        @DisplayName("Should share one load between pre-login and join")
+        void shouldReuseLoadInFlight() {
+            // Arrange
+            CompletableFuture<Object> duplicateCheck = new CompletableFuture<>();
+            when(mockApi.checkDuplicate(testUUID.toString(), "TestPlayer")).thenReturn(duplicateCheck);
+
+            // Act
+            CompletableFuture<PlayerUserData> first = userManager.preloadUser(testUUID, "TestPlayer");
+            CompletableFuture<PlayerUserData> second = userManager.preloadUser(testUUID, "TestPlayer");
+
+            // Assert
+            assertSame(first, second);
+            verify(mockApi, times(1)).checkDuplicate(testUUID.toString(), "TestPlayer");
+        }
+
+        @Test
+        @DisplayName("Should replace placeholder once the load completes")
+        void shouldReplacePlaceholder() {
+            // Arrange
+            CompletableFuture<Object> duplicateCheck = new CompletableFuture<>();
+            when(mockApi.checkDuplicate(testUUID.toString(), "TestPlayer")).thenReturn(duplicateCheck);
+            CompletableFuture<PlayerUserData> preload = userManager.preloadUser(testUUID, "TestPlayer");
+
+            // Act
+            PlayerUserData placeholder = userManager.getOrPlaceholder(testUUID, "TestPlayer");
+            UserResponseDto existingUser = new UserResponseDto(
+                3, "TestPlayer", testUUID.toString(), null, 1, 2, 3, false, "MINECRAFT"
+            );
+            duplicateCheck.complete(new DuplicateCheckResponseDto(false, null, existingUser, null));
+
+            // Assert
+            assertNull(placeholder.userId());
+            assertEquals(3, preload.join().userId());
+            assertEquals(3, userManager.getCachedUser(testUUID).userId());
+        }
+
+        @Test
+        @DisplayName("Should not cache a load that finishes after the player left")
+        void shouldNotCacheAfterClear() {
+            // Arrange
+            CompletableFuture<Object> duplicateCheck = new CompletableFuture<>();
+            when(mockApi.checkDuplicate(testUUID.toString(), "TestPlayer")).thenReturn(duplicateCheck);
+            CompletableFuture<PlayerUserData> preload = userManager.preloadUser(testUUID, "TestPlayer");
+
+            // Act
+            userManager.clearCachedUser(testUUID);
+            UserResponseDto existingUser = new UserResponseDto(
+                3, "TestPlayer", testUUID.toString(), null, 1, 2, 3, false, "MINECRAFT"
+            );
+            duplicateCheck.complete(new DuplicateCheckResponseDto(false, null, existingUser, null));
+
+            // Assert
+            assertTrue(preload.isDone());
+            assertNull(userManager.getCachedUser(testUUID));
+        }
+    }
+
     // Helper methods
     
     private void mockSuccessfulJoin() {